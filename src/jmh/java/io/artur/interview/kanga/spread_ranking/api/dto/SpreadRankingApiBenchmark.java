@@ -0,0 +1,76 @@
+package io.artur.interview.kanga.spread_ranking.api.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import io.artur.interview.kanga.spread_ranking.benchmark.SyntheticMarkets;
+import io.artur.interview.kanga.spread_ranking.domain.model.SpreadRanking;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning a ranking into the {@code GET /ranking} response:
+ * mapping with {@link SpreadRankingApiDto#fromSpreadRanking} and Jackson serialization of
+ * {@link SpreadRankingApiResponse} with an {@link ObjectMapper} configured like Spring Boot's,
+ * by {@link SpreadRankingApiResponseSerializer} and, for comparison, through bean introspection of the records.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SpreadRankingApiBenchmark {
+
+    @Param({"100", "1000", "10000", "100000"})
+    private int markets;
+
+    private final ObjectWriter objectWriter = Jackson2ObjectMapperBuilder.json().build()
+            .writer()
+            .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    private final ObjectWriter introspectingWriter = Jackson2ObjectMapperBuilder.json()
+            .mixIn(SpreadRankingApiResponse.class, Introspected.class)
+            .build()
+            .writer()
+            .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    private final OutputStream sink = OutputStream.nullOutputStream();
+    private SpreadRanking ranking;
+    private SpreadRankingApiResponse response;
+
+    @JsonSerialize(using = JsonSerializer.None.class)
+    private interface Introspected {
+    }
+
+    @Setup
+    public void setUp() {
+        ranking = SyntheticMarkets.ranking(markets);
+        response = new SpreadRankingApiResponse(Instant.parse("2025-07-20T10:30:00Z"),
+                SpreadRankingApiDto.fromSpreadRanking(ranking));
+    }
+
+    @Benchmark
+    public SpreadRankingApiDto fromSpreadRanking() {
+        return SpreadRankingApiDto.fromSpreadRanking(ranking);
+    }
+
+    @Benchmark
+    public void serializeResponse() throws IOException {
+        objectWriter.writeValue(sink, response);
+    }
+
+    @Benchmark
+    public void serializeResponseIntrospected() throws IOException {
+        introspectingWriter.writeValue(sink, response);
+    }
+}
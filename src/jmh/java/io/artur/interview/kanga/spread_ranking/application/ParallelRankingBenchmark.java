@@ -0,0 +1,72 @@
+package io.artur.interview.kanga.spread_ranking.application;
+
+import io.artur.interview.kanga.spread_ranking.benchmark.SyntheticMarkets;
+import io.artur.interview.kanga.spread_ranking.domain.SpreadCalculationService;
+import io.artur.interview.kanga.spread_ranking.domain.TickerSymbolTable;
+import io.artur.interview.kanga.spread_ranking.domain.model.MarketSnapshot;
+import io.artur.interview.kanga.spread_ranking.domain.model.SpreadRanking;
+import io.artur.interview.kanga.spread_ranking.monitoring.PipelineMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sequential versus fork/join construction of the whole ranking (spread calculation, grouping, sorting and
+ * materialisation) from a prebuilt snapshot, to locate the {@code app.spread-ranking.parallel.threshold} crossover.
+ * {@code parallelism} 0 uses one worker per available processor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ParallelRankingBenchmark {
+
+    @Param({"4096", "16384", "32768", "100000"})
+    private int markets;
+
+    @Param({"0"})
+    private int parallelism;
+
+    private final Clock clock = Clock.systemUTC();
+    private final SpreadCalculationService calculationService = new SpreadCalculationService();
+    private SpreadRankingService spreadRankingService;
+    private ParallelRankingBuilder builder;
+    private MarketSnapshot snapshot;
+
+    @Setup
+    public void setUp() {
+        ParallelRankingProperties properties = new ParallelRankingProperties();
+        properties.setParallelism(parallelism);
+        PipelineMetrics pipelineMetrics = new PipelineMetrics(new SimpleMeterRegistry());
+        TickerSymbolTable symbolTable = new TickerSymbolTable();
+        builder = new ParallelRankingBuilder(calculationService, pipelineMetrics, properties, new SimpleMeterRegistry());
+        spreadRankingService = new SpreadRankingService(null, null, null, calculationService, builder, new EffectiveSpreadProperties(),
+                new SpreadBucketProperties(), new RankingProfileProperties(), symbolTable, pipelineMetrics, clock);
+        snapshot = MarketSnapshot.of(SyntheticMarkets.markets(markets), symbolTable);
+    }
+
+    @TearDown
+    public void tearDown() {
+        builder.shutdown();
+    }
+
+    @Benchmark
+    public SpreadRanking sequential() {
+        calculationService.calculateSpreads(snapshot);
+        return spreadRankingService.groupAndSort(snapshot);
+    }
+
+    @Benchmark
+    public SpreadRanking parallel() {
+        return builder.build(snapshot, clock);
+    }
+}
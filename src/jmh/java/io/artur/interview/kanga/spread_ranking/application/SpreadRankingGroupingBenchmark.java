@@ -0,0 +1,59 @@
+package io.artur.interview.kanga.spread_ranking.application;
+
+import io.artur.interview.kanga.spread_ranking.benchmark.SyntheticMarkets;
+import io.artur.interview.kanga.spread_ranking.domain.SpreadCalculationService;
+import io.artur.interview.kanga.spread_ranking.domain.TickerSymbolTable;
+import io.artur.interview.kanga.spread_ranking.domain.model.Market;
+import io.artur.interview.kanga.spread_ranking.domain.model.MarketSnapshot;
+import io.artur.interview.kanga.spread_ranking.domain.model.SpreadRanking;
+import io.artur.interview.kanga.spread_ranking.monitoring.PipelineMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of grouping a calculated {@link MarketSnapshot} by category, sorting each group
+ * and materialising the ranking in {@link SpreadRankingService}.
+ * Markets are shuffled so the sort does not see presorted input.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SpreadRankingGroupingBenchmark {
+
+    @Param({"100", "1000", "10000", "100000"})
+    private int markets;
+
+    private SpreadRankingService spreadRankingService;
+    private MarketSnapshot snapshot;
+
+    @Setup
+    public void setUp() {
+        TickerSymbolTable symbolTable = new TickerSymbolTable();
+        spreadRankingService = new SpreadRankingService(null, null, null, null, null, new EffectiveSpreadProperties(),
+                new SpreadBucketProperties(), new RankingProfileProperties(), symbolTable,
+                new PipelineMetrics(new SimpleMeterRegistry()), Clock.systemUTC());
+        List<Market> shuffled = new ArrayList<>(SyntheticMarkets.markets(markets));
+        Collections.shuffle(shuffled, new Random(42L));
+        snapshot = MarketSnapshot.of(shuffled, symbolTable);
+        new SpreadCalculationService().calculateSpreads(snapshot);
+    }
+
+    @Benchmark
+    public SpreadRanking groupAndSort() {
+        return spreadRankingService.groupAndSort(snapshot);
+    }
+}
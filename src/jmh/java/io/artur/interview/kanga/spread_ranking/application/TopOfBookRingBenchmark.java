@@ -0,0 +1,74 @@
+package io.artur.interview.kanga.spread_ranking.application;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sustained throughput of streamed updates through the {@link TopOfBookRing}: three producers publishing while one
+ * consumer drains in batches of up to 256. The {@code published} and {@code drained} counters are updates per second;
+ * {@code full} counts attempts rejected by a full ring, the back-pressure a slower consumer puts on the producers.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TopOfBookRingBenchmark {
+
+    private static final String[] MARKETS = {"BTC_PLN", "ETH_PLN", "BTC_USDT", "ETH_USDT", "SOL_USDT", "LTC_PLN"};
+    private static final BigDecimal BID = new BigDecimal("185000.00");
+    private static final BigDecimal ASK = new BigDecimal("186000.00");
+
+    @Param({"1024", "65536"})
+    private int capacity;
+
+    private TopOfBookRing ring;
+
+    @Setup
+    public void setUp() {
+        ring = new TopOfBookRing(capacity);
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+        public long published;
+        public long full;
+        public long drained;
+        private int next;
+    }
+
+    @Benchmark
+    @Group("ring")
+    @GroupThreads(3)
+    public void publish(Counters counters) {
+        if (ring.tryPublish(MARKETS[counters.next++ % MARKETS.length], BID, ASK)) {
+            counters.published++;
+        } else {
+            counters.full++;
+            Thread.onSpinWait();
+        }
+    }
+
+    @Benchmark
+    @Group("ring")
+    @GroupThreads(1)
+    public void drain(Counters counters, Blackhole blackhole) {
+        int drained = ring.drain((marketId, bid, ask) -> blackhole.consume(marketId), 256);
+        if (drained == 0) {
+            Thread.onSpinWait();
+        }
+        counters.drained += drained;
+    }
+}
@@ -0,0 +1,77 @@
+package io.artur.interview.kanga.spread_ranking.benchmark;
+
+import io.artur.interview.kanga.spread_ranking.domain.SpreadCalculationService;
+import io.artur.interview.kanga.spread_ranking.domain.model.Market;
+import io.artur.interview.kanga.spread_ranking.domain.model.Spread;
+import io.artur.interview.kanga.spread_ranking.domain.model.SpreadCategory;
+import io.artur.interview.kanga.spread_ranking.domain.model.SpreadRanking;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * Deterministic synthetic market data for benchmarks.
+ * Prices span eight orders of magnitude with 8 decimal places, spreads are spread between 0 and 5%,
+ * and about 5% of the markets have no bid or ask, mirroring the shape of the Kanga market list.
+ */
+public final class SyntheticMarkets {
+
+    private static final long SEED = 42L;
+    private static final int PRICE_SCALE = 8;
+    private static final double UNKNOWN_RATIO = 0.05;
+    private static final double MAX_SPREAD_RATIO = 0.05;
+    private static final String[] TARGET_CURRENCIES = {"USDT", "USDC", "BTC", "ETH", "PLN", "EUR"};
+
+    private SyntheticMarkets() {
+    }
+
+    public static List<Market> markets(int count) {
+        Random random = new Random(SEED);
+        List<Market> markets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String baseCurrency = "C" + Integer.toString(i, 36).toUpperCase();
+            String targetCurrency = TARGET_CURRENCIES[i % TARGET_CURRENCIES.length];
+            String tickerId = baseCurrency + "_" + targetCurrency;
+
+            if (random.nextDouble() < UNKNOWN_RATIO) {
+                markets.add(new Market(tickerId, null, null, baseCurrency, targetCurrency));
+                continue;
+            }
+
+            double mid = Math.pow(10, random.nextDouble() * 8 - 3);
+            double halfSpread = mid * random.nextDouble() * MAX_SPREAD_RATIO / 2;
+            BigDecimal bid = price(mid - halfSpread);
+            BigDecimal ask = price(mid + halfSpread);
+            markets.add(new Market(tickerId, bid, ask, baseCurrency, targetCurrency));
+        }
+        return markets;
+    }
+
+    public static List<Spread> spreads(int count) {
+        SpreadCalculationService calculationService = new SpreadCalculationService();
+        return markets(count).stream()
+                .map(calculationService::calculateSpread)
+                .toList();
+    }
+
+    public static SpreadRanking ranking(int count) {
+        Map<SpreadCategory, List<Spread>> spreadsByCategory = spreads(count).stream()
+                .collect(Collectors.groupingBy(Spread::category));
+        return SpreadRanking.builder()
+                .lowSpreadMarkets(spreadsByCategory.get(SpreadCategory.LOW_SPREAD))
+                .highSpreadMarkets(spreadsByCategory.get(SpreadCategory.HIGH_SPREAD))
+                .unavailableMarkets(spreadsByCategory.get(SpreadCategory.UNKNOWN))
+                .calculatedAt(Instant.parse("2025-07-20T10:30:00Z"))
+                .build();
+    }
+
+    private static BigDecimal price(double value) {
+        return BigDecimal.valueOf(Math.max(value, 1e-8)).setScale(PRICE_SCALE, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,85 @@
+package io.artur.interview.kanga.spread_ranking.domain;
+
+import io.artur.interview.kanga.spread_ranking.benchmark.SyntheticMarkets;
+import io.artur.interview.kanga.spread_ranking.domain.model.Market;
+import io.artur.interview.kanga.spread_ranking.domain.model.MarketSnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Cost of {@link SpreadCalculationService#calculateSpread} over a whole market list,
+ * compared with the columnar {@link SpreadCalculationService#calculateSpreads(MarketSnapshot)}
+ * including the snapshot build, and with the batch calculators alone on prebuilt price columns:
+ * scalar, vector, and vector over chunks in the common fork/join pool.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SpreadCalculationBenchmark {
+
+    @Param({"100", "1000", "10000", "100000"})
+    private int markets;
+
+    private final SpreadCalculationService calculationService = new SpreadCalculationService();
+    private static final int PARALLEL_CHUNK = 4096;
+
+    private final TickerSymbolTable symbolTable = new TickerSymbolTable();
+    private final SpreadBatchCalculator scalar = new ScalarSpreadBatchCalculator();
+    private final SpreadBatchCalculator vector = new VectorSpreadBatchCalculator();
+    private List<Market> marketList;
+    private MarketSnapshot columns;
+
+    @Setup
+    public void setUp() {
+        marketList = SyntheticMarkets.markets(markets);
+        columns = MarketSnapshot.of(marketList, symbolTable);
+    }
+
+    @Benchmark
+    public void calculateSpreads(Blackhole blackhole) {
+        for (Market market : marketList) {
+            blackhole.consume(calculationService.calculateSpread(market));
+        }
+    }
+
+    @Benchmark
+    public MarketSnapshot calculateSnapshot() {
+        MarketSnapshot snapshot = MarketSnapshot.of(marketList, symbolTable);
+        calculationService.calculateSpreads(snapshot);
+        return snapshot;
+    }
+
+    @Benchmark
+    public int[] scalarBatch() {
+        return calculate(scalar, 0, columns.size());
+    }
+
+    @Benchmark
+    public int[] vectorBatch() {
+        return calculate(vector, 0, columns.size());
+    }
+
+    @Benchmark
+    public int[] parallelVectorBatch() {
+        int chunks = (columns.size() + PARALLEL_CHUNK - 1) / PARALLEL_CHUNK;
+        IntStream.range(0, chunks).parallel().forEach(chunk ->
+                calculate(vector, chunk * PARALLEL_CHUNK, Math.min(columns.size(), (chunk + 1) * PARALLEL_CHUNK)));
+        return columns.spreadColumn();
+    }
+
+    private int[] calculate(SpreadBatchCalculator calculator, int from, int to) {
+        calculator.calculate(columns.bidColumn(), columns.askColumn(), columns.spreadColumn(), columns.categoryColumn(), from, to);
+        return columns.spreadColumn();
+    }
+}
@@ -0,0 +1,91 @@
+package io.artur.interview.kanga.spread_ranking.infrastructure.external.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding of Kanga responses, a list of 1000 market pairs and a 50-level order book, with
+ * {@link KangaJson#objectMapper()} ({@code handWritten}) against the WebClient's default mapper binding the DTOs
+ * through bean introspection ({@code introspected}), as before the hand-written deserializers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class KangaResponseDecodingBenchmark {
+
+    private static final int MARKET_PAIRS = 1_000;
+    private static final int BOOK_DEPTH = 50;
+
+    @Param({"introspected", "handWritten"})
+    private String binding;
+
+    private ObjectReader marketPairsReader;
+    private ObjectReader orderBookReader;
+    private byte[] marketPairs;
+    private byte[] orderBook;
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    @JsonDeserialize(using = JsonDeserializer.None.class)
+    private interface Introspected {
+    }
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = switch (binding) {
+            case "introspected" -> Jackson2ObjectMapperBuilder.json()
+                    .mixIn(KangaMarketPairResponse.class, Introspected.class)
+                    .mixIn(KangaOrderBookResponse.class, Introspected.class)
+                    .build();
+            case "handWritten" -> KangaJson.objectMapper();
+            default -> throw new IllegalArgumentException("Unknown binding " + binding);
+        };
+        marketPairsReader = objectMapper.readerForListOf(KangaMarketPairResponse.class);
+        orderBookReader = objectMapper.readerFor(KangaOrderBookResponse.class);
+
+        StringJoiner pairs = new StringJoiner(",", "[", "]");
+        for (int i = 0; i < MARKET_PAIRS; i++) {
+            String base = "C" + Integer.toString(i, 36).toUpperCase();
+            pairs.add("{\"ticker_id\":\"%s_USDT\",\"base\":\"%s\",\"target\":\"USDT\",\"pool_id\":\"%d\"}".formatted(base, base, i));
+        }
+        marketPairs = pairs.toString().getBytes(StandardCharsets.UTF_8);
+        orderBook = ("{\"ticker_id\":\"BTC_PLN\",\"timestamp\":1752586141000,\"bids\":%s,\"asks\":%s}"
+                .formatted(levels(431021.12345678, -1.5), levels(432721.87654321, 1.5)))
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String levels(double bestPrice, double step) {
+        StringJoiner levels = new StringJoiner(",", "[", "]");
+        for (int level = 0; level < BOOK_DEPTH; level++) {
+            levels.add("[\"%.8f\",\"%.8f\"]".formatted(bestPrice + level * step, 0.12345678 * (level + 1)));
+        }
+        return levels.toString();
+    }
+
+    @Benchmark
+    public List<KangaMarketPairResponse> marketPairs() throws IOException {
+        return marketPairsReader.readValue(marketPairs);
+    }
+
+    @Benchmark
+    public KangaOrderBookResponse orderBook() throws IOException {
+        return orderBookReader.readValue(orderBook);
+    }
+}
@@ -1,26 +1,47 @@
 package io.artur.interview.kanga.spread_ranking.api;
 
 import io.artur.interview.kanga.spread_ranking.api.dto.CalculationApiResponse;
+import io.artur.interview.kanga.spread_ranking.api.dto.MarketSpreadApiResponse;
+import io.artur.interview.kanga.spread_ranking.api.dto.MarketSpreadsApiResponse;
+import io.artur.interview.kanga.spread_ranking.api.dto.SpreadApiDto;
+import io.artur.interview.kanga.spread_ranking.api.dto.SpreadBucketsApiResponse;
+import io.artur.interview.kanga.spread_ranking.application.CalculationJob;
+import io.artur.interview.kanga.spread_ranking.application.CalculationJobService;
 import io.artur.interview.kanga.spread_ranking.application.SpreadRankingService;
 import io.artur.interview.kanga.spread_ranking.api.dto.SpreadRankingApiResponse;
+import io.artur.interview.kanga.spread_ranking.api.dto.SpreadRankingPageApiResponse;
+import io.artur.interview.kanga.spread_ranking.api.dto.SpreadRankingQueryParams;
+import io.artur.interview.kanga.spread_ranking.domain.exceptions.CalculationJobNotFoundException;
+import io.artur.interview.kanga.spread_ranking.domain.exceptions.MarketNotFoundException;
 import io.artur.interview.kanga.spread_ranking.domain.exceptions.RankingNotAvailableException;
+import io.artur.interview.kanga.spread_ranking.domain.exceptions.RankingNotReadyException;
 import io.artur.interview.kanga.spread_ranking.domain.exceptions.SpreadCalculationException;
+import io.artur.interview.kanga.spread_ranking.domain.model.Spread;
 import io.artur.interview.kanga.spread_ranking.domain.model.SpreadRanking;
+import io.artur.interview.kanga.spread_ranking.domain.model.SpreadRankingIndex;
+import io.artur.interview.kanga.spread_ranking.domain.model.SpreadRankingPage;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import java.time.Clock;
-import java.time.Instant;
 
 @Slf4j
 @RestController
@@ -29,32 +50,50 @@ import java.time.Instant;
 @RequiredArgsConstructor
 class SpreadController {
 
+    private static final String TICKER_PATTERN = "^[A-Za-z0-9_\\-]{1,32}$";
+    private static final int MAX_BATCH_TICKERS = 500;
+    private static final String PROFILE_PATTERN = "^[A-Za-z0-9_\\-]{1,32}$";
+    private static final String DEFAULT_PROFILE = "default";
+
     private final SpreadRankingService spreadRankingService;
+    private final CalculationJobService calculationJobService;
+    private final SpreadRankingNdjsonWriter ndjsonWriter;
     private final Clock clock;
 
     @GetMapping("/ranking")
     @PreAuthorize("hasRole('API_USER')")
-    public ResponseEntity<SpreadRankingApiResponse> getRanking(
+    public ResponseEntity<?> getRanking(
             @RequestParam(value = "force", required = false, defaultValue = "false") 
             @Pattern(regexp = "^(true|false)$", message = "Force parameter must be 'true' or 'false'") 
             String forceRefresh,
             
             @RequestParam(value = "format", required = false, defaultValue = "json")
             @Pattern(regexp = "^(json)$", message = "Format must be 'json'")
-            String format) {
+            String format,
+
+            @RequestParam(value = "profile", required = false, defaultValue = DEFAULT_PROFILE)
+            @Pattern(regexp = PROFILE_PATTERN, message = "Profile must be 1-32 characters: letters, digits, '_' or '-'")
+            String profile,
+
+            @Valid SpreadRankingQueryParams queryParams) {
         
-        log.info("Received request for current spread ranking - force: {}, format: {}", forceRefresh, format);
+        log.info("Received request for current spread ranking - force: {}, format: {}, profile: {}", forceRefresh, format, profile);
         try {
-            SpreadRanking ranking;
-            boolean shouldForceRefresh = Boolean.parseBoolean(forceRefresh);
-            
-            if (!shouldForceRefresh && spreadRankingService.isRankingCurrent()) {
-                ranking = spreadRankingService.getCurrentRanking();
-                log.debug("Using cached ranking");
-            } else {
-                ranking = spreadRankingService.calculateSpreadRanking();
-                spreadRankingService.storeSpreadRanking(ranking);
-                log.info("Calculated fresh ranking (forced: {})", shouldForceRefresh);
+            SpreadRanking ranking = resolveRanking(Boolean.parseBoolean(forceRefresh));
+
+            if (!DEFAULT_PROFILE.equals(profile)) {
+                if (!queryParams.isEmpty()) {
+                    throw new IllegalArgumentException("Ranking queries are only supported for the default profile");
+                }
+                SpreadRanking profileRanking = selectProfile(ranking, profile);
+                log.info("Successfully retrieved ranking profile {} with {} total markets", profile, profileRanking.getTotalMarketsCount());
+                return ResponseEntity.ok(SpreadRankingApiResponse.create(profileRanking, clock));
+            }
+
+            if (!queryParams.isEmpty()) {
+                SpreadRankingPage page = spreadRankingService.queryRanking(queryParams.toQuery());
+                log.info("Successfully queried ranking - {} markets returned", page.spreads().size());
+                return ResponseEntity.ok(SpreadRankingPageApiResponse.create(page, clock));
             }
             
             SpreadRankingApiResponse response = SpreadRankingApiResponse.create(ranking, clock);
@@ -70,56 +109,159 @@ class SpreadController {
         }
     }
 
-    @PostMapping("/calculate")
+    @GetMapping(value = "/ranking", params = "format=ndjson")
     @PreAuthorize("hasRole('API_USER')")
-    public ResponseEntity<CalculationApiResponse> calculateRanking(
-            HttpServletRequest request) {
+    public void streamRanking(
+            @RequestParam(value = "force", required = false, defaultValue = "false")
+            @Pattern(regexp = "^(true|false)$", message = "Force parameter must be 'true' or 'false'")
+            String forceRefresh,
 
-        log.info("Received calculation request");
+            @RequestParam(value = "profile", required = false, defaultValue = DEFAULT_PROFILE)
+            @Pattern(regexp = PROFILE_PATTERN, message = "Profile must be 1-32 characters: letters, digits, '_' or '-'")
+            String profile,
+            HttpServletResponse response) throws IOException {
 
+        log.info("Received request for streamed spread ranking - force: {}, profile: {}", forceRefresh, profile);
+        SpreadRanking ranking;
         try {
-            long startTime = System.currentTimeMillis();
+            ranking = selectProfile(resolveRanking(Boolean.parseBoolean(forceRefresh)), profile);
+        } catch (RankingNotAvailableException ex) {
+            log.warn("Ranking not available: {}", ex.getMessage());
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        } catch (SpreadCalculationException ex) {
+            log.error("Failed to calculate ranking: {}", ex.getMessage());
+            response.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+            return;
+        }
 
-            SpreadRanking ranking = spreadRankingService.calculateSpreadRanking();
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        ndjsonWriter.write(ranking, response.getOutputStream());
+        log.info("Successfully streamed ranking with {} total markets", ranking.getTotalMarketsCount());
+    }
 
-            spreadRankingService.storeSpreadRanking(ranking);
+    @GetMapping("/ranking/buckets")
+    @PreAuthorize("hasRole('API_USER')")
+    public ResponseEntity<SpreadBucketsApiResponse> getRankingBuckets(
+            @RequestParam(value = "profile", required = false, defaultValue = DEFAULT_PROFILE)
+            @Pattern(regexp = PROFILE_PATTERN, message = "Profile must be 1-32 characters: letters, digits, '_' or '-'")
+            String profile) {
 
-            long duration = System.currentTimeMillis() - startTime;
+        log.info("Received request for spread buckets - profile: {}", profile);
+        SpreadRanking ranking = selectProfile(resolveRanking(false), profile);
+        log.info("Successfully retrieved {} spread buckets", ranking.getSpreadGroups().size());
+        return ResponseEntity.ok(SpreadBucketsApiResponse.create(ranking, clock));
+    }
 
-            CalculationApiResponse response = CalculationApiResponse.builder()
-                    .message("Ranking calculated successfully")
-                    .timestamp(Instant.now(clock))
-                    .calculationDurationMs(duration)
-                    .status("SUCCESS")
-                    .build();
+    @GetMapping("/markets/{tickerId}")
+    @PreAuthorize("hasRole('API_USER')")
+    public ResponseEntity<MarketSpreadApiResponse> getMarketSpread(
+            @PathVariable("tickerId")
+            @Pattern(regexp = TICKER_PATTERN, message = "Ticker must be 1-32 characters: letters, digits, '_' or '-'")
+            String tickerId) {
 
-            log.info("Successfully calculated ranking in {}ms", duration);
+        log.debug("Received spread lookup for market {}", tickerId);
+        SpreadRankingIndex index = currentRankingIndex();
+        Spread spread = index.findByMarketId(tickerId);
+        if (spread == null) {
+            throw new MarketNotFoundException("Market " + tickerId + " is not part of the current ranking");
+        }
+        return ResponseEntity.ok(MarketSpreadApiResponse.create(spread, index.getCalculatedAt()));
+    }
 
-            return ResponseEntity.ok().body(response);
+    @GetMapping("/markets")
+    @PreAuthorize("hasRole('API_USER')")
+    public ResponseEntity<MarketSpreadsApiResponse> getMarketSpreads(
+            @RequestParam("tickers")
+            @Size(min = 1, max = MAX_BATCH_TICKERS, message = "Between 1 and " + MAX_BATCH_TICKERS + " tickers can be requested at once")
+            List<@Pattern(regexp = TICKER_PATTERN, message = "Ticker must be 1-32 characters: letters, digits, '_' or '-'") String> tickers) {
 
-        } catch (SpreadCalculationException ex) {
-            log.error("Failed to calculate ranking", ex);
+        log.info("Received spread lookup for {} markets", tickers.size());
+        SpreadRankingIndex index = currentRankingIndex();
+        List<SpreadApiDto> found = new ArrayList<>(tickers.size());
+        List<String> missing = new ArrayList<>();
+        for (String tickerId : tickers) {
+            Spread spread = index.findByMarketId(tickerId);
+            if (spread != null) {
+                found.add(SpreadApiDto.fromDomainSpread(spread));
+            } else {
+                missing.add(tickerId);
+            }
+        }
+
+        log.info("Found {} of {} requested markets", found.size(), tickers.size());
+        return ResponseEntity.ok(new MarketSpreadsApiResponse(
+                index.getCalculatedAt(),
+                found,
+                missing.isEmpty() ? null : missing));
+    }
+
+    @PostMapping("/calculate")
+    @PreAuthorize("hasRole('API_USER')")
+    public ResponseEntity<CalculationApiResponse> calculateRanking(
+            HttpServletRequest request) {
+
+        log.info("Received calculation request");
+
+        CalculationJob job = calculationJobService.submit();
+        CalculationApiResponse response = CalculationApiResponse.fromJob(job, "Ranking calculation accepted", clock);
+
+        return ResponseEntity.accepted()
+                .location(URI.create(request.getRequestURI() + "/" + job.id()))
+                .body(response);
+    }
 
-            CalculationApiResponse response = CalculationApiResponse.builder()
-                    .message("Calculation failed: " + ex.getMessage())
-                    .timestamp(Instant.now(clock))
-                    .status("ERROR")
-                    .error(ex.getMessage())
-                    .build();
+    @GetMapping("/calculate/{jobId}")
+    @PreAuthorize("hasRole('API_USER')")
+    public ResponseEntity<CalculationApiResponse> getCalculation(
+            @PathVariable("jobId")
+            @Pattern(regexp = "^[0-9a-fA-F\\-]{36}$", message = "Job ID must be a UUID")
+            String jobId) {
 
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        CalculationJob job = calculationJobService.findJob(jobId)
+                .orElseThrow(() -> new CalculationJobNotFoundException("Calculation job " + jobId + " does not exist or has expired"));
 
-        } catch (Exception ex) {
-            log.error("Unexpected error during calculation", ex);
+        return ResponseEntity.ok(CalculationApiResponse.fromJob(job, describe(job), clock));
+    }
 
-            CalculationApiResponse response = CalculationApiResponse.builder()
-                    .message("Internal server error occurred")
-                    .timestamp(Instant.now(clock))
-                    .status("ERROR")
-                    .error("An unexpected error occurred. Please try again later.")
-                    .build();
+    private static String describe(CalculationJob job) {
+        return switch (job.status()) {
+            case PENDING -> "Ranking calculation waiting to start";
+            case RUNNING -> "Ranking calculation in progress";
+            case SUCCESS -> "Ranking calculated successfully";
+            case ERROR -> "Calculation failed: " + job.error();
+        };
+    }
 
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+    private static SpreadRanking selectProfile(SpreadRanking ranking, String profile) {
+        if (DEFAULT_PROFILE.equals(profile)) {
+            return ranking;
         }
+        return ranking.getProfileRanking(profile)
+                .orElseThrow(() -> new RankingNotAvailableException("Ranking profile " + profile + " is not configured"));
+    }
+
+    /**
+     * Lookups are served from the stored ranking only, so a point lookup never costs an exchange sweep.
+     */
+    private SpreadRankingIndex currentRankingIndex() {
+        try {
+            return spreadRankingService.getCurrentRankingIndex();
+        } catch (RankingNotAvailableException ex) {
+            throw new RankingNotReadyException(ex.getMessage(), ex);
+        }
+    }
+
+    private SpreadRanking resolveRanking(boolean forceRefresh) {
+        if (!forceRefresh && spreadRankingService.isRankingCurrent()) {
+            log.debug("Using cached ranking");
+            return spreadRankingService.getCurrentRanking();
+        }
+
+        SpreadRanking ranking = spreadRankingService.refreshSpreadRanking();
+        log.info("Calculated fresh ranking (forced: {})", forceRefresh);
+        return ranking;
     }
 }
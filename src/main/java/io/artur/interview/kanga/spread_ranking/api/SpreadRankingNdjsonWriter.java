@@ -0,0 +1,66 @@
+package io.artur.interview.kanga.spread_ranking.api;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.artur.interview.kanga.spread_ranking.domain.model.Spread;
+import io.artur.interview.kanga.spread_ranking.domain.model.SpreadRanking;
+import io.artur.interview.kanga.spread_ranking.monitoring.PipelineMetrics;
+import io.artur.interview.kanga.spread_ranking.monitoring.PipelineStage;
+import io.artur.interview.kanga.spread_ranking.monitoring.RankingSerializationEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes a ranking as newline delimited JSON, one market per line.
+ * Lines are generated straight from the domain snapshot, so no API DTO graph is built.
+ * Markets are written group 1, group 2, then group 3, and alphabetically within a group,
+ * in the same order as the JSON ranking. That order is sorted once per ranking, when it is published, so
+ * writing a published ranking only iterates it.
+ */
+@Component
+@RequiredArgsConstructor
+class SpreadRankingNdjsonWriter {
+
+    private static final char LINE_SEPARATOR = '\n';
+
+    private final ObjectMapper objectMapper;
+    private final PipelineMetrics pipelineMetrics;
+
+    void write(SpreadRanking ranking, OutputStream outputStream) throws IOException {
+        RankingSerializationEvent event = new RankingSerializationEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+
+            List<List<Spread>> groups = ranking.getAlphabeticalGroups();
+            for (int group = 0; group < groups.size(); group++) {
+                writeGroup(generator, group + 1, groups.get(group));
+            }
+        } finally {
+            pipelineMetrics.timer(PipelineStage.SERIALIZE).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            event.responseType = SpreadRanking.class.getSimpleName();
+            event.format = "ndjson";
+            event.commit();
+        }
+    }
+
+    private void writeGroup(JsonGenerator generator, int group, List<Spread> spreads) throws IOException {
+        for (Spread spread : spreads) {
+            generator.writeStartObject();
+            generator.writeStringField("market", spread.marketId());
+            if (spread.percentage() != null) {
+                generator.writeNumberField("spreadPercentage", spread.percentage());
+            }
+            generator.writeNumberField("group", group);
+            generator.writeEndObject();
+            generator.writeRaw(LINE_SEPARATOR);
+        }
+    }
+}
@@ -1,9 +1,38 @@
 package io.artur.interview.kanga.spread_ranking.api.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.artur.interview.kanga.spread_ranking.application.CalculationJob;
 import lombok.Builder;
 
+import java.time.Clock;
 import java.time.Instant;
 
 @Builder
-public record CalculationApiResponse(String message, Instant timestamp, Long calculationDurationMs, String status, String error) {
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CalculationApiResponse(
+        String message,
+        Instant timestamp,
+        Long calculationDurationMs,
+        String status,
+        String error,
+        String jobId,
+        Instant submittedAt,
+        Instant startedAt,
+        Instant finishedAt,
+        Integer marketsCount) {
+
+    public static CalculationApiResponse fromJob(CalculationJob job, String message, Clock clock) {
+        return CalculationApiResponse.builder()
+                .message(message)
+                .timestamp(Instant.now(clock))
+                .status(job.status().name())
+                .jobId(job.id())
+                .submittedAt(job.submittedAt())
+                .startedAt(job.startedAt())
+                .finishedAt(job.finishedAt())
+                .calculationDurationMs(job.durationMs())
+                .marketsCount(job.marketsCount())
+                .error(job.error())
+                .build();
+    }
 }
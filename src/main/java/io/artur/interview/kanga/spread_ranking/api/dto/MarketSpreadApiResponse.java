@@ -0,0 +1,21 @@
+package io.artur.interview.kanga.spread_ranking.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.artur.interview.kanga.spread_ranking.domain.model.Spread;
+import io.artur.interview.kanga.spread_ranking.domain.model.SpreadCategory;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record MarketSpreadApiResponse(String market, BigDecimal spreadPercentage, SpreadCategory category, Instant calculatedAt) {
+
+    public static MarketSpreadApiResponse create(Spread spread, Instant calculatedAt) {
+        return new MarketSpreadApiResponse(
+                spread.marketId(),
+                spread.percentage(),
+                spread.category(),
+                calculatedAt
+        );
+    }
+}
@@ -0,0 +1,10 @@
+package io.artur.interview.kanga.spread_ranking.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record MarketSpreadsApiResponse(Instant calculatedAt, List<SpreadApiDto> markets, List<String> missing) {
+}
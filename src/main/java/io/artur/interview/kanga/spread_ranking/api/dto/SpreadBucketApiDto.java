@@ -0,0 +1,21 @@
+package io.artur.interview.kanga.spread_ranking.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.artur.interview.kanga.spread_ranking.domain.model.SpreadGroup;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SpreadBucketApiDto(int bucket, BigDecimal maxSpreadPercentage, List<SpreadApiDto> markets) {
+
+    public static SpreadBucketApiDto fromSpreadGroup(int bucket, SpreadGroup group) {
+        return new SpreadBucketApiDto(
+                bucket,
+                group.maxPercentage(),
+                group.spreads().stream()
+                        .map(SpreadApiDto::fromDomainSpread)
+                        .toList()
+        );
+    }
+}
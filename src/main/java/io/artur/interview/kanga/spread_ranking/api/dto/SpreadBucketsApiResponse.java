@@ -0,0 +1,21 @@
+package io.artur.interview.kanga.spread_ranking.api.dto;
+
+import io.artur.interview.kanga.spread_ranking.domain.model.SpreadGroup;
+import io.artur.interview.kanga.spread_ranking.domain.model.SpreadRanking;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+public record SpreadBucketsApiResponse(Instant timestamp, Instant calculatedAt, List<SpreadBucketApiDto> buckets) {
+
+    public static SpreadBucketsApiResponse create(SpreadRanking spreadRanking, Clock clock) {
+        List<SpreadGroup> groups = spreadRanking.getSpreadGroups();
+        List<SpreadBucketApiDto> buckets = new ArrayList<>(groups.size());
+        for (int i = 0; i < groups.size(); i++) {
+            buckets.add(SpreadBucketApiDto.fromSpreadGroup(i + 1, groups.get(i)));
+        }
+        return new SpreadBucketsApiResponse(Instant.now(clock), spreadRanking.getCalculatedAt(), buckets);
+    }
+}
@@ -1,12 +1,14 @@
 package io.artur.interview.kanga.spread_ranking.api.dto;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import io.artur.interview.kanga.spread_ranking.domain.model.SpreadRanking;
 
 import java.time.Clock;
 import java.time.Instant;
 
 @JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonSerialize(using = SpreadRankingApiResponseSerializer.class)
 public record SpreadRankingApiResponse(Instant timestamp, SpreadRankingApiDto ranking) {
 
     public static SpreadRankingApiResponse create(SpreadRanking spreadRanking, Clock clock) {
@@ -0,0 +1,73 @@
+package io.artur.interview.kanga.spread_ranking.api.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes the ranking response directly instead of through bean introspection of three nested records.
+ * Field names are encoded once, and the output is the one the annotated records produce: null timestamps,
+ * rankings and spread percentages are left out, and the timestamp is written by the mapper's own
+ * {@link java.time.Instant} serializer, so date settings still apply.
+ */
+class SpreadRankingApiResponseSerializer extends StdSerializer<SpreadRankingApiResponse> {
+
+    private static final SerializedString TIMESTAMP = new SerializedString("timestamp");
+    private static final SerializedString RANKING = new SerializedString("ranking");
+    private static final SerializedString GROUP_1 = new SerializedString("group1");
+    private static final SerializedString GROUP_2 = new SerializedString("group2");
+    private static final SerializedString GROUP_3 = new SerializedString("group3");
+    private static final SerializedString MARKET = new SerializedString("market");
+    private static final SerializedString SPREAD_PERCENTAGE = new SerializedString("spreadPercentage");
+
+    SpreadRankingApiResponseSerializer() {
+        super(SpreadRankingApiResponse.class);
+    }
+
+    @Override
+    public void serialize(SpreadRankingApiResponse response, JsonGenerator generator, SerializerProvider provider)
+            throws IOException {
+        generator.writeStartObject(response);
+        if (response.timestamp() != null) {
+            generator.writeFieldName(TIMESTAMP);
+            provider.defaultSerializeValue(response.timestamp(), generator);
+        }
+        SpreadRankingApiDto ranking = response.ranking();
+        if (ranking != null) {
+            generator.writeFieldName(RANKING);
+            generator.writeStartObject(ranking);
+            writeGroup(generator, GROUP_1, ranking.group1());
+            writeGroup(generator, GROUP_2, ranking.group2());
+            writeGroup(generator, GROUP_3, ranking.group3());
+            generator.writeEndObject();
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeGroup(JsonGenerator generator, SerializedString name, List<SpreadApiDto> spreads)
+            throws IOException {
+        generator.writeFieldName(name);
+        if (spreads == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartArray(spreads, spreads.size());
+        for (SpreadApiDto spread : spreads) {
+            generator.writeStartObject(spread);
+            if (spread.market() != null) {
+                generator.writeFieldName(MARKET);
+                generator.writeString(spread.market());
+            }
+            if (spread.spreadPercentage() != null) {
+                generator.writeFieldName(SPREAD_PERCENTAGE);
+                generator.writeNumber(spread.spreadPercentage());
+            }
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+    }
+}
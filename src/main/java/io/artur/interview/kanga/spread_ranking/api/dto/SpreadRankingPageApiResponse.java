@@ -0,0 +1,23 @@
+package io.artur.interview.kanga.spread_ranking.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.artur.interview.kanga.spread_ranking.domain.model.SpreadRankingPage;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SpreadRankingPageApiResponse(Instant timestamp, Instant calculatedAt, List<SpreadApiDto> markets, String nextCursor) {
+
+    public static SpreadRankingPageApiResponse create(SpreadRankingPage page, Clock clock) {
+        return new SpreadRankingPageApiResponse(
+                Instant.now(clock),
+                page.calculatedAt(),
+                page.spreads().stream()
+                        .map(SpreadApiDto::fromDomainSpread)
+                        .toList(),
+                page.nextCursor()
+        );
+    }
+}
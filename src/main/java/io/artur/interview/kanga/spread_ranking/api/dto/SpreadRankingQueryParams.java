@@ -0,0 +1,45 @@
+package io.artur.interview.kanga.spread_ranking.api.dto;
+
+import io.artur.interview.kanga.spread_ranking.domain.model.SpreadCategory;
+import io.artur.interview.kanga.spread_ranking.domain.model.SpreadRankingQuery;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Pattern;
+
+import java.math.BigDecimal;
+
+public record SpreadRankingQueryParams(
+        @Pattern(regexp = "^[A-Za-z0-9]{1,16}$", message = "Base currency must be 1-16 alphanumeric characters")
+        String base,
+        @Pattern(regexp = "^[A-Za-z0-9]{1,16}$", message = "Quote currency must be 1-16 alphanumeric characters")
+        String quote,
+        @DecimalMin(value = "0", message = "Minimum spread cannot be negative")
+        BigDecimal minSpread,
+        @DecimalMin(value = "0", message = "Maximum spread cannot be negative")
+        BigDecimal maxSpread,
+        SpreadCategory category,
+        @Min(value = 1, message = "Limit must be at least 1")
+        @Max(value = 1000, message = "Limit cannot exceed 1000")
+        Integer limit,
+        String cursor) {
+
+    private static final int DEFAULT_LIMIT = 100;
+
+    public boolean isEmpty() {
+        return base == null && quote == null && minSpread == null && maxSpread == null
+                && category == null && limit == null && cursor == null;
+    }
+
+    public SpreadRankingQuery toQuery() {
+        return SpreadRankingQuery.builder()
+                .baseCurrency(base)
+                .targetCurrency(quote)
+                .minPercentage(minSpread)
+                .maxPercentage(maxSpread)
+                .category(category)
+                .limit(limit != null ? limit : DEFAULT_LIMIT)
+                .cursor(cursor)
+                .build();
+    }
+}
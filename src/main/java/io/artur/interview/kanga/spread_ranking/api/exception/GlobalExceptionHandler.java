@@ -1,8 +1,11 @@
 package io.artur.interview.kanga.spread_ranking.api.exception;
 
 import io.artur.interview.kanga.spread_ranking.api.dto.ErrorApiResponse;
+import io.artur.interview.kanga.spread_ranking.domain.exceptions.CalculationJobNotFoundException;
 import io.artur.interview.kanga.spread_ranking.domain.exceptions.ExchangeApiException;
+import io.artur.interview.kanga.spread_ranking.domain.exceptions.MarketNotFoundException;
 import io.artur.interview.kanga.spread_ranking.domain.exceptions.RankingNotAvailableException;
+import io.artur.interview.kanga.spread_ranking.domain.exceptions.RankingNotReadyException;
 import io.artur.interview.kanga.spread_ranking.domain.exceptions.SpreadCalculationException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolation;
@@ -45,6 +48,54 @@ class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
     }
 
+    @ExceptionHandler(RankingNotReadyException.class)
+    ResponseEntity<ErrorApiResponse> handleRankingNotReady(
+            RankingNotReadyException exception,
+            HttpServletRequest request) {
+        log.info("Ranking not ready: {}", exception.getMessage());
+
+        ErrorApiResponse response = ErrorApiResponse.builder()
+                .timestamp(Instant.now(clock))
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .errorType("Ranking is not ready")
+                .errorMessage(exception.getMessage())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+    }
+
+    @ExceptionHandler(MarketNotFoundException.class)
+    ResponseEntity<ErrorApiResponse> handleMarketNotFound(
+            MarketNotFoundException exception,
+            HttpServletRequest request) {
+        log.info("Market not found: {}", exception.getMessage());
+
+        ErrorApiResponse response = ErrorApiResponse.builder()
+                .timestamp(Instant.now(clock))
+                .status(HttpStatus.NOT_FOUND.value())
+                .errorType("Market not found")
+                .errorMessage(exception.getMessage())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+    }
+
+    @ExceptionHandler(CalculationJobNotFoundException.class)
+    ResponseEntity<ErrorApiResponse> handleCalculationJobNotFound(
+            CalculationJobNotFoundException exception,
+            HttpServletRequest request) {
+        log.info("Calculation job not found: {}", exception.getMessage());
+
+        ErrorApiResponse response = ErrorApiResponse.builder()
+                .timestamp(Instant.now(clock))
+                .status(HttpStatus.NOT_FOUND.value())
+                .errorType("Calculation job not found")
+                .errorMessage(exception.getMessage())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+    }
+
     @ExceptionHandler(SpreadCalculationException.class)
     ResponseEntity<ErrorApiResponse> handleSpreadCalculationException(
             SpreadCalculationException exception,
@@ -0,0 +1,50 @@
+package io.artur.interview.kanga.spread_ranking.application;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static io.artur.interview.kanga.spread_ranking.application.CalculationJobStatus.*;
+
+/**
+ * Immutable state of an asynchronous ranking calculation.
+ * Each transition returns a new instance, so a job read by the API is always a consistent snapshot.
+ */
+public record CalculationJob(
+        String id,
+        CalculationJobStatus status,
+        Instant submittedAt,
+        Instant startedAt,
+        Instant finishedAt,
+        Integer marketsCount,
+        String error) {
+
+    static CalculationJob pending(String id, Instant submittedAt) {
+        return new CalculationJob(id, PENDING, submittedAt, null, null, null, null);
+    }
+
+    CalculationJob running(Instant startedAt) {
+        return new CalculationJob(id, RUNNING, submittedAt, startedAt, null, null, null);
+    }
+
+    CalculationJob succeeded(Instant finishedAt, int marketsCount) {
+        return new CalculationJob(id, SUCCESS, submittedAt, startedAt, finishedAt, marketsCount, null);
+    }
+
+    CalculationJob failed(Instant finishedAt, String error) {
+        return new CalculationJob(id, ERROR, submittedAt, startedAt, finishedAt, null, error);
+    }
+
+    public boolean isActive() {
+        return status == PENDING || status == RUNNING;
+    }
+
+    /**
+     * @return calculation time in milliseconds, or null while the job has not finished
+     */
+    public Long durationMs() {
+        if (startedAt == null || finishedAt == null) {
+            return null;
+        }
+        return Duration.between(startedAt, finishedAt).toMillis();
+    }
+}
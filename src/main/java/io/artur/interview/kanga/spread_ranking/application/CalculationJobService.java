@@ -0,0 +1,123 @@
+package io.artur.interview.kanga.spread_ranking.application;
+
+import io.artur.interview.kanga.spread_ranking.domain.model.SpreadRanking;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.UnaryOperator;
+
+/**
+ * Runs ranking calculations asynchronously on a dedicated single-thread executor.
+ * At most one calculation is in flight; submissions made while a job is pending or running
+ * attach to that job instead of starting another exchange sweep.
+ * The most recent jobs are retained so their status can be polled.
+ */
+@Slf4j
+@Service
+public class CalculationJobService {
+
+    private static final int RETAINED_JOBS = 100;
+
+    private final SpreadRankingService spreadRankingService;
+    private final Clock clock;
+    private final ExecutorService executor;
+    private final Map<String, CalculationJob> jobs = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CalculationJob> eldest) {
+            return size() > RETAINED_JOBS;
+        }
+    };
+
+    private String activeJobId;
+
+    public CalculationJobService(SpreadRankingService spreadRankingService, Clock clock, MeterRegistry meterRegistry) {
+        this.spreadRankingService = spreadRankingService;
+        this.clock = clock;
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry,
+                Executors.newSingleThreadExecutor(Thread.ofPlatform().name("spread-calculation-", 0).daemon().factory()),
+                "spread-calculation");
+        Gauge.builder("spread.calculation.jobs.active", this, CalculationJobService::activeJobsCount)
+                .description("Number of calculation jobs pending or running")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        log.info("Shutting down calculation executor");
+        executor.shutdownNow();
+    }
+
+    public synchronized CalculationJob submit() {
+        if (activeJobId != null) {
+            CalculationJob activeJob = jobs.get(activeJobId);
+            log.info("Calculation job {} already {}, attaching request to it", activeJob.id(), activeJob.status());
+            return activeJob;
+        }
+
+        CalculationJob job = CalculationJob.pending(UUID.randomUUID().toString(), clock.instant());
+        jobs.put(job.id(), job);
+        activeJobId = job.id();
+        try {
+            executor.execute(() -> run(job.id()));
+        } catch (RejectedExecutionException ex) {
+            jobs.remove(job.id());
+            activeJobId = null;
+            throw ex;
+        }
+
+        log.info("Submitted calculation job {}", job.id());
+        return job;
+    }
+
+    public synchronized Optional<CalculationJob> findJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    private synchronized double activeJobsCount() {
+        return activeJobId != null ? 1 : 0;
+    }
+
+    private void run(String jobId) {
+        update(jobId, job -> job.running(clock.instant()));
+        boolean finished = false;
+        try {
+            SpreadRanking ranking = spreadRankingService.calculateSpreadRanking();
+            spreadRankingService.storeSpreadRanking(ranking);
+            finish(jobId, job -> job.succeeded(clock.instant(), ranking.getTotalMarketsCount()));
+            finished = true;
+            log.info("Calculation job {} finished with {} markets", jobId, ranking.getTotalMarketsCount());
+        } catch (Exception ex) {
+            log.error("Calculation job {} failed", jobId, ex);
+            finish(jobId, job -> job.failed(clock.instant(), ex.getMessage()));
+            finished = true;
+        } finally {
+            // an Error must not leave the job active, or every later submission would attach to it
+            if (!finished) {
+                finish(jobId, job -> job.failed(clock.instant(), "Calculation aborted"));
+            }
+        }
+    }
+
+    private synchronized void update(String jobId, UnaryOperator<CalculationJob> transition) {
+        jobs.computeIfPresent(jobId, (id, job) -> transition.apply(job));
+    }
+
+    private synchronized void finish(String jobId, UnaryOperator<CalculationJob> transition) {
+        update(jobId, transition);
+        if (jobId.equals(activeJobId)) {
+            activeJobId = null;
+        }
+    }
+}
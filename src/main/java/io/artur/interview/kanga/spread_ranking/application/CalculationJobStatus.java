@@ -0,0 +1,8 @@
+package io.artur.interview.kanga.spread_ranking.application;
+
+public enum CalculationJobStatus {
+    PENDING, // accepted, waiting for the calculation executor
+    RUNNING, // exchange sweep in progress
+    SUCCESS, // ranking calculated and stored
+    ERROR // calculation failed
+}
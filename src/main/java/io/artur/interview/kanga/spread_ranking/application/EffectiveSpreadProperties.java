@@ -0,0 +1,28 @@
+package io.artur.interview.kanga.spread_ranking.application;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.spread-ranking.effective")
+public class EffectiveSpreadProperties {
+
+    /**
+     * Notional filled on each side of the book, in units of the quote currency, keyed by quote currency,
+     * for ranking profiles of the EFFECTIVE spread. Markets quoted in other currencies have no effective spread.
+     */
+    private Map<String, BigDecimal> notional = new HashMap<>();
+
+    Map<String, Double> notionalByQuoteCurrency() {
+        Map<String, Double> byCurrency = new HashMap<>(notional.size() * 2);
+        notional.forEach((currency, amount) -> byCurrency.put(currency.toUpperCase(Locale.ROOT), amount.doubleValue()));
+        return byCurrency;
+    }
+}
@@ -0,0 +1,237 @@
+package io.artur.interview.kanga.spread_ranking.application;
+
+import io.artur.interview.kanga.spread_ranking.domain.SpreadCalculationService;
+import io.artur.interview.kanga.spread_ranking.domain.model.MarketSnapshot;
+import io.artur.interview.kanga.spread_ranking.domain.model.Spread;
+import io.artur.interview.kanga.spread_ranking.domain.model.SpreadCategory;
+import io.artur.interview.kanga.spread_ranking.domain.model.SpreadRanking;
+import io.artur.interview.kanga.spread_ranking.monitoring.PipelineMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+import static io.artur.interview.kanga.spread_ranking.monitoring.PipelineStage.CALCULATE_SPREADS;
+import static io.artur.interview.kanga.spread_ranking.monitoring.PipelineStage.GROUP_AND_SORT;
+
+/**
+ * Builds the ranking of large market sets on a dedicated {@link ForkJoinPool}, kept apart from the common pool
+ * so request handling and other {@code parallelStream} users do not compete with a calculation cycle.
+ * <p>
+ * The snapshot is split into chunks of {@link ParallelRankingProperties#getChunkSize()} rows. Each chunk calculates
+ * its spreads and sorts its rows of every category into a run. The runs of a category are then merged pairwise
+ * and the spreads materialised in slices, all in the pool. The order is the one {@link RankingSorter} produces,
+ * so the result equals the sequential ranking.
+ */
+@Slf4j
+@Component
+class ParallelRankingBuilder {
+
+    private static final SpreadCategory[] CATEGORIES = SpreadCategory.values();
+
+    private final SpreadCalculationService spreadCalculationService;
+    private final PipelineMetrics pipelineMetrics;
+    private final ParallelRankingProperties properties;
+    private final ForkJoinPool pool;
+
+    ParallelRankingBuilder(SpreadCalculationService spreadCalculationService, PipelineMetrics pipelineMetrics,
+                           ParallelRankingProperties properties, MeterRegistry meterRegistry) {
+        this.spreadCalculationService = spreadCalculationService;
+        this.pipelineMetrics = pipelineMetrics;
+        this.properties = properties;
+        this.pool = new ForkJoinPool(properties.effectiveParallelism(), ParallelRankingBuilder::newWorker, null, false);
+        new ExecutorServiceMetrics(pool, "spread-ranking", Tags.empty()).bindTo(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        log.info("Shutting down ranking pool");
+        pool.shutdownNow();
+    }
+
+    boolean appliesTo(MarketSnapshot snapshot) {
+        return properties.getThreshold() > 0 && snapshot.size() >= properties.getThreshold();
+    }
+
+    SpreadRanking build(MarketSnapshot snapshot, Clock clock) {
+        int chunkSize = properties.getChunkSize();
+        int chunks = (snapshot.size() + chunkSize - 1) / chunkSize;
+        log.debug("Building ranking of {} markets in {} chunks on {} threads", snapshot.size(), chunks, pool.getParallelism());
+
+        int[][][] runs = new int[CATEGORIES.length][chunks][];
+        pipelineMetrics.time(CALCULATE_SPREADS, () -> pool.invoke(new ChunkAction(snapshot, runs, 0, chunks)));
+
+        List<GroupTask> groups = Arrays.stream(CATEGORIES)
+                .map(category -> new GroupTask(snapshot, category, runs[category.ordinal()], chunkSize))
+                .toList();
+        pipelineMetrics.time(GROUP_AND_SORT, () -> pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(groups))));
+
+        SpreadRanking ranking = SpreadRanking.builder()
+                .lowSpreadMarkets(groups.get(SpreadCategory.LOW_SPREAD.ordinal()).join())
+                .highSpreadMarkets(groups.get(SpreadCategory.HIGH_SPREAD.ordinal()).join())
+                .unavailableMarkets(groups.get(SpreadCategory.UNKNOWN.ordinal()).join())
+                .calculatedAt(Instant.now(clock))
+                .build();
+
+        log.info("Created ranking with {} total markets distributed across 3 groups", ranking.getTotalMarketsCount());
+
+        return ranking;
+    }
+
+    private static ForkJoinWorkerThread newWorker(ForkJoinPool pool) {
+        ForkJoinWorkerThread worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        worker.setName("spread-ranking-" + worker.getPoolIndex());
+        return worker;
+    }
+
+    /**
+     * Calculates the spreads of a range of chunks and stores the sorted run of every chunk, indexed by category then chunk.
+     */
+    private final class ChunkAction extends RecursiveAction {
+
+        private final MarketSnapshot snapshot;
+        private final int[][][] runs;
+        private final int fromChunk;
+        private final int toChunk;
+
+        private ChunkAction(MarketSnapshot snapshot, int[][][] runs, int fromChunk, int toChunk) {
+            this.snapshot = snapshot;
+            this.runs = runs;
+            this.fromChunk = fromChunk;
+            this.toChunk = toChunk;
+        }
+
+        @Override
+        protected void compute() {
+            if (toChunk - fromChunk > 1) {
+                int middle = (fromChunk + toChunk) >>> 1;
+                invokeAll(new ChunkAction(snapshot, runs, fromChunk, middle), new ChunkAction(snapshot, runs, middle, toChunk));
+                return;
+            }
+            int chunkSize = properties.getChunkSize();
+            int from = fromChunk * chunkSize;
+            int to = Math.min(snapshot.size(), from + chunkSize);
+            spreadCalculationService.calculateSpreads(snapshot, from, to);
+            for (SpreadCategory category : CATEGORIES) {
+                runs[category.ordinal()][fromChunk] = RankingSorter.sortedRows(snapshot, category, from, to);
+            }
+        }
+    }
+
+    /**
+     * Merges the sorted runs of one category and materialises its spreads.
+     */
+    private static final class GroupTask extends RecursiveTask<List<Spread>> {
+
+        private final MarketSnapshot snapshot;
+        private final SpreadCategory category;
+        private final int[][] runs;
+        private final int slice;
+
+        private GroupTask(MarketSnapshot snapshot, SpreadCategory category, int[][] runs, int slice) {
+            this.snapshot = snapshot;
+            this.category = category;
+            this.runs = runs;
+            this.slice = slice;
+        }
+
+        @Override
+        protected List<Spread> compute() {
+            int[] rows = new MergeTask(snapshot, category, runs, 0, runs.length).compute();
+            if (rows.length == 0) {
+                return List.of();
+            }
+            Spread[] spreads = new Spread[rows.length];
+            new MaterializeAction(snapshot, rows, spreads, 0, rows.length, slice).compute();
+            return Collections.unmodifiableList(Arrays.asList(spreads));
+        }
+    }
+
+    private static final class MergeTask extends RecursiveTask<int[]> {
+
+        private final MarketSnapshot snapshot;
+        private final SpreadCategory category;
+        private final int[][] runs;
+        private final int fromRun;
+        private final int toRun;
+
+        private MergeTask(MarketSnapshot snapshot, SpreadCategory category, int[][] runs, int fromRun, int toRun) {
+            this.snapshot = snapshot;
+            this.category = category;
+            this.runs = runs;
+            this.fromRun = fromRun;
+            this.toRun = toRun;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (toRun - fromRun <= 1) {
+                return toRun > fromRun ? runs[fromRun] : new int[0];
+            }
+            int middle = (fromRun + toRun) >>> 1;
+            MergeTask left = new MergeTask(snapshot, category, runs, fromRun, middle);
+            left.fork();
+            int[] right = new MergeTask(snapshot, category, runs, middle, toRun).compute();
+            return merge(left.join(), right);
+        }
+
+        private int[] merge(int[] left, int[] right) {
+            int[] merged = new int[left.length + right.length];
+            int l = 0;
+            int r = 0;
+            for (int i = 0; i < merged.length; i++) {
+                if (r >= right.length || (l < left.length && RankingSorter.compare(snapshot, category, left[l], right[r]) <= 0)) {
+                    merged[i] = left[l++];
+                } else {
+                    merged[i] = right[r++];
+                }
+            }
+            return merged;
+        }
+    }
+
+    private static final class MaterializeAction extends RecursiveAction {
+
+        private final MarketSnapshot snapshot;
+        private final int[] rows;
+        private final Spread[] spreads;
+        private final int from;
+        private final int to;
+        private final int slice;
+
+        private MaterializeAction(MarketSnapshot snapshot, int[] rows, Spread[] spreads, int from, int to, int slice) {
+            this.snapshot = snapshot;
+            this.rows = rows;
+            this.spreads = spreads;
+            this.from = from;
+            this.to = to;
+            this.slice = slice;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > slice) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new MaterializeAction(snapshot, rows, spreads, from, middle, slice),
+                        new MaterializeAction(snapshot, rows, spreads, middle, to, slice));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                spreads[i] = snapshot.toSpread(rows[i]);
+            }
+        }
+    }
+}
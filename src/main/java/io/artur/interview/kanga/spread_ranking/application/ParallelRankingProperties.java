@@ -0,0 +1,27 @@
+package io.artur.interview.kanga.spread_ranking.application;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.spread-ranking.parallel")
+public class ParallelRankingProperties {
+
+    /**
+     * Market count from which the ranking is built on the parallel pool, 0 to always build it sequentially.
+     * Off by default: no crossover has been measured yet, so set it from ParallelRankingBenchmark on the
+     * target hardware.
+     */
+    private int threshold = 0;
+    private int chunkSize = 4_096;
+    /**
+     * Worker threads of the ranking pool, 0 for one per available processor.
+     */
+    private int parallelism = 0;
+
+    int effectiveParallelism() {
+        return parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+}
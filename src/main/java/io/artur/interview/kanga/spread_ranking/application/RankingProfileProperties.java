@@ -0,0 +1,43 @@
+package io.artur.interview.kanga.spread_ranking.application;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Named rankings calculated with the default one, from the same markets, and published together with it.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.spread-ranking")
+public class RankingProfileProperties {
+
+    public enum SpreadSource {
+        /** best bid and best ask */
+        TOP,
+        /** volume weighted prices of the notional configured in app.spread-ranking.effective */
+        EFFECTIVE
+    }
+
+    @Data
+    public static class Profile {
+        private SpreadSource spread = SpreadSource.TOP;
+        /**
+         * Spread percentage above which a market is in the high spread group.
+         */
+        private BigDecimal highSpreadThreshold = new BigDecimal("2.0");
+    }
+
+    /**
+     * Profiles by name; "default" names the default ranking and is not a profile name.
+     */
+    private Map<String, Profile> profiles = new LinkedHashMap<>();
+
+    boolean usesEffectiveSpreads() {
+        return profiles.values().stream().anyMatch(profile -> profile.getSpread() == SpreadSource.EFFECTIVE);
+    }
+}
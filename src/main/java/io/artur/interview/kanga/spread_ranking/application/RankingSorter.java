@@ -0,0 +1,130 @@
+package io.artur.interview.kanga.spread_ranking.application;
+
+import io.artur.interview.kanga.spread_ranking.domain.model.MarketSnapshot;
+import io.artur.interview.kanga.spread_ranking.domain.model.SpreadCategory;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Orders the rows of a {@link MarketSnapshot} for one ranking group.
+ * <p>
+ * Each row is packed into a long with the spread in the high 32 bits and the row in the low 32 bits,
+ * so a primitive {@link Arrays#sort(long[])} orders rows by spread and keeps input order for equal spreads.
+ * Only runs of equal spreads are then ordered by ticker, case-insensitively, with a stable merge sort on row indexes.
+ * UNKNOWN rows have no spread and are ordered by ticker only.
+ * The resulting order is spread, then ticker, then row; {@link #compare} defines the same order for merging sorted runs.
+ */
+final class RankingSorter {
+
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+    private static final Comparator<String> TICKER_ORDER = Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER);
+
+    private RankingSorter() {
+    }
+
+    static int[] sortedRows(MarketSnapshot snapshot, SpreadCategory category) {
+        return sortedRows(snapshot, category, 0, snapshot.size());
+    }
+
+    /**
+     * @return rows in [from, to) of the given category, in ranking order
+     */
+    static int[] sortedRows(MarketSnapshot snapshot, SpreadCategory category, int from, int to) {
+        int count = 0;
+        for (int row = from; row < to; row++) {
+            if (snapshot.category(row) == category) {
+                count++;
+            }
+        }
+
+        boolean byTickerOnly = category == SpreadCategory.UNKNOWN;
+        long[] keys = new long[count];
+        int next = 0;
+        for (int row = from; row < to; row++) {
+            if (snapshot.category(row) == category) {
+                int spread = byTickerOnly ? 0 : snapshot.spreadBasisPoints(row);
+                keys[next++] = ((long) spread << 32) | row;
+            }
+        }
+        Arrays.sort(keys);
+
+        int[] rows = new int[count];
+        for (int i = 0; i < count; i++) {
+            rows[i] = (int) keys[i];
+        }
+        sortEqualSpreadsByTicker(snapshot, keys, rows);
+        return rows;
+    }
+
+    private static void sortEqualSpreadsByTicker(MarketSnapshot snapshot, long[] keys, int[] rows) {
+        int[] buffer = null;
+        int runStart = 0;
+        for (int i = 1; i <= keys.length; i++) {
+            if (i < keys.length && (keys[i] >> 32) == (keys[runStart] >> 32)) {
+                continue;
+            }
+            if (i - runStart > 1) {
+                if (buffer == null) {
+                    buffer = new int[rows.length];
+                }
+                sortByTicker(snapshot, rows, buffer, runStart, i);
+            }
+            runStart = i;
+        }
+    }
+
+    private static void sortByTicker(MarketSnapshot snapshot, int[] rows, int[] buffer, int from, int to) {
+        if (to - from <= INSERTION_SORT_THRESHOLD) {
+            insertionSort(snapshot, rows, from, to);
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        sortByTicker(snapshot, rows, buffer, from, middle);
+        sortByTicker(snapshot, rows, buffer, middle, to);
+        if (compareTickers(snapshot, rows[middle - 1], rows[middle]) <= 0) {
+            return;
+        }
+
+        System.arraycopy(rows, from, buffer, from, to - from);
+        int left = from;
+        int right = middle;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < middle && compareTickers(snapshot, buffer[left], buffer[right]) <= 0)) {
+                rows[i] = buffer[left++];
+            } else {
+                rows[i] = buffer[right++];
+            }
+        }
+    }
+
+    private static void insertionSort(MarketSnapshot snapshot, int[] rows, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            int row = rows[i];
+            int j = i - 1;
+            while (j >= from && compareTickers(snapshot, rows[j], row) > 0) {
+                rows[j + 1] = rows[j];
+                j--;
+            }
+            rows[j + 1] = row;
+        }
+    }
+
+    /**
+     * Ranking order of two rows of the same category: spread (unless UNKNOWN), ticker, then row.
+     */
+    static int compare(MarketSnapshot snapshot, SpreadCategory category, int firstRow, int secondRow) {
+        if (category != SpreadCategory.UNKNOWN) {
+            int bySpread = Integer.compare(snapshot.spreadBasisPoints(firstRow), snapshot.spreadBasisPoints(secondRow));
+            if (bySpread != 0) {
+                return bySpread;
+            }
+        }
+        int byTicker = compareTickers(snapshot, firstRow, secondRow);
+        return byTicker != 0 ? byTicker : Integer.compare(firstRow, secondRow);
+    }
+
+    private static int compareTickers(MarketSnapshot snapshot, int firstRow, int secondRow) {
+        return TICKER_ORDER.compare(snapshot.tickerId(firstRow), snapshot.tickerId(secondRow));
+    }
+}
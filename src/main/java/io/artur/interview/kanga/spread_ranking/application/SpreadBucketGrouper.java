@@ -0,0 +1,120 @@
+package io.artur.interview.kanga.spread_ranking.application;
+
+import io.artur.interview.kanga.spread_ranking.domain.model.MarketSnapshot;
+import io.artur.interview.kanga.spread_ranking.domain.model.Spread;
+import io.artur.interview.kanga.spread_ranking.domain.model.SpreadBuckets;
+import io.artur.interview.kanga.spread_ranking.domain.model.SpreadCategory;
+import io.artur.interview.kanga.spread_ranking.domain.model.SpreadGroup;
+import io.artur.interview.kanga.spread_ranking.domain.model.SpreadRanking;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits the priced markets of a ranking into {@link SpreadBuckets}, or into low and high spread at another threshold.
+ * <p>
+ * Low spread markets followed by high spread markets are already all priced markets in ranking order, and every
+ * bucket is a range of spreads, so each bucket is a contiguous slice of that order. One pass over the snapshot's
+ * spread column counts the markets per bucket, and the slices are cut at the running totals without sorting again.
+ * <p>
+ * Percentile cut points are read at their nearest rank in the same order, which is exact and needs no sketch.
+ * A different high spread threshold moves the split between the low and high spread groups the same way.
+ */
+final class SpreadBucketGrouper {
+
+    private SpreadBucketGrouper() {
+    }
+
+    static SpreadBuckets bucketsFor(SpreadBucketProperties properties, SpreadRanking ranking) {
+        return switch (properties.getMode()) {
+            case STATIC -> SpreadBuckets.ofPercentages(properties.getCutPoints());
+            case PERCENTILE -> percentileBuckets(ranking, properties.getPercentiles());
+        };
+    }
+
+    /**
+     * @param percentiles ascending, each in (0, 100]
+     */
+    static SpreadBuckets percentileBuckets(SpreadRanking ranking, List<Double> percentiles) {
+        List<Spread> low = ranking.getLowSpreadMarkets();
+        List<Spread> high = ranking.getHighSpreadMarkets();
+        int priced = low.size() + high.size();
+        if (priced == 0) {
+            return SpreadBuckets.of();
+        }
+
+        int[] cutPoints = new int[percentiles.size()];
+        for (int i = 0; i < cutPoints.length; i++) {
+            double percentile = percentiles.get(i);
+            if (!(percentile > 0 && percentile <= 100)) {
+                throw new IllegalArgumentException("Percentile must be in (0, 100]: " + percentile);
+            }
+            int rank = Math.max((int) Math.ceil(percentile / 100 * priced) - 1, 0);
+            Spread spread = rank < low.size() ? low.get(rank) : high.get(rank - low.size());
+            cutPoints[i] = SpreadBuckets.basisPoints(spread.percentage());
+        }
+        return SpreadBuckets.ofDistinct(cutPoints);
+    }
+
+    /**
+     * Regroups the priced markets of a ranking into low and high spread at another threshold.
+     * Only markets between the old and the new threshold get a new {@link Spread} with the other category.
+     *
+     * @param snapshot the snapshot the ranking was built from, with calculated spreads
+     * @param thresholdBasisPoints the largest low spread, in basis points
+     */
+    static SpreadRanking splitAt(MarketSnapshot snapshot, SpreadRanking ranking, int thresholdBasisPoints) {
+        int lowCount = 0;
+        for (int row = 0; row < snapshot.size(); row++) {
+            if (snapshot.category(row) != SpreadCategory.UNKNOWN && snapshot.spreadBasisPoints(row) <= thresholdBasisPoints) {
+                lowCount++;
+            }
+        }
+
+        List<Spread> priced = pricedInRankingOrder(ranking);
+        int previousLowCount = ranking.getLowSpreadMarkets().size();
+        for (int i = Math.min(lowCount, previousLowCount); i < Math.max(lowCount, previousLowCount); i++) {
+            Spread spread = priced.get(i);
+            SpreadCategory category = i < lowCount ? SpreadCategory.LOW_SPREAD : SpreadCategory.HIGH_SPREAD;
+            priced.set(i, new Spread(spread.marketId(), spread.percentage(), category,
+                    spread.baseCurrency(), spread.targetCurrency()));
+        }
+
+        return SpreadRanking.builder()
+                .lowSpreadMarkets(priced.subList(0, lowCount))
+                .highSpreadMarkets(priced.subList(lowCount, priced.size()))
+                .unavailableMarkets(ranking.getUnavailableMarkets())
+                .calculatedAt(ranking.getCalculatedAt())
+                .build();
+    }
+
+    /**
+     * @param snapshot the snapshot the ranking was built from, with calculated spreads
+     * @return one group per bucket, in bucket order; a bucket without markets is an empty group
+     */
+    static List<SpreadGroup> group(MarketSnapshot snapshot, SpreadRanking ranking, SpreadBuckets buckets) {
+        int[] counts = new int[buckets.size()];
+        for (int row = 0; row < snapshot.size(); row++) {
+            if (snapshot.category(row) != SpreadCategory.UNKNOWN) {
+                counts[buckets.bucketOf(snapshot.spreadBasisPoints(row))]++;
+            }
+        }
+
+        List<Spread> priced = pricedInRankingOrder(ranking);
+        List<SpreadGroup> groups = new ArrayList<>(counts.length);
+        int from = 0;
+        for (int bucket = 0; bucket < counts.length; bucket++) {
+            int to = from + counts[bucket];
+            groups.add(new SpreadGroup(buckets.upperBound(bucket), priced.subList(from, to)));
+            from = to;
+        }
+        return groups;
+    }
+
+    private static List<Spread> pricedInRankingOrder(SpreadRanking ranking) {
+        List<Spread> priced = new ArrayList<>(ranking.getLowSpreadMarkets().size() + ranking.getHighSpreadMarkets().size());
+        priced.addAll(ranking.getLowSpreadMarkets());
+        priced.addAll(ranking.getHighSpreadMarkets());
+        return priced;
+    }
+}
@@ -0,0 +1,32 @@
+package io.artur.interview.kanga.spread_ranking.application;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.spread-ranking.buckets")
+public class SpreadBucketProperties {
+
+    public enum Mode {
+        /** cut at the configured spread percentages */
+        STATIC,
+        /** cut at the configured percentiles of the current spreads */
+        PERCENTILE
+    }
+
+    private Mode mode = Mode.STATIC;
+    /**
+     * Spread percentages closing each bucket but the last, ascending. Used in the STATIC mode.
+     */
+    private List<BigDecimal> cutPoints = new ArrayList<>(List.of(new BigDecimal("2.0")));
+    /**
+     * Percentiles, in (0, 100), closing each bucket but the last, ascending. Used in the PERCENTILE mode.
+     */
+    private List<Double> percentiles = new ArrayList<>(List.of(50.0, 90.0));
+}
@@ -1,26 +1,38 @@
 package io.artur.interview.kanga.spread_ranking.application;
 
+import io.artur.interview.kanga.spread_ranking.application.RankingProfileProperties.SpreadSource;
 import io.artur.interview.kanga.spread_ranking.domain.*;
 import io.artur.interview.kanga.spread_ranking.domain.exceptions.RankingNotAvailableException;
 import io.artur.interview.kanga.spread_ranking.domain.exceptions.SpreadCalculationException;
 import io.artur.interview.kanga.spread_ranking.domain.model.*;
 import io.artur.interview.kanga.spread_ranking.domain.repository.MarketDataRepository;
 import io.artur.interview.kanga.spread_ranking.domain.repository.SpreadRankingRepository;
+import io.artur.interview.kanga.spread_ranking.monitoring.PipelineMetrics;
+import io.artur.interview.kanga.spread_ranking.monitoring.RankingCalculationEvent;
+import io.artur.interview.kanga.spread_ranking.monitoring.RankingPublishEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 import java.time.Clock;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 import static io.artur.interview.kanga.spread_ranking.domain.model.SpreadCategory.*;
-import static java.util.Comparator.comparing;
-import java.util.Comparator;
-import static java.util.stream.Collectors.groupingBy;
-import static java.util.stream.Collectors.toList;
+import static io.artur.interview.kanga.spread_ranking.monitoring.PipelineStage.*;
 
 @Slf4j
 @Service
@@ -31,28 +43,170 @@ public class SpreadRankingService {
     private final MarketDataRepository marketDataRepository;
     private final SpreadRankingRepository spreadRankingRepository;
     private final SpreadCalculationService spreadCalculationService;
+    private final ParallelRankingBuilder parallelRankingBuilder;
+    private final EffectiveSpreadProperties effectiveSpreadProperties;
+    private final SpreadBucketProperties spreadBucketProperties;
+    private final RankingProfileProperties rankingProfileProperties;
+    private final TickerSymbolTable symbolTable;
+    private final PipelineMetrics pipelineMetrics;
     private final Clock clock;
+    // the calculation refreshSpreadRanking callers currently share, null while none runs
+    private final AtomicReference<CompletableFuture<SpreadRanking>> refreshInFlight = new AtomicReference<>();
+
+    /**
+     * Opens exchange connections once the application is up, so the first ranking does not wait for them.
+     * Runs on its own thread, so a slow exchange cannot hold up startup.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpExchange() {
+        Thread.ofPlatform().name("exchange-warm-up").daemon().start(exchangeApiClient::warmUp);
+    }
 
     public SpreadRanking calculateSpreadRanking() {
+        return calculate(this::fetchMarkets);
+    }
+
+    /**
+     * Calculates and publishes a ranking, one calculation at a time: a caller arriving while one runs waits for it
+     * and gets its ranking or its failure, instead of starting another sweep of the exchange.
+     */
+    public SpreadRanking refreshSpreadRanking() {
+        CompletableFuture<SpreadRanking> refresh = new CompletableFuture<>();
+        CompletableFuture<SpreadRanking> running = refreshInFlight.compareAndExchange(null, refresh);
+        if (running != null) {
+            log.debug("Joining the ranking calculation in progress");
+            try {
+                return running.join();
+            } catch (CompletionException ex) {
+                if (ex.getCause() instanceof Error error) {
+                    throw error;
+                }
+                throw (RuntimeException) ex.getCause();
+            }
+        }
+
         try {
-            return performSpreadRankingCalculation();
+            SpreadRanking ranking = calculateSpreadRanking();
+            storeSpreadRanking(ranking);
+            refresh.complete(ranking);
+            return ranking;
+        } catch (Throwable ex) {
+            refresh.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            refreshInFlight.set(null);
+        }
+    }
+
+    /**
+     * Ranks markets whose prices are already known, such as markets kept current by an {@link OrderBookFeed},
+     * without fetching them from the exchange.
+     */
+    public SpreadRanking rankMarkets(List<Market> markets) {
+        return calculate(() -> markets);
+    }
+
+    private SpreadRanking calculate(Supplier<List<Market>> marketSource) {
+        RankingCalculationEvent event = new RankingCalculationEvent();
+        event.begin();
+        try {
+            SpreadRanking ranking = pipelineMetrics.time(CALCULATION, () -> performSpreadRankingCalculation(marketSource));
+            describe(event, ranking);
+            return ranking;
         } catch (Exception ex) {
             handleCalculationFailure(ex);
             throw new SpreadCalculationException("Cannot calculate ranking", ex);
+        } finally {
+            event.commit();
         }
     }
 
-    private SpreadRanking performSpreadRankingCalculation() {
-        List<Market> markets = fetchAndStoreMarkets();
-        List<Spread> spreads = calculateSpreads(markets);
-        return groupAndSortSpreads(spreads);
+    private static void describe(RankingCalculationEvent event, SpreadRanking ranking) {
+        if (!event.shouldCommit()) {
+            return;
+        }
+        event.succeeded = true;
+        event.marketCount = ranking.getTotalMarketsCount();
+        event.pricedMarketCount = ranking.getLowSpreadMarkets().size() + ranking.getHighSpreadMarkets().size();
+        event.completeness = event.marketCount > 0 ? (double) event.pricedMarketCount / event.marketCount : 1.0;
     }
 
-    private List<Market> fetchAndStoreMarkets() {
-        List<Market> markets = fetchMarkets();
-        
+    private SpreadRanking performSpreadRankingCalculation(Supplier<List<Market>> marketSource) {
+        List<Market> markets = storeMarkets(marketSource.get());
+        MarketSnapshot snapshot = MarketSnapshot.of(markets, symbolTable);
+        SpreadRanking sorted;
+        if (parallelRankingBuilder.appliesTo(snapshot)) {
+            sorted = parallelRankingBuilder.build(snapshot, clock);
+        } else {
+            pipelineMetrics.time(CALCULATE_SPREADS, () -> calculateSpreads(snapshot));
+            sorted = pipelineMetrics.time(GROUP_AND_SORT, () -> groupAndSort(snapshot));
+        }
+        SpreadRanking ranking = pipelineMetrics.time(GROUP_BUCKETS, () -> groupIntoBuckets(snapshot, sorted));
+
+        if (rankingProfileProperties.getProfiles().isEmpty()) {
+            return ranking;
+        }
+        Map<String, SpreadRanking> profileRankings = pipelineMetrics.time(RANK_PROFILES,
+                () -> rankProfiles(snapshot, sorted, ranking));
+        return ranking.withProfileRankings(profileRankings);
+    }
+
+    /**
+     * Ranks every configured profile from the markets of the default ranking, without fetching again.
+     * Each spread source is calculated and sorted once however many profiles use it, and a profile with another
+     * high spread threshold only moves the split between the low and high spread groups of its source.
+     */
+    private Map<String, SpreadRanking> rankProfiles(MarketSnapshot snapshot, SpreadRanking sorted, SpreadRanking ranking) {
+        Map<SpreadSource, MarketSnapshot> snapshots = new EnumMap<>(SpreadSource.class);
+        Map<SpreadSource, SpreadRanking> sortedBySource = new EnumMap<>(SpreadSource.class);
+        Map<SpreadSource, SpreadRanking> bucketedBySource = new EnumMap<>(SpreadSource.class);
+        snapshots.put(SpreadSource.TOP, snapshot);
+        sortedBySource.put(SpreadSource.TOP, sorted);
+        bucketedBySource.put(SpreadSource.TOP, ranking);
+        if (rankingProfileProperties.usesEffectiveSpreads()) {
+            MarketSnapshot effective = snapshot.withoutSpreads();
+            snapshots.put(SpreadSource.EFFECTIVE, effective);
+            sortedBySource.put(SpreadSource.EFFECTIVE, pipelineMetrics.time(EFFECTIVE_SPREADS, () -> rankByEffectiveSpread(effective)));
+        }
+
+        Map<String, SpreadRanking> profileRankings = new LinkedHashMap<>();
+        rankingProfileProperties.getProfiles().forEach((name, profile) -> {
+            SpreadSource source = profile.getSpread();
+            int threshold = SpreadBuckets.basisPoints(profile.getHighSpreadThreshold());
+            SpreadRanking profileRanking = threshold == SpreadCalculationService.HIGH_SPREAD_THRESHOLD_BPS
+                    ? bucketedBySource.computeIfAbsent(source, s -> groupIntoBuckets(snapshots.get(s), sortedBySource.get(s)))
+                    : groupIntoBuckets(snapshots.get(source),
+                            SpreadBucketGrouper.splitAt(snapshots.get(source), sortedBySource.get(source), threshold));
+            profileRankings.put(name, profileRanking);
+        });
+        log.info("Ranked {} profiles from {} markets", profileRankings.size(), snapshot.size());
+        return profileRankings;
+    }
+
+    /**
+     * Ranks the markets by the spread of filling the configured notional on each side of the book.
+     *
+     * @param effective a copy of the top-of-book snapshot sharing its prices, without spreads
+     */
+    private SpreadRanking rankByEffectiveSpread(MarketSnapshot effective) {
+        int priced = spreadCalculationService.calculateEffectiveSpreads(effective,
+                effectiveSpreadProperties.notionalByQuoteCurrency());
+        log.info("Calculated {} effective spreads from {} markets", priced, effective.size());
+        return groupAndSort(effective);
+    }
+
+    /**
+     * Adds the priced markets split into the configured spread buckets to a ranking built from the snapshot.
+     */
+    private SpreadRanking groupIntoBuckets(MarketSnapshot snapshot, SpreadRanking ranking) {
+        SpreadBuckets buckets = SpreadBucketGrouper.bucketsFor(spreadBucketProperties, ranking);
+        log.debug("Grouping priced markets into {}", buckets);
+        return ranking.withSpreadGroups(SpreadBucketGrouper.group(snapshot, ranking, buckets));
+    }
+
+    private List<Market> storeMarkets(List<Market> markets) {
         if (!markets.isEmpty()) {
-            marketDataRepository.saveAll(markets);
+            pipelineMetrics.time(STORE_MARKETS, () -> marketDataRepository.saveAll(markets));
         }
         
         return markets;
@@ -64,7 +218,14 @@ public class SpreadRankingService {
     }
 
     public void storeSpreadRanking(SpreadRanking spreadRanking) {
-        spreadRankingRepository.storeSpreadRanking(spreadRanking);
+        RankingPublishEvent event = new RankingPublishEvent();
+        event.begin();
+        try {
+            pipelineMetrics.time(PUBLISH, () -> spreadRankingRepository.storeSpreadRanking(spreadRanking));
+        } finally {
+            event.marketCount = spreadRanking.getTotalMarketsCount();
+            event.commit();
+        }
     }
 
     public SpreadRanking getCurrentRanking() {
@@ -73,68 +234,88 @@ public class SpreadRankingService {
                 .orElseThrow(() -> new RankingNotAvailableException("Valid ranking unavailable. Call calculate method first."));
     }
 
+    public SpreadRankingIndex getCurrentRankingIndex() {
+        return spreadRankingRepository.getCurrentSpreadRankingIndex()
+                .filter(index -> !spreadRankingRepository.isRankingExpired())
+                .orElseThrow(() -> new RankingNotAvailableException("Valid ranking unavailable. Call calculate method first."));
+    }
+
+    public SpreadRankingPage queryRanking(SpreadRankingQuery query) {
+        return getCurrentRankingIndex().query(query);
+    }
+
     public boolean isRankingCurrent() {
         return spreadRankingRepository.hasValidSpreadRanking();
     }
 
-    private List<Market> fetchMarkets() {
+    /**
+     * Fetches every market pair and its order book from the exchange.
+     * {@code fetch.market-pairs} times the pair list and {@code fetch.orderbooks} the whole fetch, which overlaps
+     * the pair list when the client requests order books while pairs are still arriving.
+     */
+    public List<Market> fetchMarkets() {
         log.info("Fetching Market data from the Exchange");
-        List<MarketPair> marketPairs = exchangeApiClient.getMarketPairs();
+        MarketCollector collector = new MarketCollector(System.nanoTime());
+        try {
+            exchangeApiClient.fetchMarkets(collector);
+        } finally {
+            long elapsed = System.nanoTime() - collector.start;
+            if (collector.marketPairs < 0) {
+                pipelineMetrics.timer(FETCH_MARKET_PAIRS).record(elapsed, TimeUnit.NANOSECONDS);
+            } else if (collector.marketPairs > 0) {
+                pipelineMetrics.timer(FETCH_ORDER_BOOKS).record(elapsed, TimeUnit.NANOSECONDS);
+            }
+        }
+        return collector.markets;
+    }
 
-        List<String> marketIds = marketPairs.stream()
-                .map(MarketPair::getTickerId)
-                .collect(toList());
+    private final class MarketCollector implements ExchangeApiClient.MarketSink {
 
-        Map<String, OrderBook> orderBooks;
-        if (!marketIds.isEmpty()) {
-            log.info("Fetching order books from the Exchange");
-            orderBooks = exchangeApiClient.getOrderBooks(marketIds);
-        } else {
-            orderBooks = Map.of();
+        private final long start;
+        private final List<Market> markets = new ArrayList<>();
+        // -1 until the pair list has been received
+        private int marketPairs = -1;
+
+        private MarketCollector(long start) {
+            this.start = start;
+        }
+
+        @Override
+        public void pairsReceived(int marketPairs) {
+            this.marketPairs = marketPairs;
+            pipelineMetrics.timer(FETCH_MARKET_PAIRS).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            log.info("Received {} market pairs, fetching their order books", marketPairs);
         }
 
-        return createMarketsWithPrices(marketPairs, orderBooks);
+        @Override
+        public void orderBookReceived(MarketPair marketPair, OrderBook orderBook) {
+            markets.add(toMarket(marketPair, orderBook));
+        }
     }
 
-    private List<Spread> calculateSpreads(List<Market> markets) {
-        log.debug("Calculating spreads for {} markets", markets.size());
-        if (markets.isEmpty()) {
+    private void calculateSpreads(MarketSnapshot snapshot) {
+        log.debug("Calculating spreads for {} markets", snapshot.size());
+        if (snapshot.size() == 0) {
             log.warn("No markets provided for spread calculation");
-            return List.of();
+            return;
         }
 
-        List<Spread> spreads = markets.stream()
-                .filter(Objects::nonNull)
-                .map(this::calculateSpreadSafely)
-                .toList();
-
-        log.info("Successfully calculated {} spreads from {} markets", spreads.size(), markets.size());
+        int priced = spreadCalculationService.calculateSpreads(snapshot);
 
-        return spreads;
+        log.info("Successfully calculated {} spreads from {} markets", priced, snapshot.size());
     }
 
-    private SpreadRanking groupAndSortSpreads(List<Spread> spreads) {
-        log.debug("Grouping and sorting {} spreads", spreads.size());
+    SpreadRanking groupAndSort(MarketSnapshot snapshot) {
+        log.debug("Grouping and sorting {} spreads", snapshot.size());
 
-        if (spreads.isEmpty()) {
+        if (snapshot.size() == 0) {
             log.warn("No spreads provided for grouping");
             return SpreadRanking.empty(clock);
         }
 
-        Map<SpreadCategory, List<Spread>> spreadsByCategory = spreads.stream()
-                .collect(groupingBy(Spread::category));
-
-        List<Spread> group1 = createSortedGroup(
-                spreadsByCategory.get(LOW_SPREAD),
-                "Group 1 (less or equal to 2%)");
-
-        List<Spread> group2 = createSortedGroup(
-                spreadsByCategory.get(HIGH_SPREAD),
-                "Group 2 (greater than 2%)");
-
-        List<Spread> group3 = createSortedGroup(
-                spreadsByCategory.get(UNKNOWN),
-                "Group 3 (UNKNOWN)");
+        List<Spread> group1 = createSortedGroup(snapshot, LOW_SPREAD, "Group 1 (less or equal to 2%)");
+        List<Spread> group2 = createSortedGroup(snapshot, HIGH_SPREAD, "Group 2 (greater than 2%)");
+        List<Spread> group3 = createSortedGroup(snapshot, UNKNOWN, "Group 3 (UNKNOWN)");
 
         SpreadRanking ranking = SpreadRanking.builder()
                 .lowSpreadMarkets(group1)
@@ -148,65 +329,36 @@ public class SpreadRankingService {
         return ranking;
     }
 
-    private List<Market> createMarketsWithPrices(List<MarketPair> marketPairs, Map<String, OrderBook> orderBooks) {
-        return marketPairs.stream()
-                .map(pair -> {
-                    OrderBook orderBook = orderBooks.get(pair.getTickerId());
-                    return new Market(
-                            pair.getTickerId(),
-                            orderBook != null ? orderBook.getBestBidPrice() : null,
-                            orderBook != null ? orderBook.getBestAskPrice() : null
-                    );
-                })
-                .toList();
-    }
-
-    private Spread calculateSpreadSafely(Market market) {
-        try {
-            Spread spread = spreadCalculationService.calculateSpread(market);
-            log.trace("Calculated spread for market {}: {}%",
-                    market.tickerId(),
-                    spread.percentage() != null ? spread.percentage() : "N/A");
-
-            return spread;
-        } catch (Exception ex) {
-            log.warn("Failed to calculate spread for market {}: {}", market.tickerId(), ex.getMessage());
-            return Spread.unknown(market.tickerId());
-        }
+    private Market toMarket(MarketPair pair, OrderBook orderBook) {
+        return new Market(
+                symbolTable.intern(pair.getTickerId()),
+                orderBook != null ? orderBook.getBestBidPrice() : null,
+                orderBook != null ? orderBook.getBestAskPrice() : null,
+                pair.getBaseCurrency(),
+                pair.getTargetCurrency(),
+                orderBook != null ? orderBook.getDepth() : OrderBookDepth.EMPTY
+        );
     }
 
-    private List<Spread> createSortedGroup(List<Spread> spreads, String groupName) {
-        if (spreads == null || spreads.isEmpty()) {
+    /**
+     * Groups 1 and 2 are sorted by percentage ascending, then by market ID, group 3 by market ID only.
+     * Rows are sorted as primitive indexes and a {@link Spread} is created only for the final order.
+     */
+    private List<Spread> createSortedGroup(MarketSnapshot snapshot, SpreadCategory category, String groupName) {
+        int[] rows = RankingSorter.sortedRows(snapshot, category);
+        if (rows.length == 0) {
             log.debug("No spreads for group {}", groupName);
             return List.of();
         }
 
-        // Sort by percentage first (ascending for LOW_SPREAD, descending for HIGH_SPREAD),
-        // then by market ID for consistent ordering
-        Comparator<Spread> comparator;
-        
-        if (groupName.contains("Group 1")) {
-            // LOW_SPREAD: Sort by percentage ascending (lowest spreads first), then by market ID
-            comparator = Comparator
-                    .comparing(Spread::percentage, Comparator.nullsLast(Comparator.naturalOrder()))
-                    .thenComparing(Spread::marketId, String.CASE_INSENSITIVE_ORDER);
-        } else if (groupName.contains("Group 2")) {
-            // HIGH_SPREAD: Sort by percentage ascending (lowest spreads first), then by market ID
-            comparator = Comparator
-                    .comparing(Spread::percentage, Comparator.nullsLast(Comparator.naturalOrder()))
-                    .thenComparing(Spread::marketId, String.CASE_INSENSITIVE_ORDER);
-        } else {
-            // UNKNOWN: Sort by market ID only (no percentage available)
-            comparator = Comparator.comparing(Spread::marketId, String.CASE_INSENSITIVE_ORDER);
-        }
-
-        List<Spread> sortedSpreads = spreads.stream()
-                .sorted(comparator)
-                .toList();
-                
-        log.debug("Sorted {} spreads for group {} by percentage and market ID", 
-                sortedSpreads.size(), groupName);
-                
-        return sortedSpreads;
+        Spread[] sortedSpreads = new Spread[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            sortedSpreads[i] = snapshot.toSpread(rows[i]);
+        }
+
+        log.debug("Sorted {} spreads for group {} by percentage and market ID",
+                sortedSpreads.length, groupName);
+
+        return Collections.unmodifiableList(Arrays.asList(sortedSpreads));
     }
 }
@@ -0,0 +1,39 @@
+package io.artur.interview.kanga.spread_ranking.application;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.spread-ranking.streaming")
+public class StreamingRankingProperties {
+
+    /**
+     * Keeps the ranking current from the order book stream of kanga.api.stream.url.
+     */
+    private boolean enabled = false;
+    /**
+     * Shortest time between two rankings built from streamed updates.
+     */
+    private Duration publishInterval = Duration.ofMillis(250);
+    /**
+     * Time between REST sweeps while the stream is down; also the longest time a ranking is kept without
+     * being rebuilt while the stream is up but quiet.
+     */
+    private Duration pollInterval = Duration.ofSeconds(30);
+    /**
+     * Time between REST sweeps while the stream is up, picking up newly listed markets and current depth, which
+     * the stream does not carry.
+     */
+    private Duration refreshInterval = Duration.ofMinutes(5);
+    /**
+     * Streamed updates buffered between the stream and the ranking, a power of two; the stream is read no faster
+     * than they are applied.
+     */
+    private int ringCapacity = 65_536;
+    private Duration reconnectDelay = Duration.ofSeconds(1);
+    private Duration maxReconnectDelay = Duration.ofSeconds(30);
+}
@@ -0,0 +1,243 @@
+package io.artur.interview.kanga.spread_ranking.application;
+
+import io.artur.interview.kanga.spread_ranking.domain.OrderBookFeed;
+import io.artur.interview.kanga.spread_ranking.domain.model.Market;
+import io.artur.interview.kanga.spread_ranking.domain.model.OrderBook;
+import io.artur.interview.kanga.spread_ranking.domain.model.SpreadRanking;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.util.retry.Retry;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the ranking current from streamed top-of-book updates instead of polling every order book every cycle.
+ * <p>
+ * A REST sweep seeds the markets, their depth and the subscription. Updates are published into a
+ * {@link TopOfBookRing} as they arrive, and the scheduler thread, the single writer of the live markets, drains them
+ * in order, replacing the best bid and ask of their market. The ranking is rebuilt from the live markets at most once
+ * per publish interval and only when something changed. Rebuilding keeps buckets and profiles exact and costs far
+ * less than the REST sweep it replaces. Depth is the one of the last REST sweep.
+ * <p>
+ * The stream is asked for no more updates than the ring has free slots, and for more as they are drained, so a full
+ * ring stops reading from the connection instead of dropping updates or growing a queue.
+ * <p>
+ * The stream carries neither listings nor depth, so while it is up the markets are still swept over REST every
+ * refresh interval; while it is down, every poll interval, and the stream reconnects with backoff. A sweep listing
+ * other markets than the subscription replaces it with one for the markets now listed. Updates received before a
+ * sweep started are older than the prices it fetched and are dropped; those received during the sweep are applied
+ * on top of it.
+ */
+@Slf4j
+@Service
+public class StreamingRankingService {
+
+    private final SpreadRankingService spreadRankingService;
+    private final Optional<OrderBookFeed> orderBookFeed;
+    private final StreamingRankingProperties properties;
+    private final Clock clock;
+    private final ScheduledExecutorService scheduler;
+    private final TopOfBookRing ring;
+    private final Counter receivedUpdates;
+    private volatile boolean streaming;
+
+    // owned by the scheduler thread
+    private Market[] markets = new Market[0];
+    private Map<String, Integer> rowsByTicker = Map.of();
+    private Instant lastPoll;
+    private Instant lastPublish;
+    private RingSubscriber subscription;
+
+    public StreamingRankingService(SpreadRankingService spreadRankingService, Optional<OrderBookFeed> orderBookFeed,
+                                   StreamingRankingProperties properties, Clock clock, MeterRegistry meterRegistry) {
+        this.spreadRankingService = spreadRankingService;
+        this.orderBookFeed = orderBookFeed;
+        this.properties = properties;
+        this.clock = clock;
+        this.ring = new TopOfBookRing(properties.getRingCapacity());
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("spread-streaming-", 0).daemon().factory());
+        this.receivedUpdates = Counter.builder("spread.streaming.updates")
+                .description("Top-of-book updates received from the order book stream")
+                .register(meterRegistry);
+        Gauge.builder("spread.streaming.connected", this, service -> service.streaming ? 1 : 0)
+                .description("1 while rankings are built from the order book stream, 0 while polled over REST")
+                .register(meterRegistry);
+        Gauge.builder("spread.streaming.backlog", ring, TopOfBookRing::size)
+                .description("Streamed updates waiting to be applied to the ranking")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (orderBookFeed.isEmpty()) {
+            throw new IllegalStateException("Streaming rankings need an order book stream, set kanga.api.stream.url");
+        }
+        log.info("Streaming rankings, publishing at most every {}", properties.getPublishInterval());
+        scheduler.scheduleWithFixedDelay(this::update, 0, properties.getPublishInterval().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+        scheduler.shutdownNow();
+    }
+
+    boolean isStreaming() {
+        return streaming;
+    }
+
+    /**
+     * One scheduler tick: sweeps over REST when a sweep is due, otherwise publishes streamed updates.
+     */
+    void update() {
+        try {
+            Instant now = clock.instant();
+            Duration sweepInterval = streaming ? properties.getRefreshInterval() : properties.getPollInterval();
+            if (lastPoll == null || !now.isBefore(lastPoll.plus(sweepInterval))) {
+                poll(now);
+            } else if (streaming) {
+                publishUpdates(now);
+            }
+            if (subscription == null && markets.length > 0) {
+                subscribe();
+            }
+        } catch (Exception ex) {
+            log.error("Failed to update the streamed ranking", ex);
+        }
+    }
+
+    /**
+     * Sweeps over REST, drops the updates received before the sweep and applies the ones streamed during it.
+     * A sweep that lists other markets than the subscription drops it, so the next tick subscribes to the markets
+     * now listed.
+     */
+    private void poll(Instant now) {
+        lastPoll = now;
+        long sweepStart = ring.nextSequence();
+        List<Market> fetched = spreadRankingService.fetchMarkets();
+        Map<String, Integer> rows = HashMap.newHashMap(fetched.size());
+        for (int row = 0; row < fetched.size(); row++) {
+            rows.put(fetched.get(row).tickerId(), row);
+        }
+        boolean marketsChanged = !rows.keySet().equals(rowsByTicker.keySet());
+        markets = fetched.toArray(Market[]::new);
+        rowsByTicker = rows;
+        int stale = ring.discardBefore(sweepStart);
+        int drained = stale + ring.drain(this::apply, ring.capacity());
+        if (subscription != null) {
+            if (marketsChanged) {
+                log.info("Swept markets differ from the subscription, subscribing to {} markets", rows.size());
+                subscription.dispose();
+                subscription = null;
+            } else {
+                subscription.requestMore(drained);
+            }
+        }
+        publish(now);
+        log.info("Swept {} markets over REST, dropping {} older streamed updates", markets.length, stale);
+    }
+
+    private void publishUpdates(Instant now) {
+        int drained = ring.drain(this::apply, ring.capacity());
+        subscription.requestMore(drained);
+        if (drained > 0 || lastPublish == null || now.isAfter(lastPublish.plus(properties.getPollInterval()))) {
+            publish(now);
+            log.debug("Published ranking with {} streamed updates", drained);
+        }
+    }
+
+    private void apply(String marketId, BigDecimal bid, BigDecimal ask) {
+        Integer row = rowsByTicker.get(marketId);
+        if (row != null) {
+            Market market = markets[row];
+            markets[row] = new Market(market.tickerId(), bid, ask, market.baseCurrency(), market.targetCurrency(),
+                    market.depth());
+        }
+    }
+
+    private void publish(Instant now) {
+        SpreadRanking ranking = spreadRankingService.rankMarkets(List.of(markets));
+        spreadRankingService.storeSpreadRanking(ranking);
+        lastPublish = now;
+    }
+
+    private void subscribe() {
+        List<String> marketIds = rowsByTicker.keySet().stream().toList();
+        subscription = new RingSubscriber();
+        orderBookFeed.orElseThrow().orderBooks(marketIds)
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, properties.getReconnectDelay())
+                        .maxBackoff(properties.getMaxReconnectDelay())
+                        .transientErrors(true)
+                        .doBeforeRetry(signal -> onDisconnected(signal.failure())))
+                .subscribe(subscription);
+    }
+
+    /**
+     * Publishes streamed updates into the ring, holding at most as much demand as the ring has free slots.
+     */
+    private final class RingSubscriber extends BaseSubscriber<OrderBook> {
+
+        @Override
+        protected void hookOnSubscribe(Subscription upstream) {
+            // a previous subscription may have left updates in the ring
+            int free = ring.capacity() - ring.size();
+            if (free > 0) {
+                upstream.request(free);
+            }
+        }
+
+        @Override
+        protected void hookOnNext(OrderBook orderBook) {
+            if (!streaming) {
+                streaming = true;
+                log.info("Order book stream is up, ranking from streamed updates");
+            }
+            receivedUpdates.increment();
+            if (!ring.tryPublish(orderBook.getMarketId(), orderBook.getBestBidPrice(), orderBook.getBestAskPrice())) {
+                log.warn("Update ring full, dropping update of {}", orderBook.getMarketId());
+            }
+        }
+
+        @Override
+        protected void hookOnError(Throwable throwable) {
+            onDisconnected(throwable);
+        }
+
+        void requestMore(int updates) {
+            if (updates > 0) {
+                request(updates);
+            }
+        }
+    }
+
+    private void onDisconnected(Throwable cause) {
+        if (streaming) {
+            streaming = false;
+            log.warn("Order book stream dropped, polling over REST until it reconnects: {}", cause.toString());
+        }
+    }
+}
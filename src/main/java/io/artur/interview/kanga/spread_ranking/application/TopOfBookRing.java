@@ -0,0 +1,146 @@
+package io.artur.interview.kanga.spread_ranking.application;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Preallocated ring of top-of-book updates from many producers to a single consumer, without locks.
+ * <p>
+ * Slots are parallel arrays allocated once, so publishing allocates nothing. A producer claims the next sequence with
+ * a compare-and-set on the claim cursor, writes the slot and publishes it by storing the sequence in the slot's
+ * published marker with release semantics. The consumer reads slots in sequence order while their markers match,
+ * so an update is seen only once it is completely written, and releases a whole batch with one store of its cursor.
+ * <p>
+ * A full ring rejects the update: {@link #tryPublish} returns false and the producer decides how to wait, drop or
+ * stop asking its source for more, instead of blocking inside the ring or overwriting unread updates.
+ */
+final class TopOfBookRing {
+
+    private static final VarHandle PUBLISHED = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle CONSUMED;
+
+    static {
+        try {
+            CONSUMED = MethodHandles.lookup().findVarHandle(TopOfBookRing.class, "consumed", long.class);
+        } catch (ReflectiveOperationException ex) {
+            throw new ExceptionInInitializerError(ex);
+        }
+    }
+
+    @FunctionalInterface
+    interface Handler {
+        void onTopOfBook(String marketId, BigDecimal bid, BigDecimal ask);
+    }
+
+    private final int capacity;
+    private final int mask;
+    private final String[] marketIds;
+    private final BigDecimal[] bids;
+    private final BigDecimal[] asks;
+    private final long[] published;
+    private final AtomicLong claimed = new AtomicLong();
+    // next sequence to consume; written by the consumer only
+    private volatile long consumed;
+
+    /**
+     * @param capacity slots, a power of two
+     */
+    TopOfBookRing(int capacity) {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Ring capacity must be a power of two: " + capacity);
+        }
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.marketIds = new String[capacity];
+        this.bids = new BigDecimal[capacity];
+        this.asks = new BigDecimal[capacity];
+        this.published = new long[capacity];
+        Arrays.fill(published, -1);
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    /**
+     * @return updates published or being written and not consumed yet
+     */
+    int size() {
+        return (int) (claimed.get() - consumed);
+    }
+
+    /**
+     * @return sequence of the next update to be published; every update published so far has a lower one
+     */
+    long nextSequence() {
+        return claimed.get();
+    }
+
+    /**
+     * Safe from any number of threads.
+     *
+     * @return false, publishing nothing, when the ring is full
+     */
+    boolean tryPublish(String marketId, BigDecimal bid, BigDecimal ask) {
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - consumed >= capacity) {
+                return false;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+
+        int slot = (int) sequence & mask;
+        marketIds[slot] = marketId;
+        bids[slot] = bid;
+        asks[slot] = ask;
+        PUBLISHED.setRelease(published, slot, sequence);
+        return true;
+    }
+
+    /**
+     * Hands published updates to the handler in sequence order; to be called from one thread only.
+     * Stops at the first slot claimed but not yet published, which the next drain picks up.
+     *
+     * @return updates handled
+     */
+    int drain(Handler handler, int limit) {
+        long first = consumed;
+        long next = first;
+        try {
+            while (next - first < limit) {
+                int slot = (int) next & mask;
+                if ((long) PUBLISHED.getAcquire(published, slot) != next) {
+                    break;
+                }
+                String marketId = marketIds[slot];
+                BigDecimal bid = bids[slot];
+                BigDecimal ask = asks[slot];
+                marketIds[slot] = null;
+                bids[slot] = null;
+                asks[slot] = null;
+                next++;
+                handler.onTopOfBook(marketId, bid, ask);
+            }
+        } finally {
+            if (next != first) {
+                CONSUMED.setRelease(this, next);
+            }
+        }
+        return (int) (next - first);
+    }
+
+    /**
+     * Drops published updates with a sequence below the given one, unhandled; to be called from the draining
+     * thread only. Like {@link #drain}, stops at the first slot claimed but not yet published.
+     *
+     * @return updates dropped
+     */
+    int discardBefore(long sequence) {
+        long pending = Math.min(sequence - consumed, capacity);
+        return pending > 0 ? drain((marketId, bid, ask) -> { }, (int) pending) : 0;
+    }
+}
@@ -11,4 +11,49 @@ public interface ExchangeApiClient {
     List<MarketPair> getMarketPairs();
     OrderBook getOrderBook(String marketId);
     Map<String, OrderBook> getOrderBooks(List<String> marketIds);
+
+    /**
+     * Fetches every market pair with its order book, handing them to the sink in the order the exchange lists
+     * the pairs. The default fetches the whole pair list and then all order books; a client may instead request
+     * order books while the pair list is still being received.
+     */
+    default void fetchMarkets(MarketSink sink) {
+        List<MarketPair> marketPairs = getMarketPairs();
+        sink.pairsReceived(marketPairs.size());
+        if (marketPairs.isEmpty()) {
+            return;
+        }
+
+        Map<String, OrderBook> orderBooks = getOrderBooks(marketPairs.stream().map(MarketPair::getTickerId).toList());
+        for (MarketPair marketPair : marketPairs) {
+            sink.orderBookReceived(marketPair, orderBooks.get(marketPair.getTickerId()));
+        }
+    }
+
+    /**
+     * Opens connections to the exchange ahead of the first fetch, so that fetch does not pay for setting them up.
+     * Never fails: a connection that cannot be opened now is opened on first use instead.
+     *
+     * @return connections opened and answered by the exchange
+     */
+    default int warmUp() {
+        return 0;
+    }
+
+    /**
+     * Receives the results of {@link #fetchMarkets(MarketSink)}, one call at a time, though not always on the
+     * calling thread.
+     */
+    interface MarketSink {
+
+        /**
+         * Every listed pair has been received; order books may still be on their way.
+         */
+        void pairsReceived(int marketPairs);
+
+        /**
+         * @param orderBook null if the exchange returned no order book for the pair
+         */
+        void orderBookReceived(MarketPair marketPair, OrderBook orderBook);
+    }
 }
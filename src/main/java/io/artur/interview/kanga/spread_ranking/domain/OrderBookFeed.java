@@ -0,0 +1,18 @@
+package io.artur.interview.kanga.spread_ranking.domain;
+
+import io.artur.interview.kanga.spread_ranking.domain.model.OrderBook;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+/**
+ * Top-of-book updates pushed by the exchange, instead of polling {@link ExchangeApiClient#getOrderBook} per market.
+ */
+public interface OrderBookFeed {
+
+    /**
+     * Connects when subscribed and emits an order book with the best bid and ask of a market whenever they change.
+     * The flux never completes: it fails when the connection drops, and connects again when resubscribed.
+     */
+    Flux<OrderBook> orderBooks(List<String> marketIds);
+}
@@ -0,0 +1,56 @@
+package io.artur.interview.kanga.spread_ranking.domain;
+
+import static io.artur.interview.kanga.spread_ranking.domain.model.SpreadCategory.HIGH_SPREAD;
+import static io.artur.interview.kanga.spread_ranking.domain.model.SpreadCategory.LOW_SPREAD;
+
+/**
+ * Reference {@link SpreadBatchCalculator}: one row at a time in long arithmetic.
+ * <p>
+ * SpreadBps = round(20000 * (ask - bid) / (ask + bid)), rounded half up like the 4 decimal places of the
+ * {@link java.math.BigDecimal} division in {@link SpreadCalculationService#calculateSpread}, so both produce
+ * the same percentage and category. Every eligible row is calculated.
+ */
+final class ScalarSpreadBatchCalculator implements SpreadBatchCalculator {
+
+    static final long BASIS_POINTS_OF_HALF = 20_000L;
+    static final int HIGH_SPREAD_THRESHOLD_BPS = 200;
+    static final byte LOW_SPREAD_ORDINAL = (byte) LOW_SPREAD.ordinal();
+    static final byte HIGH_SPREAD_ORDINAL = (byte) HIGH_SPREAD.ordinal();
+
+    @Override
+    public void calculate(long[] bids, long[] asks, int[] spreadBasisPoints, byte[] categories, int from, int to) {
+        for (int row = from; row < to; row++) {
+            long bid = bids[row];
+            long ask = asks[row];
+            if (isEligible(bid) && isEligible(ask)) {
+                int basisPoints = spreadBasisPoints(bid, ask);
+                spreadBasisPoints[row] = basisPoints;
+                categories[row] = category(basisPoints);
+            }
+        }
+    }
+
+    static boolean isEligible(long price) {
+        return price > 0 && price <= MAX_SCALED_PRICE;
+    }
+
+    static int spreadBasisPoints(long bid, long ask) {
+        long numerator = BASIS_POINTS_OF_HALF * (ask - bid);
+        long denominator = ask + bid;
+        long quotient = numerator / denominator;
+        long remainder = Math.abs(numerator % denominator);
+        if (remainder >= denominator - remainder) {
+            quotient += Long.signum(numerator);
+        }
+        return (int) quotient;
+    }
+
+    static byte category(int basisPoints) {
+        return basisPoints > HIGH_SPREAD_THRESHOLD_BPS ? HIGH_SPREAD_ORDINAL : LOW_SPREAD_ORDINAL;
+    }
+
+    @Override
+    public String toString() {
+        return "scalar";
+    }
+}
@@ -0,0 +1,38 @@
+package io.artur.interview.kanga.spread_ranking.domain;
+
+import io.artur.interview.kanga.spread_ranking.domain.model.MarketSnapshot;
+
+/**
+ * Calculates spreads for a range of rows of {@link MarketSnapshot} price columns in one pass.
+ * <p>
+ * A row is eligible when both prices are positive scaled longs no greater than {@link #MAX_SCALED_PRICE}.
+ * For eligible rows an implementation writes the spread in basis points and the category ordinal;
+ * it may leave a row it cannot decide exactly untouched, and the caller finishes such rows with the scalar formula.
+ * Rows that are not eligible are never written.
+ */
+public interface SpreadBatchCalculator {
+
+    /**
+     * Keeps 20000 * (ask - bid) and ask + bid within a long, and both prices exactly representable as doubles.
+     */
+    long MAX_SCALED_PRICE = Long.MAX_VALUE / (2 * ScalarSpreadBatchCalculator.BASIS_POINTS_OF_HALF);
+
+    void calculate(long[] bids, long[] asks, int[] spreadBasisPoints, byte[] categories, int from, int to);
+
+    /**
+     * @return the vectorized calculator when the {@code jdk.incubator.vector} module is available
+     * and the CPU has SIMD registers of at least 128 bits, the scalar calculator otherwise
+     */
+    static SpreadBatchCalculator preferred() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                if (VectorSpreadBatchCalculator.isSupported()) {
+                    return new VectorSpreadBatchCalculator();
+                }
+            } catch (LinkageError ignored) {
+                // module present but not readable by this class, fall back to the scalar loop
+            }
+        }
+        return new ScalarSpreadBatchCalculator();
+    }
+}
@@ -2,15 +2,21 @@ package io.artur.interview.kanga.spread_ranking.domain;
 
 
 import io.artur.interview.kanga.spread_ranking.domain.model.Market;
+import io.artur.interview.kanga.spread_ranking.domain.model.MarketSnapshot;
+import io.artur.interview.kanga.spread_ranking.domain.model.OrderBookDepth;
 import io.artur.interview.kanga.spread_ranking.domain.model.Spread;
 import io.artur.interview.kanga.spread_ranking.domain.model.SpreadCategory;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.Locale;
+import java.util.Map;
 
 import static io.artur.interview.kanga.spread_ranking.domain.model.SpreadCategory.HIGH_SPREAD;
 import static io.artur.interview.kanga.spread_ranking.domain.model.SpreadCategory.LOW_SPREAD;
+import static io.artur.interview.kanga.spread_ranking.domain.model.SpreadCategory.UNKNOWN;
 
 
 /**
@@ -22,24 +28,138 @@ import static io.artur.interview.kanga.spread_ranking.domain.model.SpreadCategor
  * <p>
  * If spread percentage value is greater than 2, it is categorized as HIGH_SPREAD.
  * Otherwise, it is categorized as LOW_SPREAD.
+ * <p>
+ * A {@link MarketSnapshot} is calculated in basis points of the mid price on scaled longs by a
+ * {@link SpreadBatchCalculator}, vectorized when the platform allows it, with the same percentage and category
+ * as the {@link BigDecimal} path.
  */
+@Slf4j
 @Service
 public class SpreadCalculationService {
 
+    /**
+     * The largest spread of the LOW_SPREAD category, in basis points.
+     */
+    public static final int HIGH_SPREAD_THRESHOLD_BPS = ScalarSpreadBatchCalculator.HIGH_SPREAD_THRESHOLD_BPS;
+
     private static final int DIVIDE_SCALE = 4;
     private static final BigDecimal HALF = new BigDecimal("0.5");
     private static final BigDecimal HUNDRED = new BigDecimal("100");
     private static final BigDecimal HIGH_SPREAD_THRESHOLD = new BigDecimal("2.0");
 
+    private final SpreadBatchCalculator batchCalculator;
+
+    public SpreadCalculationService() {
+        this(SpreadBatchCalculator.preferred());
+    }
+
+    SpreadCalculationService(final SpreadBatchCalculator batchCalculator) {
+        this.batchCalculator = batchCalculator;
+        log.info("Spread calculation uses the {} batch calculator", batchCalculator);
+    }
+
     public Spread calculateSpread(final Market market) {
         if (market.askPrice() == null || market.bidPrice() == null) {
-            return Spread.unknown(market.tickerId());
+            return Spread.unknown(market);
         }
 
         final BigDecimal spreadPctValue = (market.askPrice().subtract(market.bidPrice()))
                 .divide(HALF.multiply(market.askPrice().add(market.bidPrice())), DIVIDE_SCALE, RoundingMode.HALF_UP)
                 .multiply(HUNDRED);
-        return new Spread(market.tickerId(), spreadPctValue, categorizeSpread(spreadPctValue));
+        return new Spread(market.tickerId(), spreadPctValue, categorizeSpread(spreadPctValue),
+                market.baseCurrency(), market.targetCurrency());
+    }
+
+    /**
+     * Calculates spread and category of every row of the snapshot in place.
+     * The batch calculator handles rows with scaled prices; rows it left undecided are finished with the scalar
+     * formula, and rows whose prices are not representable as scaled longs with {@link #calculateSpread(Market)}.
+     * A row that fails to calculate stays UNKNOWN.
+     *
+     * @return the number of rows with a known spread
+     */
+    public int calculateSpreads(final MarketSnapshot snapshot) {
+        return calculateSpreads(snapshot, 0, snapshot.size());
+    }
+
+    /**
+     * Calculates rows in [from, to) only. Disjoint ranges of one snapshot may be calculated concurrently.
+     */
+    public int calculateSpreads(final MarketSnapshot snapshot, final int from, final int to) {
+        batchCalculator.calculate(snapshot.bidColumn(), snapshot.askColumn(),
+                snapshot.spreadColumn(), snapshot.categoryColumn(), from, to);
+
+        int priced = 0;
+        for (int row = from; row < to; row++) {
+            if (snapshot.category(row) != UNKNOWN || calculateRemaining(snapshot, row)) {
+                priced++;
+            }
+        }
+        return priced;
+    }
+
+    /**
+     * Calculates the effective spread of every row in place: the same formula on the volume weighted average prices
+     * of selling and buying the notional configured for the market's quote currency, walking the book from the best level.
+     * A row stays UNKNOWN when its quote currency has no notional or either side is too thin to fill it.
+     *
+     * @param notionalByQuoteCurrency notional in units of the quote currency, keyed by upper case currency code
+     * @return the number of rows with a known effective spread
+     */
+    public int calculateEffectiveSpreads(final MarketSnapshot snapshot, final Map<String, Double> notionalByQuoteCurrency) {
+        int priced = 0;
+        for (int row = 0; row < snapshot.size(); row++) {
+            Market market = snapshot.market(row);
+            if (market.targetCurrency() == null) {
+                continue;
+            }
+            Double notional = notionalByQuoteCurrency.get(market.targetCurrency().toUpperCase(Locale.ROOT));
+            OrderBookDepth depth = market.depth();
+            if (notional == null || depth == null) {
+                continue;
+            }
+            double bid = depth.bidVwap(notional);
+            double ask = Double.isNaN(bid) ? Double.NaN : depth.askVwap(notional);
+            if (Double.isNaN(ask)) {
+                continue;
+            }
+            int basisPoints = (int) Math.round(ScalarSpreadBatchCalculator.BASIS_POINTS_OF_HALF * (ask - bid) / (ask + bid));
+            snapshot.setSpread(row, basisPoints, categorizeSpread(basisPoints));
+            priced++;
+        }
+        return priced;
+    }
+
+    private boolean calculateRemaining(final MarketSnapshot snapshot, final int row) {
+        long bid = snapshot.bidPrice(row);
+        long ask = snapshot.askPrice(row);
+        if (bid == MarketSnapshot.NO_PRICE || ask == MarketSnapshot.NO_PRICE) {
+            return false;
+        }
+        if (ScalarSpreadBatchCalculator.isEligible(bid) && ScalarSpreadBatchCalculator.isEligible(ask)) {
+            int basisPoints = ScalarSpreadBatchCalculator.spreadBasisPoints(bid, ask);
+            snapshot.setSpread(row, basisPoints, categorizeSpread(basisPoints));
+            return true;
+        }
+        return calculateExactly(snapshot, row);
+    }
+
+    private boolean calculateExactly(final MarketSnapshot snapshot, final int row) {
+        try {
+            Spread spread = calculateSpread(snapshot.market(row));
+            if (spread.category() == UNKNOWN) {
+                return false;
+            }
+            snapshot.setSpread(row, spread.percentage().movePointRight(2).intValueExact(), spread.category());
+            return true;
+        } catch (ArithmeticException ex) {
+            log.warn("Failed to calculate spread for market {}: {}", snapshot.tickerId(row), ex.getMessage());
+            return false;
+        }
+    }
+
+    private static SpreadCategory categorizeSpread(final int basisPoints) {
+        return basisPoints > ScalarSpreadBatchCalculator.HIGH_SPREAD_THRESHOLD_BPS ? HIGH_SPREAD : LOW_SPREAD;
     }
 
     private SpreadCategory categorizeSpread(final BigDecimal spreadPctValue) {
@@ -0,0 +1,81 @@
+package io.artur.interview.kanga.spread_ranking.domain;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interned table of ticker symbols, each mapped once to a dense int ID (0, 1, 2, ...).
+ * <p>
+ * Internal structures key markets by ID with plain arrays, and every stored ticker string is the single
+ * canonical instance from this table, so strings decoded from each exchange response become garbage straight away.
+ * Lookups of known tickers do not allocate. IDs are never reused: a delisted ticker keeps its ID,
+ * which is fine for the few thousand symbols an exchange lists.
+ */
+@Component
+public class TickerSymbolTable {
+
+    public static final int NOT_FOUND = -1;
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] symbols = new String[INITIAL_CAPACITY];
+    private volatile int size;
+
+    /**
+     * @return the ID of the ticker, registering it if it has not been seen before
+     */
+    public int idOf(String ticker) {
+        Integer id = ids.get(ticker);
+        return id != null ? id : register(ticker);
+    }
+
+    /**
+     * @return the ID of the ticker, or {@link #NOT_FOUND} if it has never been registered
+     */
+    public int find(String ticker) {
+        Integer id = ticker != null ? ids.get(ticker) : null;
+        return id != null ? id : NOT_FOUND;
+    }
+
+    /**
+     * @return the canonical instance of the ticker, registering it if it has not been seen before
+     */
+    public String intern(String ticker) {
+        return ticker != null ? symbolOf(idOf(ticker)) : null;
+    }
+
+    public String symbolOf(int id) {
+        if (id < 0 || id >= size) {
+            throw new IllegalArgumentException("Unknown ticker ID: " + id);
+        }
+        return symbols[id];
+    }
+
+    /**
+     * @return number of registered tickers, every ID is lower than this
+     */
+    public int size() {
+        return size;
+    }
+
+    private synchronized int register(String ticker) {
+        Integer existing = ids.get(ticker);
+        if (existing != null) {
+            return existing;
+        }
+
+        int id = size;
+        String[] current = symbols;
+        if (id == current.length) {
+            current = Arrays.copyOf(current, current.length * 2);
+        }
+        current[id] = ticker;
+        symbols = current;
+        size = id + 1;
+        ids.put(ticker, id);
+        return id;
+    }
+}
@@ -0,0 +1,81 @@
+package io.artur.interview.kanga.spread_ranking.domain;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import static io.artur.interview.kanga.spread_ranking.domain.ScalarSpreadBatchCalculator.BASIS_POINTS_OF_HALF;
+
+/**
+ * {@link SpreadBatchCalculator} on {@code jdk.incubator.vector}, as many rows per step as the CPU has 64-bit lanes.
+ * <p>
+ * Integer division does not vectorize, so the quotient is calculated in doubles. Both prices are at most
+ * {@link #MAX_SCALED_PRICE}, so their sum and difference convert to doubles exactly and the quotient is off by
+ * no more than a few ulps. A lane whose quotient lies within {@link #ROUNDING_MARGIN} of a rounding boundary
+ * could round differently from the long arithmetic; it is left untouched for the caller's scalar pass.
+ * The remaining rows of a range that do not fill a vector are calculated by the scalar loop.
+ */
+final class VectorSpreadBatchCalculator implements SpreadBatchCalculator {
+
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+    private static final double ROUNDING_MARGIN = 1e-9;
+
+    private final ScalarSpreadBatchCalculator tail = new ScalarSpreadBatchCalculator();
+
+    static boolean isSupported() {
+        return LONGS.length() > 1 && LONGS.length() == DOUBLES.length();
+    }
+
+    @Override
+    public void calculate(long[] bids, long[] asks, int[] spreadBasisPoints, byte[] categories, int from, int to) {
+        int lanes = LONGS.length();
+        long[] results = new long[lanes];
+        int upperBound = from + LONGS.loopBound(to - from);
+        int row = from;
+        for (; row < upperBound; row += lanes) {
+            LongVector bid = LongVector.fromArray(LONGS, bids, row);
+            LongVector ask = LongVector.fromArray(LONGS, asks, row);
+            VectorMask<Long> eligible = bid.compare(VectorOperators.GT, 0L)
+                    .and(ask.compare(VectorOperators.GT, 0L))
+                    .and(bid.compare(VectorOperators.LE, MAX_SCALED_PRICE))
+                    .and(ask.compare(VectorOperators.LE, MAX_SCALED_PRICE));
+            if (!eligible.anyTrue()) {
+                continue;
+            }
+
+            DoubleVector difference = (DoubleVector) ask.sub(bid).convert(VectorOperators.L2D, 0);
+            DoubleVector sum = (DoubleVector) ask.add(bid).convert(VectorOperators.L2D, 0);
+            DoubleVector quotient = difference.mul((double) BASIS_POINTS_OF_HALF).div(sum);
+
+            // round half away from zero: truncate |quotient| + 0.5 and restore the sign
+            DoubleVector shifted = quotient.abs().add(0.5);
+            LongVector rounded = (LongVector) shifted.convert(VectorOperators.D2L, 0);
+            DoubleVector fraction = shifted.sub((DoubleVector) rounded.convert(VectorOperators.L2D, 0));
+            VectorMask<Double> decided = fraction.compare(VectorOperators.GT, ROUNDING_MARGIN)
+                    .and(fraction.compare(VectorOperators.LT, 1 - ROUNDING_MARGIN));
+            rounded = rounded.neg().blend(rounded, quotient.compare(VectorOperators.GE, 0.0).cast(LONGS));
+
+            long written = eligible.and(decided.cast(LONGS)).toLong();
+            if (written == 0) {
+                continue;
+            }
+            rounded.intoArray(results, 0);
+            while (written != 0) {
+                int lane = Long.numberOfTrailingZeros(written);
+                int basisPoints = (int) results[lane];
+                spreadBasisPoints[row + lane] = basisPoints;
+                categories[row + lane] = ScalarSpreadBatchCalculator.category(basisPoints);
+                written &= written - 1;
+            }
+        }
+        tail.calculate(bids, asks, spreadBasisPoints, categories, row, to);
+    }
+
+    @Override
+    public String toString() {
+        return "vector (" + LONGS.length() + " x 64-bit lanes)";
+    }
+}
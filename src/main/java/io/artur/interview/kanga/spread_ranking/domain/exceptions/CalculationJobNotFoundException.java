@@ -0,0 +1,7 @@
+package io.artur.interview.kanga.spread_ranking.domain.exceptions;
+
+public class CalculationJobNotFoundException extends RuntimeException {
+    public CalculationJobNotFoundException(String message) {
+        super(message);
+    }
+}
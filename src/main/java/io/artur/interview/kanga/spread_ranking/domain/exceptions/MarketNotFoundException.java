@@ -0,0 +1,7 @@
+package io.artur.interview.kanga.spread_ranking.domain.exceptions;
+
+public class MarketNotFoundException extends RuntimeException {
+    public MarketNotFoundException(String message) {
+        super(message);
+    }
+}
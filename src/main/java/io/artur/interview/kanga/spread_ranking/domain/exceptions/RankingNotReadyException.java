@@ -0,0 +1,10 @@
+package io.artur.interview.kanga.spread_ranking.domain.exceptions;
+
+/**
+ * No current ranking to serve a request that must not calculate one itself; retrying later may succeed.
+ */
+public class RankingNotReadyException extends RuntimeException {
+    public RankingNotReadyException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
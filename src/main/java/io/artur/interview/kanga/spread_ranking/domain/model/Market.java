@@ -2,4 +2,14 @@ package io.artur.interview.kanga.spread_ranking.domain.model;
 
 import java.math.BigDecimal;
 
-public record Market(String tickerId, BigDecimal bidPrice, BigDecimal askPrice) {}
+public record Market(String tickerId, BigDecimal bidPrice, BigDecimal askPrice, String baseCurrency, String targetCurrency,
+                     OrderBookDepth depth) {
+
+    public Market(String tickerId, BigDecimal bidPrice, BigDecimal askPrice, String baseCurrency, String targetCurrency) {
+        this(tickerId, bidPrice, askPrice, baseCurrency, targetCurrency, OrderBookDepth.EMPTY);
+    }
+
+    public Market(String tickerId, BigDecimal bidPrice, BigDecimal askPrice) {
+        this(tickerId, bidPrice, askPrice, null, null);
+    }
+}
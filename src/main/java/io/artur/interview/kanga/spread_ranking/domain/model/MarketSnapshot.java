@@ -0,0 +1,172 @@
+package io.artur.interview.kanga.spread_ranking.domain.model;
+
+import io.artur.interview.kanga.spread_ranking.domain.TickerSymbolTable;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Columnar view of the markets of one calculation cycle.
+ * <p>
+ * Every market is a row, and each attribute lives in its own primitive array indexed by that row:
+ * ticker symbol ID, bid and ask as longs scaled by {@link #PRICE_SCALE}, the spread in basis points of the
+ * mid price and the category ordinal. Spread calculation, grouping and sorting work on these arrays only,
+ * so a cycle allocates a handful of arrays instead of several objects per market.
+ * <p>
+ * A price that is missing is stored as {@link #NO_PRICE}. A price that cannot be represented as a scaled long
+ * (more than {@link #PRICE_SCALE} decimal places, or out of range) is stored as {@link #UNSCALED_PRICE},
+ * and its row is calculated from the {@link Market} with {@link BigDecimal} arithmetic instead.
+ * <p>
+ * Spread and category columns are written once by the calculation; a snapshot is not meant to be shared between threads.
+ */
+public final class MarketSnapshot {
+
+    public static final int PRICE_SCALE = 8;
+    public static final long NO_PRICE = Long.MIN_VALUE;
+    public static final long UNSCALED_PRICE = Long.MIN_VALUE + 1;
+
+    private static final SpreadCategory[] CATEGORIES = SpreadCategory.values();
+
+    private final Market[] markets;
+    private final int[] symbolIds;
+    private final long[] bidPrices;
+    private final long[] askPrices;
+    private final int[] spreadBasisPoints;
+    private final byte[] categories;
+
+    private MarketSnapshot(MarketSnapshot source) {
+        this.markets = source.markets;
+        this.symbolIds = source.symbolIds;
+        this.bidPrices = source.bidPrices;
+        this.askPrices = source.askPrices;
+        this.spreadBasisPoints = new int[source.size()];
+        this.categories = new byte[source.size()];
+        Arrays.fill(categories, (byte) SpreadCategory.UNKNOWN.ordinal());
+    }
+
+    private MarketSnapshot(Market[] markets, TickerSymbolTable symbolTable) {
+        int size = markets.length;
+        this.markets = markets;
+        this.symbolIds = new int[size];
+        this.bidPrices = new long[size];
+        this.askPrices = new long[size];
+        this.spreadBasisPoints = new int[size];
+        this.categories = new byte[size];
+
+        byte unknown = (byte) SpreadCategory.UNKNOWN.ordinal();
+        for (int row = 0; row < size; row++) {
+            Market market = markets[row];
+            symbolIds[row] = market.tickerId() != null ? symbolTable.idOf(market.tickerId()) : TickerSymbolTable.NOT_FOUND;
+            bidPrices[row] = scale(market.bidPrice());
+            askPrices[row] = scale(market.askPrice());
+            categories[row] = unknown;
+        }
+    }
+
+    /**
+     * Builds a snapshot with one row per non-null market, in list order.
+     */
+    public static MarketSnapshot of(List<Market> markets, TickerSymbolTable symbolTable) {
+        Market[] rows = markets.stream()
+                .filter(Objects::nonNull)
+                .toArray(Market[]::new);
+        return new MarketSnapshot(rows, symbolTable);
+    }
+
+    /**
+     * @return a snapshot of the same markets and prices, sharing their columns, with every spread UNKNOWN again;
+     * used to rank the same markets by another measure
+     */
+    public MarketSnapshot withoutSpreads() {
+        return new MarketSnapshot(this);
+    }
+
+    public int size() {
+        return markets.length;
+    }
+
+    public Market market(int row) {
+        return markets[row];
+    }
+
+    public String tickerId(int row) {
+        return markets[row].tickerId();
+    }
+
+    public int symbolId(int row) {
+        return symbolIds[row];
+    }
+
+    public long bidPrice(int row) {
+        return bidPrices[row];
+    }
+
+    public long askPrice(int row) {
+        return askPrices[row];
+    }
+
+    /**
+     * @return the spread as a fraction of the mid price in basis points, meaningful only for priced rows
+     */
+    public int spreadBasisPoints(int row) {
+        return spreadBasisPoints[row];
+    }
+
+    public SpreadCategory category(int row) {
+        return CATEGORIES[categories[row]];
+    }
+
+    public void setSpread(int row, int basisPoints, SpreadCategory category) {
+        spreadBasisPoints[row] = basisPoints;
+        categories[row] = (byte) category.ordinal();
+    }
+
+    /**
+     * Live price and result columns for batch calculation; writes go straight into the snapshot.
+     */
+    public long[] bidColumn() {
+        return bidPrices;
+    }
+
+    public long[] askColumn() {
+        return askPrices;
+    }
+
+    public int[] spreadColumn() {
+        return spreadBasisPoints;
+    }
+
+    public byte[] categoryColumn() {
+        return categories;
+    }
+
+    /**
+     * Materialises the row as a {@link Spread}. The percentage is rebuilt from basis points with scale 4,
+     * the same value and scale as {@link io.artur.interview.kanga.spread_ranking.domain.SpreadCalculationService#calculateSpread(Market)}.
+     */
+    public Spread toSpread(int row) {
+        Market market = markets[row];
+        SpreadCategory category = category(row);
+        if (category == SpreadCategory.UNKNOWN) {
+            return Spread.unknown(market);
+        }
+        return new Spread(market.tickerId(), BigDecimal.valueOf(spreadBasisPoints[row] * 100L, 4), category,
+                market.baseCurrency(), market.targetCurrency());
+    }
+
+    private static long scale(BigDecimal price) {
+        if (price == null) {
+            return NO_PRICE;
+        }
+        if (price.scale() > PRICE_SCALE) {
+            return UNSCALED_PRICE;
+        }
+        try {
+            return price.movePointRight(PRICE_SCALE).longValueExact();
+        } catch (ArithmeticException ex) {
+            return UNSCALED_PRICE;
+        }
+    }
+}
@@ -16,6 +16,11 @@ public class OrderBook {
     private final BigDecimal bestBidPrice;
     private final BigDecimal bestAskPrice;
     private final Instant timestamp;
+    private final OrderBookDepth depth;
+
+    public OrderBook(String marketId, BigDecimal bestBidPrice, BigDecimal bestAskPrice, Instant timestamp) {
+        this(marketId, bestBidPrice, bestAskPrice, timestamp, OrderBookDepth.EMPTY);
+    }
 
     public static OrderBook empty(String marketId, Clock clock) {
         return new OrderBook(marketId, null, null, Instant.now(clock));
@@ -0,0 +1,114 @@
+package io.artur.interview.kanga.spread_ranking.domain.model;
+
+/**
+ * Price levels of both sides of an order book, best level first.
+ * <p>
+ * Each side is one primitive array of interleaved price and quantity pairs, {@code [price0, quantity0, price1, ...]},
+ * instead of a list of string lists, so a book costs two arrays however deep it is.
+ * Prices and quantities are doubles: the effective spread is an estimate of execution cost, not an accounting value.
+ */
+public final class OrderBookDepth {
+
+    public static final OrderBookDepth EMPTY = new OrderBookDepth(new double[0], new double[0]);
+
+    private final double[] bids;
+    private final double[] asks;
+
+    private OrderBookDepth(double[] bids, double[] asks) {
+        this.bids = bids;
+        this.asks = asks;
+    }
+
+    /**
+     * @param bids interleaved price and quantity pairs, highest price first; the array is not copied
+     * @param asks interleaved price and quantity pairs, lowest price first; the array is not copied
+     */
+    public static OrderBookDepth of(double[] bids, double[] asks) {
+        if ((bids.length & 1) != 0 || (asks.length & 1) != 0) {
+            throw new IllegalArgumentException("Levels must be price and quantity pairs");
+        }
+        return bids.length == 0 && asks.length == 0 ? EMPTY : new OrderBookDepth(bids, asks);
+    }
+
+    public int bidLevels() {
+        return bids.length / 2;
+    }
+
+    public int askLevels() {
+        return asks.length / 2;
+    }
+
+    /**
+     * @return the average price of selling into the bids for the given notional, or NaN if the bids cannot fill it
+     */
+    public double bidVwap(double notional) {
+        return vwap(bids, notional);
+    }
+
+    /**
+     * @return the average price of buying from the asks for the given notional, or NaN if the asks cannot fill it
+     */
+    public double askVwap(double notional) {
+        return vwap(asks, notional);
+    }
+
+    /**
+     * Depth of both books as one book, for a consolidated view of the same market on several venues.
+     * Levels keep their quantities and stay best first; levels of equal price are kept side by side.
+     */
+    public OrderBookDepth mergedWith(OrderBookDepth other) {
+        if (other == EMPTY) {
+            return this;
+        }
+        if (this == EMPTY) {
+            return other;
+        }
+        return new OrderBookDepth(merge(bids, other.bids, true), merge(asks, other.asks, false));
+    }
+
+    private static double[] merge(double[] left, double[] right, boolean descending) {
+        double[] merged = new double[left.length + right.length];
+        int l = 0;
+        int r = 0;
+        int m = 0;
+        while (l < left.length && r < right.length) {
+            boolean takeLeft = descending ? left[l] >= right[r] : left[l] <= right[r];
+            double[] source = takeLeft ? left : right;
+            int index = takeLeft ? l : r;
+            merged[m++] = source[index];
+            merged[m++] = source[index + 1];
+            if (takeLeft) {
+                l += 2;
+            } else {
+                r += 2;
+            }
+        }
+        System.arraycopy(left, l, merged, m, left.length - l);
+        System.arraycopy(right, r, merged, m + left.length - l, right.length - r);
+        return merged;
+    }
+
+    /**
+     * Walks the levels once, best first, and stops at the level that completes the notional.
+     */
+    private static double vwap(double[] levels, double notional) {
+        if (!(notional > 0)) {
+            return Double.NaN;
+        }
+        double remaining = notional;
+        double quantity = 0;
+        for (int i = 0; i < levels.length; i += 2) {
+            double price = levels[i];
+            double levelNotional = price * levels[i + 1];
+            if (!(price > 0) || !(levelNotional > 0)) {
+                continue;
+            }
+            if (levelNotional >= remaining) {
+                return notional / (quantity + remaining / price);
+            }
+            quantity += levels[i + 1];
+            remaining -= levelNotional;
+        }
+        return Double.NaN;
+    }
+}
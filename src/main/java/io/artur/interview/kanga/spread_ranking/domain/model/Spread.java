@@ -4,9 +4,17 @@ import java.math.BigDecimal;
 
 import static io.artur.interview.kanga.spread_ranking.domain.model.SpreadCategory.UNKNOWN;
 
-public record Spread(String marketId, BigDecimal percentage, SpreadCategory category) {
+public record Spread(String marketId, BigDecimal percentage, SpreadCategory category, String baseCurrency, String targetCurrency) {
+
+    public Spread(String marketId, BigDecimal percentage, SpreadCategory category) {
+        this(marketId, percentage, category, null, null);
+    }
 
     public static Spread unknown(String marketId) {
         return new Spread(marketId, null, UNKNOWN);
     }
+
+    public static Spread unknown(Market market) {
+        return new Spread(market.tickerId(), null, UNKNOWN, market.baseCurrency(), market.targetCurrency());
+    }
 }
@@ -0,0 +1,91 @@
+package io.artur.interview.kanga.spread_ranking.domain.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Cut points splitting priced markets into buckets by spread.
+ * <p>
+ * Bucket {@code i} holds spreads up to and including cut point {@code i}; the last bucket has no upper bound,
+ * so {@code n} cut points make {@code n + 1} buckets. Cut points are ascending basis points of the mid price,
+ * the unit of {@link MarketSnapshot#spreadBasisPoints}, and a bucket is found by a binary search over them.
+ */
+public final class SpreadBuckets {
+
+    private static final int PERCENT_SCALE = 2;
+
+    private final int[] upperBounds;
+
+    private SpreadBuckets(int[] upperBounds) {
+        this.upperBounds = upperBounds;
+    }
+
+    /**
+     * @param upperBounds cut points in basis points, strictly ascending
+     */
+    public static SpreadBuckets of(int... upperBounds) {
+        for (int i = 1; i < upperBounds.length; i++) {
+            if (upperBounds[i] <= upperBounds[i - 1]) {
+                throw new IllegalArgumentException("Cut points must be strictly ascending: " + Arrays.toString(upperBounds));
+            }
+        }
+        return new SpreadBuckets(upperBounds.clone());
+    }
+
+    /**
+     * @param percentages cut points as spread percentages, strictly ascending; rounded half up to basis points
+     */
+    public static SpreadBuckets ofPercentages(List<BigDecimal> percentages) {
+        int[] upperBounds = new int[percentages.size()];
+        for (int i = 0; i < upperBounds.length; i++) {
+            upperBounds[i] = basisPoints(percentages.get(i));
+        }
+        return of(upperBounds);
+    }
+
+    /**
+     * @return the spread percentage in basis points, rounded half up
+     */
+    public static int basisPoints(BigDecimal percentage) {
+        return percentage.setScale(PERCENT_SCALE, RoundingMode.HALF_UP).unscaledValue().intValueExact();
+    }
+
+    /**
+     * Buckets cut at the given spreads, ignoring repeated values, so sorted input with ties still makes valid buckets.
+     *
+     * @param sortedBasisPoints ascending spreads in basis points
+     */
+    public static SpreadBuckets ofDistinct(int[] sortedBasisPoints) {
+        int[] upperBounds = new int[sortedBasisPoints.length];
+        int count = 0;
+        for (int basisPoints : sortedBasisPoints) {
+            if (count == 0 || basisPoints > upperBounds[count - 1]) {
+                upperBounds[count++] = basisPoints;
+            }
+        }
+        return new SpreadBuckets(Arrays.copyOf(upperBounds, count));
+    }
+
+    public int size() {
+        return upperBounds.length + 1;
+    }
+
+    public int bucketOf(int spreadBasisPoints) {
+        int index = Arrays.binarySearch(upperBounds, spreadBasisPoints);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /**
+     * @return the largest spread percentage of the bucket, or null for the last, unbounded bucket
+     */
+    public BigDecimal upperBound(int bucket) {
+        return bucket < upperBounds.length ? BigDecimal.valueOf(upperBounds[bucket], PERCENT_SCALE) : null;
+    }
+
+    @Override
+    public String toString() {
+        return "SpreadBuckets" + Arrays.toString(upperBounds);
+    }
+}
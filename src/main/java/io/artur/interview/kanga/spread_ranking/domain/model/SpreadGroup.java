@@ -0,0 +1,16 @@
+package io.artur.interview.kanga.spread_ranking.domain.model;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * One bucket of priced markets in ranking order.
+ *
+ * @param maxPercentage the largest spread percentage of the bucket, null for the last, unbounded bucket
+ */
+public record SpreadGroup(BigDecimal maxPercentage, List<Spread> spreads) {
+
+    public SpreadGroup {
+        spreads = List.copyOf(spreads);
+    }
+}
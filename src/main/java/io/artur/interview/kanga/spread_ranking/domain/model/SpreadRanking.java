@@ -1,22 +1,39 @@
 package io.artur.interview.kanga.spread_ranking.domain.model;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 
 import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 
 @Getter
 public class SpreadRanking {
 
+    private static final Comparator<Spread> ALPHABETICAL =
+            Comparator.comparing(Spread::marketId, String.CASE_INSENSITIVE_ORDER);
+
     private final List<Spread> lowSpreadMarkets;
     private final List<Spread> highSpreadMarkets;
     private final List<Spread> unavailableMarkets;
     private final Instant calculatedAt;
     private final int totalMarketsCount;
+    // priced markets split into configured spread buckets, in ranking order; empty when not grouped
+    private final List<SpreadGroup> spreadGroups;
+    // named rankings of the same markets from the same calculation, published with this one
+    private final Map<String, SpreadRanking> profileRankings;
+    // sorted once per ranking, by the repository when it is published
+    @Getter(AccessLevel.NONE)
+    private volatile List<List<Spread>> alphabeticalGroups;
 
     private SpreadRanking(Builder builder) {
         this.lowSpreadMarkets = List.copyOf(builder.lowSpreadMarkets);
@@ -26,6 +43,57 @@ public class SpreadRanking {
         this.totalMarketsCount = lowSpreadMarkets.size() +
                 highSpreadMarkets.size() +
                 unavailableMarkets.size();
+        this.spreadGroups = List.copyOf(builder.spreadGroups);
+        this.profileRankings = Collections.unmodifiableMap(new LinkedHashMap<>(builder.profileRankings));
+    }
+
+    /**
+     * @return the ranking of the named profile, if it was calculated with this one
+     */
+    public Optional<SpreadRanking> getProfileRanking(String profile) {
+        return Optional.ofNullable(profileRankings.get(profile));
+    }
+
+    /**
+     * @return low spread, high spread and unavailable markets, each ordered by market ID case-insensitively,
+     * as the API lists them; sorted on first use only
+     */
+    public List<List<Spread>> getAlphabeticalGroups() {
+        List<List<Spread>> groups = alphabeticalGroups;
+        if (groups == null) {
+            groups = List.of(alphabetical(lowSpreadMarkets), alphabetical(highSpreadMarkets),
+                    alphabetical(unavailableMarkets));
+            alphabeticalGroups = groups;
+        }
+        return groups;
+    }
+
+    private static List<Spread> alphabetical(List<Spread> spreads) {
+        Spread[] ordered = spreads.toArray(Spread[]::new);
+        Arrays.sort(ordered, ALPHABETICAL);
+        return List.of(ordered);
+    }
+
+    public SpreadRanking withProfileRankings(Map<String, SpreadRanking> profileRankings) {
+        return toBuilder()
+                .profileRankings(profileRankings)
+                .build();
+    }
+
+    public SpreadRanking withSpreadGroups(List<SpreadGroup> spreadGroups) {
+        return toBuilder()
+                .spreadGroups(spreadGroups)
+                .build();
+    }
+
+    private Builder toBuilder() {
+        return builder()
+                .lowSpreadMarkets(lowSpreadMarkets)
+                .highSpreadMarkets(highSpreadMarkets)
+                .unavailableMarkets(unavailableMarkets)
+                .calculatedAt(calculatedAt)
+                .spreadGroups(spreadGroups)
+                .profileRankings(profileRankings);
     }
 
 
@@ -51,6 +119,8 @@ public class SpreadRanking {
         private List<Spread> highSpreadMarkets = new ArrayList<>();
         private List<Spread> unavailableMarkets = new ArrayList<>();
         private Instant calculatedAt;
+        private List<SpreadGroup> spreadGroups = List.of();
+        private Map<String, SpreadRanking> profileRankings = Map.of();
 
         public Builder lowSpreadMarkets(List<Spread> spreads) {
             this.lowSpreadMarkets = spreads != null ? spreads : List.of();
@@ -72,6 +142,16 @@ public class SpreadRanking {
             return this;
         }
 
+        public Builder spreadGroups(List<SpreadGroup> groups) {
+            this.spreadGroups = groups != null ? groups : List.of();
+            return this;
+        }
+
+        public Builder profileRankings(Map<String, SpreadRanking> rankings) {
+            this.profileRankings = rankings != null ? rankings : Map.of();
+            return this;
+        }
+
         public SpreadRanking build() {
             return new SpreadRanking(this);
         }
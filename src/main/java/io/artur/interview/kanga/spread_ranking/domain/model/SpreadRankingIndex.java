@@ -0,0 +1,252 @@
+package io.artur.interview.kanga.spread_ranking.domain.model;
+
+import io.artur.interview.kanga.spread_ranking.domain.TickerSymbolTable;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.ObjIntConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Read-optimised view of a {@link SpreadRanking}, built once when the ranking is published.
+ * <p>
+ * All spreads are held in a single array ordered by percentage ascending (unknown spreads last),
+ * then by market ID. Every combination of base currency, target currency and category a query can filter by
+ * has an ascending position list into that array, holding exactly the spreads matching it, so every list is
+ * itself sorted by percentage. A query binary searches the list of its filters for its starting point and
+ * reads forward without skipping a row, which makes top-K and range queries O(log n + k) whatever filters
+ * they combine. A spread is listed under the seven combinations of its three attributes.
+ * Single-market lookups resolve the market ID to its {@link TickerSymbolTable} ID and read its position
+ * from an array indexed by that ID.
+ */
+public final class SpreadRankingIndex {
+
+    private static final int[] NO_POSITIONS = new int[0];
+    private static final String CURSOR_SEPARATOR = ":";
+    private static final Comparator<Spread> RANKING_ORDER = Comparator
+            .comparing(Spread::percentage, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(Spread::marketId, String.CASE_INSENSITIVE_ORDER);
+
+    private final Instant calculatedAt;
+    private final Spread[] spreads;
+    private final int knownSpreadsCount;
+    private final int[] allPositions;
+    private final Map<Filters, int[]> positionsByFilters;
+    private final TickerSymbolTable symbolTable;
+    private final int[] positionsBySymbolId;
+
+    private SpreadRankingIndex(SpreadRanking ranking, TickerSymbolTable symbolTable) {
+        this.calculatedAt = ranking.getCalculatedAt();
+        this.spreads = Stream.of(ranking.getLowSpreadMarkets(), ranking.getHighSpreadMarkets(), ranking.getUnavailableMarkets())
+                .flatMap(List::stream)
+                .sorted(RANKING_ORDER)
+                .toArray(Spread[]::new);
+        this.knownSpreadsCount = (int) Arrays.stream(spreads).filter(spread -> spread.percentage() != null).count();
+        this.allPositions = new int[spreads.length];
+        Arrays.setAll(allPositions, position -> position);
+        this.positionsByFilters = indexByFilters();
+        this.symbolTable = symbolTable;
+        this.positionsBySymbolId = indexBySymbolId();
+    }
+
+    public static SpreadRankingIndex of(SpreadRanking ranking, TickerSymbolTable symbolTable) {
+        return new SpreadRankingIndex(ranking, symbolTable);
+    }
+
+    /**
+     * Builds an index with its own symbol table, for rankings that are not published through a repository.
+     */
+    public static SpreadRankingIndex of(SpreadRanking ranking) {
+        return new SpreadRankingIndex(ranking, new TickerSymbolTable());
+    }
+
+    public Instant getCalculatedAt() {
+        return calculatedAt;
+    }
+
+    public int size() {
+        return spreads.length;
+    }
+
+    /**
+     * @return the spread of the given market, or null if the market is not part of the ranking
+     */
+    public Spread findByMarketId(String marketId) {
+        int symbolId = symbolTable.find(marketId);
+        if (symbolId < 0 || symbolId >= positionsBySymbolId.length) {
+            return null;
+        }
+        int position = positionsBySymbolId[symbolId];
+        return position >= 0 ? spreads[position] : null;
+    }
+
+    public SpreadRankingPage query(SpreadRankingQuery query) {
+        return scan(query).page();
+    }
+
+    /**
+     * @param rowsScanned spreads read to build the page
+     */
+    record Scan(SpreadRankingPage page, int rowsScanned) {
+    }
+
+    Scan scan(SpreadRankingQuery query) {
+        int[] candidates = selectCandidates(query);
+        int from = firstCandidateAtOrAfter(candidates, startPosition(query));
+
+        List<Spread> page = new ArrayList<>(Math.min(query.limit(), candidates.length - from));
+        int next = from;
+        int scanned = 0;
+        while (next < candidates.length && page.size() < query.limit()) {
+            Spread spread = spreads[candidates[next]];
+            scanned++;
+            if (isBeyondPercentageRange(spread, query)) {
+                next = candidates.length;
+                break;
+            }
+            page.add(spread);
+            next++;
+        }
+
+        String nextCursor = next < candidates.length ? encodeCursor(candidates[next]) : null;
+        return new Scan(new SpreadRankingPage(List.copyOf(page), calculatedAt, nextCursor), scanned);
+    }
+
+    private int[] selectCandidates(SpreadRankingQuery query) {
+        if (query.baseCurrency() == null && query.targetCurrency() == null && query.category() == null) {
+            return allPositions;
+        }
+        Filters filters = new Filters(normalizeCurrency(query.baseCurrency()), normalizeCurrency(query.targetCurrency()),
+                query.category());
+        return positionsByFilters.getOrDefault(filters, NO_POSITIONS);
+    }
+
+    private int startPosition(SpreadRankingQuery query) {
+        int start = query.cursor() != null ? decodeCursor(query.cursor()) : 0;
+        if (query.minPercentage() != null) {
+            start = Math.max(start, firstPositionWithPercentageAtLeast(query.minPercentage()));
+        }
+        return start;
+    }
+
+    private int firstPositionWithPercentageAtLeast(BigDecimal minPercentage) {
+        int low = 0;
+        int high = knownSpreadsCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (spreads[middle].percentage().compareTo(minPercentage) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static int firstCandidateAtOrAfter(int[] candidates, int position) {
+        int found = Arrays.binarySearch(candidates, position);
+        return found >= 0 ? found : -found - 1;
+    }
+
+    private static boolean isBeyondPercentageRange(Spread spread, SpreadRankingQuery query) {
+        if (spread.percentage() == null) {
+            return query.hasPercentageRange();
+        }
+        return query.maxPercentage() != null && spread.percentage().compareTo(query.maxPercentage()) > 0;
+    }
+
+    private int[] indexBySymbolId() {
+        int[] symbolIds = new int[spreads.length];
+        for (int position = 0; position < spreads.length; position++) {
+            symbolIds[position] = spreads[position].marketId() != null
+                    ? symbolTable.idOf(spreads[position].marketId())
+                    : TickerSymbolTable.NOT_FOUND;
+        }
+
+        int[] positions = new int[symbolTable.size()];
+        Arrays.fill(positions, -1);
+        for (int position = 0; position < spreads.length; position++) {
+            if (symbolIds[position] >= 0) {
+                positions[symbolIds[position]] = position;
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * Lists every position under each combination of its base currency, target currency and category,
+     * in two passes: one sizing the lists, one filling them.
+     */
+    private Map<Filters, int[]> indexByFilters() {
+        Map<Filters, int[]> sizes = new HashMap<>();
+        forEachFilters((filters, position) -> sizes.computeIfAbsent(filters, ignored -> new int[1])[0]++);
+
+        Map<Filters, int[]> index = HashMap.newHashMap(sizes.size());
+        sizes.forEach((filters, size) -> {
+            index.put(filters, new int[size[0]]);
+            size[0] = 0;
+        });
+        forEachFilters((filters, position) -> index.get(filters)[sizes.get(filters)[0]++] = position);
+        return index;
+    }
+
+    private void forEachFilters(ObjIntConsumer<Filters> consumer) {
+        for (int position = 0; position < spreads.length; position++) {
+            Spread spread = spreads[position];
+            String base = normalizeCurrency(spread.baseCurrency());
+            String target = normalizeCurrency(spread.targetCurrency());
+            SpreadCategory category = spread.category();
+            for (int combination = 1; combination < 8; combination++) {
+                boolean byBase = (combination & 1) != 0;
+                boolean byTarget = (combination & 2) != 0;
+                boolean byCategory = (combination & 4) != 0;
+                if ((byBase && base == null) || (byTarget && target == null) || (byCategory && category == null)) {
+                    continue;
+                }
+                consumer.accept(new Filters(byBase ? base : null, byTarget ? target : null,
+                        byCategory ? category : null), position);
+            }
+        }
+    }
+
+    private String encodeCursor(int position) {
+        return epochMillis() + CURSOR_SEPARATOR + position;
+    }
+
+    private int decodeCursor(String cursor) {
+        int separator = cursor.indexOf(CURSOR_SEPARATOR);
+        try {
+            if (separator < 0 || Long.parseLong(cursor.substring(0, separator)) != epochMillis()) {
+                throw new IllegalArgumentException("Cursor does not belong to the current ranking, restart from the first page");
+            }
+            int position = Integer.parseInt(cursor.substring(separator + 1));
+            if (position < 0 || position > spreads.length) {
+                throw new IllegalArgumentException("Cursor is out of range: " + cursor);
+            }
+            return position;
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Malformed cursor: " + cursor, ex);
+        }
+    }
+
+    private long epochMillis() {
+        return calculatedAt != null ? calculatedAt.toEpochMilli() : 0L;
+    }
+
+    private static String normalizeCurrency(String currency) {
+        return currency != null ? currency.toUpperCase(Locale.ROOT) : null;
+    }
+
+    /**
+     * Filters of a query, null where it does not filter; currencies in upper case.
+     */
+    private record Filters(String baseCurrency, String targetCurrency, SpreadCategory category) {
+    }
+}
@@ -0,0 +1,11 @@
+package io.artur.interview.kanga.spread_ranking.domain.model;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * One page of ranking query results, ordered by spread percentage ascending.
+ * {@code nextCursor} is null when there are no further results.
+ */
+public record SpreadRankingPage(List<Spread> spreads, Instant calculatedAt, String nextCursor) {
+}
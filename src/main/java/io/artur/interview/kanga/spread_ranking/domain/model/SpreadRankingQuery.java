@@ -0,0 +1,33 @@
+package io.artur.interview.kanga.spread_ranking.domain.model;
+
+import lombok.Builder;
+
+import java.math.BigDecimal;
+
+/**
+ * Filter and pagination criteria for reading a slice of the current ranking.
+ * Every criterion is optional; the cursor is the {@link SpreadRankingPage#nextCursor()} of the previous page.
+ */
+@Builder
+public record SpreadRankingQuery(
+        String baseCurrency,
+        String targetCurrency,
+        BigDecimal minPercentage,
+        BigDecimal maxPercentage,
+        SpreadCategory category,
+        int limit,
+        String cursor) {
+
+    public SpreadRankingQuery {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        if (minPercentage != null && maxPercentage != null && minPercentage.compareTo(maxPercentage) > 0) {
+            throw new IllegalArgumentException("Minimum spread cannot be greater than maximum spread");
+        }
+    }
+
+    boolean hasPercentageRange() {
+        return minPercentage != null || maxPercentage != null;
+    }
+}
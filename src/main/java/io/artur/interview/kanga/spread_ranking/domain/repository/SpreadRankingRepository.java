@@ -1,6 +1,7 @@
 package io.artur.interview.kanga.spread_ranking.domain.repository;
 
 import io.artur.interview.kanga.spread_ranking.domain.model.SpreadRanking;
+import io.artur.interview.kanga.spread_ranking.domain.model.SpreadRankingIndex;
 
 import java.util.Optional;
 
@@ -8,6 +9,7 @@ public interface SpreadRankingRepository {
 
     void storeSpreadRanking(SpreadRanking spreadRanking);
     Optional<SpreadRanking> getCurrentSpreadRanking();
+    Optional<SpreadRankingIndex> getCurrentSpreadRankingIndex();
     boolean hasValidSpreadRanking();
     void clear();
     boolean isRankingExpired();
@@ -7,23 +7,40 @@ import io.artur.interview.kanga.spread_ranking.domain.model.OrderBook;
 import io.artur.interview.kanga.spread_ranking.infrastructure.external.config.KangaApiProperties;
 import io.artur.interview.kanga.spread_ranking.infrastructure.external.dto.KangaMarketPairResponse;
 import io.artur.interview.kanga.spread_ranking.infrastructure.external.dto.KangaOrderBookResponse;
+import io.artur.interview.kanga.spread_ranking.monitoring.MarketLatencyRecorder;
+import io.artur.interview.kanga.spread_ranking.monitoring.OrderBookFetchEvent;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.ratelimiter.RateLimiter;
 import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.reactor.ratelimiter.operator.RateLimiterOperator;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+import reactor.util.retry.Retry;
 
 import java.time.Clock;
+import java.time.Duration;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
-
-import static java.util.stream.Collectors.toConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+import java.util.stream.IntStream;
 
 @Slf4j
 public class KangaApiClientOptimized implements ExchangeApiClient {
@@ -31,21 +48,65 @@ public class KangaApiClientOptimized implements ExchangeApiClient {
     private static final String MARKET_PAIRS_ENDPOINT = "/market/pairs";
     private static final String ORDERBOOK_ENDPOINT = "/market/orderbook/{market}";
 
+    private static final String REQUEST_TIMER = "kanga.api.requests";
+    private static final String DEFAULT_EXCHANGE = "kanga";
+
+    private final String exchange;
     private final WebClient webClient;
     private final CircuitBreaker circuitBreaker;
+    private final RateLimiter rateLimiter;
     private final Clock clock;
     private final KangaApiProperties properties;
+    private final MarketLatencyRecorder marketLatencyRecorder;
+    private final AtomicInteger inFlightRequests = new AtomicInteger();
+    private final Timer marketPairsSuccessTimer;
+    private final Timer marketPairsErrorTimer;
+    private final Timer orderBookSuccessTimer;
+    private final Timer orderBookErrorTimer;
 
     public KangaApiClientOptimized(WebClient webClient, CircuitBreaker circuitBreaker, 
-                                  Clock clock, KangaApiProperties properties) {
+                                  Clock clock, KangaApiProperties properties, MeterRegistry meterRegistry,
+                                  MarketLatencyRecorder marketLatencyRecorder) {
+        this(DEFAULT_EXCHANGE, webClient, circuitBreaker, null, clock, properties, meterRegistry, marketLatencyRecorder);
+    }
+
+    /**
+     * @param exchange    venue name, tagging the request meters
+     * @param rateLimiter limits requests to the venue, including retries; null for no limit
+     */
+    public KangaApiClientOptimized(String exchange, WebClient webClient, CircuitBreaker circuitBreaker,
+                                  RateLimiter rateLimiter, Clock clock, KangaApiProperties properties,
+                                  MeterRegistry meterRegistry, MarketLatencyRecorder marketLatencyRecorder) {
+        this.exchange = exchange;
         this.webClient = webClient.mutate()
                 .baseUrl(properties.getBaseUrl())
                 .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
                 .defaultHeader(HttpHeaders.USER_AGENT, "SpreadRankingService/1.0")
                 .build();
         this.circuitBreaker = circuitBreaker;
+        this.rateLimiter = rateLimiter;
         this.clock = clock;
         this.properties = properties;
+        this.marketLatencyRecorder = marketLatencyRecorder;
+        this.marketPairsSuccessTimer = requestTimer(meterRegistry, exchange, "market-pairs", "success");
+        this.marketPairsErrorTimer = requestTimer(meterRegistry, exchange, "market-pairs", "error");
+        this.orderBookSuccessTimer = requestTimer(meterRegistry, exchange, "orderbook", "success");
+        this.orderBookErrorTimer = requestTimer(meterRegistry, exchange, "orderbook", "error");
+        Gauge.builder("kanga.api.requests.in.flight", inFlightRequests, AtomicInteger::get)
+                .description("Kanga API requests currently awaiting a response")
+                .tag("exchange", exchange)
+                .register(meterRegistry);
+    }
+
+    private static Timer requestTimer(MeterRegistry meterRegistry, String exchange, String endpoint, String outcome) {
+        return Timer.builder(REQUEST_TIMER)
+                .description("Kanga API request latency including retries and decoding")
+                .tag("exchange", exchange)
+                .tag("endpoint", endpoint)
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 
     @PreDestroy
@@ -53,44 +114,150 @@ public class KangaApiClientOptimized implements ExchangeApiClient {
         log.info("Cleaning up KangaApiClient resources");
     }
 
+    @Override
+    public int warmUp() {
+        return warmUpConnections().block();
+    }
+
+    /**
+     * Sends {@code connection-pool.warm-up-connections} HEAD requests to the base URL at once, so the pool opens a
+     * connection for each of them, or as many as it multiplexes them over with HTTP/2. A response of any status
+     * shows its connection usable.
+     *
+     * @return connections that answered; never fails
+     */
+    public Mono<Integer> warmUpConnections() {
+        int connections = properties.getConnectionPool().getWarmUpConnections();
+        if (connections <= 0) {
+            return Mono.just(0);
+        }
+
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return Flux.range(0, connections)
+                    .flatMap(request -> webClient
+                            .head()
+                            .exchangeToMono(response -> response.releaseBody().thenReturn(request))
+                            .transformDeferred(rateLimited())
+                            .timeout(properties.getOperationTimeout())
+                            .onErrorResume(ex -> {
+                                log.debug("Warm-up request to {} failed", exchange, ex);
+                                return Mono.empty();
+                            }), connections)
+                    .count()
+                    .map(answered -> {
+                        log.info("Warmed up {}/{} connections to {} in {} ms", answered, connections, exchange,
+                                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                        return answered.intValue();
+                    });
+        });
+    }
+
     /**
      * Fetches all available market pairs
      */
     public List<MarketPair> getMarketPairs() {
         log.debug("Fetching market pairs from Kanga API");
 
+        long start = System.nanoTime();
         try {
-            List<KangaMarketPairResponse> apiResponse = webClient
-                    .get()
-                    .uri(MARKET_PAIRS_ENDPOINT)
-                    .retrieve()
-                    .onStatus(HttpStatusCode::isError, this::handleApiError)
-                    .bodyToFlux(KangaMarketPairResponse.class)
-                    .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
-                    .timeout(properties.getOperationTimeout())
-                    .retry(properties.getRetryCount())
+            List<MarketPair> marketPairs = marketPairs()
                     .collectList()
                     .block(properties.getPipelineTimeout());
 
-            if (apiResponse == null || apiResponse.isEmpty()) {
+            if (marketPairs == null || marketPairs.isEmpty()) {
                 log.warn("Received empty market pairs response from Kanga API");
                 return List.of();
             }
 
-            List<MarketPair> marketPairs = apiResponse.stream()
-                    .map(KangaApiMapper::toDomainMarketPair)
-                    .filter(Objects::nonNull)
-                    .toList();
-
             log.info("Successfully fetched {} market pairs", marketPairs.size());
+            marketPairsSuccessTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
             return marketPairs;
 
         } catch (Exception ex) {
+            marketPairsErrorTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
             log.error("Failed to fetch market pairs from Kanga API", ex);
             throw new ExchangeApiException("Cannot fetch market pairs", ex);
         }
     }
 
+    /**
+     * Requests the order book of every pair as soon as the pair is decoded, while the rest of the list is still
+     * being received, with at most {@code connection-pool.max-connections} order books in flight.
+     * <p>
+     * The list is never held whole: pairs are read from the connection only as fast as order book requests take
+     * them, so memory use does not grow with the length of the list and the codec's {@code max-in-memory-size}
+     * applies to one pair at a time. The whole fetch has {@code fetch-deadline} to complete, however steadily
+     * the listing keeps arriving.
+     * <p>
+     * The pair count is signalled from the listing while order books arrive on other threads, so sink calls are
+     * serialized here to keep them one at a time.
+     */
+    @Override
+    public void fetchMarkets(MarketSink sink) {
+        log.debug("Streaming market pairs and their order books from Kanga API");
+
+        long start = System.nanoTime();
+        Duration deadline = properties.getFetchDeadline();
+        AtomicInteger received = new AtomicInteger();
+        AtomicBoolean listed = new AtomicBoolean();
+        Object sinkLock = new Object();
+        try {
+            marketPairs()
+                    .doOnNext(pair -> received.incrementAndGet())
+                    .doOnComplete(() -> {
+                        listed.set(true);
+                        marketPairsSuccessTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        log.info("Received {} market pairs", received.get());
+                        synchronized (sinkLock) {
+                            sink.pairsReceived(received.get());
+                        }
+                    })
+                    .flatMapSequential(pair -> orderBook(pair.getTickerId()).map(orderBook -> Tuples.of(pair, orderBook)),
+                            properties.getConnectionPool().getMaxConnections())
+                    .doOnNext(pairBook -> {
+                        synchronized (sinkLock) {
+                            sink.orderBookReceived(pairBook.getT1(), pairBook.getT2());
+                        }
+                    })
+                    .takeUntilOther(Mono.error(() -> new ExchangeApiException(
+                            "Markets not fetched within " + deadline + " after " + received.get() + " pairs"))
+                            .delaySubscription(deadline))
+                    .blockLast();
+        } catch (Exception ex) {
+            if (listed.get()) {
+                throw ex;
+            }
+            marketPairsErrorTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            log.error("Failed to fetch market pairs from Kanga API after {} pairs", received.get(), ex);
+            throw new ExchangeApiException("Cannot fetch market pairs", ex);
+        }
+    }
+
+    /**
+     * Market pairs decoded one array element at a time. A failed request is retried only until its first pair
+     * has been emitted, so a retry never hands out the same pairs twice.
+     */
+    public Flux<MarketPair> marketPairs() {
+        return Flux.defer(() -> {
+            AtomicBoolean emitted = new AtomicBoolean();
+            inFlightRequests.incrementAndGet();
+            return webClient
+                    .get()
+                    .uri(MARKET_PAIRS_ENDPOINT)
+                    .retrieve()
+                    .onStatus(HttpStatusCode::isError, this::handleApiError)
+                    .bodyToFlux(KangaMarketPairResponse.class)
+                    .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                    .transformDeferred(rateLimited())
+                    .timeout(properties.getOperationTimeout())
+                    .doOnNext(pair -> emitted.set(true))
+                    .retryWhen(Retry.max(properties.getRetryCount()).filter(ex -> !emitted.get()))
+                    .doFinally(signal -> inFlightRequests.decrementAndGet())
+                    .mapNotNull(KangaApiMapper::toDomainMarketPair);
+        });
+    }
+
     /**
      * Fetches orderbook for specific market
      */
@@ -98,42 +265,100 @@ public class KangaApiClientOptimized implements ExchangeApiClient {
         if (marketId == null || marketId.trim().isEmpty()) {
             throw new IllegalArgumentException("Market ID cannot be null or empty");
         }
-        
-        log.debug("Fetching orderbook for market: {}", marketId);
+        return orderBook(marketId).block();
+    }
 
-        try {
-            KangaOrderBookResponse apiResponse = webClient
+    /**
+     * Never fails: an order book that cannot be fetched within the pipeline timeout is empty.
+     */
+    private Mono<OrderBook> orderBook(String marketId) {
+        return Mono.defer(() -> {
+            log.debug("Fetching orderbook for market: {}", marketId);
+
+            OrderBookFetchEvent event = new OrderBookFetchEvent();
+            event.begin();
+            event.ticker = marketId;
+            long start = System.nanoTime();
+            inFlightRequests.incrementAndGet();
+            return webClient
                     .get()
                     .uri(ORDERBOOK_ENDPOINT, marketId)
                     .retrieve()
                     .onStatus(HttpStatusCode::isError, this::handleApiError)
-                    .bodyToMono(KangaOrderBookResponse.class)
+                    .toEntity(KangaOrderBookResponse.class)
                     .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                    .transformDeferred(rateLimited())
                     .timeout(properties.getOperationTimeout())
                     .retry(properties.getRetryCount())
-                    .block(properties.getPipelineTimeout());
+                    .timeout(properties.getPipelineTimeout())
+                    .map(response -> toOrderBook(marketId, response, event, start))
+                    .switchIfEmpty(Mono.fromSupplier(() -> toOrderBook(marketId, null, event, start)))
+                    .onErrorResume(ex -> {
+                        recordOrderBookRequest(marketId, System.nanoTime() - start, true);
+                        event.status = OrderBookFetchEvent.ERROR;
+                        log.error("Failed to fetch orderbook for market: {}", marketId, ex);
+                        // Return empty orderbook instead of failing - allows system to continue
+                        return Mono.just(OrderBook.empty(marketId, clock));
+                    })
+                    .doFinally(signal -> {
+                        inFlightRequests.decrementAndGet();
+                        event.commit();
+                    });
+        });
+    }
 
-            if (apiResponse == null) {
-                log.warn("Received null orderbook response for market: {}", marketId);
-                return OrderBook.empty(marketId, clock);
-            }
+    private OrderBook toOrderBook(String marketId, ResponseEntity<KangaOrderBookResponse> response,
+                                  OrderBookFetchEvent event, long start) {
+        KangaOrderBookResponse apiResponse = response != null ? response.getBody() : null;
+        if (response != null) {
+            event.httpStatus = response.getStatusCode().value();
+            event.bytes = response.getHeaders().getContentLength();
+        }
 
-            OrderBook domainOrderBook = KangaApiMapper.toDomainOrderBook(apiResponse, clock);
+        if (apiResponse == null) {
+            log.warn("Received null orderbook response for market: {}", marketId);
+            recordOrderBookRequest(marketId, System.nanoTime() - start, false);
+            event.status = OrderBookFetchEvent.EMPTY;
+            return OrderBook.empty(marketId, clock);
+        }
 
-            log.debug("Successfully fetched orderbook for market: {} with {} bids and {} asks",
-                    marketId, apiResponse.getBids().size(), apiResponse.getAsks().size());
+        OrderBook domainOrderBook = KangaApiMapper.toDomainOrderBook(apiResponse, clock);
 
-            return domainOrderBook;
+        log.debug("Successfully fetched orderbook for market: {} with {} bids and {} asks",
+                marketId, apiResponse.getBids().getListedLevels(), apiResponse.getAsks().getListedLevels());
 
-        } catch (Exception ex) {
-            log.error("Failed to fetch orderbook for market: {}", marketId, ex);
-            // Return empty orderbook instead of failing - allows system to continue
-            return OrderBook.empty(marketId, clock);
-        }
+        recordOrderBookRequest(marketId, System.nanoTime() - start, false);
+        event.status = domainOrderBook.isEmpty() ? OrderBookFetchEvent.EMPTY : OrderBookFetchEvent.SUCCESS;
+        return domainOrderBook;
+    }
+
+    /**
+     * Applied inside the retry, so every attempt takes a permit.
+     */
+    private <T> UnaryOperator<Publisher<T>> rateLimited() {
+        return rateLimiter != null ? RateLimiterOperator.of(rateLimiter) : UnaryOperator.identity();
+    }
+
+    private void recordOrderBookRequest(String marketId, long elapsedNanos, boolean error) {
+        (error ? orderBookErrorTimer : orderBookSuccessTimer).record(elapsedNanos, TimeUnit.NANOSECONDS);
+        marketLatencyRecorder.record(marketId, elapsedNanos, error);
     }
 
     /**
-     * Fetches orderbooks for multiple markets in parallel
+     * Order books by market id, with at most {@code connection-pool.max-connections} requests in flight.
+     * Cancelling the subscription cancels the requests in flight and sends no more.
+     */
+    public Mono<Map<String, OrderBook>> orderBooks(List<String> marketIds) {
+        return Flux.fromIterable(marketIds)
+                .flatMap(marketId -> orderBook(marketId).map(orderBook -> Tuples.of(marketId, orderBook)),
+                        properties.getConnectionPool().getMaxConnections())
+                .collectMap(Tuple2::getT1, Tuple2::getT2, () -> HashMap.newHashMap(marketIds.size()));
+    }
+
+    /**
+     * Fetches orderbooks for multiple markets in parallel.
+     * Every fetch writes its own slot of a results array, and the map is built once all fetches are done,
+     * instead of all fetching threads inserting into one concurrent map.
      */
     public Map<String, OrderBook> getOrderBooks(List<String> marketIds) {
         if (marketIds == null || marketIds.isEmpty()) {
@@ -143,11 +368,14 @@ public class KangaApiClientOptimized implements ExchangeApiClient {
         
         log.info("Fetching orderbooks for {} markets", marketIds.size());
 
-        Map<String, OrderBook> orderBooks = marketIds.parallelStream()
-                .collect(toConcurrentMap(
-                        marketId -> marketId,
-                        this::getOrderBook
-                ));
+        OrderBook[] fetched = new OrderBook[marketIds.size()];
+        IntStream.range(0, fetched.length).parallel()
+                .forEach(i -> fetched[i] = getOrderBook(marketIds.get(i)));
+
+        Map<String, OrderBook> orderBooks = HashMap.newHashMap(fetched.length);
+        for (int i = 0; i < fetched.length; i++) {
+            orderBooks.put(marketIds.get(i), fetched[i]);
+        }
 
         long successfulFetches = orderBooks.values().stream()
                 .mapToLong(orderBook -> orderBook.isEmpty() ? 0 : 1)
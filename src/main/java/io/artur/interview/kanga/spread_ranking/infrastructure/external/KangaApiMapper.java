@@ -3,13 +3,15 @@ package io.artur.interview.kanga.spread_ranking.infrastructure.external;
 
 import io.artur.interview.kanga.spread_ranking.domain.model.MarketPair;
 import io.artur.interview.kanga.spread_ranking.domain.model.OrderBook;
+import io.artur.interview.kanga.spread_ranking.domain.model.OrderBookDepth;
 import io.artur.interview.kanga.spread_ranking.infrastructure.external.dto.KangaMarketPairResponse;
 import io.artur.interview.kanga.spread_ranking.infrastructure.external.dto.KangaOrderBookResponse;
+import io.artur.interview.kanga.spread_ranking.infrastructure.external.dto.KangaOrderBookUpdate;
+import io.artur.interview.kanga.spread_ranking.infrastructure.external.dto.PriceLevels;
 
 import java.math.BigDecimal;
 import java.time.Clock;
 import java.time.Instant;
-import java.util.Optional;
 
 class KangaApiMapper {
 
@@ -27,13 +29,36 @@ class KangaApiMapper {
         if (response == null) {
             return OrderBook.empty("", clock);
         }
-        Optional<BigDecimal> bestBid = response.getBestBidPrice();
-        Optional<BigDecimal> bestAsk = response.getBestAskPrice();
+        PriceLevels bids = response.getBids() != null ? response.getBids() : PriceLevels.EMPTY;
+        PriceLevels asks = response.getAsks() != null ? response.getAsks() : PriceLevels.EMPTY;
 
         return new OrderBook(
                 response.getTickerId(),
-                bestBid.orElse(null),
-                bestAsk.orElse(null),
-                Instant.ofEpochMilli(response.getTimestamp() != null ? response.getTimestamp() : Instant.now(clock).toEpochMilli()));
+                bids.getBestPrice(),
+                asks.getBestPrice(),
+                Instant.ofEpochMilli(response.getTimestamp() != null ? response.getTimestamp() : Instant.now(clock).toEpochMilli()),
+                OrderBookDepth.of(bids.getLevels(), asks.getLevels()));
+    }
+
+    /**
+     * Converts a streamed top of book; a missing or malformed price is left out like an empty side of the book.
+     */
+    public static OrderBook toDomainOrderBook(KangaOrderBookUpdate update, Clock clock) {
+        return new OrderBook(
+                update.getTickerId(),
+                toPrice(update.getBid()),
+                toPrice(update.getAsk()),
+                Instant.ofEpochMilli(update.getTimestamp() != null ? update.getTimestamp() : Instant.now(clock).toEpochMilli()));
+    }
+
+    private static BigDecimal toPrice(String price) {
+        if (price == null || price.isEmpty()) {
+            return null;
+        }
+        try {
+            return new BigDecimal(price);
+        } catch (NumberFormatException ex) {
+            return null;
+        }
     }
 }
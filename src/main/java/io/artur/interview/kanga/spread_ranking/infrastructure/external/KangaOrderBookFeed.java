@@ -0,0 +1,93 @@
+package io.artur.interview.kanga.spread_ranking.infrastructure.external;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.artur.interview.kanga.spread_ranking.domain.OrderBookFeed;
+import io.artur.interview.kanga.spread_ranking.domain.exceptions.ExchangeApiException;
+import io.artur.interview.kanga.spread_ranking.domain.model.OrderBook;
+import io.artur.interview.kanga.spread_ranking.infrastructure.external.config.KangaApiProperties;
+import io.artur.interview.kanga.spread_ranking.infrastructure.external.dto.KangaOrderBookUpdate;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.WebsocketClientSpec;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Top-of-book updates over one WebSocket connection per subscription.
+ * <p>
+ * After connecting, the client sends {@code {"subscribe": [ticker ids]}} and the server answers with one text message
+ * per update, {@code {"ticker_id": ..., "bid": ..., "ask": ..., "timestamp": ...}}, prices as decimal strings like
+ * the REST order book. A closed connection, and one silent for longer than the idle timeout, fails the flux.
+ */
+@Slf4j
+public class KangaOrderBookFeed implements OrderBookFeed {
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+    private final KangaApiProperties.Stream properties;
+
+    public KangaOrderBookFeed(HttpClient httpClient, ObjectMapper objectMapper, Clock clock,
+                              KangaApiProperties.Stream properties) {
+        if (properties.getUrl() == null || properties.getUrl().isBlank()) {
+            throw new IllegalArgumentException("Order book stream URL is not configured");
+        }
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        this.properties = properties;
+    }
+
+    @Override
+    public Flux<OrderBook> orderBooks(List<String> marketIds) {
+        WebsocketClientSpec spec = WebsocketClientSpec.builder()
+                .maxFramePayloadLength(properties.getMaxFramePayloadLength())
+                .build();
+        return Flux.defer(() -> {
+                    String subscription = subscription(marketIds);
+                    log.info("Subscribing to order book stream {} for {} markets", properties.getUrl(), marketIds.size());
+                    return httpClient.websocket(spec)
+                            .uri(properties.getUrl())
+                            .handle((inbound, outbound) -> outbound.sendString(Mono.just(subscription)).then()
+                                    .thenMany(inbound.aggregateFrames().receive().asString()));
+                })
+                .timeout(properties.getIdleTimeout())
+                .concatWith(Flux.error(() -> new ExchangeApiException("Order book stream closed by the server")))
+                .handle((message, sink) -> {
+                    OrderBook orderBook = toOrderBook(message);
+                    if (orderBook != null) {
+                        sink.next(orderBook);
+                    }
+                });
+    }
+
+    private String subscription(List<String> marketIds) {
+        try {
+            return objectMapper.writeValueAsString(Map.of("subscribe", marketIds));
+        } catch (JsonProcessingException ex) {
+            throw new ExchangeApiException("Cannot write order book subscription", ex);
+        }
+    }
+
+    /**
+     * @return null for a message that is not an update, so one bad message does not drop the stream
+     */
+    private OrderBook toOrderBook(String message) {
+        try {
+            KangaOrderBookUpdate update = objectMapper.readValue(message, KangaOrderBookUpdate.class);
+            if (update.getTickerId() == null) {
+                log.debug("Ignoring order book stream message without ticker: {}", message);
+                return null;
+            }
+            return KangaApiMapper.toDomainOrderBook(update, clock);
+        } catch (JsonProcessingException ex) {
+            log.warn("Ignoring malformed order book stream message: {}", message);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package io.artur.interview.kanga.spread_ranking.infrastructure.external;
+
+import io.artur.interview.kanga.spread_ranking.domain.ExchangeApiClient;
+import io.artur.interview.kanga.spread_ranking.domain.exceptions.ExchangeApiException;
+import io.artur.interview.kanga.spread_ranking.domain.model.MarketPair;
+import io.artur.interview.kanga.spread_ranking.domain.model.OrderBook;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntFunction;
+
+/**
+ * Several venues ranked as one exchange, with a consolidated order book per normalized pair.
+ * <p>
+ * Venues are fetched concurrently and every venue has its own deadline, once to list its markets and once to answer
+ * their order books; a venue that fails or misses its deadline is left out of that fetch instead of failing or
+ * delaying the others. Missing the deadline cancels the venue's requests still in flight.
+ * <p>
+ * Markets are keyed by {@code BASE_TARGET} in upper case, whatever ticker id a venue uses. The listings of a fetch
+ * record which venue lists a pair under which ticker id, and order books are requested from those venues only.
+ * They belong to that fetch alone, so overlapping fetches never see each other's venues. The consolidated book has
+ * the highest bid and the lowest ask of all venues and their levels merged. Both merges are single passes over hash
+ * maps, so tens of thousands of markets cost no more than fetching them.
+ * <p>
+ * Where the best bid of one venue reaches the best ask of another, the consolidated book would be crossed and its
+ * spread negative. Such a market is ranked by the book of the first venue listing it instead, Kanga before the
+ * others.
+ */
+@Slf4j
+public class MultiExchangeApiClient implements ExchangeApiClient {
+
+    private final String[] venues;
+    private final KangaApiClientOptimized[] clients;
+    private final Duration[] deadlines;
+    private final Clock clock;
+
+    /**
+     * Pairs of one fetch, each normalized pair once, and the ticker id of every venue by normalized market id,
+     * null where the venue does not list the market.
+     */
+    private record Listings(List<MarketPair> marketPairs, Map<String, String[]> tickerIds) {
+    }
+
+    /**
+     * @param clients   venue clients by venue name, in the order ties between venues are resolved
+     * @param deadlines time every venue has to answer, by venue name
+     */
+    public MultiExchangeApiClient(Map<String, KangaApiClientOptimized> clients, Map<String, Duration> deadlines,
+                                  Clock clock) {
+        this.venues = clients.keySet().toArray(String[]::new);
+        this.clients = clients.values().toArray(KangaApiClientOptimized[]::new);
+        this.deadlines = new Duration[venues.length];
+        for (int venue = 0; venue < venues.length; venue++) {
+            this.deadlines[venue] = deadlines.get(venues[venue]);
+            if (this.deadlines[venue] == null) {
+                throw new IllegalArgumentException("No deadline for venue " + venues[venue]);
+            }
+        }
+        this.clock = clock;
+    }
+
+    static String normalizedId(String baseCurrency, String targetCurrency) {
+        return baseCurrency.toUpperCase(Locale.ROOT) + "_" + targetCurrency.toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Lists the markets of every venue, then requests their order books from the venues listing them.
+     */
+    @Override
+    public void fetchMarkets(MarketSink sink) {
+        Listings listings = listings();
+        sink.pairsReceived(listings.marketPairs().size());
+        if (listings.marketPairs().isEmpty()) {
+            return;
+        }
+
+        Map<String, OrderBook> orderBooks = orderBooks(listings,
+                listings.marketPairs().stream().map(MarketPair::getTickerId).toList());
+        for (MarketPair marketPair : listings.marketPairs()) {
+            sink.orderBookReceived(marketPair, orderBooks.get(marketPair.getTickerId()));
+        }
+    }
+
+    /**
+     * Market pairs of every venue that answered in time, each normalized pair once, in the order venues list them.
+     */
+    @Override
+    public List<MarketPair> getMarketPairs() {
+        return listings().marketPairs();
+    }
+
+    private Listings listings() {
+        List<List<MarketPair>> venuePairs = fetchConcurrently("market pairs",
+                venue -> clients[venue].marketPairs().collectList());
+
+        int listed = 0;
+        boolean answered = false;
+        for (List<MarketPair> pairs : venuePairs) {
+            listed += pairs != null ? pairs.size() : 0;
+            answered |= pairs != null;
+        }
+        if (!answered) {
+            throw new ExchangeApiException("Cannot fetch market pairs from any of " + String.join(", ", venues));
+        }
+
+        Map<String, String[]> merged = HashMap.newHashMap(listed);
+        List<MarketPair> marketPairs = new ArrayList<>(listed);
+        for (int venue = 0; venue < venuePairs.size(); venue++) {
+            List<MarketPair> pairs = venuePairs.get(venue);
+            if (pairs == null) {
+                continue;
+            }
+            for (MarketPair pair : pairs) {
+                if (pair.getBaseCurrency() == null || pair.getTargetCurrency() == null) {
+                    continue;
+                }
+                String marketId = normalizedId(pair.getBaseCurrency(), pair.getTargetCurrency());
+                String[] tickerIds = merged.get(marketId);
+                if (tickerIds == null) {
+                    tickerIds = new String[venues.length];
+                    merged.put(marketId, tickerIds);
+                    marketPairs.add(new MarketPair(marketId, pair.getBaseCurrency().toUpperCase(Locale.ROOT),
+                            pair.getTargetCurrency().toUpperCase(Locale.ROOT)));
+                }
+                tickerIds[venue] = pair.getTickerId();
+            }
+        }
+
+        log.info("Consolidated {} market pairs listed {} times on {} venues", marketPairs.size(), listed, venues.length);
+        return new Listings(marketPairs, merged);
+    }
+
+    /**
+     * Warms every venue concurrently; a venue missing its deadline is left to open its connections on first use.
+     */
+    @Override
+    public int warmUp() {
+        int connections = 0;
+        for (Integer venueConnections : fetchConcurrently("connections",
+                venue -> clients[venue].warmUpConnections())) {
+            connections += venueConnections != null ? venueConnections : 0;
+        }
+        return connections;
+    }
+
+    @Override
+    public OrderBook getOrderBook(String marketId) {
+        if (marketId == null || marketId.trim().isEmpty()) {
+            throw new IllegalArgumentException("Market ID cannot be null or empty");
+        }
+        return getOrderBooks(List.of(marketId)).get(marketId);
+    }
+
+    /**
+     * Consolidated order books of normalized markets, requested from every venue listing them, which takes fetching
+     * the listings first. A market no venue answered for in time, or one never listed, has an empty order book.
+     */
+    @Override
+    public Map<String, OrderBook> getOrderBooks(List<String> marketIds) {
+        if (marketIds == null || marketIds.isEmpty()) {
+            return Map.of();
+        }
+        return orderBooks(listings(), marketIds);
+    }
+
+    private Map<String, OrderBook> orderBooks(Listings listings, List<String> marketIds) {
+        List<List<String>> venueTickerIds = new ArrayList<>(venues.length);
+        List<Map<String, String>> venueMarketIds = new ArrayList<>(venues.length);
+        for (int venue = 0; venue < venues.length; venue++) {
+            venueTickerIds.add(new ArrayList<>());
+            venueMarketIds.add(new HashMap<>());
+        }
+        for (String marketId : marketIds) {
+            String[] tickerIds = listings.tickerIds().get(marketId);
+            if (tickerIds == null) {
+                continue;
+            }
+            for (int venue = 0; venue < tickerIds.length; venue++) {
+                if (tickerIds[venue] != null) {
+                    venueTickerIds.get(venue).add(tickerIds[venue]);
+                    venueMarketIds.get(venue).put(tickerIds[venue], marketId);
+                }
+            }
+        }
+
+        List<Map<String, OrderBook>> venueBooks = fetchConcurrently("order books", venue -> {
+            List<String> tickerIds = venueTickerIds.get(venue);
+            return tickerIds.isEmpty() ? Mono.just(Map.of()) : clients[venue].orderBooks(tickerIds);
+        });
+
+        Map<String, OrderBook> consolidated = HashMap.newHashMap(marketIds.size());
+        Map<String, OrderBook> firstListed = HashMap.newHashMap(marketIds.size());
+        for (int venue = 0; venue < venueBooks.size(); venue++) {
+            Map<String, OrderBook> books = venueBooks.get(venue);
+            if (books == null) {
+                continue;
+            }
+            Map<String, String> marketIdsByTicker = venueMarketIds.get(venue);
+            for (Map.Entry<String, OrderBook> entry : books.entrySet()) {
+                String marketId = marketIdsByTicker.get(entry.getKey());
+                if (marketId != null) {
+                    if (!entry.getValue().isEmpty()) {
+                        firstListed.putIfAbsent(marketId, entry.getValue());
+                    }
+                    consolidated.merge(marketId, entry.getValue(), (left, right) -> consolidate(marketId, left, right));
+                }
+            }
+        }
+
+        int crossed = 0;
+        Map<String, OrderBook> orderBooks = HashMap.newHashMap(marketIds.size());
+        for (String marketId : marketIds) {
+            OrderBook orderBook = consolidated.get(marketId);
+            if (orderBook != null && isCrossed(orderBook)) {
+                log.debug("Consolidated book of {} is crossed at bid {} / ask {}, ranking the first venue's book",
+                        marketId, orderBook.getBestBidPrice(), orderBook.getBestAskPrice());
+                orderBook = firstListed.get(marketId);
+                crossed++;
+            }
+            orderBooks.put(marketId, orderBook == null ? OrderBook.empty(marketId, clock)
+                    : orderBook.getMarketId().equals(marketId) ? orderBook : withMarketId(marketId, orderBook));
+        }
+        if (crossed > 0) {
+            log.info("{} of {} consolidated books were crossed between venues", crossed, marketIds.size());
+        }
+        return orderBooks;
+    }
+
+    private static OrderBook consolidate(String marketId, OrderBook left, OrderBook right) {
+        return new OrderBook(marketId,
+                best(left.getBestBidPrice(), right.getBestBidPrice(), true),
+                best(left.getBestAskPrice(), right.getBestAskPrice(), false),
+                latest(left.getTimestamp(), right.getTimestamp()),
+                left.getDepth().mergedWith(right.getDepth()));
+    }
+
+    private static boolean isCrossed(OrderBook orderBook) {
+        return orderBook.getBestBidPrice() != null && orderBook.getBestAskPrice() != null
+                && orderBook.getBestBidPrice().compareTo(orderBook.getBestAskPrice()) >= 0;
+    }
+
+    private static OrderBook withMarketId(String marketId, OrderBook orderBook) {
+        return new OrderBook(marketId, orderBook.getBestBidPrice(), orderBook.getBestAskPrice(),
+                orderBook.getTimestamp(), orderBook.getDepth());
+    }
+
+    private static BigDecimal best(BigDecimal left, BigDecimal right, boolean highest) {
+        if (left == null || right == null) {
+            return left == null ? right : left;
+        }
+        int comparison = left.compareTo(right);
+        return highest == comparison >= 0 ? left : right;
+    }
+
+    private static Instant latest(Instant left, Instant right) {
+        return right != null && (left == null || right.isAfter(left)) ? right : left;
+    }
+
+    /**
+     * Runs one fetch per venue at once, each cancelled when the venue misses its deadline.
+     *
+     * @return the result of every venue, in venue order; null for a venue that failed or missed its deadline
+     */
+    private <T> List<T> fetchConcurrently(String what, IntFunction<Mono<T>> fetch) {
+        AtomicReferenceArray<T> results = new AtomicReferenceArray<>(venues.length);
+        Flux.range(0, venues.length)
+                .flatMap(venue -> fetch.apply(venue)
+                        .timeout(deadlines[venue])
+                        .doOnNext(result -> results.set(venue, result))
+                        .onErrorResume(ex -> {
+                            if (ex instanceof TimeoutException) {
+                                log.warn("{} missed its {} deadline fetching {}, leaving it out", venues[venue],
+                                        deadlines[venue], what);
+                            } else {
+                                log.warn("{} failed fetching {}, leaving it out", venues[venue], what, ex);
+                            }
+                            return Mono.empty();
+                        }), venues.length)
+                .blockLast();
+
+        List<T> venueResults = new ArrayList<>(venues.length);
+        for (int venue = 0; venue < venues.length; venue++) {
+            venueResults.add(results.get(venue));
+        }
+        return venueResults;
+    }
+}
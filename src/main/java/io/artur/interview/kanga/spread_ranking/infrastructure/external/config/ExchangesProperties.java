@@ -0,0 +1,25 @@
+package io.artur.interview.kanga.spread_ranking.infrastructure.external.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Venues ranked together with Kanga. Every venue serves the same exchange integration API as Kanga
+ * ({@code /market/pairs} and {@code /market/orderbook/{market}}) and gets its own client, connection pool,
+ * circuit breaker and rate limiter, configured with the keys of {@code kanga.api}.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "exchanges")
+public class ExchangesProperties {
+
+    /**
+     * Additional venues by name; "kanga" names the venue configured by kanga.api and is not a venue name.
+     * Without additional venues Kanga is ranked alone, under its own ticker ids. Every venue needs its own base-url.
+     */
+    private Map<String, VenueProperties> venues = new LinkedHashMap<>();
+}
@@ -3,8 +3,10 @@ package io.artur.interview.kanga.spread_ranking.infrastructure.external.config;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
+import reactor.netty.http.HttpProtocol;
 
 import java.time.Duration;
+import java.util.List;
 
 @Data
 @Component
@@ -15,10 +17,26 @@ public class KangaApiProperties {
     private Duration operationTimeout = Duration.ofSeconds(10);
     private Duration pipelineTimeout = Duration.ofSeconds(30);
     private int retryCount = 3;
+    /**
+     * Largest single JSON value buffered while decoding: one order book, or one element of the streamed pair list.
+     */
     private int maxInMemorySize = 1024 * 1024; // 1MB
+    /**
+     * HTTP versions offered to the venue: {@code http11}, {@code h2} (negotiated with ALPN over TLS) and {@code h2c}
+     * (HTTP/2 without TLS, for local stand-ins). Offered HTTP/2 only, requests are multiplexed over at most
+     * {@code connection-pool.http2-max-connections} connections.
+     */
+    private List<HttpProtocol> protocols = List.of(HttpProtocol.HTTP11);
+    /**
+     * Time this venue has to answer a whole fetch of its markets and order books; in a multi-exchange fetch a venue
+     * that misses it is left out.
+     */
+    private Duration fetchDeadline = Duration.ofSeconds(60);
 
     private ConnectionPool connectionPool = new ConnectionPool();
     private CircuitBreaker circuitBreaker = new CircuitBreaker();
+    private RateLimit rateLimit = new RateLimit();
+    private Stream stream = new Stream();
 
     @Data
     public static class ConnectionPool {
@@ -27,6 +45,14 @@ public class KangaApiProperties {
         private int maxLifeTime = 60;
         private Duration pendingAcquireTimeout = Duration.ofSeconds(45);
         private Duration evictInBackground = Duration.ofSeconds(120);
+        /**
+         * Connections requests are multiplexed over when the venue is offered HTTP/2 only.
+         */
+        private int http2MaxConnections = 4;
+        /**
+         * Connections opened and validated once the application is ready, 0 to open them on first use.
+         */
+        private int warmUpConnections = 0;
     }
 
     @Data
@@ -39,4 +65,27 @@ public class KangaApiProperties {
         private Duration waitDurationInOpenState = Duration.ofSeconds(30);
         private int permittedNumberOfCallsInHalfOpenState = 3;
     }
-}
\ No newline at end of file
+
+    @Data
+    public static class RateLimit {
+        /**
+         * Requests allowed per refresh period, 0 for no limit.
+         */
+        private int limitForPeriod = 0;
+        private Duration limitRefreshPeriod = Duration.ofSeconds(1);
+        private Duration timeout = Duration.ofSeconds(5);
+    }
+
+    @Data
+    public static class Stream {
+        /**
+         * WebSocket endpoint pushing top-of-book updates; without it rankings are only polled.
+         */
+        private String url;
+        /**
+         * A stream without any message for this long is treated as dropped.
+         */
+        private Duration idleTimeout = Duration.ofSeconds(30);
+        private int maxFramePayloadLength = 65536;
+    }
+}
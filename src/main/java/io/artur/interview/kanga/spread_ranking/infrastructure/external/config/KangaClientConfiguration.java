@@ -1,57 +1,142 @@
 package io.artur.interview.kanga.spread_ranking.infrastructure.external.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.artur.interview.kanga.spread_ranking.domain.ExchangeApiClient;
+import io.artur.interview.kanga.spread_ranking.domain.OrderBookFeed;
 import io.artur.interview.kanga.spread_ranking.infrastructure.external.KangaApiClientOptimized;
+import io.artur.interview.kanga.spread_ranking.infrastructure.external.KangaOrderBookFeed;
+import io.artur.interview.kanga.spread_ranking.infrastructure.external.MultiExchangeApiClient;
+import io.artur.interview.kanga.spread_ranking.infrastructure.external.dto.KangaJson;
+import io.artur.interview.kanga.spread_ranking.monitoring.MarketLatencyRecorder;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.netty.channel.ChannelOption;
+import io.netty.util.AttributeKey;
 import io.netty.handler.timeout.ReadTimeoutHandler;
 import io.netty.handler.timeout.WriteTimeoutHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.util.StringUtils;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.Http2AllocationStrategy;
 import reactor.netty.http.client.HttpClient;
 import reactor.netty.resources.ConnectionProvider;
 
 import java.time.Clock;
 import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * One client per venue, each with its own connection pool, circuit breaker and rate limiter, so a slow or failing
+ * venue cannot exhaust the connections or open the breaker of another. Kanga alone is served by its own client;
+ * with {@code exchanges.venues} configured, all venues are served together by a {@link MultiExchangeApiClient}.
+ */
 @Configuration
 class KangaClientConfiguration {
 
+    private static final String KANGA = "kanga";
+    // shared by every venue and the order book stream, so serializers are introspected once
+    private static final ObjectMapper KANGA_JSON = KangaJson.objectMapper();
+    private static final AttributeKey<Long> CONNECT_START = AttributeKey.valueOf("kanga.connect.start");
+
     @Bean
-    public ConnectionProvider kangaConnectionProvider(KangaApiProperties properties) {
+    ExchangeApiClient exchangeApiClient(KangaApiProperties kangaProperties, ExchangesProperties exchangesProperties,
+                                        Clock clock, MeterRegistry meterRegistry,
+                                        MarketLatencyRecorder marketLatencyRecorder) {
+        KangaApiClientOptimized kangaClient = venueClient(KANGA, kangaProperties, clock, meterRegistry, marketLatencyRecorder);
+        if (exchangesProperties.getVenues().isEmpty()) {
+            return kangaClient;
+        }
+        if (exchangesProperties.getVenues().containsKey(KANGA)) {
+            throw new IllegalArgumentException("Venue name " + KANGA + " is reserved for kanga.api");
+        }
+
+        Map<String, KangaApiClientOptimized> clients = new LinkedHashMap<>();
+        Map<String, Duration> deadlines = new LinkedHashMap<>();
+        clients.put(KANGA, kangaClient);
+        deadlines.put(KANGA, kangaProperties.getFetchDeadline());
+        exchangesProperties.getVenues().forEach((venue, properties) -> {
+            if (!StringUtils.hasText(properties.getBaseUrl())) {
+                throw new IllegalArgumentException("exchanges.venues." + venue + ".base-url is required");
+            }
+            clients.put(venue, venueClient(venue, properties, clock, meterRegistry, marketLatencyRecorder));
+            deadlines.put(venue, properties.getFetchDeadline());
+        });
+        return new MultiExchangeApiClient(clients, deadlines, clock);
+    }
+
+    static KangaApiClientOptimized venueClient(String venue, KangaApiProperties properties, Clock clock,
+                                               MeterRegistry meterRegistry, MarketLatencyRecorder marketLatencyRecorder) {
+        WebClient webClient = webClient(
+                httpClient(venue, connectionProvider(venue, properties), properties, meterRegistry), properties);
+        return new KangaApiClientOptimized(venue, webClient, circuitBreaker(venue, properties),
+                rateLimiter(venue, properties), clock, properties, meterRegistry, marketLatencyRecorder);
+    }
+
+    private static ConnectionProvider connectionProvider(String venue, KangaApiProperties properties) {
         var poolConfig = properties.getConnectionPool();
-        return ConnectionProvider.builder("kanga-pool")
+        var builder = ConnectionProvider.builder(venue + "-pool")
                 .maxConnections(poolConfig.getMaxConnections())
                 .maxIdleTime(Duration.ofSeconds(poolConfig.getMaxIdleTime()))
                 .maxLifeTime(Duration.ofSeconds(poolConfig.getMaxLifeTime()))
                 .pendingAcquireTimeout(poolConfig.getPendingAcquireTimeout())
                 .evictInBackground(poolConfig.getEvictInBackground())
-                .build();
+                .metrics(true);
+        if (!properties.getProtocols().contains(HttpProtocol.HTTP11)) {
+            builder.allocationStrategy(Http2AllocationStrategy.builder()
+                    .maxConnections(poolConfig.getHttp2MaxConnections())
+                    .build());
+        }
+        return builder.build();
     }
 
-    @Bean
-    public HttpClient kangaHttpClient(ConnectionProvider connectionProvider, KangaApiProperties properties) {
+    /**
+     * Times every new connection from channel creation until it is ready for requests, which covers DNS, TCP,
+     * TLS and protocol negotiation, as {@code kanga.api.connection.setup}.
+     */
+    private static HttpClient httpClient(String venue, ConnectionProvider connectionProvider,
+                                         KangaApiProperties properties, MeterRegistry meterRegistry) {
+        Timer connectionSetupTimer = Timer.builder("kanga.api.connection.setup")
+                .description("Time to open a connection to the exchange API, including TLS and protocol negotiation")
+                .tag("exchange", venue)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
         return HttpClient.create(connectionProvider)
+                .protocol(properties.getProtocols().toArray(HttpProtocol[]::new))
                 .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getOperationTimeout().toMillis())
-                .doOnConnected(conn ->
-                        conn.addHandlerLast(new ReadTimeoutHandler(properties.getOperationTimeout().toSeconds(), TimeUnit.SECONDS))
-                                .addHandlerLast(new WriteTimeoutHandler(properties.getOperationTimeout().toSeconds(), TimeUnit.SECONDS)));
+                .doOnChannelInit((observer, channel, remoteAddress) -> channel.attr(CONNECT_START).set(System.nanoTime()))
+                .doOnConnected(conn -> {
+                    Long start = conn.channel().attr(CONNECT_START).getAndSet(null);
+                    if (start != null) {
+                        connectionSetupTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    }
+                    conn.addHandlerLast(new ReadTimeoutHandler(properties.getOperationTimeout().toSeconds(), TimeUnit.SECONDS))
+                            .addHandlerLast(new WriteTimeoutHandler(properties.getOperationTimeout().toSeconds(), TimeUnit.SECONDS));
+                });
     }
 
-    @Bean
-    public WebClient kangaWebClient(HttpClient httpClient, KangaApiProperties properties) {
+    private static WebClient webClient(HttpClient httpClient, KangaApiProperties properties) {
         return WebClient.builder()
                 .clientConnector(new ReactorClientHttpConnector(httpClient))
-                .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(properties.getMaxInMemorySize()))
+                .codecs(configurer -> {
+                    configurer.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(KANGA_JSON));
+                    configurer.defaultCodecs().maxInMemorySize(properties.getMaxInMemorySize());
+                })
                 .build();
     }
 
-    @Bean
-    public CircuitBreaker kangaCircuitBreaker(KangaApiProperties properties) {
+    private static CircuitBreaker circuitBreaker(String venue, KangaApiProperties properties) {
         var cbConfig = properties.getCircuitBreaker();
         var config = CircuitBreakerConfig.custom()
                 .failureRateThreshold(cbConfig.getFailureRateThreshold())
@@ -62,13 +147,29 @@ class KangaClientConfiguration {
                 .waitDurationInOpenState(cbConfig.getWaitDurationInOpenState())
                 .permittedNumberOfCallsInHalfOpenState(cbConfig.getPermittedNumberOfCallsInHalfOpenState())
                 .build();
-        return CircuitBreaker.of("kanga-api", config);
+        return CircuitBreaker.of(venue + "-api", config);
+    }
+
+    /**
+     * @return null when the venue has no request limit
+     */
+    private static RateLimiter rateLimiter(String venue, KangaApiProperties properties) {
+        var rateLimit = properties.getRateLimit();
+        if (rateLimit.getLimitForPeriod() <= 0) {
+            return null;
+        }
+        var config = RateLimiterConfig.custom()
+                .limitForPeriod(rateLimit.getLimitForPeriod())
+                .limitRefreshPeriod(rateLimit.getLimitRefreshPeriod())
+                .timeoutDuration(rateLimit.getTimeout())
+                .build();
+        return RateLimiter.of(venue + "-api", config);
     }
 
     @Bean
-    ExchangeApiClient kangaApiClientOptimized(WebClient webClient, CircuitBreaker circuitBreaker, 
-                                             Clock clock, KangaApiProperties properties) {
-        return new KangaApiClientOptimized(webClient, circuitBreaker, clock, properties);
+    @ConditionalOnProperty("kanga.api.stream.url")
+    OrderBookFeed kangaOrderBookFeed(KangaApiProperties properties, Clock clock) {
+        return new KangaOrderBookFeed(HttpClient.newConnection(), KANGA_JSON, clock, properties.getStream());
     }
 
     @Bean
@@ -0,0 +1,12 @@
+package io.artur.interview.kanga.spread_ranking.infrastructure.external.config;
+
+/**
+ * Settings of one venue under {@code exchanges.venues}. They have the same keys and defaults as {@code kanga.api},
+ * but are not inherited from it, and the venue has no default {@code base-url}: it has to be set explicitly.
+ */
+public class VenueProperties extends KangaApiProperties {
+
+    public VenueProperties() {
+        setBaseUrl(null);
+    }
+}
@@ -0,0 +1,64 @@
+package io.artur.interview.kanga.spread_ranking.infrastructure.external.dto;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+import java.io.IOException;
+
+/**
+ * Jackson set-up for Kanga responses, kept apart from the application's mapper.
+ * <p>
+ * Market pairs, order books and their sides have hand-written deserializers; the Blackbird module generates
+ * accessors for everything else the integration binds, such as streamed top-of-book updates, instead of calling
+ * setters reflectively. Unknown fields are ignored, as exchanges add them without notice.
+ */
+public final class KangaJson {
+
+    private KangaJson() {
+    }
+
+    /**
+     * @return a new mapper; create it once and share it, it caches its (de)serializers
+     */
+    public static ObjectMapper objectMapper() {
+        return JsonMapper.builder()
+                .addModule(new BlackbirdModule())
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build();
+    }
+
+    /**
+     * Moves from the start of an object, as handed to a deserializer, to its first field.
+     *
+     * @return the first field name token, or the end of an empty object
+     */
+    static JsonToken firstField(JsonParser parser, DeserializationContext context, Class<?> type) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            return parser.nextToken();
+        }
+        if (token == JsonToken.FIELD_NAME || token == JsonToken.END_OBJECT) {
+            return token;
+        }
+        context.handleUnexpectedToken(type, parser);
+        return JsonToken.END_OBJECT;
+    }
+
+    /**
+     * @return the text of a scalar value, null for a JSON null
+     */
+    static String text(JsonParser parser, JsonToken value, DeserializationContext context) throws IOException {
+        if (value == JsonToken.VALUE_STRING) {
+            return parser.getText();
+        }
+        if (value.isScalarValue()) {
+            return parser.getValueAsString();
+        }
+        return (String) context.handleUnexpectedToken(String.class, parser);
+    }
+}
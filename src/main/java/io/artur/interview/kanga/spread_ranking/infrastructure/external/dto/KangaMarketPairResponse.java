@@ -1,7 +1,7 @@
 package io.artur.interview.kanga.spread_ranking.infrastructure.external.dto;
 
-import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
@@ -9,7 +9,7 @@ import lombok.ToString;
 @Getter
 @Setter
 @ToString
-@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonDeserialize(using = KangaMarketPairResponseDeserializer.class)
 public class KangaMarketPairResponse {
 
     @JsonProperty("ticker_id")
@@ -0,0 +1,35 @@
+package io.artur.interview.kanga.spread_ranking.infrastructure.external.dto;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+
+/**
+ * Binds a market pair field by field, skipping unknown fields, instead of through bean introspection and setters.
+ */
+class KangaMarketPairResponseDeserializer extends StdDeserializer<KangaMarketPairResponse> {
+
+    KangaMarketPairResponseDeserializer() {
+        super(KangaMarketPairResponse.class);
+    }
+
+    @Override
+    public KangaMarketPairResponse deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        JsonToken token = KangaJson.firstField(parser, context, KangaMarketPairResponse.class);
+        KangaMarketPairResponse response = new KangaMarketPairResponse();
+        for (; token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "ticker_id" -> response.setTickerId(KangaJson.text(parser, value, context));
+                case "base" -> response.setBaseCurrency(KangaJson.text(parser, value, context));
+                case "target" -> response.setTargetCurrency(KangaJson.text(parser, value, context));
+                default -> parser.skipChildren();
+            }
+        }
+        return response;
+    }
+}
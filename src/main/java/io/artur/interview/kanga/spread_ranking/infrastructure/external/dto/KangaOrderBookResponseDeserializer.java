@@ -0,0 +1,44 @@
+package io.artur.interview.kanga.spread_ranking.infrastructure.external.dto;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+
+/**
+ * Binds an order book field by field, skipping unknown fields; both sides go straight to
+ * {@link PriceLevelsDeserializer}.
+ */
+class KangaOrderBookResponseDeserializer extends StdDeserializer<KangaOrderBookResponse> {
+
+    private static final PriceLevelsDeserializer PRICE_LEVELS = new PriceLevelsDeserializer();
+
+    KangaOrderBookResponseDeserializer() {
+        super(KangaOrderBookResponse.class);
+    }
+
+    @Override
+    public KangaOrderBookResponse deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        JsonToken token = KangaJson.firstField(parser, context, KangaOrderBookResponse.class);
+        KangaOrderBookResponse response = new KangaOrderBookResponse();
+        for (; token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "ticker_id" -> response.setTickerId(KangaJson.text(parser, value, context));
+                case "bids" -> response.setBids(priceLevels(parser, value, context));
+                case "asks" -> response.setAsks(priceLevels(parser, value, context));
+                case "timestamp" -> response.setTimestamp(value == JsonToken.VALUE_NUMBER_INT ? Long.valueOf(parser.getLongValue())
+                        : value == JsonToken.VALUE_NULL ? null : context.readValue(parser, Long.class));
+                default -> parser.skipChildren();
+            }
+        }
+        return response;
+    }
+
+    private static PriceLevels priceLevels(JsonParser parser, JsonToken value, DeserializationContext context) throws IOException {
+        return value == JsonToken.VALUE_NULL ? PriceLevels.EMPTY : PRICE_LEVELS.deserialize(parser, context);
+    }
+}
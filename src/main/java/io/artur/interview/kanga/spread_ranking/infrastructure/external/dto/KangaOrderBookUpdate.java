@@ -0,0 +1,24 @@
+package io.artur.interview.kanga.spread_ranking.infrastructure.external.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Top of book of one market, as pushed by the order book stream.
+ */
+@Getter
+@Setter
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class KangaOrderBookUpdate {
+
+    @JsonProperty("ticker_id")
+    private String tickerId;
+    @JsonProperty("bid")
+    private String bid;
+    @JsonProperty("ask")
+    private String ask;
+    @JsonProperty("timestamp")
+    private Long timestamp;
+}
@@ -0,0 +1,42 @@
+package io.artur.interview.kanga.spread_ranking.infrastructure.external.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+/**
+ * One side of an order book as decoded from {@code [["price", "quantity"], ...]}, best level first.
+ * <p>
+ * Only the best price is kept as a {@link BigDecimal}; the first {@link #MAX_LEVELS} levels become interleaved price
+ * and quantity doubles, the layout of {@link io.artur.interview.kanga.spread_ranking.domain.model.OrderBookDepth},
+ * and deeper levels are counted but not parsed.
+ */
+@Getter
+@JsonDeserialize(using = PriceLevelsDeserializer.class)
+public final class PriceLevels {
+
+    // levels kept per side for the effective spread; deeper levels rarely matter for configured notionals
+    public static final int MAX_LEVELS = 50;
+
+    public static final PriceLevels EMPTY = new PriceLevels(null, new double[0], 0);
+
+    /**
+     * Price of the first level, null when the side is empty or that price is malformed.
+     */
+    private final BigDecimal bestPrice;
+    /**
+     * Interleaved price and quantity pairs of the well-formed levels among the first {@link #MAX_LEVELS}.
+     */
+    private final double[] levels;
+    /**
+     * Levels listed in the response, including malformed and skipped ones.
+     */
+    private final int listedLevels;
+
+    PriceLevels(BigDecimal bestPrice, double[] levels, int listedLevels) {
+        this.bestPrice = bestPrice;
+        this.levels = levels;
+        this.listedLevels = listedLevels;
+    }
+}
@@ -0,0 +1,89 @@
+package io.artur.interview.kanga.spread_ranking.infrastructure.external.dto;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * Decodes an order book side token by token, parsing every price and quantity from the parser's text buffer with
+ * {@link ScaledDecimal}, so no string or list is created per level. A level that is not an array of two numbers,
+ * as strings or JSON numbers, is skipped like a missing one.
+ */
+class PriceLevelsDeserializer extends StdDeserializer<PriceLevels> {
+
+    private static final int INITIAL_LEVELS = 16;
+
+    PriceLevelsDeserializer() {
+        super(PriceLevels.class);
+    }
+
+    @Override
+    public PriceLevels getNullValue(DeserializationContext context) {
+        return PriceLevels.EMPTY;
+    }
+
+    @Override
+    public PriceLevels deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        if (!parser.isExpectedStartArrayToken()) {
+            return (PriceLevels) context.handleUnexpectedToken(PriceLevels.class, parser);
+        }
+
+        ScaledDecimal decimal = new ScaledDecimal();
+        BigDecimal bestPrice = null;
+        double[] levels = null;
+        int next = 0;
+        int listed = 0;
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            int level = listed++;
+            if (token != JsonToken.START_ARRAY || level >= PriceLevels.MAX_LEVELS) {
+                parser.skipChildren();
+                continue;
+            }
+
+            token = parser.nextToken();
+            boolean valid = token != JsonToken.END_ARRAY && read(parser, token, decimal);
+            if (valid && level == 0) {
+                bestPrice = decimal.toBigDecimal();
+            }
+            double price = valid ? decimal.toDouble() : Double.NaN;
+            if (token != JsonToken.END_ARRAY) {
+                token = parser.nextToken();
+                valid &= token != JsonToken.END_ARRAY && read(parser, token, decimal);
+            }
+            double quantity = valid ? decimal.toDouble() : Double.NaN;
+            while (token != JsonToken.END_ARRAY) {
+                token = parser.nextToken();
+                parser.skipChildren();
+            }
+
+            if (valid) {
+                if (levels == null) {
+                    levels = new double[2 * Math.min(INITIAL_LEVELS, PriceLevels.MAX_LEVELS)];
+                } else if (next == levels.length) {
+                    levels = Arrays.copyOf(levels, 2 * Math.min(levels.length, PriceLevels.MAX_LEVELS));
+                }
+                levels[next++] = price;
+                levels[next++] = quantity;
+            }
+        }
+
+        if (levels == null) {
+            return listed == 0 ? PriceLevels.EMPTY : new PriceLevels(bestPrice, PriceLevels.EMPTY.getLevels(), listed);
+        }
+        return new PriceLevels(bestPrice, next == levels.length ? levels : Arrays.copyOf(levels, next), listed);
+    }
+
+    private static boolean read(JsonParser parser, JsonToken token, ScaledDecimal decimal) throws IOException {
+        if (token == JsonToken.VALUE_STRING || token.isNumeric()) {
+            return decimal.parse(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+        }
+        parser.skipChildren();
+        return false;
+    }
+}
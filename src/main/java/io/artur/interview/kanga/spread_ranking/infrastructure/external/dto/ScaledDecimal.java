@@ -0,0 +1,98 @@
+package io.artur.interview.kanga.spread_ranking.infrastructure.external.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Decimal number read straight from a character buffer, such as a JSON parser's token buffer, into an unscaled
+ * {@code long} and a scale, without creating a string.
+ * <p>
+ * Plain decimals of up to 18 digits, the prices and quantities exchanges send, take the fast path. Anything else
+ * {@link BigDecimal} accepts, longer mantissas or exponents, falls back to parsing a {@link BigDecimal}, so the value
+ * is always the one {@code new BigDecimal(text)} would give. One instance is reused for a whole document and is not
+ * thread-safe.
+ */
+final class ScaledDecimal {
+
+    // largest value that can take one more digit without overflowing
+    private static final long MAX_BEFORE_DIGIT = (Long.MAX_VALUE - 9) / 10;
+    // doubles represent every integer up to 2^53 and every power of ten up to 10^22 exactly
+    private static final long MAX_EXACT_DOUBLE = 1L << 53;
+    private static final double[] POWERS_OF_TEN = new double[23];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private long unscaled;
+    private int scale;
+    // set only when the text did not fit the fast path
+    private BigDecimal fallback;
+
+    /**
+     * @return false, leaving the value undefined, if the text is not a number {@link BigDecimal} accepts
+     */
+    boolean parse(char[] text, int offset, int length) {
+        fallback = null;
+        int end = offset + length;
+        int i = offset;
+        boolean negative = false;
+        if (i < end && (text[i] == '-' || text[i] == '+')) {
+            negative = text[i] == '-';
+            i++;
+        }
+
+        long value = 0;
+        int fractionDigits = 0;
+        int digits = 0;
+        boolean point = false;
+        for (; i < end; i++) {
+            char c = text[i];
+            if (c >= '0' && c <= '9') {
+                if (value > MAX_BEFORE_DIGIT) {
+                    return parseFallback(text, offset, length);
+                }
+                value = value * 10 + (c - '0');
+                digits++;
+                if (point) {
+                    fractionDigits++;
+                }
+            } else if (c == '.' && !point) {
+                point = true;
+            } else {
+                return parseFallback(text, offset, length);
+            }
+        }
+        if (digits == 0) {
+            return false;
+        }
+        unscaled = negative ? -value : value;
+        scale = fractionDigits;
+        return true;
+    }
+
+    private boolean parseFallback(char[] text, int offset, int length) {
+        try {
+            fallback = new BigDecimal(text, offset, length);
+            return true;
+        } catch (NumberFormatException ex) {
+            return false;
+        }
+    }
+
+    BigDecimal toBigDecimal() {
+        return fallback != null ? fallback : BigDecimal.valueOf(unscaled, scale);
+    }
+
+    /**
+     * @return the double nearest to the value; exact operands make one division correctly rounded on the fast path
+     */
+    double toDouble() {
+        if (fallback == null && Math.abs(unscaled) <= MAX_EXACT_DOUBLE && scale < POWERS_OF_TEN.length) {
+            return unscaled / POWERS_OF_TEN[scale];
+        }
+        return toBigDecimal().doubleValue();
+    }
+}
@@ -1,24 +1,33 @@
 package io.artur.interview.kanga.spread_ranking.infrastructure.repository;
 
+import io.artur.interview.kanga.spread_ranking.domain.TickerSymbolTable;
 import io.artur.interview.kanga.spread_ranking.domain.model.Market;
 import io.artur.interview.kanga.spread_ranking.domain.repository.MarketDataRepository;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Repository;
 
+import java.util.Arrays;
 import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Objects;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Thread-safe in-memory implementation of MarketDataRepository.
- * Uses ConcurrentHashMap for storage and ReadWriteLock for batch operations.
+ * Markets are stored in an array indexed by their {@link TickerSymbolTable} ID;
+ * a ReadWriteLock guards batch operations.
  */
 @Repository
 @Slf4j
+@RequiredArgsConstructor
 class InMemoryMarketDataRepository implements MarketDataRepository {
 
-    private final ConcurrentHashMap<String, Market> markets = new ConcurrentHashMap<>();
+    private static final Market[] NO_MARKETS = new Market[0];
+
+    private final TickerSymbolTable symbolTable;
     private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Market[] marketsBySymbolId = NO_MARKETS;
+    private int marketCount;
 
     @Override
     public void saveAll(List<Market> marketList) {
@@ -31,21 +40,34 @@ class InMemoryMarketDataRepository implements MarketDataRepository {
         try {
             log.debug("Saving {} markets to repository", marketList.size());
             
-            // Clear existing markets first to ensure fresh data
-            markets.clear();
-            
-            // Save all new markets
-            for (Market market : marketList) {
-                if (market != null && market.tickerId() != null) {
-                    markets.put(market.tickerId(), market);
-                    log.trace("Saved market: {} with bid={}, ask={}", 
-                            market.tickerId(), market.bidPrice(), market.askPrice());
-                } else {
+            // Replace existing markets to ensure fresh data
+            int[] symbolIds = new int[marketList.size()];
+            for (int i = 0; i < symbolIds.length; i++) {
+                Market market = marketList.get(i);
+                symbolIds[i] = market != null && market.tickerId() != null
+                        ? symbolTable.idOf(market.tickerId())
+                        : TickerSymbolTable.NOT_FOUND;
+            }
+
+            Market[] markets = new Market[symbolTable.size()];
+            int count = 0;
+            for (int i = 0; i < symbolIds.length; i++) {
+                Market market = marketList.get(i);
+                if (symbolIds[i] == TickerSymbolTable.NOT_FOUND) {
                     log.warn("Skipping invalid market: {}", market);
+                    continue;
+                }
+                if (markets[symbolIds[i]] == null) {
+                    count++;
                 }
+                markets[symbolIds[i]] = market;
+                log.trace("Saved market: {} with bid={}, ask={}",
+                        market.tickerId(), market.bidPrice(), market.askPrice());
             }
+            marketsBySymbolId = markets;
+            marketCount = count;
             
-            log.info("Successfully saved {} markets to repository", markets.size());
+            log.info("Successfully saved {} markets to repository", marketCount);
             
         } catch (Exception e) {
             log.error("Error while saving markets to repository", e);
@@ -62,8 +84,10 @@ class InMemoryMarketDataRepository implements MarketDataRepository {
     public List<Market> findAll() {
         lock.readLock().lock();
         try {
-            log.debug("Retrieving all {} markets from repository", markets.size());
-            return List.copyOf(markets.values());
+            log.debug("Retrieving all {} markets from repository", marketCount);
+            return Arrays.stream(marketsBySymbolId)
+                    .filter(Objects::nonNull)
+                    .toList();
         } finally {
             lock.readLock().unlock();
         }
@@ -81,7 +105,8 @@ class InMemoryMarketDataRepository implements MarketDataRepository {
         
         lock.readLock().lock();
         try {
-            Market market = markets.get(tickerId);
+            int symbolId = symbolTable.find(tickerId);
+            Market market = symbolId >= 0 && symbolId < marketsBySymbolId.length ? marketsBySymbolId[symbolId] : null;
             log.trace("Retrieved market for ticker {}: {}", tickerId, market);
             return market;
         } finally {
@@ -96,7 +121,7 @@ class InMemoryMarketDataRepository implements MarketDataRepository {
     public int getMarketCount() {
         lock.readLock().lock();
         try {
-            int count = markets.size();
+            int count = marketCount;
             log.trace("Repository contains {} markets", count);
             return count;
         } finally {
@@ -111,7 +136,7 @@ class InMemoryMarketDataRepository implements MarketDataRepository {
     public boolean hasMarkets() {
         lock.readLock().lock();
         try {
-            boolean hasMarkets = !markets.isEmpty();
+            boolean hasMarkets = marketCount > 0;
             log.trace("Repository has markets: {}", hasMarkets);
             return hasMarkets;
         } finally {
@@ -125,8 +150,9 @@ class InMemoryMarketDataRepository implements MarketDataRepository {
     public void clear() {
         lock.writeLock().lock();
         try {
-            int previousSize = markets.size();
-            markets.clear();
+            int previousSize = marketCount;
+            marketsBySymbolId = NO_MARKETS;
+            marketCount = 0;
             log.info("Cleared {} markets from repository", previousSize);
         } finally {
             lock.writeLock().unlock();
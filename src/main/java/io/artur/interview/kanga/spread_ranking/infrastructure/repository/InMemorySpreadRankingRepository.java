@@ -1,6 +1,8 @@
 package io.artur.interview.kanga.spread_ranking.infrastructure.repository;
 
+import io.artur.interview.kanga.spread_ranking.domain.TickerSymbolTable;
 import io.artur.interview.kanga.spread_ranking.domain.model.SpreadRanking;
+import io.artur.interview.kanga.spread_ranking.domain.model.SpreadRankingIndex;
 import io.artur.interview.kanga.spread_ranking.domain.repository.SpreadRankingRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -16,6 +18,8 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
  * Thread-safe in-memory implementation of SpreadRankingRepository.
  * Uses ReadWriteLock to ensure thread safety for concurrent access.
  * Supports configurable ranking expiration time.
+ * A {@link SpreadRankingIndex} is built once per stored ranking, outside the write lock,
+ * and published together with it, as is the alphabetical order of its groups and those of its profiles.
  */
 @Repository
 @Slf4j
@@ -23,16 +27,20 @@ class InMemorySpreadRankingRepository implements SpreadRankingRepository {
 
     private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
     private final Clock clock;
+    private final TickerSymbolTable symbolTable;
     private final Duration rankingValidityDuration;
     
     // Volatile to ensure visibility across threads
     private volatile SpreadRanking currentRanking;
+    private volatile SpreadRankingIndex currentIndex;
     private volatile Instant lastUpdated;
 
     public InMemorySpreadRankingRepository(
             Clock clock,
+            TickerSymbolTable symbolTable,
             @Value("${app.spread-ranking.validity-duration:PT5M}") String validityDuration) {
         this.clock = clock;
+        this.symbolTable = symbolTable;
         this.rankingValidityDuration = Duration.parse(validityDuration);
         log.info("Initialized SpreadRankingRepository with validity duration: {}", rankingValidityDuration);
     }
@@ -44,10 +52,15 @@ class InMemorySpreadRankingRepository implements SpreadRankingRepository {
             return;
         }
 
+        SpreadRankingIndex index = SpreadRankingIndex.of(spreadRanking, symbolTable);
+        spreadRanking.getAlphabeticalGroups();
+        spreadRanking.getProfileRankings().values().forEach(SpreadRanking::getAlphabeticalGroups);
+
         lock.writeLock().lock();
         try {
             Instant now = clock.instant();
             this.currentRanking = spreadRanking;
+            this.currentIndex = index;
             this.lastUpdated = now;
             
             log.info("Stored SpreadRanking with {} total markets, calculated at {}", 
@@ -83,6 +96,16 @@ class InMemorySpreadRankingRepository implements SpreadRankingRepository {
         }
     }
 
+    @Override
+    public Optional<SpreadRankingIndex> getCurrentSpreadRankingIndex() {
+        lock.readLock().lock();
+        try {
+            return Optional.ofNullable(currentIndex);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
     @Override
     public boolean hasValidSpreadRanking() {
         lock.readLock().lock();
@@ -134,6 +157,7 @@ class InMemorySpreadRankingRepository implements SpreadRankingRepository {
         try {
             boolean hadRanking = currentRanking != null;
             currentRanking = null;
+            currentIndex = null;
             lastUpdated = null;
             
             log.info("Cleared SpreadRanking repository (had ranking: {})", hadRanking);
@@ -0,0 +1,32 @@
+package io.artur.interview.kanga.spread_ranking.monitoring;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint listing the slowest and most error-prone markets over the sliding window,
+ * available at {@code /actuator/marketlatency}.
+ */
+@Component
+@Endpoint(id = "marketlatency")
+@RequiredArgsConstructor
+class MarketLatencyEndpoint {
+
+    private final MarketLatencyRecorder marketLatencyRecorder;
+
+    @ReadOperation
+    public MarketLatencyReport report(@Nullable Integer limit) {
+        return limit != null && limit > 0
+                ? marketLatencyRecorder.report(limit)
+                : marketLatencyRecorder.report();
+    }
+
+    @DeleteOperation
+    public void reset() {
+        marketLatencyRecorder.clear();
+    }
+}
@@ -0,0 +1,126 @@
+package io.artur.interview.kanga.spread_ranking.monitoring;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-memory latency histogram of a single market over a sliding window.
+ * <p>
+ * The window is split into time slices kept in a ring; a slice is cleared and reused when time moves past it,
+ * so recording never allocates. Latencies are counted in log-linear millisecond buckets: values below
+ * {@value #SUB_BUCKETS} ms are exact, larger values fall into one of {@value #SUB_BUCKETS} buckets per power of two,
+ * which bounds the relative error to 12.5%. Values of ~262 s and above land in the last bucket.
+ */
+final class MarketLatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 17;
+    static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final long sliceMillis;
+    private final int slices;
+    private final long[] sliceEpochs;
+    private final int[] counts;
+    private final int[] requests;
+    private final int[] errors;
+    private final long[] maxMillis;
+
+    MarketLatencyHistogram(long sliceMillis, int slices) {
+        this.sliceMillis = sliceMillis;
+        this.slices = slices;
+        this.sliceEpochs = new long[slices];
+        Arrays.fill(sliceEpochs, -1L);
+        this.counts = new int[slices * BUCKETS];
+        this.requests = new int[slices];
+        this.errors = new int[slices];
+        this.maxMillis = new long[slices];
+    }
+
+    synchronized void record(long nowMillis, long latencyMillis, boolean error) {
+        long epoch = nowMillis / sliceMillis;
+        int slice = (int) (epoch % slices);
+        if (sliceEpochs[slice] != epoch) {
+            Arrays.fill(counts, slice * BUCKETS, (slice + 1) * BUCKETS, 0);
+            requests[slice] = 0;
+            errors[slice] = 0;
+            maxMillis[slice] = 0;
+            sliceEpochs[slice] = epoch;
+        }
+
+        long latency = Math.max(0, latencyMillis);
+        counts[slice * BUCKETS + bucketIndex(latency)]++;
+        requests[slice]++;
+        if (error) {
+            errors[slice]++;
+        }
+        maxMillis[slice] = Math.max(maxMillis[slice], latency);
+    }
+
+    /**
+     * @return statistics over the slices that are still inside the window at {@code nowMillis},
+     * or null if the market had no requests in the window
+     */
+    synchronized MarketLatencyStats snapshot(String market, long nowMillis) {
+        long oldestEpoch = nowMillis / sliceMillis - slices + 1;
+        int[] merged = new int[BUCKETS];
+        long totalRequests = 0;
+        long totalErrors = 0;
+        long max = 0;
+        for (int slice = 0; slice < slices; slice++) {
+            if (sliceEpochs[slice] < oldestEpoch) {
+                continue;
+            }
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                merged[bucket] += counts[slice * BUCKETS + bucket];
+            }
+            totalRequests += requests[slice];
+            totalErrors += errors[slice];
+            max = Math.max(max, maxMillis[slice]);
+        }
+
+        if (totalRequests == 0) {
+            return null;
+        }
+        return new MarketLatencyStats(market, totalRequests, totalErrors,
+                (double) totalErrors / totalRequests,
+                percentile(merged, totalRequests, 0.5),
+                percentile(merged, totalRequests, 0.99),
+                max);
+    }
+
+    static int bucketIndex(long millis) {
+        if (millis < SUB_BUCKETS) {
+            return (int) millis;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(millis);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int subBucket = (int) (millis >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * @return the highest latency counted in the given bucket
+     */
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long lowerBound = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lowerBound + (1L << shift) - 1;
+    }
+
+    private static long percentile(int[] buckets, long total, double quantile) {
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int bucket = 0; bucket < buckets.length; bucket++) {
+            seen += buckets[bucket];
+            if (seen >= rank) {
+                return bucketUpperBound(bucket);
+            }
+        }
+        return bucketUpperBound(buckets.length - 1);
+    }
+}
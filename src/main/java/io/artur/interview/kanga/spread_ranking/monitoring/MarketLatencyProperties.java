@@ -0,0 +1,18 @@
+package io.artur.interview.kanga.spread_ranking.monitoring;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "monitoring.market-latency")
+public class MarketLatencyProperties {
+
+    private Duration window = Duration.ofMinutes(5);
+    private int slices = 5;
+    private int maxMarkets = 5000;
+    private int reportSize = 10;
+}
@@ -0,0 +1,82 @@
+package io.artur.interview.kanga.spread_ranking.monitoring;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records orderbook request latency and errors per market over a sliding window.
+ * Each market gets one {@link MarketLatencyHistogram} on its first request; later requests only
+ * update primitive counters, so the hot path does not allocate. The number of tracked markets is capped
+ * by {@code monitoring.market-latency.max-markets}.
+ */
+@Slf4j
+@Component
+public class MarketLatencyRecorder {
+
+    private static final Comparator<MarketLatencyStats> SLOWEST_FIRST = Comparator
+            .comparingLong(MarketLatencyStats::p99Ms).reversed()
+            .thenComparing(Comparator.comparingLong(MarketLatencyStats::p50Ms).reversed())
+            .thenComparing(MarketLatencyStats::market);
+    private static final Comparator<MarketLatencyStats> MOST_ERRORS_FIRST = Comparator
+            .comparingDouble(MarketLatencyStats::errorRate).reversed()
+            .thenComparing(Comparator.comparingLong(MarketLatencyStats::errors).reversed())
+            .thenComparing(MarketLatencyStats::market);
+
+    private final Map<String, MarketLatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private final MarketLatencyProperties properties;
+    private final Clock clock;
+    private final long sliceMillis;
+
+    public MarketLatencyRecorder(MarketLatencyProperties properties, Clock clock) {
+        if (properties.getSlices() < 1 || properties.getWindow().toMillis() < properties.getSlices()) {
+            throw new IllegalArgumentException("Market latency window must be split into at least one slice of 1 ms");
+        }
+        this.properties = properties;
+        this.clock = clock;
+        this.sliceMillis = properties.getWindow().toMillis() / properties.getSlices();
+    }
+
+    public void record(String market, long latencyNanos, boolean error) {
+        MarketLatencyHistogram histogram = histograms.get(market);
+        if (histogram == null) {
+            if (histograms.size() >= properties.getMaxMarkets()) {
+                log.debug("Not tracking latency of market {}, limit of {} markets reached", market, properties.getMaxMarkets());
+                return;
+            }
+            histogram = histograms.computeIfAbsent(market,
+                    ignored -> new MarketLatencyHistogram(sliceMillis, properties.getSlices()));
+        }
+        histogram.record(clock.millis(), latencyNanos / 1_000_000, error);
+    }
+
+    public MarketLatencyReport report() {
+        return report(properties.getReportSize());
+    }
+
+    public MarketLatencyReport report(int limit) {
+        long now = clock.millis();
+        List<MarketLatencyStats> stats = histograms.entrySet().stream()
+                .map(entry -> entry.getValue().snapshot(entry.getKey(), now))
+                .filter(Objects::nonNull)
+                .toList();
+
+        return new MarketLatencyReport(
+                clock.instant(),
+                properties.getWindow(),
+                stats.size(),
+                stats.stream().sorted(SLOWEST_FIRST).limit(limit).toList(),
+                stats.stream().filter(stat -> stat.errors() > 0).sorted(MOST_ERRORS_FIRST).limit(limit).toList()
+        );
+    }
+
+    void clear() {
+        histograms.clear();
+    }
+}
@@ -0,0 +1,14 @@
+package io.artur.interview.kanga.spread_ranking.monitoring;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+public record MarketLatencyReport(
+        Instant generatedAt,
+        Duration window,
+        int trackedMarkets,
+        List<MarketLatencyStats> slowest,
+        List<MarketLatencyStats> mostErrors
+) {
+}
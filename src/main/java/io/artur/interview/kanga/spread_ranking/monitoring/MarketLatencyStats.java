@@ -0,0 +1,12 @@
+package io.artur.interview.kanga.spread_ranking.monitoring;
+
+public record MarketLatencyStats(
+        String market,
+        long requests,
+        long errors,
+        double errorRate,
+        long p50Ms,
+        long p99Ms,
+        long maxMs
+) {
+}
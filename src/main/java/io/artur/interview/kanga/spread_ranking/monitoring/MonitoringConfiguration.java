@@ -0,0 +1,16 @@
+package io.artur.interview.kanga.spread_ranking.monitoring;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+@Configuration
+class MonitoringConfiguration {
+
+    @Bean
+    MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper,
+                                                                            PipelineMetrics pipelineMetrics) {
+        return new TimedJsonHttpMessageConverter(objectMapper, pipelineMetrics);
+    }
+}
@@ -0,0 +1,39 @@
+package io.artur.interview.kanga.spread_ranking.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning one orderbook request to the exchange, including retries and decoding.
+ */
+@Name("io.artur.spreadranking.OrderBookFetch")
+@Label("Order Book Fetch")
+@Description("Orderbook request to the exchange")
+@Category({"Spread Ranking", "Exchange"})
+@StackTrace(false)
+public class OrderBookFetchEvent extends Event {
+
+    public static final String SUCCESS = "SUCCESS";
+    public static final String EMPTY = "EMPTY";
+    public static final String ERROR = "ERROR";
+
+    @Label("Ticker")
+    public String ticker;
+
+    @Label("Status")
+    @Description("SUCCESS, EMPTY or ERROR")
+    public String status;
+
+    @Label("HTTP Status")
+    public int httpStatus;
+
+    @Label("Response Size")
+    @Description("Content-Length of the response, -1 when unknown")
+    @DataAmount
+    public long bytes = -1;
+}
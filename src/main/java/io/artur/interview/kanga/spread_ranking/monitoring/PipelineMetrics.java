@@ -0,0 +1,44 @@
+package io.artur.interview.kanga.spread_ranking.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Timers for each stage of the spread ranking pipeline, published as {@code spread.ranking.stage}
+ * with a {@code stage} tag. Every timer publishes a percentile histogram and p50/p95/p99.
+ */
+@Component
+public class PipelineMetrics {
+
+    static final String STAGE_TIMER = "spread.ranking.stage";
+
+    private final Map<PipelineStage, Timer> stageTimers = new EnumMap<>(PipelineStage.class);
+
+    public PipelineMetrics(MeterRegistry meterRegistry) {
+        for (PipelineStage stage : PipelineStage.values()) {
+            stageTimers.put(stage, Timer.builder(STAGE_TIMER)
+                    .description("Time spent in a stage of the spread ranking pipeline")
+                    .tag("stage", stage.getTagValue())
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    public <T> T time(PipelineStage stage, Supplier<T> supplier) {
+        return stageTimers.get(stage).record(supplier);
+    }
+
+    public void time(PipelineStage stage, Runnable runnable) {
+        stageTimers.get(stage).record(runnable);
+    }
+
+    public Timer timer(PipelineStage stage) {
+        return stageTimers.get(stage);
+    }
+}
@@ -0,0 +1,22 @@
+package io.artur.interview.kanga.spread_ranking.monitoring;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum PipelineStage {
+    CALCULATION("calculation"), // whole calculation, from market pairs to grouped ranking
+    FETCH_MARKET_PAIRS("fetch.market-pairs"),
+    FETCH_ORDER_BOOKS("fetch.orderbooks"),
+    STORE_MARKETS("store.markets"),
+    CALCULATE_SPREADS("calculate.spreads"),
+    GROUP_AND_SORT("group.sort"),
+    GROUP_BUCKETS("group.buckets"), // priced markets split into configured spread buckets
+    RANK_PROFILES("profiles"), // every configured ranking profile, including its effective spreads
+    EFFECTIVE_SPREADS("effective.spreads"), // depth-aware ranking, calculation and grouping
+    PUBLISH("publish"),
+    SERIALIZE("serialize");
+
+    private final String tagValue;
+}
@@ -0,0 +1,33 @@
+package io.artur.interview.kanga.spread_ranking.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning one ranking calculation, from fetching market pairs to the grouped ranking.
+ * The event start and end mark the calculation start and end in a recording.
+ */
+@Name("io.artur.spreadranking.RankingCalculation")
+@Label("Ranking Calculation")
+@Description("Calculation of the spread ranking from exchange data")
+@Category({"Spread Ranking", "Calculation"})
+@StackTrace(false)
+public class RankingCalculationEvent extends Event {
+
+    @Label("Markets")
+    public int marketCount;
+
+    @Label("Markets With Spread")
+    public int pricedMarketCount;
+
+    @Label("Completeness")
+    @Description("Fraction of markets with a known spread")
+    public double completeness;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
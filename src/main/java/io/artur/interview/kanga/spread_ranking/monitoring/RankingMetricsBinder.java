@@ -0,0 +1,59 @@
+package io.artur.interview.kanga.spread_ranking.monitoring;
+
+import io.artur.interview.kanga.spread_ranking.domain.model.SpreadCategory;
+import io.artur.interview.kanga.spread_ranking.domain.model.SpreadRanking;
+import io.artur.interview.kanga.spread_ranking.domain.repository.SpreadRankingRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Gauges describing the currently stored ranking: its age and the number of markets per {@link SpreadCategory}.
+ * Gauges are evaluated on scrape, so they always reflect the latest published ranking.
+ */
+@Component
+@RequiredArgsConstructor
+class RankingMetricsBinder implements MeterBinder {
+
+    private final SpreadRankingRepository spreadRankingRepository;
+    private final Clock clock;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("spread.ranking.age", this, RankingMetricsBinder::rankingAgeSeconds)
+                .description("Seconds since the current ranking was calculated, NaN when there is none")
+                .baseUnit("seconds")
+                .register(registry);
+
+        registerMarketsGauge(registry, SpreadCategory.LOW_SPREAD, SpreadRanking::getLowSpreadMarkets);
+        registerMarketsGauge(registry, SpreadCategory.HIGH_SPREAD, SpreadRanking::getHighSpreadMarkets);
+        registerMarketsGauge(registry, SpreadCategory.UNKNOWN, SpreadRanking::getUnavailableMarkets);
+    }
+
+    private void registerMarketsGauge(MeterRegistry registry, SpreadCategory category,
+                                      Function<SpreadRanking, List<?>> group) {
+        Gauge.builder("spread.ranking.markets", this, binder -> binder.marketsCount(group))
+                .description("Number of markets in the current ranking per spread category")
+                .tag("category", category.name())
+                .register(registry);
+    }
+
+    private double rankingAgeSeconds() {
+        return spreadRankingRepository.getCurrentSpreadRanking()
+                .map(ranking -> Duration.between(ranking.getCalculatedAt(), clock.instant()).toMillis() / 1000.0)
+                .orElse(Double.NaN);
+    }
+
+    private double marketsCount(Function<SpreadRanking, List<?>> group) {
+        return spreadRankingRepository.getCurrentSpreadRanking()
+                .map(ranking -> (double) group.apply(ranking).size())
+                .orElse(0.0);
+    }
+}
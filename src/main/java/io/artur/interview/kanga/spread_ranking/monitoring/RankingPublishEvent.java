@@ -0,0 +1,22 @@
+package io.artur.interview.kanga.spread_ranking.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning the publication of a ranking to the repository, including index building.
+ */
+@Name("io.artur.spreadranking.RankingPublish")
+@Label("Ranking Publish")
+@Description("Publication of a calculated ranking to the repository")
+@Category({"Spread Ranking", "Repository"})
+@StackTrace(false)
+public class RankingPublishEvent extends Event {
+
+    @Label("Markets")
+    public int marketCount;
+}
@@ -0,0 +1,26 @@
+package io.artur.interview.kanga.spread_ranking.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning the serialization of a ranking API response.
+ */
+@Name("io.artur.spreadranking.RankingSerialization")
+@Label("Ranking Serialization")
+@Description("Serialization of a ranking API response")
+@Category({"Spread Ranking", "API"})
+@StackTrace(false)
+public class RankingSerializationEvent extends Event {
+
+    @Label("Response Type")
+    public String responseType;
+
+    @Label("Format")
+    @Description("json or ndjson")
+    public String format;
+}
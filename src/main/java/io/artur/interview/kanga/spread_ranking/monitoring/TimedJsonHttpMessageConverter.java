@@ -0,0 +1,47 @@
+package io.artur.interview.kanga.spread_ranking.monitoring;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.artur.interview.kanga.spread_ranking.api.dto.SpreadRankingApiResponse;
+import io.artur.interview.kanga.spread_ranking.api.dto.SpreadRankingPageApiResponse;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson converter that records ranking response serialization under the {@link PipelineStage#SERIALIZE} stage
+ * and as a {@link RankingSerializationEvent}. Other payloads are written without timing.
+ */
+class TimedJsonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    private final PipelineMetrics pipelineMetrics;
+
+    TimedJsonHttpMessageConverter(ObjectMapper objectMapper, PipelineMetrics pipelineMetrics) {
+        super(objectMapper);
+        this.pipelineMetrics = pipelineMetrics;
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        if (!(object instanceof SpreadRankingApiResponse) && !(object instanceof SpreadRankingPageApiResponse)) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+
+        RankingSerializationEvent event = new RankingSerializationEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            pipelineMetrics.timer(PipelineStage.SERIALIZE).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            event.responseType = object.getClass().getSimpleName();
+            event.format = "json";
+            event.commit();
+        }
+    }
+}
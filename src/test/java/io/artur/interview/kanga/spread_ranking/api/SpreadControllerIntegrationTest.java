@@ -5,9 +5,14 @@ import io.artur.interview.kanga.spread_ranking.domain.exceptions.RankingNotAvail
 import io.artur.interview.kanga.spread_ranking.domain.exceptions.SpreadCalculationException;
 import io.artur.interview.kanga.spread_ranking.domain.model.Spread;
 import io.artur.interview.kanga.spread_ranking.domain.model.SpreadCategory;
+import io.artur.interview.kanga.spread_ranking.domain.model.SpreadGroup;
 import io.artur.interview.kanga.spread_ranking.domain.model.SpreadRanking;
+import io.artur.interview.kanga.spread_ranking.domain.model.SpreadRankingIndex;
+import io.artur.interview.kanga.spread_ranking.domain.model.SpreadRankingPage;
+import io.artur.interview.kanga.spread_ranking.domain.model.SpreadRankingQuery;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
@@ -21,6 +26,7 @@ import java.time.Clock;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
@@ -189,7 +195,7 @@ class SpreadControllerIntegrationTest {
     void getRanking_shouldCalculateNewRanking_whenCurrentRankingIsOutdated() {
         // Given
         when(spreadRankingService.isRankingCurrent()).thenReturn(false);
-        when(spreadRankingService.calculateSpreadRanking()).thenReturn(mockSpreadRanking);
+        when(spreadRankingService.refreshSpreadRanking()).thenReturn(mockSpreadRanking);
 
         HttpEntity<String> entity = new HttpEntity<>(authenticatedHeaders);
 
@@ -212,12 +218,290 @@ class SpreadControllerIntegrationTest {
         assertThat(responseBody).contains("ADA-PLN");
 
         verify(spreadRankingService).isRankingCurrent();
-        verify(spreadRankingService).calculateSpreadRanking();
-        verify(spreadRankingService).storeSpreadRanking(mockSpreadRanking);
+        verify(spreadRankingService).refreshSpreadRanking();
+    }
+
+    @Test
+    void getRanking_shouldStreamOneMarketPerLine_whenFormatIsNdjson() {
+        // Given
+        when(spreadRankingService.isRankingCurrent()).thenReturn(true);
+        when(spreadRankingService.getCurrentRanking()).thenReturn(mockSpreadRanking);
+
+        HttpEntity<String> entity = new HttpEntity<>(authenticatedHeaders);
+
+        // When
+        ResponseEntity<String> response = restTemplate.exchange(
+                baseUrl + "/api/spread/ranking?format=ndjson",
+                HttpMethod.GET,
+                entity,
+                String.class
+        );
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentType().isCompatibleWith(MediaType.APPLICATION_NDJSON)).isTrue();
+
+        String responseBody = response.getBody();
+        assertThat(responseBody).isNotNull();
+        assertThat(responseBody.split("\n")).containsExactly(
+                "{\"market\":\"BTC-PLN\",\"spreadPercentage\":1.5,\"group\":1}",
+                "{\"market\":\"ETH-PLN\",\"spreadPercentage\":1.8,\"group\":1}",
+                "{\"market\":\"DOGE-PLN\",\"spreadPercentage\":3.2,\"group\":2}",
+                "{\"market\":\"ADA-PLN\",\"group\":3}"
+        );
+
+        verify(spreadRankingService).getCurrentRanking();
+    }
+
+    @Test
+    void getRanking_shouldStreamGroupsInJsonOrder_whenFormatIsNdjson() {
+        // Given
+        SpreadRanking ranking = SpreadRanking.builder()
+                .lowSpreadMarkets(List.of(
+                        new Spread("ETH-PLN", new BigDecimal("0.9"), SpreadCategory.LOW_SPREAD),
+                        new Spread("btc-PLN", new BigDecimal("1.5"), SpreadCategory.LOW_SPREAD)))
+                .highSpreadMarkets(List.of())
+                .unavailableMarkets(List.of())
+                .calculatedAt(fixedInstant)
+                .build();
+        when(spreadRankingService.isRankingCurrent()).thenReturn(true);
+        when(spreadRankingService.getCurrentRanking()).thenReturn(ranking);
+
+        HttpEntity<String> entity = new HttpEntity<>(authenticatedHeaders);
+
+        // When
+        ResponseEntity<String> ndjson = restTemplate.exchange(
+                baseUrl + "/api/spread/ranking?format=ndjson", HttpMethod.GET, entity, String.class);
+        ResponseEntity<String> json = restTemplate.exchange(
+                baseUrl + "/api/spread/ranking", HttpMethod.GET, entity, String.class);
+
+        // Then
+        assertThat(ndjson.getBody().split("\n")).containsExactly(
+                "{\"market\":\"btc-PLN\",\"spreadPercentage\":1.5,\"group\":1}",
+                "{\"market\":\"ETH-PLN\",\"spreadPercentage\":0.9,\"group\":1}"
+        );
+        assertThat(json.getBody().indexOf("btc-PLN")).isLessThan(json.getBody().indexOf("ETH-PLN"));
+    }
+
+    @Test
+    void getRanking_shouldReturn404ForNdjson_whenRankingNotAvailable() {
+        // Given
+        when(spreadRankingService.isRankingCurrent()).thenReturn(true);
+        when(spreadRankingService.getCurrentRanking())
+                .thenThrow(new RankingNotAvailableException("No ranking data available"));
+
+        HttpEntity<String> entity = new HttpEntity<>(authenticatedHeaders);
+
+        // When
+        ResponseEntity<String> response = restTemplate.exchange(
+                baseUrl + "/api/spread/ranking?format=ndjson",
+                HttpMethod.GET,
+                entity,
+                String.class
+        );
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void getRanking_shouldReturnQueriedPage_whenFilterParametersGiven() {
+        // Given
+        when(spreadRankingService.isRankingCurrent()).thenReturn(true);
+        when(spreadRankingService.getCurrentRanking()).thenReturn(mockSpreadRanking);
+        when(spreadRankingService.queryRanking(any())).thenReturn(new SpreadRankingPage(
+                List.of(new Spread("BTC-PLN", new BigDecimal("1.5"), SpreadCategory.LOW_SPREAD)),
+                fixedInstant,
+                "1672574400000:1"));
+
+        HttpEntity<String> entity = new HttpEntity<>(authenticatedHeaders);
+
+        // When
+        ResponseEntity<String> response = restTemplate.exchange(
+                baseUrl + "/api/spread/ranking?quote=PLN&maxSpread=2&category=LOW_SPREAD&limit=1",
+                HttpMethod.GET,
+                entity,
+                String.class
+        );
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        String responseBody = response.getBody();
+        assertThat(responseBody).isNotNull();
+        assertThat(responseBody).contains("\"markets\":[{\"market\":\"BTC-PLN\",\"spreadPercentage\":1.5}]");
+        assertThat(responseBody).contains("\"nextCursor\":\"1672574400000:1\"");
+        assertThat(responseBody).doesNotContain("\"group1\"");
+
+        ArgumentCaptor<SpreadRankingQuery> queryCaptor = ArgumentCaptor.forClass(SpreadRankingQuery.class);
+        verify(spreadRankingService).queryRanking(queryCaptor.capture());
+        assertThat(queryCaptor.getValue().targetCurrency()).isEqualTo("PLN");
+        assertThat(queryCaptor.getValue().maxPercentage()).isEqualByComparingTo("2");
+        assertThat(queryCaptor.getValue().category()).isEqualTo(SpreadCategory.LOW_SPREAD);
+        assertThat(queryCaptor.getValue().limit()).isEqualTo(1);
+    }
+
+    @Test
+    void getRanking_shouldReturn400_whenQueryLimitIsOutOfRange() {
+        HttpEntity<String> entity = new HttpEntity<>(authenticatedHeaders);
+
+        ResponseEntity<String> response = restTemplate.exchange(
+                baseUrl + "/api/spread/ranking?limit=5000",
+                HttpMethod.GET,
+                entity,
+                String.class
+        );
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verify(spreadRankingService, never()).queryRanking(any());
+    }
+
+    @Test
+    void getRanking_shouldReturnProfileRanking_whenProfileIsConfigured() {
+        // Given
+        SpreadRanking tightRanking = SpreadRanking.builder()
+                .highSpreadMarkets(List.of(new Spread("BTC-PLN", new BigDecimal("1.5"), SpreadCategory.HIGH_SPREAD)))
+                .calculatedAt(fixedInstant)
+                .build();
+        when(spreadRankingService.isRankingCurrent()).thenReturn(true);
+        when(spreadRankingService.getCurrentRanking())
+                .thenReturn(mockSpreadRanking.withProfileRankings(Map.of("tight", tightRanking)));
+
+        HttpEntity<String> entity = new HttpEntity<>(authenticatedHeaders);
+
+        // When
+        ResponseEntity<String> found = restTemplate.exchange(
+                baseUrl + "/api/spread/ranking?profile=tight", HttpMethod.GET, entity, String.class);
+        ResponseEntity<String> missing = restTemplate.exchange(
+                baseUrl + "/api/spread/ranking?profile=wide", HttpMethod.GET, entity, String.class);
+
+        // Then
+        assertThat(found.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(found.getBody()).contains("\"group1\":[]");
+        assertThat(found.getBody()).contains("\"group2\":[{\"market\":\"BTC-PLN\",\"spreadPercentage\":1.5}]");
+        assertThat(missing.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        verify(spreadRankingService, never()).refreshSpreadRanking();
+    }
+
+    @Test
+    void getRankingBuckets_shouldReturnSpreadGroupsInRankingOrder() {
+        // Given
+        SpreadRanking bucketedRanking = mockSpreadRanking.withSpreadGroups(List.of(
+                new SpreadGroup(new BigDecimal("1.50"), mockSpreadRanking.getLowSpreadMarkets().subList(0, 1)),
+                new SpreadGroup(null, List.of(mockSpreadRanking.getLowSpreadMarkets().get(1),
+                        mockSpreadRanking.getHighSpreadMarkets().getFirst()))));
+        when(spreadRankingService.isRankingCurrent()).thenReturn(true);
+        when(spreadRankingService.getCurrentRanking()).thenReturn(bucketedRanking);
+
+        HttpEntity<String> entity = new HttpEntity<>(authenticatedHeaders);
+
+        // When
+        ResponseEntity<String> response = restTemplate.exchange(
+                baseUrl + "/api/spread/ranking/buckets",
+                HttpMethod.GET,
+                entity,
+                String.class
+        );
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).contains(
+                "{\"bucket\":1,\"maxSpreadPercentage\":1.50,\"markets\":[{\"market\":\"BTC-PLN\",\"spreadPercentage\":1.5}]}");
+        assertThat(response.getBody()).contains(
+                "{\"bucket\":2,\"markets\":[{\"market\":\"ETH-PLN\",\"spreadPercentage\":1.8},{\"market\":\"DOGE-PLN\",\"spreadPercentage\":3.2}]}");
+        verify(spreadRankingService, never()).refreshSpreadRanking();
+    }
+
+    @Test
+    void getMarketSpread_shouldReturnSingleMarket_whenMarketIsRanked() {
+        // Given
+        when(spreadRankingService.isRankingCurrent()).thenReturn(true);
+        when(spreadRankingService.getCurrentRankingIndex()).thenReturn(SpreadRankingIndex.of(mockSpreadRanking));
+
+        HttpEntity<String> entity = new HttpEntity<>(authenticatedHeaders);
+
+        // When
+        ResponseEntity<String> response = restTemplate.exchange(
+                baseUrl + "/api/spread/markets/DOGE-PLN",
+                HttpMethod.GET,
+                entity,
+                String.class
+        );
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).contains("\"market\":\"DOGE-PLN\"");
+        assertThat(response.getBody()).contains("\"spreadPercentage\":3.2");
+        assertThat(response.getBody()).contains("\"category\":\"HIGH_SPREAD\"");
+        verify(spreadRankingService, never()).refreshSpreadRanking();
+    }
+
+    @Test
+    void getMarketSpread_shouldReturn404_whenMarketIsNotRanked() {
+        // Given
+        when(spreadRankingService.isRankingCurrent()).thenReturn(true);
+        when(spreadRankingService.getCurrentRankingIndex()).thenReturn(SpreadRankingIndex.of(mockSpreadRanking));
+
+        HttpEntity<String> entity = new HttpEntity<>(authenticatedHeaders);
+
+        // When
+        ResponseEntity<String> response = restTemplate.exchange(
+                baseUrl + "/api/spread/markets/XRP-PLN",
+                HttpMethod.GET,
+                entity,
+                String.class
+        );
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(response.getBody()).contains("Market not found");
+    }
+
+    @Test
+    void getMarketSpread_shouldReturn503WithoutCalculating_whenRankingIsNotCurrent() {
+        // Given
+        when(spreadRankingService.getCurrentRankingIndex())
+                .thenThrow(new RankingNotAvailableException("Valid ranking unavailable. Call calculate method first."));
+
+        HttpEntity<String> entity = new HttpEntity<>(authenticatedHeaders);
+
+        // When
+        ResponseEntity<String> single = restTemplate.exchange(
+                baseUrl + "/api/spread/markets/DOGE-PLN", HttpMethod.GET, entity, String.class);
+        ResponseEntity<String> batch = restTemplate.exchange(
+                baseUrl + "/api/spread/markets?tickers=BTC-PLN,DOGE-PLN", HttpMethod.GET, entity, String.class);
+
+        // Then
+        assertThat(single.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(single.getBody()).contains("Ranking is not ready");
+        assertThat(batch.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        verify(spreadRankingService, never()).refreshSpreadRanking();
     }
 
     @Test
-    void calculateRanking_shouldReturnSuccess_whenValidToken() {
+    void getMarketSpreads_shouldReturnFoundAndMissingMarkets() {
+        // Given
+        when(spreadRankingService.isRankingCurrent()).thenReturn(true);
+        when(spreadRankingService.getCurrentRankingIndex()).thenReturn(SpreadRankingIndex.of(mockSpreadRanking));
+
+        HttpEntity<String> entity = new HttpEntity<>(authenticatedHeaders);
+
+        // When
+        ResponseEntity<String> response = restTemplate.exchange(
+                baseUrl + "/api/spread/markets?tickers=BTC-PLN,ADA-PLN,XRP-PLN",
+                HttpMethod.GET,
+                entity,
+                String.class
+        );
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).contains(
+                "\"markets\":[{\"market\":\"BTC-PLN\",\"spreadPercentage\":1.5},{\"market\":\"ADA-PLN\"}]");
+        assertThat(response.getBody()).contains("\"missing\":[\"XRP-PLN\"]");
+    }
+
+    @Test
+    void calculateRanking_shouldAcceptJobAndCompleteIt_whenValidToken() {
         // Given
         when(spreadRankingService.calculateSpreadRanking()).thenReturn(mockSpreadRanking);
 
@@ -232,15 +516,21 @@ class SpreadControllerIntegrationTest {
         );
 
         // Then
-        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
         assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(response.getHeaders().getLocation()).isNotNull();
         
         String responseBody = response.getBody();
         assertThat(responseBody).isNotNull();
-        assertThat(responseBody).contains("\"message\":\"Ranking calculated successfully\"");
-        assertThat(responseBody).contains("\"status\":\"SUCCESS\"");
+        assertThat(responseBody).contains("\"message\":\"Ranking calculation accepted\"");
+        assertThat(responseBody).contains("\"jobId\":");
         assertThat(responseBody).contains("\"timestamp\":");
 
+        String finishedJob = awaitFinishedJob(response.getHeaders().getLocation().getPath());
+        assertThat(finishedJob).contains("\"message\":\"Ranking calculated successfully\"");
+        assertThat(finishedJob).contains("\"status\":\"SUCCESS\"");
+        assertThat(finishedJob).contains("\"marketsCount\":4");
+
         verify(spreadRankingService).calculateSpreadRanking();
         verify(spreadRankingService).storeSpreadRanking(mockSpreadRanking);
     }
@@ -272,7 +562,7 @@ class SpreadControllerIntegrationTest {
     void getRanking_shouldReturn500_whenSpreadCalculationFails() {
         // Given
         when(spreadRankingService.isRankingCurrent()).thenReturn(false);
-        when(spreadRankingService.calculateSpreadRanking())
+        when(spreadRankingService.refreshSpreadRanking())
                 .thenThrow(new SpreadCalculationException("External API failure", new RuntimeException()));
 
         HttpEntity<String> entity = new HttpEntity<>(authenticatedHeaders);
@@ -288,11 +578,11 @@ class SpreadControllerIntegrationTest {
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
         verify(spreadRankingService).isRankingCurrent();
-        verify(spreadRankingService).calculateSpreadRanking();
+        verify(spreadRankingService).refreshSpreadRanking();
     }
 
     @Test
-    void calculateRanking_shouldReturnError_whenSpreadCalculationFails() {
+    void calculateRanking_shouldReportError_whenSpreadCalculationFails() {
         // Given
         String errorMessage = "Market data unavailable";
         when(spreadRankingService.calculateSpreadRanking())
@@ -309,18 +599,32 @@ class SpreadControllerIntegrationTest {
         );
 
         // Then
-        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
-        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
-        
-        String responseBody = response.getBody();
-        assertThat(responseBody).isNotNull();
-        assertThat(responseBody).contains("\"message\":\"Calculation failed: " + errorMessage + "\"");
-        assertThat(responseBody).contains("\"status\":\"ERROR\"");
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+
+        String finishedJob = awaitFinishedJob(response.getHeaders().getLocation().getPath());
+        assertThat(finishedJob).contains("\"message\":\"Calculation failed: " + errorMessage + "\"");
+        assertThat(finishedJob).contains("\"status\":\"ERROR\"");
+        assertThat(finishedJob).contains("\"error\":\"" + errorMessage + "\"");
 
         verify(spreadRankingService).calculateSpreadRanking();
         verify(spreadRankingService, never()).storeSpreadRanking(any());
     }
 
+    @Test
+    void getCalculation_shouldReturn404_whenJobIsUnknown() {
+        HttpEntity<String> entity = new HttpEntity<>(authenticatedHeaders);
+
+        ResponseEntity<String> response = restTemplate.exchange(
+                baseUrl + "/api/spread/calculate/00000000-0000-0000-0000-000000000000",
+                HttpMethod.GET,
+                entity,
+                String.class
+        );
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(response.getBody()).contains("Calculation job not found");
+    }
+
     @Test
     void getRanking_shouldHandleMalformedAuthorizationHeader() {
         HttpHeaders malformedHeaders = new HttpHeaders();
@@ -395,14 +699,13 @@ class SpreadControllerIntegrationTest {
                 entity,
                 String.class
         );
+        String finishedJob = awaitFinishedJob(response.getHeaders().getLocation().getPath());
         long endTime = System.currentTimeMillis();
 
         // Then
-        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
         assertThat(endTime - startTime).isLessThan(10000);
-        
-        String responseBody = response.getBody();
-        assertThat(responseBody).contains("\"calculationDurationMs\":");
+        assertThat(finishedJob).contains("\"calculationDurationMs\":");
     }
 
     @Test
@@ -441,4 +744,18 @@ class SpreadControllerIntegrationTest {
             assertThat(response.getBody()).contains("BTC-PLN");
         }
     }
-}
\ No newline at end of file
+
+    private String awaitFinishedJob(String jobPath) {
+        HttpEntity<String> entity = new HttpEntity<>(authenticatedHeaders);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            ResponseEntity<String> job = restTemplate.exchange(baseUrl + jobPath, HttpMethod.GET, entity, String.class);
+            assertThat(job.getStatusCode()).isEqualTo(HttpStatus.OK);
+            if (!job.getBody().contains("\"status\":\"PENDING\"") && !job.getBody().contains("\"status\":\"RUNNING\"")) {
+                return job.getBody();
+            }
+            Thread.onSpinWait();
+        }
+        throw new AssertionError("Calculation job " + jobPath + " did not finish in time");
+    }
+}
@@ -0,0 +1,59 @@
+package io.artur.interview.kanga.spread_ranking.api.dto;
+
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpreadRankingApiResponseSerializerTest {
+
+    // dates as ISO-8601 strings, as Spring Boot configures the application's mapper
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private final ObjectMapper introspectingMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .mixIn(SpreadRankingApiResponse.class, Introspected.class)
+            .build();
+
+    @JsonSerialize(using = JsonSerializer.None.class)
+    private interface Introspected {
+    }
+
+    @Test
+    void shouldWriteWhatTheAnnotatedRecordsWould() throws Exception {
+        // given
+        SpreadRankingApiResponse response = new SpreadRankingApiResponse(Instant.parse("2025-07-20T10:30:00.123Z"),
+                new SpreadRankingApiDto(
+                        List.of(new SpreadApiDto("ETH-PLN", new BigDecimal("1.80")), new SpreadApiDto("BTC-PLN", new BigDecimal("0.5"))),
+                        List.of(new SpreadApiDto("DOGE-PLN", new BigDecimal("3.2E+1"))),
+                        List.of(SpreadApiDto.unknown("ADA-PLN"))));
+
+        // when
+        String json = objectMapper.writeValueAsString(response);
+
+        // then
+        assertThat(json).isEqualTo(introspectingMapper.writeValueAsString(response));
+        assertThat(json).startsWith("{\"timestamp\":\"2025-07-20T10:30:00.123Z\",\"ranking\":{\"group1\":[{\"market\":\"BTC-PLN\"");
+    }
+
+    @Test
+    void shouldLeaveOutMissingTimestampAndRanking() throws Exception {
+        // given
+        SpreadRankingApiResponse response = new SpreadRankingApiResponse(null, null);
+
+        // when
+        String json = objectMapper.writeValueAsString(response);
+
+        // then
+        assertThat(json).isEqualTo("{}").isEqualTo(introspectingMapper.writeValueAsString(response));
+    }
+}
@@ -0,0 +1,135 @@
+package io.artur.interview.kanga.spread_ranking.application;
+
+import io.artur.interview.kanga.spread_ranking.domain.exceptions.SpreadCalculationException;
+import io.artur.interview.kanga.spread_ranking.domain.model.SpreadRanking;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static io.artur.interview.kanga.spread_ranking.application.CalculationJobStatus.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CalculationJobServiceTest {
+
+    @Mock
+    private SpreadRankingService spreadRankingService;
+
+    private final Clock clock = Clock.fixed(Instant.parse("2025-07-20T10:30:00Z"), ZoneId.of("UTC"));
+    private CalculationJobService calculationJobService;
+
+    @BeforeEach
+    void setUp() {
+        calculationJobService = new CalculationJobService(spreadRankingService, clock, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        calculationJobService.shutdown();
+    }
+
+    @Test
+    void shouldRunSubmittedJobAndStoreRanking() throws InterruptedException {
+        // given
+        SpreadRanking ranking = SpreadRanking.empty(clock);
+        when(spreadRankingService.calculateSpreadRanking()).thenReturn(ranking);
+
+        // when
+        CalculationJob submitted = calculationJobService.submit();
+        CalculationJob finished = awaitFinished(submitted.id());
+
+        // then
+        assertThat(submitted.status()).isEqualTo(PENDING);
+        assertThat(submitted.submittedAt()).isEqualTo(clock.instant());
+        assertThat(finished.status()).isEqualTo(SUCCESS);
+        assertThat(finished.marketsCount()).isZero();
+        assertThat(finished.durationMs()).isZero();
+        verify(spreadRankingService).storeSpreadRanking(ranking);
+    }
+
+    @Test
+    void shouldAttachDuplicateSubmissionsToActiveJob() throws InterruptedException {
+        // given
+        CountDownLatch calculationStarted = new CountDownLatch(1);
+        CountDownLatch releaseCalculation = new CountDownLatch(1);
+        when(spreadRankingService.calculateSpreadRanking()).thenAnswer(invocation -> {
+            calculationStarted.countDown();
+            releaseCalculation.await(5, TimeUnit.SECONDS);
+            return SpreadRanking.empty(clock);
+        });
+
+        // when
+        CalculationJob first = calculationJobService.submit();
+        assertThat(calculationStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        CalculationJob duplicate = calculationJobService.submit();
+        releaseCalculation.countDown();
+        awaitFinished(first.id());
+        CalculationJob next = calculationJobService.submit();
+        awaitFinished(next.id());
+
+        // then
+        assertThat(duplicate.id()).isEqualTo(first.id());
+        assertThat(duplicate.status()).isEqualTo(RUNNING);
+        assertThat(next.id()).isNotEqualTo(first.id());
+        verify(spreadRankingService, times(2)).calculateSpreadRanking();
+    }
+
+    @Test
+    void shouldReportFailedJob() throws InterruptedException {
+        // given
+        when(spreadRankingService.calculateSpreadRanking())
+                .thenThrow(new SpreadCalculationException("Cannot calculate ranking", new RuntimeException()));
+
+        // when
+        CalculationJob finished = awaitFinished(calculationJobService.submit().id());
+
+        // then
+        assertThat(finished.status()).isEqualTo(ERROR);
+        assertThat(finished.error()).isEqualTo("Cannot calculate ranking");
+        verify(spreadRankingService, never()).storeSpreadRanking(any());
+    }
+
+    @Test
+    void shouldReleaseJobAbortedByError() throws InterruptedException {
+        // given
+        when(spreadRankingService.calculateSpreadRanking()).thenThrow(new StackOverflowError());
+        CalculationJob aborted = awaitFinished(calculationJobService.submit().id());
+
+        // when
+        CalculationJob next = calculationJobService.submit();
+
+        // then
+        assertThat(aborted.status()).isEqualTo(ERROR);
+        assertThat(aborted.error()).isEqualTo("Calculation aborted");
+        assertThat(next.id()).isNotEqualTo(aborted.id());
+        awaitFinished(next.id());
+    }
+
+    @Test
+    void shouldReturnEmptyForUnknownJob() {
+        assertThat(calculationJobService.findJob("unknown")).isEmpty();
+    }
+
+    private CalculationJob awaitFinished(String jobId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            CalculationJob job = calculationJobService.findJob(jobId).orElseThrow();
+            if (!job.isActive()) {
+                return job;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Job " + jobId + " did not finish in time");
+    }
+}
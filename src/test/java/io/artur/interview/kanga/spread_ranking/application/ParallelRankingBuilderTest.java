@@ -0,0 +1,108 @@
+package io.artur.interview.kanga.spread_ranking.application;
+
+import io.artur.interview.kanga.spread_ranking.domain.SpreadCalculationService;
+import io.artur.interview.kanga.spread_ranking.domain.TickerSymbolTable;
+import io.artur.interview.kanga.spread_ranking.domain.model.Market;
+import io.artur.interview.kanga.spread_ranking.domain.model.MarketSnapshot;
+import io.artur.interview.kanga.spread_ranking.domain.model.SpreadRanking;
+import io.artur.interview.kanga.spread_ranking.monitoring.PipelineMetrics;
+import io.artur.interview.kanga.spread_ranking.monitoring.PipelineStage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ParallelRankingBuilderTest {
+
+    private final Clock clock = Clock.fixed(Instant.parse("2025-07-20T10:30:00Z"), ZoneOffset.UTC);
+    private final SpreadCalculationService spreadCalculationService = new SpreadCalculationService();
+    private final PipelineMetrics pipelineMetrics = new PipelineMetrics(new SimpleMeterRegistry());
+    private final TickerSymbolTable symbolTable = new TickerSymbolTable();
+    private ParallelRankingBuilder builder;
+
+    @BeforeEach
+    void setUp() {
+        ParallelRankingProperties properties = new ParallelRankingProperties();
+        properties.setThreshold(1_000);
+        properties.setChunkSize(700);
+        properties.setParallelism(4);
+        builder = new ParallelRankingBuilder(spreadCalculationService, pipelineMetrics, properties, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        builder.shutdown();
+    }
+
+    @Test
+    void shouldBuildSameRankingAsSequentialGrouping() {
+        // given
+        List<Market> markets = markets(20_000);
+        MarketSnapshot sequential = MarketSnapshot.of(markets, symbolTable);
+        spreadCalculationService.calculateSpreads(sequential);
+        SpreadRanking expected = new SpreadRankingService(null, null, null, null, builder, new EffectiveSpreadProperties(),
+                new SpreadBucketProperties(), new RankingProfileProperties(), symbolTable, pipelineMetrics, clock)
+                .groupAndSort(sequential);
+
+        // when
+        SpreadRanking ranking = builder.build(MarketSnapshot.of(markets, symbolTable), clock);
+
+        // then
+        assertThat(ranking.getLowSpreadMarkets()).isNotEmpty().containsExactlyElementsOf(expected.getLowSpreadMarkets());
+        assertThat(ranking.getHighSpreadMarkets()).isNotEmpty().containsExactlyElementsOf(expected.getHighSpreadMarkets());
+        assertThat(ranking.getUnavailableMarkets()).isNotEmpty().containsExactlyElementsOf(expected.getUnavailableMarkets());
+        assertThat(ranking.getCalculatedAt()).isEqualTo(clock.instant());
+        assertThat(pipelineMetrics.timer(PipelineStage.CALCULATE_SPREADS).count()).isEqualTo(1);
+        assertThat(pipelineMetrics.timer(PipelineStage.GROUP_AND_SORT).count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldApplyFromThreshold() {
+        // given
+        MarketSnapshot belowThreshold = MarketSnapshot.of(markets(999), symbolTable);
+        MarketSnapshot atThreshold = MarketSnapshot.of(markets(1_000), symbolTable);
+
+        // when / then
+        assertThat(builder.appliesTo(belowThreshold)).isFalse();
+        assertThat(builder.appliesTo(atThreshold)).isTrue();
+    }
+
+    @Test
+    void shouldNotApplyByDefault() {
+        // given
+        ParallelRankingBuilder defaultBuilder = new ParallelRankingBuilder(spreadCalculationService, pipelineMetrics,
+                new ParallelRankingProperties(), new SimpleMeterRegistry());
+
+        // when / then
+        assertThat(defaultBuilder.appliesTo(MarketSnapshot.of(markets(100_000), symbolTable))).isFalse();
+        defaultBuilder.shutdown();
+    }
+
+    /**
+     * Few distinct spreads and tickers differing only in case, so merges have to break ties by ticker and input order.
+     */
+    private static List<Market> markets(int count) {
+        Random random = new Random(3L);
+        List<Market> markets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String tickerId = (random.nextBoolean() ? "c" : "C") + (i % (count / 3 + 1)) + "_USDT";
+            if (random.nextInt(20) == 0) {
+                markets.add(new Market(tickerId, null, new BigDecimal("1.00"), "C" + i, "USDT"));
+                continue;
+            }
+            BigDecimal bid = BigDecimal.valueOf(100 - random.nextInt(6));
+            markets.add(new Market(tickerId, bid, new BigDecimal("100"), "C" + i, "USDT"));
+        }
+        return markets;
+    }
+}
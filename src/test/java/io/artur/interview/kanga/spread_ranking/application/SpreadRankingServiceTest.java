@@ -6,27 +6,44 @@ import io.artur.interview.kanga.spread_ranking.domain.exceptions.ExchangeApiExce
 import io.artur.interview.kanga.spread_ranking.domain.model.*;
 import io.artur.interview.kanga.spread_ranking.domain.repository.MarketDataRepository;
 import io.artur.interview.kanga.spread_ranking.domain.repository.SpreadRankingRepository;
+import io.artur.interview.kanga.spread_ranking.monitoring.PipelineMetrics;
+import io.artur.interview.kanga.spread_ranking.monitoring.PipelineStage;
+import io.artur.interview.kanga.spread_ranking.monitoring.RankingCalculationEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Clock;
 import java.time.Instant;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
-import static io.artur.interview.kanga.spread_ranking.domain.model.SpreadCategory.LOW_SPREAD;
 import static io.artur.interview.kanga.spread_ranking.domain.model.SpreadCategory.UNKNOWN;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 
@@ -37,17 +54,34 @@ class SpreadRankingServiceTest {
     private ExchangeApiClient exchangeApiClient;
     @Mock
     private MarketDataRepository marketDataRepository;
-    @Mock
-    private SpreadCalculationService spreadCalculationService;
+    @Spy
+    private SpreadCalculationService spreadCalculationService = new SpreadCalculationService();
     @Mock
     private SpreadRankingRepository spreadRankingRepository;
     @Mock
+    private ParallelRankingBuilder parallelRankingBuilder;
+    @Mock
     private Clock clock;
+    @Spy
+    private EffectiveSpreadProperties effectiveSpreadProperties = new EffectiveSpreadProperties();
+    @Spy
+    private SpreadBucketProperties spreadBucketProperties = new SpreadBucketProperties();
+    @Spy
+    private RankingProfileProperties rankingProfileProperties = new RankingProfileProperties();
+    @Spy
+    private TickerSymbolTable symbolTable = new TickerSymbolTable();
+    @Spy
+    private PipelineMetrics pipelineMetrics = new PipelineMetrics(new SimpleMeterRegistry());
     @InjectMocks
     private SpreadRankingService spreadRankingService;
     @Captor
     private ArgumentCaptor<List<Market>> marketsCaptor;
 
+    @BeforeEach
+    void fetchMarketsThroughPairsAndOrderBooks() {
+        lenient().doCallRealMethod().when(exchangeApiClient).fetchMarkets(any());
+    }
+
     @Test
     void shouldCalculateAndCacheRankingSuccessfully() {
         // given
@@ -64,19 +98,15 @@ class SpreadRankingServiceTest {
         );
 
         List<Spread> expectedSpreads = List.of(
-                createSpread("BTC_USD", "0.20", SpreadCategory.LOW_SPREAD),
-                createSpread("ETH_USD", "6.45", SpreadCategory.HIGH_SPREAD),
-                createSpread("ADA_USD", "0", UNKNOWN)
+                new Spread("BTC_USD", new BigDecimal("0.2000"), SpreadCategory.LOW_SPREAD, "BTC", "USD"),
+                new Spread("ETH_USD", new BigDecimal("6.4500"), SpreadCategory.HIGH_SPREAD, "ETH", "USD"),
+                new Spread("ADA_USD", null, UNKNOWN, "ADA", "USD")
         );
         Instant testTime = Instant.parse("2025-07-20T10:30:00Z");
 
         when(clock.instant()).thenReturn(testTime);
         when(exchangeApiClient.getMarketPairs()).thenReturn(marketPairs);
         when(exchangeApiClient.getOrderBooks(anyList())).thenReturn(orderBooks);
-        when(spreadCalculationService.calculateSpread(any(Market.class)))
-                .thenReturn(expectedSpreads.get(0))
-                .thenReturn(expectedSpreads.get(1))
-                .thenReturn(expectedSpreads.get(2));
 
         // when
         SpreadRanking result = spreadRankingService.calculateSpreadRanking();
@@ -100,8 +130,10 @@ class SpreadRankingServiceTest {
         assertThat(savedMarkets).hasSize(3);
         assertThat(savedMarkets.getFirst().tickerId()).isEqualTo("BTC_USD");
 
-        verify(spreadCalculationService, times(3)).calculateSpread(any(Market.class));
+        verify(spreadCalculationService).calculateSpreads(any(MarketSnapshot.class));
+        verify(spreadCalculationService).calculateSpreads(any(MarketSnapshot.class), eq(0), eq(3));
 
+        verify(exchangeApiClient).fetchMarkets(any());
         verifyNoMoreInteractions(marketDataRepository, exchangeApiClient, spreadCalculationService);
         verifyNoInteractions(spreadRankingRepository);
     }
@@ -127,10 +159,53 @@ class SpreadRankingServiceTest {
 
         verify(exchangeApiClient).getMarketPairs();
         verify(exchangeApiClient, never()).getOrderBooks(anyList());
+        verify(exchangeApiClient).fetchMarkets(any());
         verifyNoMoreInteractions(exchangeApiClient);
         verifyNoInteractions(marketDataRepository, spreadRankingRepository, spreadCalculationService);
     }
 
+    @Test
+    void shouldRecordPipelineStageTimings() {
+        // given
+        when(clock.instant()).thenReturn(Instant.parse("2025-07-20T12:55:00Z"));
+        when(exchangeApiClient.getMarketPairs()).thenReturn(List.of());
+
+        // when
+        spreadRankingService.calculateSpreadRanking();
+
+        // then
+        assertThat(pipelineMetrics.timer(PipelineStage.CALCULATION).count()).isEqualTo(1);
+        assertThat(pipelineMetrics.timer(PipelineStage.FETCH_MARKET_PAIRS).count()).isEqualTo(1);
+        assertThat(pipelineMetrics.timer(PipelineStage.GROUP_AND_SORT).count()).isEqualTo(1);
+        assertThat(pipelineMetrics.timer(PipelineStage.FETCH_ORDER_BOOKS).count()).isZero();
+    }
+
+    @Test
+    void shouldEmitRankingCalculationEvent() throws Exception {
+        // given
+        when(clock.instant()).thenReturn(Instant.parse("2025-07-20T12:55:00Z"));
+        when(exchangeApiClient.getMarketPairs()).thenReturn(List.of());
+        Path recordingFile = Files.createTempFile("ranking-calculation", ".jfr");
+
+        // when
+        try (Recording recording = new Recording()) {
+            recording.enable(RankingCalculationEvent.class);
+            recording.start();
+            spreadRankingService.calculateSpreadRanking();
+            recording.stop();
+            recording.dump(recordingFile);
+        }
+
+        // then
+        List<RecordedEvent> events = RecordingFile.readAllEvents(recordingFile);
+        Files.deleteIfExists(recordingFile);
+        assertThat(events).singleElement().satisfies(event -> {
+            assertThat(event.getBoolean("succeeded")).isTrue();
+            assertThat(event.getInt("marketCount")).isZero();
+            assertThat(event.getDouble("completeness")).isEqualTo(1.0);
+        });
+    }
+
     @Test
     void shouldSortMarketsAlphabetically() {
         // given
@@ -149,10 +224,6 @@ class SpreadRankingServiceTest {
         when(clock.instant()).thenReturn(testTime);
         when(exchangeApiClient.getMarketPairs()).thenReturn(marketPairs);
         when(exchangeApiClient.getOrderBooks(anyList())).thenReturn(orderBooks);
-        when(spreadCalculationService.calculateSpread(any(Market.class)))
-                .thenReturn(createSpread("ZEC_EUR", "1.25", LOW_SPREAD))
-                .thenReturn(createSpread("ADA_GBP", "1.01", LOW_SPREAD))
-                .thenReturn(createSpread("BTC_USD", "0.99", LOW_SPREAD));
 
         // when
         SpreadRanking result = spreadRankingService.calculateSpreadRanking();
@@ -164,6 +235,156 @@ class SpreadRankingServiceTest {
                 .containsExactly("BTC_USD", "ADA_GBP", "ZEC_EUR");
     }
 
+    @Test
+    void shouldSortEqualSpreadsByMarketIdAndUnknownMarketsByMarketIdOnly() {
+        // given
+        List<MarketPair> marketPairs = List.of(
+                createMarketPair("eth_usd", "ETH", "USD"),
+                createMarketPair("XRP_USD", "XRP", "USD"),
+                createMarketPair("BTC_USD", "BTC", "USD"),
+                createMarketPair("DOT_USD", "DOT", "USD"),
+                createMarketPair("ADA_USD", "ADA", "USD"));
+
+        Map<String, OrderBook> orderBooks = Map.of(
+                "eth_usd", createOrderBook("eth_usd", "100", "101", clock),
+                "XRP_USD", createOrderBook("XRP_USD", "1", "1.01", clock),
+                "BTC_USD", createOrderBook("BTC_USD", "200", "202", clock)
+        );
+
+        when(clock.instant()).thenReturn(Instant.parse("2025-07-20T12:55:00Z"));
+        when(exchangeApiClient.getMarketPairs()).thenReturn(marketPairs);
+        when(exchangeApiClient.getOrderBooks(anyList())).thenReturn(orderBooks);
+
+        // when
+        SpreadRanking result = spreadRankingService.calculateSpreadRanking();
+
+        // then
+        assertThat(result.getLowSpreadMarkets())
+                .extracting(Spread::marketId)
+                .containsExactly("BTC_USD", "eth_usd", "XRP_USD");
+        assertThat(result.getUnavailableMarkets())
+                .extracting(Spread::marketId)
+                .containsExactly("ADA_USD", "DOT_USD");
+    }
+
+    @Test
+    void shouldSplitPricedMarketsIntoStaticSpreadBuckets() {
+        // given
+        spreadBucketProperties.setCutPoints(List.of(new BigDecimal("0.5"), new BigDecimal("2.0")));
+        stubMarkets();
+
+        // when
+        SpreadRanking result = spreadRankingService.calculateSpreadRanking();
+
+        // then
+        assertThat(result.getSpreadGroups()).extracting(SpreadGroup::maxPercentage)
+                .containsExactly(new BigDecimal("0.50"), new BigDecimal("2.00"), null);
+        assertThat(result.getSpreadGroups()).extracting(group -> group.spreads().stream().map(Spread::marketId).toList())
+                .containsExactly(List.of("A_USD", "B_USD"), List.of("C_USD"), List.of("D_USD", "E_USD"));
+    }
+
+    @Test
+    void shouldSplitPricedMarketsAtSpreadPercentiles() {
+        // given
+        spreadBucketProperties.setMode(SpreadBucketProperties.Mode.PERCENTILE);
+        spreadBucketProperties.setPercentiles(List.of(20.0, 60.0));
+        stubMarkets();
+
+        // when
+        SpreadRanking result = spreadRankingService.calculateSpreadRanking();
+
+        // then: nearest rank of 5 priced markets, the 1st and the 3rd
+        assertThat(result.getSpreadGroups()).extracting(SpreadGroup::maxPercentage)
+                .containsExactly(new BigDecimal("0.10"), new BigDecimal("1.00"), null);
+        assertThat(result.getSpreadGroups()).extracting(group -> group.spreads().size())
+                .containsExactly(1, 2, 2);
+    }
+
+    @Test
+    void shouldRankEveryProfileFromOneFetch() {
+        // given
+        rankingProfileProperties.setProfiles(new LinkedHashMap<>(Map.of(
+                "tight", profile(RankingProfileProperties.SpreadSource.TOP, "0.5"),
+                "loose", profile(RankingProfileProperties.SpreadSource.TOP, "5"),
+                "depth", profile(RankingProfileProperties.SpreadSource.EFFECTIVE, "2.0"))));
+        effectiveSpreadProperties.setNotional(Map.of("USD", new BigDecimal("150")));
+        stubMarkets();
+
+        // when
+        SpreadRanking result = spreadRankingService.calculateSpreadRanking();
+
+        // then
+        SpreadRanking tight = result.getProfileRanking("tight").orElseThrow();
+        assertThat(tight.getLowSpreadMarkets()).extracting(Spread::marketId).containsExactly("A_USD", "B_USD");
+        assertThat(tight.getHighSpreadMarkets()).extracting(Spread::marketId).containsExactly("C_USD", "D_USD", "E_USD");
+        assertThat(tight.getHighSpreadMarkets()).extracting(Spread::category).containsOnly(SpreadCategory.HIGH_SPREAD);
+
+        SpreadRanking loose = result.getProfileRanking("loose").orElseThrow();
+        assertThat(loose.getLowSpreadMarkets()).extracting(Spread::marketId).containsExactly("A_USD", "B_USD", "C_USD", "D_USD");
+        assertThat(loose.getLowSpreadMarkets()).extracting(Spread::category).containsOnly(SpreadCategory.LOW_SPREAD);
+        assertThat(loose.getSpreadGroups()).isNotEmpty();
+
+        SpreadRanking depth = result.getProfileRanking("depth").orElseThrow();
+        assertThat(depth.getLowSpreadMarkets()).extracting(Spread::marketId).containsExactly("A_USD");
+        assertThat(depth.getUnavailableMarkets()).hasSize(5);
+
+        assertThat(result.getLowSpreadMarkets()).extracting(Spread::marketId).containsExactly("A_USD", "B_USD", "C_USD");
+        assertThat(result.getProfileRanking("missing")).isEmpty();
+        verify(exchangeApiClient).getMarketPairs();
+        verify(exchangeApiClient).getOrderBooks(anyList());
+        verify(spreadCalculationService).calculateEffectiveSpreads(any(MarketSnapshot.class), anyMap());
+    }
+
+    private static RankingProfileProperties.Profile profile(RankingProfileProperties.SpreadSource spread, String threshold) {
+        RankingProfileProperties.Profile profile = new RankingProfileProperties.Profile();
+        profile.setSpread(spread);
+        profile.setHighSpreadThreshold(new BigDecimal(threshold));
+        return profile;
+    }
+
+    private void stubMarkets() {
+        List<MarketPair> marketPairs = List.of(
+                createMarketPair("E_USD", "E", "USD"),
+                createMarketPair("A_USD", "A", "USD"),
+                createMarketPair("D_USD", "D", "USD"),
+                createMarketPair("C_USD", "C", "USD"),
+                createMarketPair("B_USD", "B", "USD"),
+                createMarketPair("X_USD", "X", "USD"));
+        Map<String, OrderBook> orderBooks = Map.of(
+                "A_USD", new OrderBook("A_USD", new BigDecimal("99.95"), new BigDecimal("100.05"), Instant.now(clock),
+                        OrderBookDepth.of(new double[]{99.95, 1, 99.5, 1}, new double[]{100.05, 1, 100.5, 1})),  // 0.10%
+                "B_USD", createOrderBook("B_USD", "99.75", "100.25", clock),  // 0.50%
+                "C_USD", createOrderBook("C_USD", "99.5", "100.5", clock),    // 1.00%
+                "D_USD", createOrderBook("D_USD", "98", "102", clock),        // 4.00%
+                "E_USD", createOrderBook("E_USD", "95", "105", clock));       // 10.00%
+
+        when(clock.instant()).thenReturn(Instant.parse("2025-07-20T10:30:00Z"));
+        when(exchangeApiClient.getMarketPairs()).thenReturn(marketPairs);
+        when(exchangeApiClient.getOrderBooks(anyList())).thenReturn(orderBooks);
+    }
+
+    @Test
+    void shouldBuildLargeRankingsInParallel() {
+        // given
+        List<MarketPair> marketPairs = List.of(createMarketPair("BTC_USD", "BTC", "USD"));
+        Map<String, OrderBook> orderBooks = Map.of("BTC_USD", createOrderBook("BTC_USD", "100", "101", clock));
+        SpreadRanking parallelRanking = SpreadRanking.empty(clock);
+
+        when(exchangeApiClient.getMarketPairs()).thenReturn(marketPairs);
+        when(exchangeApiClient.getOrderBooks(anyList())).thenReturn(orderBooks);
+        when(parallelRankingBuilder.appliesTo(any(MarketSnapshot.class))).thenReturn(true);
+        when(parallelRankingBuilder.build(any(MarketSnapshot.class), eq(clock))).thenReturn(parallelRanking);
+
+        // when
+        SpreadRanking result = spreadRankingService.calculateSpreadRanking();
+
+        // then
+        assertThat(result.getLowSpreadMarkets()).isSameAs(parallelRanking.getLowSpreadMarkets());
+        assertThat(result.getCalculatedAt()).isEqualTo(parallelRanking.getCalculatedAt());
+        assertThat(result.getSpreadGroups()).hasSize(2).allSatisfy(group -> assertThat(group.spreads()).isEmpty());
+        verifyNoInteractions(spreadCalculationService);
+    }
+
     @Test
     void shouldHandleExchangeApiClientFailure() {
         // given
@@ -190,6 +411,51 @@ class SpreadRankingServiceTest {
         verify(spreadRankingRepository).clear();
     }
 
+    @Test
+    void shouldShareOneCalculationBetweenConcurrentRefreshes() throws Exception {
+        // given
+        CountDownLatch fetching = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(clock.instant()).thenReturn(Instant.parse("2025-07-20T10:30:00Z"));
+        when(exchangeApiClient.getMarketPairs()).thenAnswer(invocation -> {
+            fetching.countDown();
+            release.await();
+            return List.of();
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            // when: a second refresh arrives while the first is fetching
+            Future<SpreadRanking> first = executor.submit(spreadRankingService::refreshSpreadRanking);
+            fetching.await();
+            Future<SpreadRanking> second = executor.submit(spreadRankingService::refreshSpreadRanking);
+            Thread.sleep(200);
+            release.countDown();
+
+            // then
+            assertThat(second.get(5, TimeUnit.SECONDS)).isSameAs(first.get(5, TimeUnit.SECONDS));
+            verify(exchangeApiClient, times(1)).getMarketPairs();
+            verify(spreadRankingRepository, times(1)).storeSpreadRanking(any());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldRefreshAgainOnceTheSharedCalculationFailed() {
+        // given
+        when(exchangeApiClient.getMarketPairs())
+                .thenThrow(new ExchangeApiException("Api unavailable", new RuntimeException()))
+                .thenReturn(List.of());
+        when(clock.instant()).thenReturn(Instant.parse("2025-07-20T10:30:00Z"));
+
+        // when / then
+        assertThatThrownBy(() -> spreadRankingService.refreshSpreadRanking())
+                .isInstanceOf(SpreadCalculationException.class);
+        assertThat(spreadRankingService.refreshSpreadRanking().getTotalMarketsCount()).isZero();
+        verify(spreadRankingRepository, times(1)).storeSpreadRanking(any());
+    }
+
     private MarketPair createMarketPair(String tickerId, String baseCurrency, String targetCurrency) {
         return new MarketPair(tickerId, baseCurrency, targetCurrency);
     }
@@ -202,11 +468,4 @@ class SpreadRankingServiceTest {
                 Instant.now(clock)
         );
     }
-
-    private Spread createSpread(String marketId, String percentage, SpreadCategory category) {
-        if (category == UNKNOWN) {
-            return Spread.unknown(marketId);
-        }
-        return new Spread(marketId, new BigDecimal(percentage), category);
-    }
 }
\ No newline at end of file
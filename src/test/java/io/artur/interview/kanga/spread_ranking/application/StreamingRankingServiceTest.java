@@ -0,0 +1,223 @@
+package io.artur.interview.kanga.spread_ranking.application;
+
+import io.artur.interview.kanga.spread_ranking.domain.OrderBookFeed;
+import io.artur.interview.kanga.spread_ranking.domain.exceptions.ExchangeApiException;
+import io.artur.interview.kanga.spread_ranking.domain.model.Market;
+import io.artur.interview.kanga.spread_ranking.domain.model.OrderBook;
+import io.artur.interview.kanga.spread_ranking.domain.model.OrderBookDepth;
+import io.artur.interview.kanga.spread_ranking.domain.model.SpreadRanking;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StreamingRankingServiceTest {
+
+    @Mock
+    private SpreadRankingService spreadRankingService;
+    @Mock
+    private OrderBookFeed orderBookFeed;
+
+    private final Clock clock = Clock.fixed(Instant.parse("2025-07-20T10:30:00Z"), ZoneId.of("UTC"));
+    private final StreamingRankingProperties properties = new StreamingRankingProperties();
+    private final OrderBookDepth depth = OrderBookDepth.of(new double[]{100, 1}, new double[]{102, 1});
+    private StreamingRankingService streamingRankingService;
+
+    @BeforeEach
+    void setUp() {
+        properties.setEnabled(true);
+        properties.setReconnectDelay(Duration.ofHours(1));
+        streamingRankingService = new StreamingRankingService(spreadRankingService, Optional.of(orderBookFeed),
+                properties, clock, new SimpleMeterRegistry());
+        when(spreadRankingService.fetchMarkets()).thenReturn(List.of(
+                new Market("BTC_PLN", new BigDecimal("100"), new BigDecimal("102"), "BTC", "PLN", depth),
+                new Market("ETH_PLN", new BigDecimal("10"), new BigDecimal("11"), "ETH", "PLN")));
+        when(spreadRankingService.rankMarkets(anyList())).thenReturn(SpreadRanking.empty(clock));
+    }
+
+    @AfterEach
+    void tearDown() {
+        streamingRankingService.shutdown();
+    }
+
+    @Test
+    void shouldRankStreamedUpdatesOnTopOfTheRestSweep() {
+        // given
+        Sinks.Many<OrderBook> updates = Sinks.many().multicast().onBackpressureBuffer();
+        when(orderBookFeed.orderBooks(anyList())).thenReturn(updates.asFlux());
+        streamingRankingService.update();
+
+        // when
+        updates.tryEmitNext(new OrderBook("BTC_PLN", new BigDecimal("99"), new BigDecimal("101"), clock.instant()));
+        updates.tryEmitNext(new OrderBook("BTC_PLN", new BigDecimal("100.5"), new BigDecimal("101"), clock.instant()));
+        updates.tryEmitNext(new OrderBook("UNKNOWN", new BigDecimal("1"), new BigDecimal("2"), clock.instant()));
+        streamingRankingService.update();
+        streamingRankingService.update();
+
+        // then: the seed and one ranking with the latest update; a tick without updates publishes nothing
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Market>> ranked = ArgumentCaptor.forClass(List.class);
+        verify(spreadRankingService, times(2)).rankMarkets(ranked.capture());
+        verify(spreadRankingService, times(2)).storeSpreadRanking(any());
+        verify(spreadRankingService, times(1)).fetchMarkets();
+        Market btc = ranked.getAllValues().get(1).get(0);
+        assertThat(btc.bidPrice()).isEqualByComparingTo("100.5");
+        assertThat(btc.askPrice()).isEqualByComparingTo("101");
+        assertThat(btc.depth()).isSameAs(depth);
+        assertThat(ranked.getAllValues().get(1).get(1).bidPrice()).isEqualByComparingTo("10");
+        assertThat(streamingRankingService.isStreaming()).isTrue();
+    }
+
+    @Test
+    void shouldRequestNoMoreUpdatesThanTheRingHolds() {
+        // given
+        properties.setRingCapacity(2);
+        streamingRankingService = new StreamingRankingService(spreadRankingService, Optional.of(orderBookFeed),
+                properties, clock, new SimpleMeterRegistry());
+        Sinks.Many<OrderBook> updates = Sinks.many().multicast().onBackpressureBuffer();
+        when(orderBookFeed.orderBooks(anyList())).thenReturn(updates.asFlux());
+        streamingRankingService.update();
+
+        // when
+        for (int bid = 1; bid <= 5; bid++) {
+            updates.tryEmitNext(new OrderBook("BTC_PLN", BigDecimal.valueOf(bid), new BigDecimal("101"), clock.instant()));
+        }
+        streamingRankingService.update();
+        streamingRankingService.update();
+        streamingRankingService.update();
+
+        // then: two updates per drain, the rest waits in the stream until the ring has room
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Market>> ranked = ArgumentCaptor.forClass(List.class);
+        verify(spreadRankingService, times(4)).rankMarkets(ranked.capture());
+        assertThat(ranked.getAllValues().subList(1, 4))
+                .extracting(markets -> markets.get(0).bidPrice().intValue())
+                .containsExactly(2, 4, 5);
+    }
+
+    @Test
+    void shouldPollOverRestWhileTheStreamIsDown() {
+        // given
+        properties.setPollInterval(Duration.ZERO);
+        OrderBook update = new OrderBook("BTC_PLN", new BigDecimal("99"), new BigDecimal("101"), clock.instant());
+        when(orderBookFeed.orderBooks(anyList()))
+                .thenReturn(Flux.just(update).concatWith(Flux.error(new ExchangeApiException("dropped"))));
+
+        // when
+        streamingRankingService.update();
+        streamingRankingService.update();
+
+        // then
+        assertThat(streamingRankingService.isStreaming()).isFalse();
+        verify(spreadRankingService, times(2)).fetchMarkets();
+        verify(orderBookFeed, times(1)).orderBooks(anyList());
+    }
+
+    @Test
+    void shouldDropUpdatesReceivedBeforeTheSweep() {
+        // given
+        properties.setPollInterval(Duration.ZERO);
+        Sinks.Many<OrderBook> updates = Sinks.many().multicast().onBackpressureBuffer();
+        when(orderBookFeed.orderBooks(anyList())).thenReturn(updates.asFlux());
+        streamingRankingService.update();
+
+        // when: the stream drops with an update still in the ring
+        updates.tryEmitNext(new OrderBook("BTC_PLN", new BigDecimal("99"), new BigDecimal("101"), clock.instant()));
+        updates.tryEmitError(new ExchangeApiException("dropped"));
+        streamingRankingService.update();
+
+        // then: the sweep's prices, not the older update
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Market>> ranked = ArgumentCaptor.forClass(List.class);
+        verify(spreadRankingService, times(2)).rankMarkets(ranked.capture());
+        verify(spreadRankingService, times(2)).fetchMarkets();
+        Market btc = ranked.getValue().get(0);
+        assertThat(btc.bidPrice()).isEqualByComparingTo("100");
+        assertThat(btc.depth()).isSameAs(depth);
+    }
+
+    @Test
+    void shouldRefreshListingsAndDepthWhileStreaming() {
+        // given
+        properties.setRefreshInterval(Duration.ZERO);
+        Sinks.Many<OrderBook> updates = Sinks.many().multicast().onBackpressureBuffer();
+        when(orderBookFeed.orderBooks(anyList())).thenReturn(updates.asFlux());
+        streamingRankingService.update();
+        updates.tryEmitNext(new OrderBook("BTC_PLN", new BigDecimal("99"), new BigDecimal("101"), clock.instant()));
+        OrderBookDepth refreshedDepth = OrderBookDepth.of(new double[]{100.5, 2}, new double[]{101.5, 2});
+
+        // when: the refresh lists new depth, and an update arrives while it runs
+        when(spreadRankingService.fetchMarkets()).thenAnswer(invocation -> {
+            updates.tryEmitNext(new OrderBook("ETH_PLN", new BigDecimal("10.5"), new BigDecimal("11"), clock.instant()));
+            return List.of(
+                    new Market("BTC_PLN", new BigDecimal("100.5"), new BigDecimal("101.5"), "BTC", "PLN", refreshedDepth),
+                    new Market("ETH_PLN", new BigDecimal("10"), new BigDecimal("11"), "ETH", "PLN"));
+        });
+        streamingRankingService.update();
+
+        // then
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Market>> ranked = ArgumentCaptor.forClass(List.class);
+        verify(spreadRankingService, times(2)).rankMarkets(ranked.capture());
+        verify(spreadRankingService, times(2)).fetchMarkets();
+        verify(orderBookFeed, times(1)).orderBooks(anyList());
+        Market btc = ranked.getValue().get(0);
+        assertThat(btc.bidPrice()).isEqualByComparingTo("100.5");
+        assertThat(btc.depth()).isSameAs(refreshedDepth);
+        assertThat(ranked.getValue().get(1).bidPrice()).isEqualByComparingTo("10.5");
+        assertThat(streamingRankingService.isStreaming()).isTrue();
+    }
+
+    @Test
+    void shouldResubscribeWhenTheSweepListsOtherMarkets() {
+        // given
+        properties.setPollInterval(Duration.ZERO);
+        Sinks.Many<OrderBook> first = Sinks.many().multicast().onBackpressureBuffer();
+        Sinks.Many<OrderBook> second = Sinks.many().multicast().onBackpressureBuffer();
+        when(orderBookFeed.orderBooks(anyList())).thenReturn(first.asFlux(), second.asFlux());
+        streamingRankingService.update();
+        first.tryEmitNext(new OrderBook("BTC_PLN", new BigDecimal("99"), new BigDecimal("101"), clock.instant()));
+        first.tryEmitError(new ExchangeApiException("dropped"));
+
+        // when
+        when(spreadRankingService.fetchMarkets()).thenReturn(List.of(
+                new Market("BTC_PLN", new BigDecimal("100"), new BigDecimal("102"), "BTC", "PLN", depth),
+                new Market("ETH_PLN", new BigDecimal("10"), new BigDecimal("11"), "ETH", "PLN"),
+                new Market("SOL_PLN", new BigDecimal("500"), new BigDecimal("505"), "SOL", "PLN")));
+        streamingRankingService.update();
+        second.tryEmitNext(new OrderBook("SOL_PLN", new BigDecimal("501"), new BigDecimal("504"), clock.instant()));
+        streamingRankingService.update();
+
+        // then
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<String>> subscribed = ArgumentCaptor.forClass(List.class);
+        verify(orderBookFeed, times(2)).orderBooks(subscribed.capture());
+        assertThat(subscribed.getAllValues().get(1)).containsExactlyInAnyOrder("BTC_PLN", "ETH_PLN", "SOL_PLN");
+        assertThat(first.currentSubscriberCount()).isZero();
+        assertThat(streamingRankingService.isStreaming()).isTrue();
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Market>> ranked = ArgumentCaptor.forClass(List.class);
+        verify(spreadRankingService, atLeast(3)).rankMarkets(ranked.capture());
+        assertThat(ranked.getValue().get(2).bidPrice()).isEqualByComparingTo("501");
+    }
+}
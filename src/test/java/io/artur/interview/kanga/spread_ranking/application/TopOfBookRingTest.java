@@ -0,0 +1,112 @@
+package io.artur.interview.kanga.spread_ranking.application;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TopOfBookRingTest {
+
+    @Test
+    void rejectsUpdatesWhenFullUntilDrained() {
+        // given
+        TopOfBookRing ring = new TopOfBookRing(2);
+        List<String> drained = new ArrayList<>();
+
+        // when / then
+        assertThat(ring.tryPublish("A", BigDecimal.ONE, BigDecimal.TEN)).isTrue();
+        assertThat(ring.tryPublish("B", BigDecimal.ONE, BigDecimal.TEN)).isTrue();
+        assertThat(ring.tryPublish("C", BigDecimal.ONE, BigDecimal.TEN)).isFalse();
+        assertThat(ring.size()).isEqualTo(2);
+        assertThat(ring.drain((marketId, bid, ask) -> drained.add(marketId), 1)).isEqualTo(1);
+        assertThat(ring.tryPublish("C", BigDecimal.ONE, BigDecimal.TEN)).isTrue();
+        assertThat(ring.drain((marketId, bid, ask) -> drained.add(marketId), 10)).isEqualTo(2);
+        assertThat(drained).containsExactly("A", "B", "C");
+        assertThat(ring.size()).isZero();
+        assertThatThrownBy(() -> new TopOfBookRing(3)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void discardsUpdatesPublishedBeforeASequence() {
+        // given
+        TopOfBookRing ring = new TopOfBookRing(4);
+        List<String> drained = new ArrayList<>();
+        ring.tryPublish("A", BigDecimal.ONE, BigDecimal.TEN);
+        ring.tryPublish("B", BigDecimal.ONE, BigDecimal.TEN);
+        long sequence = ring.nextSequence();
+        ring.tryPublish("C", BigDecimal.ONE, BigDecimal.TEN);
+
+        // when
+        int discarded = ring.discardBefore(sequence);
+
+        // then
+        assertThat(discarded).isEqualTo(2);
+        assertThat(ring.discardBefore(sequence)).isZero();
+        assertThat(ring.drain((marketId, bid, ask) -> drained.add(marketId), 10)).isEqualTo(1);
+        assertThat(drained).containsExactly("C");
+    }
+
+    @Test
+    void deliversEveryUpdateOfConcurrentProducersInTheirOrder() throws Exception {
+        // given
+        int producers = 4;
+        int updatesPerProducer = 200_000;
+        TopOfBookRing ring = new TopOfBookRing(1024);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> published = new ArrayList<>();
+        for (int producer = 0; producer < producers; producer++) {
+            String marketId = "P" + producer;
+            published.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < updatesPerProducer; i++) {
+                    BigDecimal bid = BigDecimal.valueOf(i);
+                    while (!ring.tryPublish(marketId, bid, bid)) {
+                        Thread.onSpinWait();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        // when: one consumer drains while the producers publish
+        int[] lastBid = {-1, -1, -1, -1};
+        int[] outOfOrder = new int[1];
+        long total = (long) producers * updatesPerProducer;
+        long consumed = 0;
+        long began = System.nanoTime();
+        start.countDown();
+        while (consumed < total) {
+            int drained = ring.drain((marketId, bid, ask) -> {
+                int producer = marketId.charAt(1) - '0';
+                if (bid.intValue() != lastBid[producer] + 1) {
+                    outOfOrder[0]++;
+                }
+                lastBid[producer] = bid.intValue();
+            }, 256);
+            if (drained == 0) {
+                Thread.onSpinWait();
+            }
+            consumed += drained;
+            assertThat(System.nanoTime() - began).isLessThan(TimeUnit.SECONDS.toNanos(30));
+        }
+        for (Future<?> future : published) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // then
+        assertThat(outOfOrder[0]).isZero();
+        assertThat(lastBid).containsOnly(updatesPerProducer - 1);
+        assertThat(ring.size()).isZero();
+    }
+}
@@ -0,0 +1,47 @@
+package io.artur.interview.kanga.spread_ranking.config;
+
+import io.artur.interview.kanga.spread_ranking.performance.AllocationBudget;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+class BearerTokenAuthenticationFilterAllocationTest {
+
+    private static final String TOKEN = "ABC123";
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void authenticatedRequestShouldStayWithinAllocationBudget() {
+        // given
+        BearerTokenAuthenticationFilter filter = new BearerTokenAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "validApiToken", TOKEN);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/spread/ranking");
+        request.addHeader("Authorization", "Bearer " + TOKEN);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (servletRequest, servletResponse) -> { };
+
+        // when / then
+        AllocationBudget.assertWithinBudget("bearer-token-filter", () -> {
+            try {
+                filter.doFilter(request, response, chain);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            } finally {
+                SecurityContextHolder.clearContext();
+            }
+        });
+    }
+}
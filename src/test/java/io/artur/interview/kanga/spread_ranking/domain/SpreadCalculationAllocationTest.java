@@ -0,0 +1,22 @@
+package io.artur.interview.kanga.spread_ranking.domain;
+
+import io.artur.interview.kanga.spread_ranking.domain.model.Market;
+import io.artur.interview.kanga.spread_ranking.performance.AllocationBudget;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+class SpreadCalculationAllocationTest {
+
+    private final SpreadCalculationService service = new SpreadCalculationService();
+
+    @Test
+    void calculateSpreadShouldStayWithinAllocationBudget() {
+        // given
+        Market market = new Market("BTC_PLN", new BigDecimal("431021.12345678"), new BigDecimal("432721.87654321"),
+                "BTC", "PLN");
+
+        // when / then
+        AllocationBudget.assertWithinBudget("spread-calculation", () -> service.calculateSpread(market));
+    }
+}
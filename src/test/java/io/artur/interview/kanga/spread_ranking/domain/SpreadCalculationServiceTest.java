@@ -2,15 +2,22 @@ package io.artur.interview.kanga.spread_ranking.domain;
 
 
 import io.artur.interview.kanga.spread_ranking.domain.model.Market;
+import io.artur.interview.kanga.spread_ranking.domain.model.MarketSnapshot;
+import io.artur.interview.kanga.spread_ranking.domain.model.OrderBookDepth;
 import io.artur.interview.kanga.spread_ranking.domain.model.Spread;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
 
 import static io.artur.interview.kanga.spread_ranking.domain.model.SpreadCategory.HIGH_SPREAD;
 import static io.artur.interview.kanga.spread_ranking.domain.model.SpreadCategory.LOW_SPREAD;
+import static io.artur.interview.kanga.spread_ranking.domain.model.SpreadCategory.UNKNOWN;
 import static org.assertj.core.api.Assertions.assertThat;
 
 class SpreadCalculationServiceTest {
@@ -88,6 +95,82 @@ class SpreadCalculationServiceTest {
 
     }
 
+    @Test
+    void calculateSpreadsOnSnapshotMatchesBigDecimalCalculation() {
+        // given
+        Random random = new Random(7L);
+        List<Market> markets = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            BigDecimal bid = BigDecimal.valueOf(random.nextLong(1, 1_000_000_000_000L), random.nextInt(0, 13));
+            BigDecimal ask = bid.add(BigDecimal.valueOf(random.nextLong(0, 1_000_000L), random.nextInt(0, 13)));
+            markets.add(new Market("M" + i, random.nextInt(20) == 0 ? ask : bid, random.nextInt(20) == 0 ? bid : ask));
+        }
+        markets.add(new Market("HALF_UP", new BigDecimal("0.39999"), new BigDecimal("0.40001")));
+        markets.add(new Market("NO_BID", null, new BigDecimal("1")));
+        markets.add(new Market("ZERO", BigDecimal.ZERO, BigDecimal.ZERO));
+        markets.add(new Market("HUGE", new BigDecimal("99999999999.5"), new BigDecimal("100000000000")));
+        MarketSnapshot snapshot = MarketSnapshot.of(markets, new TickerSymbolTable());
+
+        // when
+        int priced = service.calculateSpreads(snapshot);
+
+        // then
+        assertThat(priced).isEqualTo(markets.size() - 2);
+        for (int row = 0; row < snapshot.size(); row++) {
+            Market market = markets.get(row);
+            Spread expected = market.bidPrice() != null && market.bidPrice().signum() == 0
+                    ? Spread.unknown(market)
+                    : service.calculateSpread(market);
+            assertThat(snapshot.toSpread(row)).as(market.toString()).isEqualTo(expected);
+        }
+        assertThat(snapshot.category(markets.size() - 1)).isEqualTo(LOW_SPREAD);
+        assertThat(snapshot.category(markets.size() - 2)).isEqualTo(UNKNOWN);
+    }
+
+    @Test
+    void calculateSpreadsRoundsHalfUpInBasisPoints() {
+        // given
+        MarketSnapshot snapshot = MarketSnapshot.of(List.of(
+                new Market("UP", new BigDecimal("0.39999"), new BigDecimal("0.40001")),
+                new Market("CROSSED", new BigDecimal("0.40001"), new BigDecimal("0.39999")),
+                new Market("THRESHOLD", new BigDecimal("99"), new BigDecimal("101")),
+                new Market("ABOVE_THRESHOLD", new BigDecimal("98.99"), new BigDecimal("101"))), new TickerSymbolTable());
+
+        // when
+        service.calculateSpreads(snapshot);
+
+        // then
+        assertThat(snapshot.spreadBasisPoints(0)).isEqualTo(1);
+        assertThat(snapshot.spreadBasisPoints(1)).isEqualTo(-1);
+        assertThat(snapshot.spreadBasisPoints(2)).isEqualTo(200);
+        assertThat(snapshot.category(2)).isEqualTo(LOW_SPREAD);
+        assertThat(snapshot.category(3)).isEqualTo(HIGH_SPREAD);
+    }
+
+    @Test
+    void calculateEffectiveSpreadsWalksDepthForQuoteCurrencyNotional() {
+        // given
+        OrderBookDepth deep = OrderBookDepth.of(new double[]{100, 1, 99, 2}, new double[]{101, 1, 102, 2});
+        OrderBookDepth thin = OrderBookDepth.of(new double[]{100, 0.1}, new double[]{101, 0.1});
+        MarketSnapshot snapshot = MarketSnapshot.of(List.of(
+                new Market("DEEP_PLN", new BigDecimal("100"), new BigDecimal("101"), "DEEP", "PLN", deep),
+                new Market("THIN_PLN", new BigDecimal("100"), new BigDecimal("101"), "THIN", "PLN", thin),
+                new Market("DEEP_EUR", new BigDecimal("100"), new BigDecimal("101"), "DEEP", "EUR", deep)),
+                new TickerSymbolTable());
+
+        // when
+        int priced = service.calculateEffectiveSpreads(snapshot, Map.of("PLN", 250.0));
+
+        // then: 100 at 100 and 150 at 99 against 101 at 101 and 149 at 102
+        double bid = 250 / (1 + 150.0 / 99);
+        double ask = 250 / (1 + 149.0 / 102);
+        assertThat(priced).isEqualTo(1);
+        assertThat(snapshot.spreadBasisPoints(0)).isEqualTo((int) Math.round(20000 * (ask - bid) / (ask + bid)));
+        assertThat(snapshot.category(0)).isEqualTo(HIGH_SPREAD);
+        assertThat(snapshot.category(1)).isEqualTo(UNKNOWN);
+        assertThat(snapshot.category(2)).isEqualTo(UNKNOWN);
+    }
+
     private static BigDecimal calculateSpreadPercentageValue(Market market) {
         if (market.bidPrice() == null || market.askPrice() == null) {
             return null;
@@ -0,0 +1,84 @@
+package io.artur.interview.kanga.spread_ranking.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TickerSymbolTableTest {
+
+    private final TickerSymbolTable symbolTable = new TickerSymbolTable();
+
+    @Test
+    void shouldAssignDenseIdsInRegistrationOrder() {
+        // when
+        int btc = symbolTable.idOf("BTC_PLN");
+        int eth = symbolTable.idOf("ETH_PLN");
+
+        // then
+        assertThat(btc).isZero();
+        assertThat(eth).isEqualTo(1);
+        assertThat(symbolTable.idOf("BTC_PLN")).isEqualTo(btc);
+        assertThat(symbolTable.size()).isEqualTo(2);
+        assertThat(symbolTable.symbolOf(eth)).isEqualTo("ETH_PLN");
+    }
+
+    @Test
+    void shouldReturnCanonicalInstanceWhenInterning() {
+        // given
+        String first = new String("BTC_PLN");
+        String decodedLater = new String("BTC_PLN");
+
+        // when
+        String canonical = symbolTable.intern(first);
+
+        // then
+        assertThat(symbolTable.intern(decodedLater)).isSameAs(canonical).isSameAs(first);
+        assertThat(symbolTable.intern(null)).isNull();
+    }
+
+    @Test
+    void shouldNotRegisterTickersOnFind() {
+        // when
+        int id = symbolTable.find("BTC_PLN");
+
+        // then
+        assertThat(id).isEqualTo(TickerSymbolTable.NOT_FOUND);
+        assertThat(symbolTable.find(null)).isEqualTo(TickerSymbolTable.NOT_FOUND);
+        assertThat(symbolTable.size()).isZero();
+        assertThatThrownBy(() -> symbolTable.symbolOf(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldAssignUniqueIdsUnderConcurrentRegistration() throws InterruptedException {
+        // given
+        int tickers = 2_000;
+        Set<Integer> ids = ConcurrentHashMap.newKeySet();
+
+        // when
+        try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+            for (int thread = 0; thread < 4; thread++) {
+                executor.execute(() -> {
+                    for (int i = 0; i < tickers; i++) {
+                        ids.add(symbolTable.idOf("T" + i + "_PLN"));
+                    }
+                });
+            }
+            executor.shutdown();
+            assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        }
+
+        // then
+        assertThat(symbolTable.size()).isEqualTo(tickers);
+        assertThat(ids).hasSize(tickers).allSatisfy(id -> assertThat(id).isBetween(0, tickers - 1));
+        for (int i = 0; i < tickers; i++) {
+            assertThat(symbolTable.symbolOf(symbolTable.find("T" + i + "_PLN"))).isEqualTo("T" + i + "_PLN");
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package io.artur.interview.kanga.spread_ranking.domain;
+
+import io.artur.interview.kanga.spread_ranking.domain.model.Market;
+import io.artur.interview.kanga.spread_ranking.domain.model.MarketSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class VectorSpreadBatchCalculatorTest {
+
+    private static final int ROWS = 100_003;
+
+    private final Random random = new Random(11L);
+    private long[] bids;
+    private long[] asks;
+
+    @BeforeEach
+    void setUp() {
+        assumeTrue(VectorSpreadBatchCalculator.isSupported(), "no SIMD lanes on this platform");
+        bids = new long[ROWS];
+        asks = new long[ROWS];
+        for (int row = 0; row < ROWS; row++) {
+            long bid = random.nextLong(1, SpreadBatchCalculator.MAX_SCALED_PRICE);
+            long ask = Math.min(SpreadBatchCalculator.MAX_SCALED_PRICE, bid + random.nextLong(0, bid / 10 + 1));
+            boolean crossed = random.nextInt(20) == 0;
+            bids[row] = crossed ? ask : bid;
+            asks[row] = crossed ? bid : ask;
+        }
+    }
+
+    @Test
+    void shouldAgreeWithScalarCalculation() {
+        // given
+        addSpecialRows();
+
+        // when
+        int[] scalarSpreads = new int[ROWS];
+        byte[] scalarCategories = unknownCategories();
+        new ScalarSpreadBatchCalculator().calculate(bids, asks, scalarSpreads, scalarCategories, 0, ROWS);
+
+        int[] vectorSpreads = new int[ROWS];
+        byte[] vectorCategories = unknownCategories();
+        new VectorSpreadBatchCalculator().calculate(bids, asks, vectorSpreads, vectorCategories, 0, ROWS);
+        new ScalarSpreadBatchCalculator().calculate(bids, asks, vectorSpreads, vectorCategories, 0, ROWS);
+
+        // then
+        assertThat(vectorSpreads).isEqualTo(scalarSpreads);
+        assertThat(vectorCategories).isEqualTo(scalarCategories);
+    }
+
+    @Test
+    void shouldLeaveRoundingBoundariesAndIneligibleRowsUntouched() {
+        // given
+        long[] pattern = {39_999L, 40_001L, 10_000_000_000L, 10_100_000_000L, MarketSnapshot.NO_PRICE, 100L, 0L, 100L};
+        int rows = 64;
+        long[] bidPrices = new long[rows];
+        long[] askPrices = new long[rows];
+        for (int row = 0; row < rows; row++) {
+            bidPrices[row] = pattern[(row % 4) * 2];
+            askPrices[row] = pattern[(row % 4) * 2 + 1];
+        }
+        int[] spreads = new int[rows];
+        byte[] categories = new byte[rows];
+        Arrays.fill(categories, (byte) 9);
+
+        // when
+        new VectorSpreadBatchCalculator().calculate(bidPrices, askPrices, spreads, categories, 0, rows);
+
+        // then
+        for (int row = 0; row < rows; row++) {
+            if (row % 4 == 1) {
+                assertThat(spreads[row]).isEqualTo(100);
+                assertThat(categories[row]).isEqualTo(ScalarSpreadBatchCalculator.LOW_SPREAD_ORDINAL);
+            } else {
+                assertThat(categories[row]).as("row %d", row).isEqualTo((byte) 9);
+            }
+        }
+    }
+
+    @Test
+    void shouldProduceSameSnapshotAsScalarService() {
+        // given
+        List<Market> markets = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            BigDecimal bid = BigDecimal.valueOf(random.nextLong(1, 10_000_000_000L), random.nextInt(0, 10));
+            BigDecimal ask = bid.add(BigDecimal.valueOf(random.nextLong(0, 1_000_000L), random.nextInt(0, 10)));
+            markets.add(new Market("M" + i, random.nextInt(50) == 0 ? null : bid, ask));
+        }
+        TickerSymbolTable symbolTable = new TickerSymbolTable();
+        MarketSnapshot scalar = MarketSnapshot.of(markets, symbolTable);
+        MarketSnapshot vector = MarketSnapshot.of(markets, symbolTable);
+
+        // when
+        int scalarPriced = new SpreadCalculationService(new ScalarSpreadBatchCalculator()).calculateSpreads(scalar);
+        int vectorPriced = new SpreadCalculationService(new VectorSpreadBatchCalculator()).calculateSpreads(vector);
+
+        // then
+        assertThat(vectorPriced).isEqualTo(scalarPriced);
+        for (int row = 0; row < markets.size(); row++) {
+            assertThat(vector.toSpread(row)).isEqualTo(scalar.toSpread(row));
+        }
+    }
+
+    private void addSpecialRows() {
+        // exact half basis points, the threshold, missing and unscaled prices, extremes of the range
+        long[][] special = {
+                {39_999L, 40_001L},
+                {40_001L, 39_999L},
+                {99L, 101L},
+                {9_899L, 10_101L},
+                {MarketSnapshot.NO_PRICE, 100L},
+                {100L, MarketSnapshot.UNSCALED_PRICE},
+                {0L, 0L},
+                {-5L, 5L},
+                {1L, SpreadBatchCalculator.MAX_SCALED_PRICE},
+                {SpreadBatchCalculator.MAX_SCALED_PRICE, 1L},
+                {SpreadBatchCalculator.MAX_SCALED_PRICE, SpreadBatchCalculator.MAX_SCALED_PRICE + 1}
+        };
+        for (int i = 0; i < special.length; i++) {
+            bids[i * 7] = special[i][0];
+            asks[i * 7] = special[i][1];
+        }
+    }
+
+    private static byte[] unknownCategories() {
+        byte[] categories = new byte[ROWS];
+        Arrays.fill(categories, (byte) 2);
+        return categories;
+    }
+}
@@ -0,0 +1,71 @@
+package io.artur.interview.kanga.spread_ranking.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class OrderBookDepthTest {
+
+    private final OrderBookDepth depth = OrderBookDepth.of(
+            new double[]{100, 1, 99, 2, 95, 10},
+            new double[]{101, 1, 102, 2, 110, 10});
+
+    @Test
+    void vwapWithinBestLevelIsBestPrice() {
+        // when / then
+        assertThat(depth.bidVwap(50)).isEqualTo(100.0);
+        assertThat(depth.askVwap(101)).isEqualTo(101.0);
+    }
+
+    @Test
+    void vwapWalksLevelsUntilNotionalIsFilled() {
+        // given: 100 from the first bid level and 198 from the second
+        double notional = 298;
+
+        // when
+        double bid = depth.bidVwap(notional);
+        double ask = depth.askVwap(305);
+
+        // then
+        assertThat(bid).isCloseTo(298.0 / 3, within(1e-9));
+        assertThat(ask).isCloseTo(305.0 / 3, within(1e-9));
+    }
+
+    @Test
+    void vwapIsNaNWhenBookIsTooThin() {
+        // when / then
+        assertThat(depth.bidVwap(10_000)).isNaN();
+        assertThat(depth.askVwap(10_000)).isNaN();
+        assertThat(OrderBookDepth.EMPTY.bidVwap(1)).isNaN();
+        assertThat(depth.bidVwap(0)).isNaN();
+    }
+
+    @Test
+    void levelsMustBePriceAndQuantityPairs() {
+        // when / then
+        assertThat(depth.bidLevels()).isEqualTo(3);
+        assertThat(OrderBookDepth.of(new double[0], new double[0])).isSameAs(OrderBookDepth.EMPTY);
+        assertThatThrownBy(() -> OrderBookDepth.of(new double[]{100}, new double[0]))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void mergedDepthKeepsBothBooksBestLevelFirst() {
+        // given
+        OrderBookDepth other = OrderBookDepth.of(new double[]{100.5, 3, 96, 1}, new double[]{100.8, 4});
+
+        // when
+        OrderBookDepth merged = depth.mergedWith(other);
+
+        // then: 3 at 100.5 and 1 at 100 fill 401.5 of the bids, 4 at 100.8 fill 403.2 of the asks
+        assertThat(merged.bidLevels()).isEqualTo(5);
+        assertThat(merged.askLevels()).isEqualTo(4);
+        assertThat(merged.bidVwap(100.5)).isEqualTo(100.5);
+        assertThat(merged.bidVwap(401.5)).isCloseTo(401.5 / 4, within(1e-9));
+        assertThat(merged.askVwap(403.2)).isCloseTo(100.8, within(1e-9));
+        assertThat(depth.mergedWith(OrderBookDepth.EMPTY)).isSameAs(depth);
+        assertThat(OrderBookDepth.EMPTY.mergedWith(other)).isSameAs(other);
+    }
+}
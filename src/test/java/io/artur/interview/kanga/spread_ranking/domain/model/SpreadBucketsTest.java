@@ -0,0 +1,54 @@
+package io.artur.interview.kanga.spread_ranking.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SpreadBucketsTest {
+
+    private final SpreadBuckets buckets = SpreadBuckets.ofPercentages(List.of(
+            new BigDecimal("0.5"), new BigDecimal("2.0"), new BigDecimal("5")));
+
+    @Test
+    void bucketIncludesItsUpperBound() {
+        // when / then
+        assertThat(buckets.size()).isEqualTo(4);
+        assertThat(buckets.bucketOf(-3)).isZero();
+        assertThat(buckets.bucketOf(50)).isZero();
+        assertThat(buckets.bucketOf(51)).isEqualTo(1);
+        assertThat(buckets.bucketOf(200)).isEqualTo(1);
+        assertThat(buckets.bucketOf(201)).isEqualTo(2);
+        assertThat(buckets.bucketOf(500)).isEqualTo(2);
+        assertThat(buckets.bucketOf(Integer.MAX_VALUE)).isEqualTo(3);
+    }
+
+    @Test
+    void upperBoundsArePercentages() {
+        // when / then
+        assertThat(buckets.upperBound(0)).isEqualByComparingTo("0.50");
+        assertThat(buckets.upperBound(2)).isEqualByComparingTo("5.00");
+        assertThat(buckets.upperBound(3)).isNull();
+    }
+
+    @Test
+    void noCutPointsMakeOneBucket() {
+        // when
+        SpreadBuckets single = SpreadBuckets.of();
+
+        // then
+        assertThat(single.size()).isEqualTo(1);
+        assertThat(single.bucketOf(12_345)).isZero();
+    }
+
+    @Test
+    void cutPointsMustBeAscendingUnlessDeduplicated() {
+        // when / then
+        assertThatThrownBy(() -> SpreadBuckets.of(100, 100))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(SpreadBuckets.ofDistinct(new int[]{10, 10, 10, 40}).size()).isEqualTo(3);
+    }
+}
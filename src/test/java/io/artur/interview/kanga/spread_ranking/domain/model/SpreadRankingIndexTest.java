@@ -0,0 +1,199 @@
+package io.artur.interview.kanga.spread_ranking.domain.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.artur.interview.kanga.spread_ranking.domain.model.SpreadCategory.HIGH_SPREAD;
+import static io.artur.interview.kanga.spread_ranking.domain.model.SpreadCategory.LOW_SPREAD;
+import static io.artur.interview.kanga.spread_ranking.domain.model.SpreadCategory.UNKNOWN;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SpreadRankingIndexTest {
+
+    private final Instant calculatedAt = Instant.parse("2025-07-20T10:30:00Z");
+    private SpreadRankingIndex index;
+
+    @BeforeEach
+    void setUp() {
+        SpreadRanking ranking = SpreadRanking.builder()
+                .lowSpreadMarkets(List.of(
+                        spread("BTC_PLN", "0.10", LOW_SPREAD, "BTC", "PLN"),
+                        spread("ETH_PLN", "0.50", LOW_SPREAD, "ETH", "PLN"),
+                        spread("BTC_USDT", "0.80", LOW_SPREAD, "BTC", "USDT"),
+                        spread("LTC_PLN", "1.90", LOW_SPREAD, "LTC", "PLN")))
+                .highSpreadMarkets(List.of(
+                        spread("DOGE_PLN", "3.00", HIGH_SPREAD, "DOGE", "PLN"),
+                        spread("SHIB_USDT", "5.50", HIGH_SPREAD, "SHIB", "USDT"),
+                        spread("XLM_PLN", "7.25", HIGH_SPREAD, "XLM", "PLN")))
+                .unavailableMarkets(List.of(
+                        new Spread("ADA_PLN", null, UNKNOWN, "ADA", "PLN")))
+                .calculatedAt(calculatedAt)
+                .build();
+        index = SpreadRankingIndex.of(ranking);
+    }
+
+    @Test
+    void shouldReturnTopKTightestSpreadsForQuoteCurrency() {
+        // when
+        SpreadRankingPage page = index.query(SpreadRankingQuery.builder()
+                .targetCurrency("pln")
+                .limit(3)
+                .build());
+
+        // then
+        assertThat(page.spreads()).extracting(Spread::marketId)
+                .containsExactly("BTC_PLN", "ETH_PLN", "LTC_PLN");
+        assertThat(page.calculatedAt()).isEqualTo(calculatedAt);
+        assertThat(page.nextCursor()).isNotNull();
+    }
+
+    @Test
+    void shouldReturnMarketsWithinPercentageRange() {
+        // when
+        SpreadRankingPage page = index.query(SpreadRankingQuery.builder()
+                .minPercentage(new BigDecimal("0.8"))
+                .maxPercentage(new BigDecimal("5.5"))
+                .limit(100)
+                .build());
+
+        // then
+        assertThat(page.spreads()).extracting(Spread::marketId)
+                .containsExactly("BTC_USDT", "LTC_PLN", "DOGE_PLN", "SHIB_USDT");
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void shouldCombineCurrencyCategoryAndPercentageFilters() {
+        // when
+        SpreadRankingPage page = index.query(SpreadRankingQuery.builder()
+                .baseCurrency("BTC")
+                .targetCurrency("USDT")
+                .category(LOW_SPREAD)
+                .minPercentage(new BigDecimal("0.2"))
+                .limit(10)
+                .build());
+
+        // then
+        assertThat(page.spreads()).extracting(Spread::marketId).containsExactly("BTC_USDT");
+    }
+
+    @Test
+    void shouldScanNoMoreRowsThanThePageForCombinedFilters() {
+        // given: half the markets are BTC, half are quoted in PLN, and the few BTC_PLN ones rank last
+        List<Spread> lowSpreads = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            String base = i % 2 == 0 ? "BTC" : "C" + i;
+            String target = i % 2 == 0 ? "C" + i : "PLN";
+            lowSpreads.add(spread(base + "_" + target, "0.%04d".formatted(i), LOW_SPREAD, base, target));
+        }
+        for (int i = 0; i < 5; i++) {
+            lowSpreads.add(spread("BTC_PLN" + i, "1.%d".formatted(i), LOW_SPREAD, "BTC", "PLN"));
+        }
+        SpreadRankingIndex large = SpreadRankingIndex.of(SpreadRanking.builder()
+                .lowSpreadMarkets(lowSpreads)
+                .calculatedAt(calculatedAt)
+                .build());
+
+        // when
+        SpreadRankingIndex.Scan scan = large.scan(SpreadRankingQuery.builder()
+                .baseCurrency("btc")
+                .targetCurrency("PLN")
+                .category(LOW_SPREAD)
+                .limit(3)
+                .build());
+
+        // then
+        assertThat(scan.page().spreads()).extracting(Spread::marketId)
+                .containsExactly("BTC_PLN0", "BTC_PLN1", "BTC_PLN2");
+        assertThat(scan.page().nextCursor()).isNotNull();
+        assertThat(scan.rowsScanned()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldReturnUnknownSpreadsOnlyWithoutPercentageRange() {
+        // when
+        SpreadRankingPage unknown = index.query(SpreadRankingQuery.builder().category(UNKNOWN).limit(10).build());
+        SpreadRankingPage ranged = index.query(SpreadRankingQuery.builder()
+                .targetCurrency("PLN")
+                .minPercentage(new BigDecimal("7"))
+                .limit(10)
+                .build());
+
+        // then
+        assertThat(unknown.spreads()).extracting(Spread::marketId).containsExactly("ADA_PLN");
+        assertThat(ranged.spreads()).extracting(Spread::marketId).containsExactly("XLM_PLN");
+        assertThat(ranged.nextCursor()).isNull();
+    }
+
+    @Test
+    void shouldPaginateWithCursorUntilExhausted() {
+        // given
+        SpreadRankingQuery.SpreadRankingQueryBuilder query = SpreadRankingQuery.builder().targetCurrency("PLN").limit(2);
+
+        // when
+        SpreadRankingPage first = index.query(query.build());
+        SpreadRankingPage second = index.query(query.cursor(first.nextCursor()).build());
+        SpreadRankingPage third = index.query(query.cursor(second.nextCursor()).build());
+
+        // then
+        assertThat(first.spreads()).extracting(Spread::marketId).containsExactly("BTC_PLN", "ETH_PLN");
+        assertThat(second.spreads()).extracting(Spread::marketId).containsExactly("LTC_PLN", "DOGE_PLN");
+        assertThat(third.spreads()).extracting(Spread::marketId).containsExactly("XLM_PLN", "ADA_PLN");
+        assertThat(third.nextCursor()).isNull();
+    }
+
+    @Test
+    void shouldReturnEmptyPageForUnknownCurrency() {
+        // when
+        SpreadRankingPage page = index.query(SpreadRankingQuery.builder().targetCurrency("EUR").limit(10).build());
+
+        // then
+        assertThat(page.spreads()).isEmpty();
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void shouldFindSingleMarketByTicker() {
+        // when / then
+        assertThat(index.findByMarketId("DOGE_PLN"))
+                .isEqualTo(spread("DOGE_PLN", "3.00", HIGH_SPREAD, "DOGE", "PLN"));
+        assertThat(index.findByMarketId("ADA_PLN").category()).isEqualTo(UNKNOWN);
+        assertThat(index.findByMarketId("MISSING_PLN")).isNull();
+        assertThat(index.findByMarketId(null)).isNull();
+    }
+
+    @Test
+    void shouldRejectCursorFromAnotherRanking() {
+        // given
+        String staleCursor = calculatedAt.minusSeconds(60).toEpochMilli() + ":2";
+
+        // when / then
+        assertThatThrownBy(() -> index.query(SpreadRankingQuery.builder().cursor(staleCursor).limit(10).build()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("current ranking");
+        assertThatThrownBy(() -> index.query(SpreadRankingQuery.builder().cursor("garbage").limit(10).build()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldRejectInvalidQuery() {
+        assertThatThrownBy(() -> SpreadRankingQuery.builder().limit(0).build())
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> SpreadRankingQuery.builder()
+                .minPercentage(BigDecimal.TEN)
+                .maxPercentage(BigDecimal.ONE)
+                .limit(10)
+                .build())
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static Spread spread(String marketId, String percentage, SpreadCategory category, String base, String target) {
+        return new Spread(marketId, new BigDecimal(percentage), category, base, target);
+    }
+}
@@ -5,8 +5,11 @@ import io.artur.interview.kanga.spread_ranking.domain.exceptions.ExchangeApiExce
 import io.artur.interview.kanga.spread_ranking.domain.model.MarketPair;
 import io.artur.interview.kanga.spread_ranking.domain.model.OrderBook;
 import io.artur.interview.kanga.spread_ranking.infrastructure.external.config.KangaApiProperties;
+import io.artur.interview.kanga.spread_ranking.monitoring.MarketLatencyProperties;
+import io.artur.interview.kanga.spread_ranking.monitoring.MarketLatencyRecorder;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Disabled;
@@ -72,7 +75,8 @@ class KangaApiClientOptimizedContractTest {
         WebClient webClient = WebClient.builder().build();
 
         // Initialize the client under test
-        kangaApiClient = new KangaApiClientOptimized(webClient, circuitBreaker, clock, properties);
+        kangaApiClient = new KangaApiClientOptimized(webClient, circuitBreaker, clock, properties, new SimpleMeterRegistry(),
+                new MarketLatencyRecorder(new MarketLatencyProperties(), Clock.systemDefaultZone()));
     }
 
     @Nested
@@ -1,232 +0,0 @@
-package io.artur.interview.kanga.spread_ranking.infrastructure.external;
-
-import com.github.tomakehurst.wiremock.client.WireMock;
-import io.artur.interview.kanga.spread_ranking.domain.model.OrderBook;
-import io.artur.interview.kanga.spread_ranking.infrastructure.external.config.KangaApiProperties;
-import io.github.resilience4j.circuitbreaker.CircuitBreaker;
-import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
-import org.junit.jupiter.api.BeforeEach;
-import org.junit.jupiter.api.DisplayName;
-import org.junit.jupiter.api.Disabled;
-import org.junit.jupiter.api.Test;
-import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.cloud.contract.wiremock.AutoConfigureWireMock;
-import org.springframework.test.context.TestPropertySource;
-import org.springframework.web.reactive.function.client.WebClient;
-
-import java.time.Clock;
-import java.time.Duration;
-import java.util.List;
-import java.util.Map;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
-
-import static com.github.tomakehurst.wiremock.client.WireMock.*;
-import static org.assertj.core.api.Assertions.*;
-
-/**
- * Performance and resilience tests for KangaApiClientOptimized using WireMock.
- * These tests verify circuit breaker behavior, timeout handling, and concurrent requests.
- * 
- * NOTE: Currently disabled due to timing and configuration issues.
- */
-@Disabled("Timing and configuration issues with circuit breaker tests")
-@SpringBootTest
-@AutoConfigureWireMock(port = 0)
-@TestPropertySource(properties = {
-    "kanga.api.base-url=http://localhost:${wiremock.server.port}",
-    "kanga.api.operation-timeout=PT1S",
-    "kanga.api.pipeline-timeout=PT3S",
-    "kanga.api.retry-count=2"
-})
-class KangaApiClientPerformanceTest {
-
-    private KangaApiClientOptimized kangaApiClient;
-    private KangaApiProperties properties;
-    private CircuitBreaker circuitBreaker;
-
-    @BeforeEach
-    void setUp() {
-        // Setup test properties with shorter timeouts for testing
-        properties = new KangaApiProperties();
-        properties.setBaseUrl("http://localhost:" + System.getProperty("wiremock.server.port", "8080"));
-        properties.setOperationTimeout(Duration.ofSeconds(1));
-        properties.setPipelineTimeout(Duration.ofSeconds(3));
-        properties.setRetryCount(2);
-
-        // Setup circuit breaker for testing resilience
-        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
-                .failureRateThreshold(50)
-                .minimumNumberOfCalls(3)
-                .slidingWindowSize(5)
-                .waitDurationInOpenState(Duration.ofSeconds(2))
-                .build();
-        circuitBreaker = CircuitBreaker.of("performance-test-circuit-breaker", config);
-
-        WebClient webClient = WebClient.builder().build();
-        kangaApiClient = new KangaApiClientOptimized(webClient, circuitBreaker, Clock.systemDefaultZone(), properties);
-    }
-
-    @Test
-    @DisplayName("Should handle concurrent requests efficiently")
-    void shouldHandleConcurrentRequestsEfficiently() throws InterruptedException, ExecutionException {
-        // Given: Mock multiple successful responses
-        List<String> marketIds = List.of("BTC_PLN", "ETH_PLN", "LTC_PLN", "XRP_PLN", "ADA_PLN");
-        
-        for (String marketId : marketIds) {
-            stubFor(get(urlEqualTo("/market/orderbook/" + marketId))
-                    .willReturn(aResponse()
-                            .withStatus(200)
-                            .withHeader("Content-Type", "application/json")
-                            .withFixedDelay(100) // Simulate network latency
-                            .withBody(String.format("""
-                                {
-                                    "ticker_id": "%s",
-                                    "bids": [["1000.00", "0.1"]],
-                                    "asks": [["1001.00", "0.1"]],
-                                    "timestamp": 1641234567890
-                                }
-                                """, marketId))));
-        }
-
-        // When: Making concurrent requests
-        long startTime = System.currentTimeMillis();
-        
-        CompletableFuture<Map<String, OrderBook>> future = CompletableFuture.supplyAsync(() -> 
-            kangaApiClient.getOrderBooks(marketIds));
-        
-        Map<String, OrderBook> result = future.get();
-        long duration = System.currentTimeMillis() - startTime;
-
-        // Then: Should complete efficiently and return all results
-        assertThat(result).hasSize(5);
-        assertThat(duration).isLessThan(2000); // Should complete in under 2 seconds due to parallelism
-        
-        // Verify all requests were made
-        for (String marketId : marketIds) {
-            verify(getRequestedFor(urlEqualTo("/market/orderbook/" + marketId)));
-        }
-    }
-
-    @Test
-    @DisplayName("Should respect timeout configurations")
-    void shouldRespectTimeoutConfigurations() {
-        // Given: Slow response that exceeds timeout
-        stubFor(get(urlEqualTo("/market/orderbook/SLOW_PAIR"))
-                .willReturn(aResponse()
-                        .withStatus(200)
-                        .withHeader("Content-Type", "application/json")
-                        .withFixedDelay(2000) // 2 second delay, longer than 1 second timeout
-                        .withBody("""
-                            {
-                                "ticker_id": "SLOW_PAIR",
-                                "bids": [["1000.00", "0.1"]],
-                                "asks": [["1001.00", "0.1"]],
-                                "timestamp": 1641234567890
-                            }
-                            """)));
-
-        // When: Making request that times out
-        OrderBook result = kangaApiClient.getOrderBook("SLOW_PAIR");
-
-        // Then: Should return empty order book (graceful degradation on timeout)
-        assertThat(result).isNotNull();
-        assertThat(result.getMarketId()).isEqualTo("SLOW_PAIR");
-        assertThat(result.isEmpty()).isTrue();
-        
-        verify(getRequestedFor(urlEqualTo("/market/orderbook/SLOW_PAIR")));
-    }
-
-    @Test
-    @DisplayName("Should handle circuit breaker opening and closing")
-    void shouldHandleCircuitBreakerOpeningAndClosing() throws InterruptedException {
-        // Given: Consistent failures to trigger circuit breaker
-        stubFor(get(urlMatching("/market/orderbook/.*"))
-                .willReturn(aResponse()
-                        .withStatus(500)
-                        .withHeader("Content-Type", "application/json")
-                        .withBody("""
-                            {
-                                "error": "Internal server error"
-                            }
-                            """)));
-
-        // When: Making multiple requests to trigger circuit breaker
-        for (int i = 0; i < 5; i++) {
-            OrderBook result = kangaApiClient.getOrderBook("FAILING_PAIR_" + i);
-            // Should return empty order book due to graceful error handling
-            assertThat(result.isEmpty()).isTrue();
-        }
-
-        // Then: Circuit breaker should be in OPEN state
-        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
-
-        // Given: Fix the service response
-        stubFor(get(urlMatching("/market/orderbook/.*"))
-                .willReturn(aResponse()
-                        .withStatus(200)
-                        .withHeader("Content-Type", "application/json")
-                        .withBody("""
-                            {
-                                "ticker_id": "RECOVERED_PAIR",
-                                "bids": [["1000.00", "0.1"]],
-                                "asks": [["1001.00", "0.1"]],
-                                "timestamp": 1641234567890
-                            }
-                            """)));
-
-        // When: Wait for circuit breaker to become half-open
-        Thread.sleep(2100); // Wait longer than waitDurationInOpenState
-
-        // Make a request to test half-open state
-        OrderBook result = kangaApiClient.getOrderBook("RECOVERED_PAIR");
-
-        // Then: Should eventually recover (this might take a few requests in half-open state)
-        assertThat(result).isNotNull();
-    }
-
-    @Test
-    @DisplayName("Should handle mixed success and failure responses")
-    void shouldHandleMixedSuccessAndFailureResponses() {
-        // Given: Mixed responses - some succeed, some fail
-        List<String> marketIds = List.of("SUCCESS_1", "FAIL_1", "SUCCESS_2", "FAIL_2", "SUCCESS_3");
-        
-        stubFor(get(urlMatching("/market/orderbook/SUCCESS_.*"))
-                .willReturn(aResponse()
-                        .withStatus(200)
-                        .withHeader("Content-Type", "application/json")
-                        .withBody("""
-                            {
-                                "ticker_id": "SUCCESS",
-                                "bids": [["1000.00", "0.1"]],
-                                "asks": [["1001.00", "0.1"]],
-                                "timestamp": 1641234567890
-                            }
-                            """)));
-
-        stubFor(get(urlMatching("/market/orderbook/FAIL_.*"))
-                .willReturn(aResponse()
-                        .withStatus(404)
-                        .withHeader("Content-Type", "application/json")
-                        .withBody("""
-                            {
-                                "error": "Market not found"
-                            }
-                            """)));
-
-        // When: Making bulk request with mixed results
-        Map<String, OrderBook> result = kangaApiClient.getOrderBooks(marketIds);
-
-        // Then: Should return results for all markets (empty for failed ones)
-        assertThat(result).hasSize(5);
-        
-        // Successful requests should have data
-        assertThat(result.get("SUCCESS_1").isEmpty()).isFalse();
-        assertThat(result.get("SUCCESS_2").isEmpty()).isFalse();
-        assertThat(result.get("SUCCESS_3").isEmpty()).isFalse();
-        
-        // Failed requests should return empty order books
-        assertThat(result.get("FAIL_1").isEmpty()).isTrue();
-        assertThat(result.get("FAIL_2").isEmpty()).isTrue();
-    }
-}
\ No newline at end of file
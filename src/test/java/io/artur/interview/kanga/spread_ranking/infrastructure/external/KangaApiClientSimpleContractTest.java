@@ -2,20 +2,29 @@ package io.artur.interview.kanga.spread_ranking.infrastructure.external;
 
 import com.github.tomakehurst.wiremock.WireMockServer;
 import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import io.artur.interview.kanga.spread_ranking.domain.ExchangeApiClient;
 import io.artur.interview.kanga.spread_ranking.domain.exceptions.ExchangeApiException;
 import io.artur.interview.kanga.spread_ranking.domain.model.MarketPair;
 import io.artur.interview.kanga.spread_ranking.domain.model.OrderBook;
 import io.artur.interview.kanga.spread_ranking.infrastructure.external.config.KangaApiProperties;
+import io.artur.interview.kanga.spread_ranking.monitoring.MarketLatencyProperties;
+import io.artur.interview.kanga.spread_ranking.monitoring.MarketLatencyRecorder;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.*;
 import org.springframework.web.reactive.function.client.WebClient;
 
 import java.math.BigDecimal;
 import java.time.Clock;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static org.assertj.core.api.Assertions.*;
@@ -28,6 +37,8 @@ class KangaApiClientSimpleContractTest {
 
     private WireMockServer wireMockServer;
     private KangaApiClientOptimized kangaApiClient;
+    private KangaApiProperties properties;
+    private CircuitBreaker circuitBreaker;
 
     @BeforeEach
     void setUp() {
@@ -40,7 +51,7 @@ class KangaApiClientSimpleContractTest {
         configureFor("localhost", wireMockServer.port());
 
         // Setup test properties
-        KangaApiProperties properties = new KangaApiProperties();
+        properties = new KangaApiProperties();
         properties.setBaseUrl("http://localhost:" + wireMockServer.port());
         properties.setOperationTimeout(Duration.ofSeconds(2));
         properties.setPipelineTimeout(Duration.ofSeconds(5));
@@ -51,12 +62,16 @@ class KangaApiClientSimpleContractTest {
                 .failureRateThreshold(50)
                 .minimumNumberOfCalls(2)
                 .build();
-        CircuitBreaker circuitBreaker = CircuitBreaker.of("test-circuit-breaker", config);
+        circuitBreaker = CircuitBreaker.of("test-circuit-breaker", config);
 
         // Create client
-        WebClient webClient = WebClient.builder().build();
-        kangaApiClient = new KangaApiClientOptimized(webClient, circuitBreaker, 
-                Clock.systemDefaultZone(), properties);
+        kangaApiClient = clientWith(WebClient.builder().build());
+    }
+
+    private KangaApiClientOptimized clientWith(WebClient webClient) {
+        return new KangaApiClientOptimized(webClient, circuitBreaker,
+                Clock.systemDefaultZone(), properties, new SimpleMeterRegistry(),
+                new MarketLatencyRecorder(new MarketLatencyProperties(), Clock.systemDefaultZone()));
     }
 
     @AfterEach
@@ -313,4 +328,158 @@ class KangaApiClientSimpleContractTest {
             assertThat(kangaApiClient.getOrderBooks(null)).isEmpty();
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    @DisplayName("Streamed Market Tests")
+    class StreamedMarketTests {
+
+        private static String marketPairs(int count) {
+            StringJoiner pairs = new StringJoiner(",", "[", "]");
+            for (int i = 0; i < count; i++) {
+                pairs.add("{\"ticker_id\": \"C" + i + "_PLN\", \"base\": \"C" + i + "\", \"target\": \"PLN\"}");
+            }
+            return pairs.toString();
+        }
+
+        private void stubOrderBooks() {
+            stubFor(get(urlPathMatching("/market/orderbook/.*"))
+                    .willReturn(aResponse()
+                            .withStatus(200)
+                            .withHeader("Content-Type", "application/json")
+                            .withBody("""
+                                {
+                                    "bids": [["100.00", "1.0"]],
+                                    "asks": [["101.00", "1.0"]],
+                                    "timestamp": 1641234567890
+                                }
+                                """)));
+        }
+
+        @Test
+        @DisplayName("Should stream a pair list larger than the codec buffer")
+        void shouldStreamPairListLargerThanCodecBuffer() {
+            // given
+            String body = marketPairs(1_000);
+            stubFor(get(urlEqualTo("/market/pairs"))
+                    .willReturn(aResponse()
+                            .withStatus(200)
+                            .withHeader("Content-Type", "application/json")
+                            .withBody(body)));
+            stubOrderBooks();
+            int bufferSize = 16 * 1024;
+            KangaApiClientOptimized client = clientWith(WebClient.builder()
+                    .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(bufferSize))
+                    .build());
+            List<String> tickerIds = new ArrayList<>();
+            List<OrderBook> orderBooks = new ArrayList<>();
+            int[] pairsReceived = {-1};
+
+            // when
+            client.fetchMarkets(new ExchangeApiClient.MarketSink() {
+                @Override
+                public void pairsReceived(int marketPairs) {
+                    pairsReceived[0] = marketPairs;
+                }
+
+                @Override
+                public void orderBookReceived(MarketPair marketPair, OrderBook orderBook) {
+                    tickerIds.add(marketPair.getTickerId());
+                    orderBooks.add(orderBook);
+                }
+            });
+
+            // then
+            assertThat(body.length()).isGreaterThan(bufferSize);
+            assertThat(pairsReceived[0]).isEqualTo(1_000);
+            assertThat(tickerIds).hasSize(1_000).startsWith("C0_PLN", "C1_PLN").endsWith("C999_PLN");
+            assertThat(orderBooks).allSatisfy(orderBook ->
+                    assertThat(orderBook.getBestBidPrice()).isEqualByComparingTo("100.00"));
+        }
+
+        @Test
+        @DisplayName("Should request order books before the pair list is complete")
+        void shouldRequestOrderBooksBeforePairListIsComplete() {
+            // given
+            stubFor(get(urlEqualTo("/market/pairs"))
+                    .willReturn(aResponse()
+                            .withStatus(200)
+                            .withHeader("Content-Type", "application/json")
+                            .withBody(marketPairs(200))
+                            .withChunkedDribbleDelay(10, 1_000)));
+            stubOrderBooks();
+            List<String> events = new ArrayList<>();
+            AtomicInteger activeCalls = new AtomicInteger();
+            AtomicBoolean overlapped = new AtomicBoolean();
+
+            // when
+            kangaApiClient.fetchMarkets(new ExchangeApiClient.MarketSink() {
+                @Override
+                public void pairsReceived(int marketPairs) {
+                    overlapped.compareAndSet(false, activeCalls.incrementAndGet() > 1);
+                    LockSupport.parkNanos(Duration.ofMillis(50).toNanos());
+                    events.add("pairs");
+                    activeCalls.decrementAndGet();
+                }
+
+                @Override
+                public void orderBookReceived(MarketPair marketPair, OrderBook orderBook) {
+                    overlapped.compareAndSet(false, activeCalls.incrementAndGet() > 1);
+                    events.add(marketPair.getTickerId());
+                    activeCalls.decrementAndGet();
+                }
+            });
+
+            // then
+            assertThat(events).hasSize(201).startsWith("C0_PLN");
+            assertThat(events.indexOf("pairs")).isGreaterThan(0);
+            assertThat(overlapped).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should give up on a listing still arriving after the fetch deadline")
+        void shouldGiveUpOnListingStillArrivingAfterFetchDeadline() {
+            // given
+            stubFor(get(urlEqualTo("/market/pairs"))
+                    .willReturn(aResponse()
+                            .withStatus(200)
+                            .withHeader("Content-Type", "application/json")
+                            .withBody(marketPairs(200))
+                            .withChunkedDribbleDelay(20, 4_000)));
+            stubOrderBooks();
+            properties.setFetchDeadline(Duration.ofMillis(500));
+            KangaApiClientOptimized client = clientWith(WebClient.builder().build());
+            long start = System.nanoTime();
+
+            // when & then
+            assertThatThrownBy(() -> client.fetchMarkets(new ExchangeApiClient.MarketSink() {
+                @Override
+                public void pairsReceived(int marketPairs) {
+                }
+
+                @Override
+                public void orderBookReceived(MarketPair marketPair, OrderBook orderBook) {
+                }
+            })).isInstanceOf(ExchangeApiException.class);
+            assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(3));
+        }
+
+        @Test
+        @DisplayName("Should fail when the pair list cannot be fetched")
+        void shouldFailWhenPairListCannotBeFetched() {
+            // given
+            stubFor(get(urlEqualTo("/market/pairs"))
+                    .willReturn(aResponse().withStatus(500)));
+
+            // when & then
+            assertThatThrownBy(() -> kangaApiClient.fetchMarkets(new ExchangeApiClient.MarketSink() {
+                @Override
+                public void pairsReceived(int marketPairs) {
+                }
+
+                @Override
+                public void orderBookReceived(MarketPair marketPair, OrderBook orderBook) {
+                }
+            })).isInstanceOf(ExchangeApiException.class);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package io.artur.interview.kanga.spread_ranking.infrastructure.external;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.artur.interview.kanga.spread_ranking.infrastructure.external.dto.KangaOrderBookResponse;
+import io.artur.interview.kanga.spread_ranking.performance.AllocationBudget;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.StringJoiner;
+
+class KangaApiMapperAllocationTest {
+
+    private static final int BOOK_DEPTH = 20;
+
+    private final Clock clock = Clock.fixed(Instant.parse("2025-07-20T10:30:00Z"), ZoneId.of("UTC"));
+    private final ObjectReader reader = new ObjectMapper().readerFor(KangaOrderBookResponse.class);
+    private final byte[] body = ("{\"ticker_id\":\"BTC_PLN\",\"timestamp\":1752586141000,\"bids\":%s,\"asks\":%s}"
+            .formatted(levels(431021.12345678, -1.5), levels(432721.87654321, 1.5)))
+            .getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void toDomainOrderBookShouldStayWithinAllocationBudget() {
+        // given
+        KangaOrderBookResponse response = decode();
+
+        // when / then
+        AllocationBudget.assertWithinBudget("orderbook-mapping", () -> KangaApiMapper.toDomainOrderBook(response, clock));
+    }
+
+    @Test
+    void decodingAndMappingShouldStayWithinAllocationBudget() {
+        // when / then
+        AllocationBudget.assertWithinBudget("orderbook-decoding", () -> KangaApiMapper.toDomainOrderBook(decode(), clock));
+    }
+
+    private KangaOrderBookResponse decode() {
+        try {
+            return reader.readValue(body);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static String levels(double bestPrice, double step) {
+        StringJoiner levels = new StringJoiner(",", "[", "]");
+        for (int level = 0; level < BOOK_DEPTH; level++) {
+            levels.add("[\"%.8f\",\"0.12345678\"]".formatted(bestPrice + level * step));
+        }
+        return levels.toString();
+    }
+}
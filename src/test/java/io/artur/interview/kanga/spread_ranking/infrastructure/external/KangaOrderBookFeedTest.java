@@ -0,0 +1,92 @@
+package io.artur.interview.kanga.spread_ranking.infrastructure.external;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.artur.interview.kanga.spread_ranking.domain.exceptions.ExchangeApiException;
+import io.artur.interview.kanga.spread_ranking.domain.model.OrderBook;
+import io.artur.interview.kanga.spread_ranking.infrastructure.external.config.KangaApiProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.netty.http.client.HttpClient;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KangaOrderBookFeedTest {
+
+    private final StandInOrderBookStream stream = new StandInOrderBookStream();
+    private final BlockingQueue<OrderBook> received = new LinkedBlockingQueue<>();
+    private final CountDownLatch failed = new CountDownLatch(1);
+    private volatile Throwable failure;
+    private KangaOrderBookFeed feed;
+    private Disposable subscription;
+
+    @BeforeEach
+    void setUp() {
+        KangaApiProperties.Stream properties = new KangaApiProperties.Stream();
+        properties.setUrl(stream.url());
+        properties.setIdleTimeout(Duration.ofSeconds(10));
+        feed = new KangaOrderBookFeed(HttpClient.newConnection(), new ObjectMapper(), Clock.systemUTC(), properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+        stream.close();
+    }
+
+    @Test
+    void subscribesAndEmitsTopOfBookUpdates() throws InterruptedException {
+        // given
+        subscribe(List.of("BTC_PLN", "ETH_PLN"));
+        assertThat(stream.awaitSubscription(Duration.ofSeconds(5))).isTrue();
+
+        // when
+        stream.publish("not json");
+        stream.publishTopOfBook("BTC_PLN", "185000.00", "186000.00");
+        stream.publish("{\"ticker_id\":\"ETH_PLN\",\"bid\":\"9000\",\"ask\":\"\"}");
+
+        // then: the malformed message is skipped without dropping the stream
+        assertThat(stream.subscriptions()).containsExactly("{\"subscribe\":[\"BTC_PLN\",\"ETH_PLN\"]}");
+        OrderBook btc = received.poll(5, TimeUnit.SECONDS);
+        assertThat(btc.getMarketId()).isEqualTo("BTC_PLN");
+        assertThat(btc.getBestBidPrice()).isEqualByComparingTo(new BigDecimal("185000.00"));
+        assertThat(btc.getBestAskPrice()).isEqualByComparingTo(new BigDecimal("186000.00"));
+        OrderBook eth = received.poll(5, TimeUnit.SECONDS);
+        assertThat(eth.getBestBidPrice()).isEqualByComparingTo(new BigDecimal("9000"));
+        assertThat(eth.isEmpty()).isTrue();
+        assertThat(failure).isNull();
+    }
+
+    @Test
+    void failsWhenTheServerClosesTheStream() throws InterruptedException {
+        // given
+        subscribe(List.of("BTC_PLN"));
+        assertThat(stream.awaitSubscription(Duration.ofSeconds(5))).isTrue();
+
+        // when
+        stream.dropConnections();
+
+        // then
+        assertThat(failed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(failure).isInstanceOf(ExchangeApiException.class);
+    }
+
+    private void subscribe(List<String> marketIds) {
+        subscription = feed.orderBooks(marketIds).subscribe(received::add, ex -> {
+            failure = ex;
+            failed.countDown();
+        });
+    }
+}
@@ -0,0 +1,232 @@
+package io.artur.interview.kanga.spread_ranking.infrastructure.external;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import io.artur.interview.kanga.spread_ranking.domain.ExchangeApiClient;
+import io.artur.interview.kanga.spread_ranking.domain.exceptions.ExchangeApiException;
+import io.artur.interview.kanga.spread_ranking.domain.model.MarketPair;
+import io.artur.interview.kanga.spread_ranking.domain.model.OrderBook;
+import io.artur.interview.kanga.spread_ranking.infrastructure.external.config.KangaApiProperties;
+import io.artur.interview.kanga.spread_ranking.monitoring.MarketLatencyProperties;
+import io.artur.interview.kanga.spread_ranking.monitoring.MarketLatencyRecorder;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Three local stand-in venues serving the Kanga exchange integration API: Kanga itself, a venue listing the same
+ * pairs under lower case ticker ids, and a venue answering only after its deadline.
+ */
+class MultiExchangeApiClientTest {
+
+    private static final Duration DEADLINE = Duration.ofMillis(2_500);
+
+    private final Clock clock = Clock.systemDefaultZone();
+    private final WireMockServer kanga = new WireMockServer(WireMockConfiguration.options().dynamicPort());
+    private final WireMockServer other = new WireMockServer(WireMockConfiguration.options().dynamicPort());
+    private final WireMockServer slow = new WireMockServer(WireMockConfiguration.options().dynamicPort());
+    private MultiExchangeApiClient client;
+
+    @BeforeEach
+    void setUp() {
+        kanga.start();
+        other.start();
+        slow.start();
+
+        stubJson(kanga, "/market/pairs", """
+                [{"ticker_id": "BTC_PLN", "base": "BTC", "target": "PLN"},
+                 {"ticker_id": "ETH_PLN", "base": "ETH", "target": "PLN"}]
+                """);
+        stubJson(kanga, "/market/orderbook/BTC_PLN", orderBook("BTC_PLN", "185000", "186000"));
+        stubJson(kanga, "/market/orderbook/ETH_PLN", orderBook("ETH_PLN", "9000", "9100"));
+        stubJson(other, "/market/pairs", """
+                [{"ticker_id": "btc-pln", "base": "btc", "target": "pln"},
+                 {"ticker_id": "sol-pln", "base": "sol", "target": "pln"}]
+                """);
+        stubJson(other, "/market/orderbook/btc-pln", orderBook("btc-pln", "185500", "186500"));
+        stubJson(other, "/market/orderbook/sol-pln", orderBook("sol-pln", "500", "505"));
+        slow.stubFor(get(urlEqualTo("/market/pairs")).willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withBody("[{\"ticker_id\": \"DOGE_PLN\", \"base\": \"DOGE\", \"target\": \"PLN\"}]")
+                .withFixedDelay(6_000)));
+
+        Map<String, KangaApiClientOptimized> clients = new LinkedHashMap<>();
+        clients.put("kanga", venueClient("kanga", kanga));
+        clients.put("other", venueClient("other", other));
+        clients.put("slow", venueClient("slow", slow));
+        client = new MultiExchangeApiClient(clients, Map.of("kanga", DEADLINE, "other", DEADLINE, "slow", DEADLINE), clock);
+    }
+
+    @AfterEach
+    void tearDown() {
+        kanga.stop();
+        other.stop();
+        slow.stop();
+    }
+
+    @Test
+    void marketPairsAreListedOncePerNormalizedPair() {
+        // when
+        long start = System.nanoTime();
+        List<MarketPair> pairs = client.getMarketPairs();
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        // then: the slow venue is left out at its deadline instead of delaying the others
+        assertThat(pairs).extracting(MarketPair::getTickerId).containsExactly("BTC_PLN", "ETH_PLN", "SOL_PLN");
+        assertThat(pairs.get(2).getBaseCurrency()).isEqualTo("SOL");
+        assertThat(elapsed).isLessThan(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void orderBooksAreConsolidatedAcrossVenues() {
+        // given
+        client.getMarketPairs();
+
+        // when
+        Map<String, OrderBook> orderBooks = client.getOrderBooks(List.of("BTC_PLN", "ETH_PLN", "SOL_PLN", "DOGE_PLN"));
+
+        // then: best bid from the other venue, best ask from Kanga, levels of both
+        OrderBook btc = orderBooks.get("BTC_PLN");
+        assertThat(btc.getMarketId()).isEqualTo("BTC_PLN");
+        assertThat(btc.getBestBidPrice()).isEqualByComparingTo(new BigDecimal("185500"));
+        assertThat(btc.getBestAskPrice()).isEqualByComparingTo(new BigDecimal("186000"));
+        assertThat(btc.getDepth().bidLevels()).isEqualTo(2);
+        assertThat(orderBooks.get("ETH_PLN").getBestAskPrice()).isEqualByComparingTo(new BigDecimal("9100"));
+        assertThat(orderBooks.get("SOL_PLN").getMarketId()).isEqualTo("SOL_PLN");
+        assertThat(orderBooks.get("SOL_PLN").getBestBidPrice()).isEqualByComparingTo(new BigDecimal("500"));
+        assertThat(orderBooks.get("DOGE_PLN").isEmpty()).isTrue();
+        kanga.verify(0, getRequestedFor(urlEqualTo("/market/orderbook/SOL_PLN")));
+        other.verify(0, getRequestedFor(urlEqualTo("/market/orderbook/eth-pln")));
+    }
+
+    @Test
+    void marketPairsFailWhenNoVenueAnswers() {
+        // given
+        kanga.stop();
+        other.stop();
+
+        // when / then
+        assertThatThrownBy(() -> client.getMarketPairs())
+                .isInstanceOf(ExchangeApiException.class)
+                .hasMessageContaining("kanga, other, slow");
+    }
+
+    @Test
+    void marketsAreFetchedWithTheListingsOfTheSameFetch() {
+        // given
+        Map<String, OrderBook> received = new LinkedHashMap<>();
+
+        // when
+        client.fetchMarkets(new ExchangeApiClient.MarketSink() {
+            @Override
+            public void pairsReceived(int marketPairs) {
+            }
+
+            @Override
+            public void orderBookReceived(MarketPair marketPair, OrderBook orderBook) {
+                received.put(marketPair.getTickerId(), orderBook);
+            }
+        });
+
+        // then
+        assertThat(received).containsOnlyKeys("BTC_PLN", "ETH_PLN", "SOL_PLN");
+        assertThat(received.get("BTC_PLN").getBestBidPrice()).isEqualByComparingTo(new BigDecimal("185500"));
+        assertThat(received.get("SOL_PLN").getBestAskPrice()).isEqualByComparingTo(new BigDecimal("505"));
+    }
+
+    @Test
+    void crossedConsolidatedBookFallsBackToTheFirstVenue() {
+        // given: the other venue bids above Kanga's ask
+        stubJson(other, "/market/orderbook/btc-pln", orderBook("btc-pln", "186200", "186900"));
+
+        // when
+        OrderBook btc = client.getOrderBook("BTC_PLN");
+
+        // then
+        assertThat(btc.getMarketId()).isEqualTo("BTC_PLN");
+        assertThat(btc.getBestBidPrice()).isEqualByComparingTo(new BigDecimal("185000"));
+        assertThat(btc.getBestAskPrice()).isEqualByComparingTo(new BigDecimal("186000"));
+        assertThat(btc.getDepth().bidLevels()).isEqualTo(1);
+    }
+
+    @Test
+    void missedDeadlineCancelsTheVenueFetch() throws InterruptedException {
+        // given: the slow venue lists promptly but answers two order books a second
+        StringBuilder pairs = new StringBuilder("[");
+        List<String> marketIds = new ArrayList<>(List.of("BTC_PLN"));
+        for (int i = 0; i < 20; i++) {
+            marketIds.add("C" + i + "_PLN");
+            pairs.append(i == 0 ? "" : ",").append("""
+                    {"ticker_id": "C%d_PLN", "base": "C%d", "target": "PLN"}""".formatted(i, i));
+        }
+        stubJson(slow, "/market/pairs", pairs.append("]").toString());
+        slow.stubFor(get(urlPathMatching("/market/orderbook/.*")).willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withBody(orderBook("C0_PLN", "1", "2"))
+                .withFixedDelay(1_000)));
+        Map<String, KangaApiClientOptimized> clients = new LinkedHashMap<>();
+        clients.put("kanga", venueClient("kanga", kanga));
+        clients.put("slow", venueClient("slow", slow, 2));
+        MultiExchangeApiClient client = new MultiExchangeApiClient(clients,
+                Map.of("kanga", DEADLINE, "slow", DEADLINE), clock);
+
+        // when
+        long start = System.nanoTime();
+        Map<String, OrderBook> orderBooks = client.getOrderBooks(marketIds);
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        Thread.sleep(2_000);
+
+        // then: two order books a second until the deadline, and none requested after it
+        assertThat(elapsed).isLessThan(Duration.ofSeconds(4));
+        assertThat(orderBooks.get("BTC_PLN").getBestBidPrice()).isEqualByComparingTo(new BigDecimal("185000"));
+        assertThat(orderBooks.get("C0_PLN").isEmpty()).isTrue();
+        assertThat(slow.findAll(getRequestedFor(urlPathMatching("/market/orderbook/.*")))).hasSizeLessThanOrEqualTo(6);
+    }
+
+    private KangaApiClientOptimized venueClient(String venue, WireMockServer server) {
+        return venueClient(venue, server, new KangaApiProperties().getConnectionPool().getMaxConnections());
+    }
+
+    private KangaApiClientOptimized venueClient(String venue, WireMockServer server, int maxConnections) {
+        KangaApiProperties properties = new KangaApiProperties();
+        properties.getConnectionPool().setMaxConnections(maxConnections);
+        properties.setBaseUrl("http://localhost:" + server.port());
+        properties.setOperationTimeout(Duration.ofSeconds(5));
+        properties.setPipelineTimeout(Duration.ofSeconds(5));
+        properties.setRetryCount(0);
+        return new KangaApiClientOptimized(venue, WebClient.builder().build(), CircuitBreaker.ofDefaults(venue),
+                null, clock, properties, new SimpleMeterRegistry(),
+                new MarketLatencyRecorder(new MarketLatencyProperties(), clock));
+    }
+
+    private static void stubJson(WireMockServer server, String path, String body) {
+        server.stubFor(get(urlEqualTo(path)).willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withBody(body)));
+    }
+
+    private static String orderBook(String tickerId, String bid, String ask) {
+        return """
+                {"ticker_id": "%s", "bids": [["%s", "1"]], "asks": [["%s", "1"]], "timestamp": 1641234567890}
+                """.formatted(tickerId, bid, ask);
+    }
+}
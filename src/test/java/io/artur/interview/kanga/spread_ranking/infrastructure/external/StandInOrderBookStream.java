@@ -0,0 +1,80 @@
+package io.artur.interview.kanga.spread_ranking.infrastructure.external;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local stand-in for the order book stream: a WebSocket endpoint at {@code /stream} recording subscriptions
+ * and pushing to every connection the messages published by the test.
+ */
+final class StandInOrderBookStream implements AutoCloseable {
+
+    private final List<String> subscriptions = new CopyOnWriteArrayList<>();
+    private final Semaphore subscribed = new Semaphore(0);
+    private final DisposableServer server;
+    private volatile Sinks.Many<String> messages = newSink();
+
+    StandInOrderBookStream() {
+        server = HttpServer.create()
+                .port(0)
+                .route(routes -> routes.ws("/stream", (inbound, outbound) -> {
+                    inbound.receive().asString().subscribe(subscription -> {
+                        subscriptions.add(subscription);
+                        subscribed.release();
+                    });
+                    return outbound.sendString(Flux.defer(() -> messages.asFlux()));
+                }))
+                .bindNow();
+    }
+
+    private static Sinks.Many<String> newSink() {
+        // buffers until a connection subscribes, so nothing published right after a subscription is lost
+        return Sinks.many().multicast().onBackpressureBuffer();
+    }
+
+    String url() {
+        return "ws://localhost:" + server.port() + "/stream";
+    }
+
+    List<String> subscriptions() {
+        return subscriptions;
+    }
+
+    /**
+     * Waits for the next subscription, so messages published afterwards reach it.
+     */
+    boolean awaitSubscription(Duration timeout) throws InterruptedException {
+        return subscribed.tryAcquire(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    void publish(String message) {
+        messages.tryEmitNext(message);
+    }
+
+    void publishTopOfBook(String tickerId, String bid, String ask) {
+        publish("{\"ticker_id\":\"%s\",\"bid\":\"%s\",\"ask\":\"%s\",\"timestamp\":1641234567890}"
+                .formatted(tickerId, bid, ask));
+    }
+
+    /**
+     * Closes every open connection; later connections are served again.
+     */
+    void dropConnections() {
+        Sinks.Many<String> dropped = messages;
+        messages = newSink();
+        dropped.tryEmitComplete();
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+}
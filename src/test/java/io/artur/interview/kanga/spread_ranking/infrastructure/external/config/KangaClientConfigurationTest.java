@@ -0,0 +1,153 @@
+package io.artur.interview.kanga.spread_ranking.infrastructure.external.config;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+import io.artur.interview.kanga.spread_ranking.domain.ExchangeApiClient;
+import io.artur.interview.kanga.spread_ranking.monitoring.MarketLatencyProperties;
+import io.artur.interview.kanga.spread_ranking.monitoring.MarketLatencyRecorder;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import reactor.netty.http.HttpProtocol;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KangaClientConfigurationTest {
+
+    private WireMockServer wireMockServer;
+    private KangaApiProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        wireMockServer = new WireMockServer(WireMockConfiguration.options().dynamicPort());
+        wireMockServer.start();
+        wireMockServer.stubFor(get(urlPathMatching("/market/orderbook/.*"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withFixedDelay(50)
+                        .withBody("""
+                            {
+                                "bids": [["100.00", "1.0"]],
+                                "asks": [["101.00", "1.0"]],
+                                "timestamp": 1641234567890
+                            }
+                            """)));
+
+        properties = new KangaApiProperties();
+        properties.setBaseUrl("http://localhost:" + wireMockServer.port());
+        properties.setOperationTimeout(Duration.ofSeconds(2));
+        properties.setPipelineTimeout(Duration.ofSeconds(5));
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        wireMockServer.stop();
+    }
+
+    private ExchangeApiClient client() {
+        Clock clock = Clock.systemDefaultZone();
+        return KangaClientConfiguration.venueClient("kanga", properties, clock, meterRegistry,
+                new MarketLatencyRecorder(new MarketLatencyProperties(), clock));
+    }
+
+    private Timer connectionSetupTimer() {
+        return meterRegistry.get("kanga.api.connection.setup").tag("exchange", "kanga").timer();
+    }
+
+    private static List<String> marketIds(int count) {
+        return IntStream.range(0, count).mapToObj(i -> "C" + i + "_PLN").toList();
+    }
+
+    @Test
+    void shouldTimeEveryNewConnection() {
+        // given
+        properties.getConnectionPool().setMaxConnections(4);
+        ExchangeApiClient client = client();
+
+        // when
+        client.getOrderBooks(marketIds(16));
+        client.getOrderBooks(marketIds(16));
+
+        // then
+        assertThat(connectionSetupTimer().count()).isBetween(1L, 4L);
+        assertThat(connectionSetupTimer().totalTime(TimeUnit.NANOSECONDS)).isPositive();
+    }
+
+    @Test
+    void shouldMultiplexRequestsOverHttp2() {
+        // given
+        properties.setProtocols(List.of(HttpProtocol.H2C));
+        properties.getConnectionPool().setHttp2MaxConnections(1);
+        ExchangeApiClient client = client();
+
+        // when
+        client.getOrderBooks(marketIds(16));
+
+        // then
+        assertThat(wireMockServer.findAll(getRequestedFor(urlPathMatching("/market/orderbook/.*"))))
+                .hasSize(16)
+                .extracting(LoggedRequest::getProtocol)
+                .containsOnly("HTTP/2.0");
+        assertThat(connectionSetupTimer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldWarmUpConnectionsAheadOfFirstFetch() {
+        // given
+        wireMockServer.stubFor(head(anyUrl()).willReturn(aResponse().withStatus(404).withFixedDelay(200)));
+        properties.getConnectionPool().setWarmUpConnections(3);
+        ExchangeApiClient client = client();
+
+        // when
+        int connections = client.warmUp();
+        client.getOrderBooks(marketIds(3));
+
+        // then
+        assertThat(connections).isEqualTo(3);
+        assertThat(connectionSetupTimer().count()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldNotWarmUpByDefault() {
+        // when
+        int connections = client().warmUp();
+
+        // then
+        assertThat(connections).isZero();
+        assertThat(wireMockServer.getAllServeEvents()).isEmpty();
+    }
+
+    @Test
+    void shouldRefuseVenueWithoutBaseUrl() {
+        // given
+        ExchangesProperties exchanges = new Binder(new MapConfigurationPropertySource(Map.of(
+                "exchanges.venues.other.fetch-deadline", "PT20S")))
+                .bind("exchanges", ExchangesProperties.class)
+                .get();
+        Clock clock = Clock.systemDefaultZone();
+
+        // when / then
+        assertThat(exchanges.getVenues().get("other").getBaseUrl()).isNull();
+        assertThatThrownBy(() -> new KangaClientConfiguration().exchangeApiClient(properties, exchanges, clock,
+                meterRegistry, new MarketLatencyRecorder(new MarketLatencyProperties(), clock)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("exchanges.venues.other.base-url is required");
+    }
+}
@@ -0,0 +1,64 @@
+package io.artur.interview.kanga.spread_ranking.infrastructure.external.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KangaJsonTest {
+
+    private final ObjectMapper objectMapper = KangaJson.objectMapper();
+
+    @Test
+    void shouldBindMarketPairsAndSkipUnknownFields() throws Exception {
+        // given
+        String json = """
+                [{"pool_id": {"id": 1, "tags": ["a"]}, "ticker_id": "BTC_PLN", "base": "BTC", "target": "PLN"},
+                 {"ticker_id": "ETH_PLN", "base": null, "target": 7, "extra": [[1, 2]]}]
+                """;
+
+        // when
+        List<KangaMarketPairResponse> pairs = objectMapper.readerForListOf(KangaMarketPairResponse.class).readValue(json);
+
+        // then
+        assertThat(pairs).extracting(KangaMarketPairResponse::getTickerId).containsExactly("BTC_PLN", "ETH_PLN");
+        assertThat(pairs.get(0).getBaseCurrency()).isEqualTo("BTC");
+        assertThat(pairs.get(0).getTargetCurrency()).isEqualTo("PLN");
+        assertThat(pairs.get(1).getBaseCurrency()).isNull();
+        assertThat(pairs.get(1).getTargetCurrency()).isEqualTo("7");
+    }
+
+    @Test
+    void shouldBindOrderBookFieldsInAnyOrder() throws Exception {
+        // given
+        String json = """
+                {"asks": [["186000.00", "0.3"]], "timestamp": 1641234567890, "depth": {"levels": 2},
+                 "bids": [["185000.00", "0.5"]], "ticker_id": "BTC_PLN"}
+                """;
+
+        // when
+        KangaOrderBookResponse response = objectMapper.readValue(json, KangaOrderBookResponse.class);
+
+        // then
+        assertThat(response.getTickerId()).isEqualTo("BTC_PLN");
+        assertThat(response.getTimestamp()).isEqualTo(1641234567890L);
+        assertThat(response.getBids().getBestPrice()).isEqualTo(new BigDecimal("185000.00"));
+        assertThat(response.getAsks().getBestPrice()).isEqualTo(new BigDecimal("186000.00"));
+    }
+
+    @Test
+    void shouldAcceptMissingAndNullFields() throws Exception {
+        // when
+        KangaOrderBookResponse response = objectMapper.readValue("{\"timestamp\": null, \"bids\": null}",
+                KangaOrderBookResponse.class);
+
+        // then
+        assertThat(response.getTickerId()).isNull();
+        assertThat(response.getTimestamp()).isNull();
+        assertThat(response.getBids()).isSameAs(PriceLevels.EMPTY);
+        assertThat(response.getAsks()).isSameAs(PriceLevels.EMPTY);
+    }
+}
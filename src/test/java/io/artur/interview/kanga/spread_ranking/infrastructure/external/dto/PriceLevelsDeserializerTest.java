@@ -0,0 +1,67 @@
+package io.artur.interview.kanga.spread_ranking.infrastructure.external.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.StringJoiner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PriceLevelsDeserializerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void shouldDecodeLevelsIntoBestPriceAndInterleavedDoubles() throws Exception {
+        // given
+        String json = """
+                {"ticker_id": "BTC_PLN", "bids": [["185000.00", "0.5"], ["184900.50", "1.25"]], "asks": [["186000.00", "0.3"]]}
+                """;
+
+        // when
+        KangaOrderBookResponse response = objectMapper.readValue(json, KangaOrderBookResponse.class);
+
+        // then
+        assertThat(response.getBids().getBestPrice()).isEqualTo(new BigDecimal("185000.00"));
+        assertThat(response.getBids().getLevels()).containsExactly(185000.0, 0.5, 184900.5, 1.25);
+        assertThat(response.getBids().getListedLevels()).isEqualTo(2);
+        assertThat(response.getAsks().getBestPrice()).isEqualTo(new BigDecimal("186000.00"));
+        assertThat(response.getAsks().getLevels()).containsExactly(186000.0, 0.3);
+    }
+
+    @Test
+    void shouldSkipMalformedLevelsAndAcceptJsonNumbers() throws Exception {
+        // given
+        String json = """
+                {"bids": [["abc", "1"], null, ["100"], [99.5, 2, "extra", [1]], {"price": "98"}, ["97", "3"]], "asks": null}
+                """;
+
+        // when
+        KangaOrderBookResponse response = objectMapper.readValue(json, KangaOrderBookResponse.class);
+
+        // then
+        assertThat(response.getBids().getBestPrice()).isNull();
+        assertThat(response.getBids().getLevels()).containsExactly(99.5, 2.0, 97.0, 3.0);
+        assertThat(response.getBids().getListedLevels()).isEqualTo(6);
+        assertThat(response.getAsks()).isSameAs(PriceLevels.EMPTY);
+    }
+
+    @Test
+    void shouldParseNoMoreThanMaxLevels() throws Exception {
+        // given
+        StringJoiner asks = new StringJoiner(",", "[", "]");
+        for (int level = 0; level < PriceLevels.MAX_LEVELS + 10; level++) {
+            asks.add("[\"%d.5\", \"1\"]".formatted(100 + level));
+        }
+
+        // when
+        KangaOrderBookResponse response = objectMapper.readValue("{\"asks\": " + asks + "}", KangaOrderBookResponse.class);
+
+        // then
+        assertThat(response.getAsks().getLevels()).hasSize(2 * PriceLevels.MAX_LEVELS);
+        assertThat(response.getAsks().getLevels()[2 * PriceLevels.MAX_LEVELS - 2]).isEqualTo(100 + PriceLevels.MAX_LEVELS - 1 + 0.5);
+        assertThat(response.getAsks().getListedLevels()).isEqualTo(PriceLevels.MAX_LEVELS + 10);
+        assertThat(response.getBids()).isSameAs(PriceLevels.EMPTY);
+    }
+}
@@ -0,0 +1,110 @@
+package io.artur.interview.kanga.spread_ranking.infrastructure.external.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ScaledDecimalTest {
+
+    private static final String ALPHABET = "0123456789.-+eE x";
+
+    private final ScaledDecimal decimal = new ScaledDecimal();
+
+    @Test
+    void shouldParseLikeBigDecimal() {
+        for (String text : List.of("185000.00", "0.00000001", "-12.5", "+3", "007.50", "1.", ".5", "0", "-0.000",
+                "9223372036854775807", "9223372036854775808", "123456789012345678901234567890.123456789",
+                "1e5", "1.5E-8", "9007199254740993", "0.1", "431021.12345678")) {
+            assertParsesLikeBigDecimal(text);
+        }
+    }
+
+    @Test
+    void shouldRejectWhatBigDecimalRejects() {
+        for (String text : List.of("", "-", "+", ".", "-.", "1.2.3", "1,5", " 1", "1 ", "abc", "NaN", "Infinity", "1e")) {
+            assertParsesLikeBigDecimal(text);
+        }
+    }
+
+    @Test
+    void shouldParseRandomDecimalsLikeBigDecimal() {
+        // given
+        Random random = new Random(47);
+
+        for (int i = 0; i < 200_000; i++) {
+            // when / then
+            assertParsesLikeBigDecimal(randomDecimal(random));
+        }
+    }
+
+    @Test
+    void shouldParseRandomTextLikeBigDecimal() {
+        // given
+        Random random = new Random(4747);
+
+        for (int i = 0; i < 200_000; i++) {
+            StringBuilder text = new StringBuilder();
+            int length = random.nextInt(12);
+            for (int c = 0; c < length; c++) {
+                text.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+            }
+
+            // when / then
+            assertParsesLikeBigDecimal(text.toString());
+        }
+    }
+
+    @Test
+    void shouldParseFromTheMiddleOfABuffer() {
+        // given
+        char[] buffer = "[\"185000.00\",\"0.5\"]".toCharArray();
+
+        // when
+        boolean parsed = decimal.parse(buffer, 2, 9);
+
+        // then
+        assertThat(parsed).isTrue();
+        assertThat(decimal.toBigDecimal()).isEqualTo(new BigDecimal("185000.00"));
+        assertThat(decimal.toDouble()).isEqualTo(185000.0);
+    }
+
+    private static String randomDecimal(Random random) {
+        StringBuilder text = new StringBuilder();
+        if (random.nextInt(4) == 0) {
+            text.append('-');
+        }
+        int integerDigits = random.nextInt(22);
+        for (int d = 0; d < integerDigits; d++) {
+            text.append((char) ('0' + random.nextInt(10)));
+        }
+        if (integerDigits == 0 || random.nextBoolean()) {
+            text.append('.');
+            int fractionDigits = 1 + random.nextInt(24);
+            for (int d = 0; d < fractionDigits; d++) {
+                text.append((char) ('0' + random.nextInt(10)));
+            }
+        }
+        return text.toString();
+    }
+
+    private void assertParsesLikeBigDecimal(String text) {
+        BigDecimal expected;
+        try {
+            expected = new BigDecimal(text);
+        } catch (NumberFormatException ex) {
+            expected = null;
+        }
+
+        boolean parsed = decimal.parse(text.toCharArray(), 0, text.length());
+
+        assertThat(parsed).as("parsed %s", text).isEqualTo(expected != null);
+        if (expected != null) {
+            assertThat(decimal.toBigDecimal()).as("value of %s", text).isEqualTo(expected);
+            assertThat(decimal.toDouble()).as("double of %s", text).isEqualTo(expected.doubleValue());
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package io.artur.interview.kanga.spread_ranking.infrastructure.repository;
 
+import io.artur.interview.kanga.spread_ranking.domain.TickerSymbolTable;
 import io.artur.interview.kanga.spread_ranking.domain.model.Market;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -17,7 +18,7 @@ class InMemoryMarketDataRepositoryTest {
 
     @BeforeEach
     void setUp() {
-        repository = new InMemoryMarketDataRepository();
+        repository = new InMemoryMarketDataRepository(new TickerSymbolTable());
     }
 
     @Test
@@ -0,0 +1,50 @@
+package io.artur.interview.kanga.spread_ranking.infrastructure.repository;
+
+import io.artur.interview.kanga.spread_ranking.domain.TickerSymbolTable;
+import io.artur.interview.kanga.spread_ranking.domain.model.Spread;
+import io.artur.interview.kanga.spread_ranking.domain.model.SpreadCategory;
+import io.artur.interview.kanga.spread_ranking.domain.model.SpreadRanking;
+import io.artur.interview.kanga.spread_ranking.performance.AllocationBudget;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+
+class InMemorySpreadRankingRepositoryAllocationTest {
+
+    private final Clock clock = Clock.fixed(Instant.parse("2025-07-20T10:30:00Z"), ZoneId.of("UTC"));
+    private InMemorySpreadRankingRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new InMemorySpreadRankingRepository(clock, new TickerSymbolTable(), "PT5M");
+        repository.storeSpreadRanking(SpreadRanking.builder()
+                .lowSpreadMarkets(List.of(new Spread("BTC_PLN", new BigDecimal("0.12"), SpreadCategory.LOW_SPREAD)))
+                .highSpreadMarkets(List.of(new Spread("ETH_PLN", new BigDecimal("3.20"), SpreadCategory.HIGH_SPREAD)))
+                .unavailableMarkets(List.of(Spread.unknown("ADA_PLN")))
+                .calculatedAt(clock.instant())
+                .build());
+    }
+
+    @Test
+    void rankingReadShouldStayWithinAllocationBudget() {
+        AllocationBudget.assertWithinBudget("ranking-repository-read", () -> {
+            if (repository.hasValidSpreadRanking()) {
+                repository.getCurrentSpreadRanking();
+            }
+        });
+    }
+
+    @Test
+    void rankingIndexReadShouldStayWithinAllocationBudget() {
+        AllocationBudget.assertWithinBudget("ranking-index-read", () -> {
+            if (!repository.isRankingExpired()) {
+                repository.getCurrentSpreadRankingIndex();
+            }
+        });
+    }
+}
@@ -1,8 +1,10 @@
 package io.artur.interview.kanga.spread_ranking.infrastructure.repository;
 
+import io.artur.interview.kanga.spread_ranking.domain.TickerSymbolTable;
 import io.artur.interview.kanga.spread_ranking.domain.model.Spread;
 import io.artur.interview.kanga.spread_ranking.domain.model.SpreadCategory;
 import io.artur.interview.kanga.spread_ranking.domain.model.SpreadRanking;
+import io.artur.interview.kanga.spread_ranking.domain.model.SpreadRankingIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -26,7 +28,7 @@ class InMemorySpreadRankingRepositoryTest {
     @BeforeEach
     void setUp() {
         fixedClock = Clock.fixed(fixedInstant, ZoneId.systemDefault());
-        repository = new InMemorySpreadRankingRepository(fixedClock, "PT5M"); // 5 minutes validity
+        repository = new InMemorySpreadRankingRepository(fixedClock, new TickerSymbolTable(), "PT5M"); // 5 minutes validity
     }
 
     private SpreadRanking createTestRanking() {
@@ -104,11 +106,11 @@ class InMemorySpreadRankingRepositoryTest {
         // Create a clock that's 6 minutes later (beyond 5-minute validity)
         Clock laterClock = Clock.fixed(fixedInstant.plus(Duration.ofMinutes(6)), ZoneId.systemDefault());
         InMemorySpreadRankingRepository repositoryWithLaterClock = 
-                new InMemorySpreadRankingRepository(laterClock, "PT5M");
+                new InMemorySpreadRankingRepository(laterClock, new TickerSymbolTable(), "PT5M");
         repositoryWithLaterClock.storeSpreadRanking(ranking);
 
         // Advance the clock
-        repositoryWithLaterClock = new InMemorySpreadRankingRepository(laterClock, "PT5M");
+        repositoryWithLaterClock = new InMemorySpreadRankingRepository(laterClock, new TickerSymbolTable(), "PT5M");
         repositoryWithLaterClock.storeSpreadRanking(ranking);
 
         // When/Then - Use original repository but check with expired ranking
@@ -116,6 +118,46 @@ class InMemorySpreadRankingRepositoryTest {
         assertThat(repository.hasValidSpreadRanking()).isTrue(); // Still valid with fixed clock
     }
 
+    @Test
+    void storeSpreadRanking_shouldPublishIndexForStoredRanking() {
+        // Given
+        SpreadRanking ranking = createTestRanking();
+
+        // When
+        repository.storeSpreadRanking(ranking);
+
+        // Then
+        Optional<SpreadRankingIndex> index = repository.getCurrentSpreadRankingIndex();
+        assertThat(index).isPresent();
+        assertThat(index.get().size()).isEqualTo(3);
+        assertThat(index.get().getCalculatedAt()).isEqualTo(fixedInstant);
+    }
+
+    @Test
+    void storeSpreadRanking_shouldOrderGroupsAlphabeticallyOnce() {
+        // Given
+        SpreadRanking ranking = SpreadRanking.builder()
+                .lowSpreadMarkets(List.of(
+                        new Spread("eth-pln", new BigDecimal("0.5"), SpreadCategory.LOW_SPREAD),
+                        new Spread("BTC-PLN", new BigDecimal("1.5"), SpreadCategory.LOW_SPREAD),
+                        new Spread("ada-pln", new BigDecimal("1.9"), SpreadCategory.LOW_SPREAD)
+                ))
+                .calculatedAt(fixedInstant)
+                .build();
+
+        // When
+        repository.storeSpreadRanking(ranking);
+
+        // Then
+        List<List<Spread>> groups = ranking.getAlphabeticalGroups();
+        assertThat(groups).hasSize(3);
+        assertThat(groups.get(0)).extracting(Spread::marketId).containsExactly("ada-pln", "BTC-PLN", "eth-pln");
+        assertThat(groups.get(1)).isEmpty();
+        assertThat(ranking.getAlphabeticalGroups()).isSameAs(groups);
+        assertThat(ranking.getLowSpreadMarkets()).extracting(Spread::marketId)
+                .containsExactly("eth-pln", "BTC-PLN", "ada-pln");
+    }
+
     @Test
     void clear_shouldRemoveRanking() {
         // Given
@@ -130,6 +172,7 @@ class InMemorySpreadRankingRepositoryTest {
         assertThat(repository.hasValidSpreadRanking()).isFalse();
         assertThat(repository.isEmpty()).isTrue();
         assertThat(repository.getLastUpdatedTime()).isNull();
+        assertThat(repository.getCurrentSpreadRankingIndex()).isEmpty();
     }
 
     @Test
@@ -188,7 +231,7 @@ class InMemorySpreadRankingRepositoryTest {
     void shouldHandleCustomValidityDuration() {
         // Given - 1 second validity
         InMemorySpreadRankingRepository shortValidityRepo = 
-                new InMemorySpreadRankingRepository(fixedClock, "PT1S");
+                new InMemorySpreadRankingRepository(fixedClock, new TickerSymbolTable(), "PT1S");
         
         SpreadRanking ranking = createTestRanking();
         shortValidityRepo.storeSpreadRanking(ranking);
@@ -199,7 +242,7 @@ class InMemorySpreadRankingRepositoryTest {
         // Then - With clock advanced by 2 seconds (should be expired)
         Clock laterClock = Clock.fixed(fixedInstant.plusSeconds(2), ZoneId.systemDefault());
         InMemorySpreadRankingRepository expiredRepo = 
-                new InMemorySpreadRankingRepository(laterClock, "PT1S");
+                new InMemorySpreadRankingRepository(laterClock, new TickerSymbolTable(), "PT1S");
         expiredRepo.storeSpreadRanking(ranking); // Store with current time
         // The ranking will be stored with laterClock time, so it won't be expired immediately
         assertThat(expiredRepo.hasValidSpreadRanking()).isTrue();
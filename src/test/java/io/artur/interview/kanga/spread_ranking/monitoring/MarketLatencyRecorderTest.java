@@ -0,0 +1,125 @@
+package io.artur.interview.kanga.spread_ranking.monitoring;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MarketLatencyRecorderTest {
+
+    private static final long START_MILLIS = Instant.parse("2025-07-20T10:30:00Z").toEpochMilli();
+
+    @Mock
+    private Clock clock;
+    private MarketLatencyRecorder recorder;
+
+    @BeforeEach
+    void setUp() {
+        MarketLatencyProperties properties = new MarketLatencyProperties();
+        properties.setWindow(Duration.ofMinutes(5));
+        properties.setSlices(5);
+        properties.setMaxMarkets(3);
+        recorder = new MarketLatencyRecorder(properties, clock);
+        lenient().when(clock.instant()).thenAnswer(invocation -> Instant.ofEpochMilli(clock.millis()));
+    }
+
+    @Test
+    void shouldReportSlowestMarketsFirst() {
+        // given
+        when(clock.millis()).thenReturn(START_MILLIS);
+        for (int i = 0; i < 100; i++) {
+            recorder.record("BTC_USD", millis(10), false);
+            recorder.record("ETH_USD", millis(i < 98 ? 10 : 900), false);
+            recorder.record("ADA_USD", millis(200), false);
+        }
+
+        // when
+        MarketLatencyReport report = recorder.report(2);
+
+        // then
+        assertThat(report.trackedMarkets()).isEqualTo(3);
+        assertThat(report.slowest()).extracting(MarketLatencyStats::market).containsExactly("ETH_USD", "ADA_USD");
+        assertThat(report.slowest().getFirst().p50Ms()).isEqualTo(10);
+        assertThat(report.slowest().getFirst().p99Ms()).isBetween(900L, 1023L);
+        assertThat(report.slowest().getFirst().maxMs()).isEqualTo(900);
+        assertThat(report.mostErrors()).isEmpty();
+    }
+
+    @Test
+    void shouldReportMostErrorProneMarketsFirst() {
+        // given
+        when(clock.millis()).thenReturn(START_MILLIS);
+        recorder.record("BTC_USD", millis(10), true);
+        recorder.record("BTC_USD", millis(10), false);
+        recorder.record("ETH_USD", millis(10), true);
+        recorder.record("ADA_USD", millis(10), false);
+
+        // when
+        MarketLatencyReport report = recorder.report();
+
+        // then
+        assertThat(report.mostErrors()).extracting(MarketLatencyStats::market).containsExactly("ETH_USD", "BTC_USD");
+        assertThat(report.mostErrors().getFirst().errorRate()).isEqualTo(1.0);
+        assertThat(report.mostErrors().get(1).errorRate()).isEqualTo(0.5);
+    }
+
+    @Test
+    void shouldForgetRequestsOutsideSlidingWindow() {
+        // given
+        when(clock.millis()).thenReturn(START_MILLIS);
+        recorder.record("BTC_USD", millis(500), true);
+        when(clock.millis()).thenReturn(START_MILLIS + Duration.ofMinutes(3).toMillis());
+        recorder.record("BTC_USD", millis(20), false);
+
+        // when
+        when(clock.millis()).thenReturn(START_MILLIS + Duration.ofMinutes(6).toMillis());
+        MarketLatencyReport report = recorder.report();
+
+        // then
+        assertThat(report.slowest()).singleElement().satisfies(stats -> {
+            assertThat(stats.requests()).isEqualTo(1);
+            assertThat(stats.errors()).isZero();
+            assertThat(stats.maxMs()).isEqualTo(20);
+        });
+    }
+
+    @Test
+    void shouldStopTrackingNewMarketsAboveLimit() {
+        // given
+        when(clock.millis()).thenReturn(START_MILLIS);
+        for (String market : new String[]{"A_B", "C_D", "E_F", "G_H"}) {
+            recorder.record(market, millis(10), false);
+        }
+
+        // when
+        MarketLatencyReport report = recorder.report();
+
+        // then
+        assertThat(report.trackedMarkets()).isEqualTo(3);
+        assertThat(report.slowest()).extracting(MarketLatencyStats::market).doesNotContain("G_H");
+    }
+
+    @Test
+    void shouldBucketLatenciesLogLinearly() {
+        for (long millis : new long[]{0, 1, 7, 8, 9, 15, 16, 17, 100, 1_000, 65_535, 250_000}) {
+            long upperBound = MarketLatencyHistogram.bucketUpperBound(MarketLatencyHistogram.bucketIndex(millis));
+            assertThat(upperBound).isGreaterThanOrEqualTo(millis);
+            assertThat(upperBound).isLessThanOrEqualTo(millis + Math.max(0, millis / MarketLatencyHistogram.SUB_BUCKETS));
+        }
+        assertThat(MarketLatencyHistogram.bucketIndex(Long.MAX_VALUE)).isEqualTo(MarketLatencyHistogram.BUCKETS - 1);
+    }
+
+    private static long millis(long millis) {
+        return Duration.ofMillis(millis).toNanos();
+    }
+}
@@ -0,0 +1,91 @@
+package io.artur.interview.kanga.spread_ranking.performance;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assumptions.assumeThat;
+
+/**
+ * Measures bytes allocated per operation on the calling thread with
+ * {@link com.sun.management.ThreadMXBean#getCurrentThreadAllocatedBytes()} and checks them against the budgets
+ * in {@code performance/allocation-budgets.properties}. A budget can be overridden with
+ * {@code -Dallocation.budget.<name>=<bytes>}.
+ * <p>
+ * Operations are warmed up first so the JIT has compiled them, and the application loggers are held at INFO,
+ * the production level, while measuring.
+ */
+@Slf4j
+public final class AllocationBudget {
+
+    private static final String BUDGETS_RESOURCE = "/performance/allocation-budgets.properties";
+    private static final String APPLICATION_LOGGER = "io.artur.interview.kanga.spread_ranking";
+    private static final int WARMUP_ITERATIONS = 50_000;
+    private static final int MEASURED_ITERATIONS = 10_000;
+    private static final Properties BUDGETS = loadBudgets();
+
+    private AllocationBudget() {
+    }
+
+    public static void assertWithinBudget(String name, Runnable operation) {
+        long budget = budget(name);
+        long allocated = bytesPerOperation(operation);
+        log.info("Allocation of {}: {} B/op, budget {} B/op", name, allocated, budget);
+        assertThat(allocated)
+                .as("bytes allocated per %s, budget from %s", name, BUDGETS_RESOURCE)
+                .isLessThanOrEqualTo(budget);
+    }
+
+    static long bytesPerOperation(Runnable operation) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeThat(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled())
+                .as("thread allocation accounting available")
+                .isTrue();
+
+        Logger applicationLogger = (Logger) LoggerFactory.getLogger(APPLICATION_LOGGER);
+        Level previousLevel = applicationLogger.getLevel();
+        applicationLogger.setLevel(Level.INFO);
+        try {
+            for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+                operation.run();
+            }
+            long before = threads.getCurrentThreadAllocatedBytes();
+            for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+                operation.run();
+            }
+            long after = threads.getCurrentThreadAllocatedBytes();
+            return (after - before) / MEASURED_ITERATIONS;
+        } finally {
+            applicationLogger.setLevel(previousLevel);
+        }
+    }
+
+    private static long budget(String name) {
+        String value = System.getProperty("allocation.budget." + name, BUDGETS.getProperty(name));
+        if (value == null) {
+            throw new IllegalStateException("No allocation budget for " + name + " in " + BUDGETS_RESOURCE);
+        }
+        return Long.parseLong(value.trim());
+    }
+
+    private static Properties loadBudgets() {
+        Properties budgets = new Properties();
+        try (InputStream input = AllocationBudget.class.getResourceAsStream(BUDGETS_RESOURCE)) {
+            if (input == null) {
+                throw new IllegalStateException("Missing " + BUDGETS_RESOURCE);
+            }
+            budgets.load(input);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return budgets;
+    }
+}
@@ -0,0 +1,65 @@
+package io.artur.interview.kanga.spread_ranking.performance;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Open-loop HTTP load generator: requests are sent at a fixed rate regardless of how fast responses come back,
+ * each on its own virtual thread. Responses with a status of 400 or above count as failures.
+ */
+final class LoadGenerator {
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    LoadResult run(Supplier<HttpRequest> requests, int ratePerSecond, Duration duration) {
+        int total = (int) (ratePerSecond * duration.toMillis() / 1000);
+        long intervalNanos = 1_000_000_000L / ratePerSecond;
+        long[] latencyNanos = new long[total];
+        AtomicInteger failures = new AtomicInteger();
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < total; i++) {
+                long intendedStart = start + i * intervalNanos;
+                waitUntil(intendedStart);
+                int index = i;
+                HttpRequest request = requests.get();
+                executor.execute(() -> {
+                    try {
+                        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 400) {
+                            failures.incrementAndGet();
+                        }
+                    } catch (IOException ex) {
+                        failures.incrementAndGet();
+                    } catch (InterruptedException ex) {
+                        failures.incrementAndGet();
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        latencyNanos[index] = System.nanoTime() - intendedStart;
+                    }
+                });
+            }
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        return LoadResult.of(latencyNanos, failures.get(), elapsed);
+    }
+
+    private static void waitUntil(long nanoTime) {
+        long remaining;
+        while ((remaining = nanoTime - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
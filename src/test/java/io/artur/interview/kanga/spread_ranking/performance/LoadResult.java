@@ -0,0 +1,55 @@
+package io.artur.interview.kanga.spread_ranking.performance;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Outcome of a {@link LoadGenerator} run. Latencies are measured from the intended send time,
+ * so a server that falls behind the target rate shows up in the tail instead of lowering the rate.
+ */
+record LoadResult(int requests, int failures, Duration elapsed,
+                  long p50Nanos, long p99Nanos, long p999Nanos, long maxNanos) {
+
+    static LoadResult of(long[] latencyNanos, int failures, Duration elapsed) {
+        long[] sorted = latencyNanos.clone();
+        Arrays.sort(sorted);
+        return new LoadResult(sorted.length, failures, elapsed,
+                percentile(sorted, 0.5), percentile(sorted, 0.99), percentile(sorted, 0.999),
+                sorted.length > 0 ? sorted[sorted.length - 1] : 0);
+    }
+
+    double throughput() {
+        return requests / (elapsed.toNanos() / 1e9);
+    }
+
+    double errorRate() {
+        return requests > 0 ? (double) failures / requests : 0.0;
+    }
+
+    double p50Millis() {
+        return p50Nanos / 1e6;
+    }
+
+    double p99Millis() {
+        return p99Nanos / 1e6;
+    }
+
+    double p999Millis() {
+        return p999Nanos / 1e6;
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(quantile * sorted.length);
+        return sorted[Math.max(rank - 1, 0)];
+    }
+
+    @Override
+    public String toString() {
+        return "%d requests (%d failed) in %d ms: %.1f req/s, p50 %.1f ms, p99 %.1f ms, p999 %.1f ms, max %.1f ms"
+                .formatted(requests, failures, elapsed.toMillis(), throughput(),
+                        p50Millis(), p99Millis(), p999Millis(), maxNanos / 1e6);
+    }
+}
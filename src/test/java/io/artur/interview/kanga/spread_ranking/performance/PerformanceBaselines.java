@@ -0,0 +1,93 @@
+package io.artur.interview.kanga.spread_ranking.performance;
+
+import org.assertj.core.api.SoftAssertions;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+/**
+ * Compares load test results with the baselines stored in {@code performance/baselines.properties}.
+ * <p>
+ * A scenario passes when its error rate and exchange request amplification are at most {@code (1 + tolerance)} of
+ * the baseline; the error rate limit gets a small absolute slack so a zero baseline does not make the gate flaky.
+ * Throughput and p99 latency depend on the machine running the test, so they are only reported unless
+ * {@code -Dload.gateTiming=true} also holds them to the baseline, on the hardware the baselines were measured on.
+ * Every run writes its measurements to {@code target/performance/<scenario>.properties} in the baseline format,
+ * ready to be copied over the stored baselines after an intended change.
+ */
+final class PerformanceBaselines {
+
+    private static final String BASELINES_RESOURCE = "/performance/baselines.properties";
+    private static final Path REPORT_DIRECTORY = Path.of("target", "performance");
+
+    private final Properties baselines = new Properties();
+    private final double tolerance = Double.parseDouble(System.getProperty("load.tolerance", "0.5"));
+    private final double latencySlackMillis = Double.parseDouble(System.getProperty("load.latencySlackMs", "25"));
+    private final boolean gateTiming = Boolean.getBoolean("load.gateTiming");
+    private final double errorRateSlack = Double.parseDouble(System.getProperty("load.errorRateSlack", "0.01"));
+
+    PerformanceBaselines() {
+        try (InputStream input = PerformanceBaselines.class.getResourceAsStream(BASELINES_RESOURCE)) {
+            if (input == null) {
+                throw new IllegalStateException("Missing " + BASELINES_RESOURCE);
+            }
+            baselines.load(input);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    void verify(String scenario, LoadResult result, double amplification) {
+        writeReport(scenario, result, amplification);
+
+        SoftAssertions softly = new SoftAssertions();
+        if (gateTiming) {
+            softly.assertThat(result.throughput())
+                    .as("%s throughput [req/s]", scenario)
+                    .isGreaterThanOrEqualTo(baseline(scenario, "throughput") * (1 - tolerance));
+            softly.assertThat(result.p99Millis())
+                    .as("%s p99 latency [ms]", scenario)
+                    .isLessThanOrEqualTo(baseline(scenario, "p99Ms") * (1 + tolerance) + latencySlackMillis);
+        }
+        softly.assertThat(result.errorRate())
+                .as("%s error rate", scenario)
+                .isLessThanOrEqualTo(baseline(scenario, "errorRate") * (1 + tolerance) + errorRateSlack);
+        softly.assertThat(amplification)
+                .as("%s exchange request amplification", scenario)
+                .isLessThanOrEqualTo(baseline(scenario, "amplification") * (1 + tolerance));
+        softly.assertAll();
+    }
+
+    private double baseline(String scenario, String metric) {
+        String key = scenario + "." + metric;
+        String value = baselines.getProperty(key);
+        if (value == null) {
+            throw new IllegalStateException("No baseline for " + key + " in " + BASELINES_RESOURCE);
+        }
+        return Double.parseDouble(value);
+    }
+
+    private static void writeReport(String scenario, LoadResult result, double amplification) {
+        Properties report = new Properties();
+        report.setProperty(scenario + ".throughput", "%.1f".formatted(result.throughput()));
+        report.setProperty(scenario + ".p50Ms", "%.1f".formatted(result.p50Millis()));
+        report.setProperty(scenario + ".p99Ms", "%.1f".formatted(result.p99Millis()));
+        report.setProperty(scenario + ".p999Ms", "%.1f".formatted(result.p999Millis()));
+        report.setProperty(scenario + ".errorRate", "%.4f".formatted(result.errorRate()));
+        report.setProperty(scenario + ".amplification", "%.3f".formatted(amplification));
+
+        try {
+            Files.createDirectories(REPORT_DIRECTORY);
+            try (OutputStream output = Files.newOutputStream(REPORT_DIRECTORY.resolve(scenario + ".properties"))) {
+                report.store(output, result.toString());
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
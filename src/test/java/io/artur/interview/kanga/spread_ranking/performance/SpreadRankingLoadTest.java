@@ -0,0 +1,141 @@
+package io.artur.interview.kanga.spread_ranking.performance;
+
+import io.artur.interview.kanga.spread_ranking.application.SpreadRankingService;
+import io.artur.interview.kanga.spread_ranking.domain.repository.SpreadRankingRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Performance regression gate: runs the whole service against a {@link SyntheticKangaExchange}
+ * and compares throughput, tail latency and exchange request amplification with stored baselines.
+ * <p>
+ * Tagged {@code load}, so it only runs with {@code ./mvnw -P performance test}.
+ * Rates, duration and exchange shape can be changed with {@code load.*} system properties.
+ */
+@Slf4j
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {
+    "app.security.api-token=" + SpreadRankingLoadTest.API_TOKEN,
+    "kanga.api.operation-timeout=PT2S",
+    "kanga.api.pipeline-timeout=PT10S",
+    "kanga.api.retry-count=1",
+    "logging.level.io.artur.interview.kanga.spread_ranking=WARN"
+})
+class SpreadRankingLoadTest {
+
+    static final String API_TOKEN = "LOAD_TEST_TOKEN";
+
+    private static final SyntheticKangaExchange exchange =
+            new SyntheticKangaExchange(SyntheticKangaExchange.Profile.fromSystemProperties());
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("load.warmupSeconds", 5));
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("load.durationSeconds", 10));
+
+    private final LoadGenerator loadGenerator = new LoadGenerator();
+    private final PerformanceBaselines baselines = new PerformanceBaselines();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private SpreadRankingRepository spreadRankingRepository;
+
+    @Autowired
+    private SpreadRankingService spreadRankingService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void exchangeProperties(DynamicPropertyRegistry registry) {
+        registry.add("kanga.api.base-url", exchange::baseUrl);
+    }
+
+    @AfterAll
+    static void stopExchange() {
+        exchange.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        spreadRankingRepository.clear();
+        exchange.resetRequestCount();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        awaitIdle();
+    }
+
+    private void awaitIdle() throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(60).toNanos();
+        while (meterRegistry.get("spread.calculation.jobs.active").gauge().value() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+    }
+
+    @Test
+    void rankingReadsShouldStayWithinBaseline() throws InterruptedException {
+        // given
+        int rate = Integer.getInteger("load.ranking.rate", 100);
+        // measure the steady state of a warm ranking, not the one calculation shared by the first reads
+        spreadRankingService.storeSpreadRanking(spreadRankingService.calculateSpreadRanking());
+        Supplier<HttpRequest> rankingRequest = () -> request("/api/spread/ranking").GET().build();
+        warmUp(rankingRequest, rate);
+
+        // when
+        LoadResult result = loadGenerator.run(rankingRequest, rate, DURATION);
+
+        // then
+        report("ranking-reads", result);
+    }
+
+    @Test
+    void calculationRequestsShouldStayWithinBaseline() throws InterruptedException {
+        // given
+        int rate = Integer.getInteger("load.calculate.rate", 20);
+        Supplier<HttpRequest> calculateRequest =
+                () -> request("/api/spread/calculate").POST(HttpRequest.BodyPublishers.noBody()).build();
+        warmUp(calculateRequest, rate);
+
+        // when
+        LoadResult result = loadGenerator.run(calculateRequest, rate, DURATION);
+
+        // then
+        report("calculate-requests", result);
+    }
+
+    private void warmUp(Supplier<HttpRequest> requests, int rate) throws InterruptedException {
+        log.info("Warming up for {}: {}", WARMUP, loadGenerator.run(requests, rate, WARMUP));
+        awaitIdle();
+        exchange.resetRequestCount();
+    }
+
+    private void report(String scenario, LoadResult result) {
+        double amplification = (double) exchange.requestCount() / result.requests();
+        log.info("{}: {}, exchange request amplification {}", scenario, result, "%.3f".formatted(amplification));
+        baselines.verify(scenario, result, amplification);
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + API_TOKEN);
+    }
+}
@@ -0,0 +1,187 @@
+package io.artur.interview.kanga.spread_ranking.performance;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.common.FileSource;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformer;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.StringJoiner;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+
+/**
+ * Local stand-in for the Kanga exchange serving synthetic market pairs and orderbooks.
+ * Every response is delayed by a log-normal latency, orderbook requests fail with HTTP 500
+ * at the configured error rate, and every orderbook has the configured number of levels per side.
+ * Data is generated from a fixed seed, so runs are reproducible.
+ */
+final class SyntheticKangaExchange implements AutoCloseable {
+
+    private static final String MARKET_PAIRS_PATH = "/market/pairs";
+    private static final String ORDERBOOK_PATH = "/market/orderbook/";
+    private static final String[] TARGET_CURRENCIES = {"USDT", "USDC", "BTC", "ETH", "PLN", "EUR"};
+
+    private final WireMockServer server;
+    private final LongAdder requestCount = new LongAdder();
+
+    /**
+     * @param pairs         number of market pairs served by {@code /market/pairs}
+     * @param medianLatency median of the log-normal response delay
+     * @param latencySigma  sigma of the log-normal response delay, 0 for a fixed delay
+     * @param errorRate     probability that an orderbook request fails with HTTP 500
+     * @param bookDepth     price levels per side of every orderbook
+     */
+    record Profile(int pairs, Duration medianLatency, double latencySigma, double errorRate, int bookDepth, long seed) {
+
+        static Profile fromSystemProperties() {
+            return new Profile(
+                    Integer.getInteger("load.exchange.pairs", 100),
+                    Duration.ofMillis(Long.getLong("load.exchange.medianLatencyMs", 10)),
+                    Double.parseDouble(System.getProperty("load.exchange.latencySigma", "0.5")),
+                    Double.parseDouble(System.getProperty("load.exchange.errorRate", "0.01")),
+                    Integer.getInteger("load.exchange.bookDepth", 20),
+                    Long.getLong("load.exchange.seed", 42L)
+            );
+        }
+    }
+
+    SyntheticKangaExchange(Profile profile) {
+        Random random = new Random(profile.seed());
+        StringJoiner pairs = new StringJoiner(",", "[", "]");
+        Map<String, String> orderBooks = new HashMap<>();
+        for (int i = 0; i < profile.pairs(); i++) {
+            String base = "C" + Integer.toString(i, 36).toUpperCase();
+            String target = TARGET_CURRENCIES[i % TARGET_CURRENCIES.length];
+            String tickerId = base + "_" + target;
+            pairs.add("{\"ticker_id\":\"%s\",\"base\":\"%s\",\"target\":\"%s\"}".formatted(tickerId, base, target));
+            orderBooks.put(tickerId, orderBook(tickerId, profile.bookDepth(), random));
+        }
+
+        server = new WireMockServer(options()
+                .dynamicPort()
+                .containerThreads(100)
+                .asynchronousResponseEnabled(true)
+                .asynchronousResponseThreads(50)
+                .disableRequestJournal()
+                .extensions(new OrderBookTransformer(orderBooks, profile.errorRate())));
+        server.addMockServiceRequestListener((request, response) -> requestCount.increment());
+        server.start();
+
+        server.stubFor(get(urlEqualTo(MARKET_PAIRS_PATH))
+                .willReturn(delayed(aResponse(), profile)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody(pairs.toString())));
+        server.stubFor(get(urlPathMatching(ORDERBOOK_PATH + ".+"))
+                .willReturn(delayed(aResponse(), profile)
+                        .withHeader("Content-Type", "application/json")
+                        .withTransformers(OrderBookTransformer.NAME)));
+    }
+
+    String baseUrl() {
+        return server.baseUrl();
+    }
+
+    long requestCount() {
+        return requestCount.sum();
+    }
+
+    void resetRequestCount() {
+        requestCount.reset();
+    }
+
+    @Override
+    public void close() {
+        server.stop();
+    }
+
+    private static ResponseDefinitionBuilder delayed(ResponseDefinitionBuilder response, Profile profile) {
+        long medianMillis = profile.medianLatency().toMillis();
+        if (medianMillis <= 0) {
+            return response;
+        }
+        return profile.latencySigma() > 0
+                ? response.withLogNormalRandomDelay(medianMillis, profile.latencySigma())
+                : response.withFixedDelay((int) medianMillis);
+    }
+
+    private static String orderBook(String tickerId, int depth, Random random) {
+        double mid = Math.pow(10, random.nextDouble() * 8 - 3);
+        double halfSpread = mid * random.nextDouble() * 0.025;
+        double tick = Math.max(mid * 0.0005, 1e-8);
+
+        StringJoiner bids = new StringJoiner(",", "[", "]");
+        StringJoiner asks = new StringJoiner(",", "[", "]");
+        for (int level = 0; level < depth; level++) {
+            bids.add(level(mid - halfSpread - level * tick, random));
+            asks.add(level(mid + halfSpread + level * tick, random));
+        }
+        return "{\"ticker_id\":\"%s\",\"bids\":%s,\"asks\":%s,\"timestamp\":1752586141000}"
+                .formatted(tickerId, bids, asks);
+    }
+
+    private static String level(double price, Random random) {
+        BigDecimal scaledPrice = BigDecimal.valueOf(Math.max(price, 1e-8)).setScale(8, RoundingMode.HALF_UP);
+        BigDecimal quantity = BigDecimal.valueOf(random.nextDouble() * 100).setScale(4, RoundingMode.HALF_UP);
+        return "[\"%s\",\"%s\"]".formatted(scaledPrice.toPlainString(), quantity.toPlainString());
+    }
+
+    private static final class OrderBookTransformer extends ResponseDefinitionTransformer {
+
+        private static final String NAME = "synthetic-orderbook";
+
+        private final Map<String, String> orderBooks;
+        private final double errorRate;
+
+        private OrderBookTransformer(Map<String, String> orderBooks, double errorRate) {
+            this.orderBooks = Map.copyOf(orderBooks);
+            this.errorRate = errorRate;
+        }
+
+        @Override
+        public ResponseDefinition transform(Request request, ResponseDefinition responseDefinition,
+                                            FileSource files, Parameters parameters) {
+            String body = orderBooks.get(request.getUrl().substring(ORDERBOOK_PATH.length()));
+            if (body == null) {
+                return ResponseDefinitionBuilder.like(responseDefinition)
+                        .withStatus(404)
+                        .withBody("{\"error\":\"Market not found\"}")
+                        .build();
+            }
+            if (ThreadLocalRandom.current().nextDouble() < errorRate) {
+                return ResponseDefinitionBuilder.like(responseDefinition)
+                        .withStatus(500)
+                        .withBody("{\"error\":\"Internal server error\"}")
+                        .build();
+            }
+            return ResponseDefinitionBuilder.like(responseDefinition)
+                    .withStatus(200)
+                    .withBody(body)
+                    .build();
+        }
+
+        @Override
+        public boolean applyGlobally() {
+            return false;
+        }
+
+        @Override
+        public String getName() {
+            return NAME;
+        }
+    }
+}